@@ -0,0 +1,53 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * The cookies decoded from a "Cookie" header value, indexed by name.
+ * Requests keep one of these once their cookies have been decoded.
+ */
+final class DecodedCookies {
+    private static final DecodedCookies NONE = new DecodedCookies(emptySet());
+
+    private final Set<RequestCookie> cookies;
+    private final Map<String, RequestCookie> byName;
+
+    private DecodedCookies(Set<RequestCookie> cookies) {
+        this.cookies = unmodifiableSet(cookies);
+        this.byName = new HashMap<>(cookies.size() * 2);
+        cookies.forEach(cookie -> byName.putIfAbsent(cookie.name(), cookie));
+    }
+
+    static DecodedCookies decode(String headerValue) {
+        return headerValue == null ? NONE : new DecodedCookies(RequestCookie.decode(headerValue));
+    }
+
+    Set<RequestCookie> cookies() {
+        return cookies;
+    }
+
+    Optional<RequestCookie> cookie(String name) {
+        return Optional.ofNullable(byName.get(name));
+    }
+}
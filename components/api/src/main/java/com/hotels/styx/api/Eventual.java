@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -76,6 +76,10 @@ public final class Eventual<T> implements Publisher<T> {
         return fromMono(Mono.error(error));
     }
 
+    Publisher<T> publisher() {
+        return publisher;
+    }
+
     private static <T> Eventual<T> fromMono(Mono<T> mono) {
         return new Eventual<>(mono);
     }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -51,6 +51,18 @@ public final class HttpHeaderNames {
     public static final CharSequence UPGRADE = newEntity(Names.UPGRADE);
     public static final CharSequence VIA = newEntity(Names.VIA);
     public static final CharSequence CACHE_CONTROL = newEntity(Names.CACHE_CONTROL);
+    public static final CharSequence PRAGMA = newEntity(Names.PRAGMA);
+    public static final CharSequence EXPIRES = newEntity(Names.EXPIRES);
+    public static final CharSequence AGE = newEntity(Names.AGE);
+    public static final CharSequence VARY = newEntity(Names.VARY);
+    public static final CharSequence ACCEPT_ENCODING = newEntity(Names.ACCEPT_ENCODING);
+    public static final CharSequence CONTENT_ENCODING = newEntity(Names.CONTENT_ENCODING);
+    public static final CharSequence ETAG = newEntity(Names.ETAG);
+    public static final CharSequence LAST_MODIFIED = newEntity(Names.LAST_MODIFIED);
+    public static final CharSequence IF_NONE_MATCH = newEntity(Names.IF_NONE_MATCH);
+    public static final CharSequence IF_MODIFIED_SINCE = newEntity(Names.IF_MODIFIED_SINCE);
+    public static final CharSequence AUTHORIZATION = newEntity(Names.AUTHORIZATION);
+    public static final CharSequence WARNING = newEntity(Names.WARNING);
 
     private HttpHeaderNames() {
     }
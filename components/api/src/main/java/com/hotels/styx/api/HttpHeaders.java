@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -150,6 +150,16 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
             this.nettyHeaders.set(headers.nettyHeaders);
         }
 
+        /**
+         * Takes ownership of the given Netty headers without copying them.
+         * The caller must not modify them afterwards.
+         *
+         * @param nettyHeaders validating Netty headers
+         */
+        Builder(DefaultHttpHeaders nettyHeaders) {
+            this.nettyHeaders = requireNonNull(nettyHeaders);
+        }
+
 
         public List<String> getAll(CharSequence name) {
             return this.nettyHeaders.getAll(name);
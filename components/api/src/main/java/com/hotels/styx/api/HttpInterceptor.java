@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,8 +15,11 @@
  */
 package com.hotels.styx.api;
 
+import reactor.core.publisher.Mono;
+
 import java.net.InetSocketAddress;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
 
 /**
@@ -74,6 +77,26 @@ public interface HttpInterceptor {
          * @return returns the netty executor which started handling the current request
          */
         Executor executor();
+
+        /**
+         * Runs a blocking task, such as a local file lookup or a call into a synchronous library,
+         * away from the event loop. The result is delivered on {@link #executor()}, so the
+         * interceptor can carry on as if the task had run in place.
+         * <p>
+         * The task runs when the returned {@link Eventual} is subscribed to. If too many tasks are
+         * already waiting, the {@link Eventual} fails with a
+         * {@link java.util.concurrent.RejectedExecutionException}, and the proxy responds with
+         * 503 Service Unavailable.
+         * <p>
+         * The default implementation runs the task on the subscribing thread.
+         *
+         * @param task blocking task
+         * @param <T>  type of result
+         * @return eventual result of the task. Empty if the task returns null.
+         */
+        default <T> Eventual<T> offload(Callable<T> task) {
+            return new Eventual<>(Mono.fromCallable(task));
+        }
     }
 
     /**
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ import com.google.common.collect.ImmutableSet;
 import reactor.core.publisher.Flux;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -44,6 +43,7 @@ import static com.hotels.styx.api.HttpVersion.HTTP_1_1;
 import static com.hotels.styx.api.HttpVersion.httpVersion;
 import static com.hotels.styx.api.RequestCookie.decode;
 import static com.hotels.styx.api.RequestCookie.encode;
+import static com.hotels.styx.api.RequestCookie.requestCookie;
 import static io.netty.buffer.ByteBufUtil.getBytes;
 import static io.netty.buffer.Unpooled.copiedBuffer;
 import static java.lang.Long.parseLong;
@@ -97,6 +97,7 @@ public class LiveHttpRequest implements LiveHttpMessage {
     private final HttpMethod method;
     private final Url url;
     private final HttpHeaders headers;
+    private volatile DecodedCookies decodedCookies;
     private final ByteStream body;
 
     LiveHttpRequest(Builder builder) {
@@ -363,25 +364,51 @@ public class LiveHttpRequest implements LiveHttpMessage {
 
     /**
      * Decodes the "Cookie" header in this request and returns the cookies.
+     * The header is decoded once and the result is cached on this request.
      *
-     * @return a set of cookies
+     * @return an unmodifiable set of cookies
      */
     public Set<RequestCookie> cookies() {
-        return headers.get(COOKIE)
-                .map(RequestCookie::decode)
-                .orElseGet(Collections::emptySet);
+        return decodedCookies().cookies();
     }
 
     /**
-     * Decodes the "Cookie" header in this request and returns the specified cookie.
+     * Returns the specified cookie from the "Cookie" header in this request.
+     * Unless the cookies have already been decoded, only the named cookie is looked up.
      *
      * @param name cookie name
      * @return an optional cookie
      */
     public Optional<RequestCookie> cookie(String name) {
-        return cookies().stream()
-                .filter(cookie -> cookie.name().equals(name))
-                .findFirst();
+        DecodedCookies decoded = decodedCookies;
+        if (decoded != null) {
+            return decoded.cookie(name);
+        }
+        return cookieValue(name).map(value -> requestCookie(name, value));
+    }
+
+    /**
+     * Returns the value of the specified cookie from the "Cookie" header in this request,
+     * without decoding any other cookies.
+     *
+     * @param name cookie name
+     * @return an optional cookie value
+     */
+    public Optional<String> cookieValue(String name) {
+        DecodedCookies decoded = decodedCookies;
+        if (decoded != null) {
+            return decoded.cookie(name).map(RequestCookie::value);
+        }
+        return Optional.ofNullable(RequestCookie.findValue(headers.get(COOKIE).orElse(null), name));
+    }
+
+    private DecodedCookies decodedCookies() {
+        DecodedCookies decoded = decodedCookies;
+        if (decoded == null) {
+            decoded = DecodedCookies.decode(headers.get(COOKIE).orElse(null));
+            decodedCookies = decoded;
+        }
+        return decoded;
     }
 
     @Override
@@ -660,6 +687,8 @@ public class LiveHttpRequest implements LiveHttpMessage {
      * An HTTP request builder.
      */
     public static final class Builder implements BuilderTransformer {
+        private static final Url ROOT_URL = Url.Builder.url("/").build();
+
         private Object id;
         private HttpMethod method = HttpMethod.GET;
         private boolean validate = true;
@@ -672,7 +701,7 @@ public class LiveHttpRequest implements LiveHttpMessage {
          * Creates a new {@link Builder} object with default attributes.
          */
         public Builder() {
-            this.url = Url.Builder.url("/").build();
+            this.url = ROOT_URL;
             this.headers = new HttpHeaders.Builder();
             this.body = new ByteStream(Flux.empty());
         }
@@ -783,6 +812,11 @@ public class LiveHttpRequest implements LiveHttpMessage {
             return this;
         }
 
+        Builder headersBuilder(HttpHeaders.Builder headers) {
+            this.headers = requireNonNull(headers);
+            return this;
+        }
+
         /**
          * Adds a new header with the specified {@code name} and {@code value}.
          * <p/>
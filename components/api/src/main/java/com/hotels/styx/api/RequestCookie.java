@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -38,6 +38,11 @@ import static java.util.stream.Collectors.toSet;
  *
  */
 public final class RequestCookie {
+    private static final String RFC2965_VERSION = "$Version";
+    private static final String RFC2965_PATH = "$Path";
+    private static final String RFC2965_DOMAIN = "$Domain";
+    private static final String RFC2965_PORT = "$Port";
+
     private final String name;
     private final String value;
     private final int hashCode;
@@ -87,6 +92,104 @@ public final class RequestCookie {
                 .collect(toSet());
     }
 
+    /**
+     * Finds the value of one cookie in a "Cookie" header value without decoding the other cookies.
+     * The result is the same as the value of the cookie with that name in {@link #decode(String)}:
+     * the first well-formed occurrence wins.
+     *
+     * @param headerValue "Cookie" header value, may be null
+     * @param name        cookie name
+     * @return cookie value, or null if absent
+     */
+    static String findValue(String headerValue, String name) {
+        if (headerValue == null) {
+            return null;
+        }
+
+        int length = headerValue.length();
+        boolean rfc2965 = headerValue.regionMatches(true, 0, RFC2965_VERSION, 0, RFC2965_VERSION.length());
+        int i = rfc2965 ? headerValue.indexOf(';') + 1 : 0;
+
+        while (true) {
+            int nameBegin = skipSeparators(headerValue, i);
+            if (nameBegin == length) {
+                return null;
+            }
+
+            int nameEnd = nameEnd(headerValue, nameBegin);
+            if (nameEnd == length || headerValue.charAt(nameEnd) == ';') {
+                // A cookie without a value is ignored by the decoder.
+                i = nameEnd;
+                continue;
+            }
+
+            int valueBegin = nameEnd + 1;
+            int semicolon = headerValue.indexOf(';', valueBegin);
+            int valueEnd = semicolon > 0 ? semicolon : length;
+
+            if (nameMatches(headerValue, nameBegin, nameEnd, name, rfc2965) && hasBalancedQuotes(headerValue, valueBegin, valueEnd)) {
+                return headerValue.substring(valueBegin, valueEnd);
+            }
+            i = valueEnd;
+        }
+    }
+
+    private static boolean nameMatches(String headerValue, int nameBegin, int nameEnd, String name, boolean rfc2965) {
+        // The decoder drops cookies with empty names, so they can never be found.
+        int trimmedNameEnd = trimTrailingWhitespace(headerValue, nameBegin, nameEnd);
+        return !name.isEmpty()
+                && trimmedNameEnd - nameBegin == name.length()
+                && headerValue.regionMatches(nameBegin, name, 0, name.length())
+                && !(rfc2965 && isRfc2965Attribute(headerValue, nameBegin));
+    }
+
+    private static int skipSeparators(String headerValue, int from) {
+        int i = from;
+        while (i < headerValue.length() && isSeparator(headerValue.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSeparator(char c) {
+        return isWhitespace(c) || c == ',' || c == ';';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == '\t' || c == '\n' || c == 0x0b || c == '\f' || c == '\r' || c == ' ';
+    }
+
+    private static int trimTrailingWhitespace(String headerValue, int begin, int end) {
+        int i = end;
+        while (i > begin && isWhitespace(headerValue.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static int nameEnd(String headerValue, int nameBegin) {
+        for (int i = nameBegin; i < headerValue.length(); i++) {
+            char c = headerValue.charAt(i);
+            if (c == ';' || c == '=') {
+                return i;
+            }
+        }
+        return headerValue.length();
+    }
+
+    private static boolean isRfc2965Attribute(String headerValue, int nameBegin) {
+        return headerValue.regionMatches(nameBegin, RFC2965_PATH, 0, RFC2965_PATH.length())
+                || headerValue.regionMatches(nameBegin, RFC2965_DOMAIN, 0, RFC2965_DOMAIN.length())
+                || headerValue.regionMatches(nameBegin, RFC2965_PORT, 0, RFC2965_PORT.length());
+    }
+
+    private static boolean hasBalancedQuotes(String headerValue, int valueBegin, int valueEnd) {
+        int length = valueEnd - valueBegin;
+        return length == 0
+                || headerValue.charAt(valueBegin) != '"'
+                || (length >= 2 && headerValue.charAt(valueEnd - 1) == '"');
+    }
+
     /**
      * Encodes a collection of {@link RequestCookie} objects into a "Cookie" header value.
      *
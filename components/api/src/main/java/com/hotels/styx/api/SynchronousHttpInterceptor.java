@@ -0,0 +1,103 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api;
+
+import java.util.Optional;
+
+/**
+ * An {@link HttpInterceptor} that transforms requests and responses synchronously, for example
+ * by adding or removing headers.
+ * <p>
+ * Styx runs consecutive synchronous interceptors in one step, without creating a reactive
+ * stage or chain object for each of them. {@link #onRequest} is called in pipeline order
+ * before the request is passed on, and {@link #onResponse} in reverse order once the
+ * response headers arrive. A response that fails bypasses {@link #onResponse}.
+ * <p>
+ * Implementations must not block. Interceptors that need to wait for something, or that
+ * must see errors, should implement {@link HttpInterceptor#intercept} instead. An implementation
+ * that overrides {@link #intercept} is always run through it, and its callbacks are left to it.
+ */
+public interface SynchronousHttpInterceptor extends HttpInterceptor {
+    /**
+     * Transforms a request before it is passed on.
+     *
+     * @param request an HTTP request
+     * @param context request context
+     * @return the request to pass on
+     */
+    default LiveHttpRequest onRequest(LiveHttpRequest request, Context context) {
+        return request;
+    }
+
+    /**
+     * Transforms a response on its way back.
+     *
+     * @param request  the request returned by {@link #onRequest}
+     * @param response an HTTP response
+     * @param context  request context
+     * @return the response to return
+     */
+    default LiveHttpResponse onResponse(LiveHttpRequest request, LiveHttpResponse response, Context context) {
+        return response;
+    }
+
+    @Override
+    default Eventual<LiveHttpResponse> intercept(LiveHttpRequest request, Chain chain) {
+        LiveHttpRequest transformed = onRequest(request, chain.context());
+        return chain.proceed(transformed)
+                .map(response -> onResponse(transformed, response, chain.context()));
+    }
+
+    /**
+     * Returns the synchronous form of an interceptor, if it has one. That is the interceptor
+     * itself if it implements this interface without overriding {@link #intercept}, or the
+     * form offered by a {@link Provider}.
+     *
+     * @param interceptor an interceptor
+     * @return synchronous form, if available
+     */
+    static Optional<SynchronousHttpInterceptor> synchronousForm(HttpInterceptor interceptor) {
+        if (interceptor instanceof Provider) {
+            return ((Provider) interceptor).synchronousInterceptor();
+        }
+        if (interceptor instanceof SynchronousHttpInterceptor && !overridesIntercept(interceptor)) {
+            return Optional.of((SynchronousHttpInterceptor) interceptor);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean overridesIntercept(HttpInterceptor interceptor) {
+        try {
+            return interceptor.getClass().getMethod("intercept", LiveHttpRequest.class, Chain.class)
+                    .getDeclaringClass() != SynchronousHttpInterceptor.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * An interceptor that wraps another, and can offer a synchronous form of itself when the
+     * wrapped interceptor has one.
+     */
+    interface Provider {
+        /**
+         * Returns a synchronous form of this interceptor, if available.
+         *
+         * @return synchronous interceptor, if available
+         */
+        Optional<SynchronousHttpInterceptor> synchronousInterceptor();
+    }
+}
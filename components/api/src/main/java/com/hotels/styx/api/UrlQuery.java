@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -31,23 +31,43 @@ import static java.util.stream.StreamSupport.stream;
 
 /**
  * Query part of a URL.
+ * <p>
+ * A query built from a raw query string is only decoded when its parameters or
+ * encoded form are first needed.
  */
 final class UrlQuery {
-    private final List<Parameter> parameters;
-    private final String encodedQuery;
+    private final String rawQuery;
+    private volatile Parsed parsed;
 
     private UrlQuery(List<Parameter> parameters) {
-        this.parameters = unmodifiableList(new ArrayList<>(parameters));
-
-        QueryStringEncoder encoder = new QueryStringEncoder("", UTF_8);
+        this.rawQuery = null;
+        this.parsed = new Parsed(parameters);
+    }
 
-        parameters.forEach(parameter -> encoder.addParam(parameter.key, parameter.value));
+    private UrlQuery(String rawQuery) {
+        this.rawQuery = rawQuery;
+    }
 
-        this.encodedQuery = removeInitialCharacter(encoder.toString()); // remove initial '?' character
+    private Parsed parsed() {
+        Parsed result = parsed;
+        if (result == null) {
+            result = new Parsed(decode(rawQuery));
+            parsed = result;
+        }
+        return result;
     }
 
-    private String removeInitialCharacter(String encodedQuery) {
-        return encodedQuery.isEmpty() ? "" : encodedQuery.substring(1);
+    private static List<Parameter> decode(String rawQuery) {
+        QueryStringDecoder decoder = new QueryStringDecoder(rawQuery, UTF_8, false);
+
+        return decoder.parameters().entrySet().stream()
+                .flatMap(entry -> {
+                    List<String> values = entry.getValue();
+
+                    return values.stream()
+                            .map(value -> new Parameter(entry.getKey(), value));
+                })
+                .collect(toList());
     }
 
     Optional<String> parameterValue(String name) {
@@ -62,7 +82,7 @@ final class UrlQuery {
     }
 
     List<Parameter> parameters() {
-        return parameters;
+        return parsed().parameters;
     }
 
     /**
@@ -75,7 +95,7 @@ final class UrlQuery {
     }
 
     String encodedQuery() {
-        return encodedQuery;
+        return parsed().encodedQuery;
     }
 
     Builder newBuilder() {
@@ -91,12 +111,12 @@ final class UrlQuery {
             return false;
         }
         UrlQuery query = (UrlQuery) o;
-        return Objects.equals(encodedQuery, query.encodedQuery);
+        return Objects.equals(encodedQuery(), query.encodedQuery());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(encodedQuery);
+        return Objects.hash(encodedQuery());
     }
 
     @Override
@@ -104,13 +124,32 @@ final class UrlQuery {
         return new StringBuilder(64)
                 .append(this.getClass().getSimpleName())
                 .append("{parameters=")
-                .append(parameters)
+                .append(parameters())
                 .append(", encodedQuery=")
-                .append(encodedQuery)
+                .append(encodedQuery())
                 .append('}')
                 .toString();
     }
 
+    private static final class Parsed {
+        private final List<Parameter> parameters;
+        private final String encodedQuery;
+
+        Parsed(List<Parameter> parameters) {
+            this.parameters = unmodifiableList(new ArrayList<>(parameters));
+
+            QueryStringEncoder encoder = new QueryStringEncoder("", UTF_8);
+
+            parameters.forEach(parameter -> encoder.addParam(parameter.key, parameter.value));
+
+            this.encodedQuery = removeInitialCharacter(encoder.toString()); // remove initial '?' character
+        }
+
+        private static String removeInitialCharacter(String encodedQuery) {
+            return encodedQuery.isEmpty() ? "" : encodedQuery.substring(1);
+        }
+    }
+
     static class Parameter {
         private final String key;
         private final String value;
@@ -153,6 +192,7 @@ final class UrlQuery {
     }
 
     static class Builder {
+        private String rawQuery;
         private List<Parameter> parameters;
 
         Builder() {
@@ -160,30 +200,22 @@ final class UrlQuery {
         }
 
         Builder(String rawQuery) {
-            if (rawQuery != null) {
-                populateParametersFrom(rawQuery);
-            }
+            this.rawQuery = rawQuery;
         }
 
         Builder(UrlQuery query) {
-            this.parameters = new ArrayList<>(query.parameters());
-        }
-
-        private void populateParametersFrom(String rawQuery) {
-            QueryStringDecoder decoder = new QueryStringDecoder(rawQuery, UTF_8, false);
-
-            parameters = decoder.parameters().entrySet().stream()
-                    .flatMap(entry -> {
-                        List<String> values = entry.getValue();
-
-                        return values.stream()
-                                .map(value -> new Parameter(entry.getKey(), value));
-                    })
-                    .collect(toList());
+            if (query.parsed == null) {
+                this.rawQuery = query.rawQuery;
+            } else {
+                this.parameters = new ArrayList<>(query.parameters());
+            }
         }
 
         Builder addParam(String name, String value) {
-            if (parameters == null) {
+            if (rawQuery != null) {
+                parameters = new ArrayList<>(decode(rawQuery));
+                rawQuery = null;
+            } else if (parameters == null) {
                 parameters = new ArrayList<>();
             }
 
@@ -192,6 +224,9 @@ final class UrlQuery {
         }
 
         UrlQuery build() {
+            if (rawQuery != null) {
+                return new UrlQuery(rawQuery);
+            }
             return new UrlQuery(parameters == null ? emptyList() : parameters);
         }
     }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
 import static com.hotels.styx.api.HttpHeader.header;
+import static com.hotels.styx.api.HttpHeaderNames.COOKIE;
 import static com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH;
 import static com.hotels.styx.api.HttpHeaderNames.HOST;
 import static com.hotels.styx.api.HttpMethod.GET;
@@ -55,6 +56,7 @@ import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -269,6 +271,40 @@ public class LiveHttpRequestTest {
                 requestCookie("cookie3", "baz")));
     }
 
+    @Test
+    public void decodesCookiesOnce() {
+        LiveHttpRequest request = get("/")
+                .header(COOKIE, "cookie1=foo; cookie2=bar")
+                .build();
+
+        assertThat(request.cookies(), is(sameInstance(request.cookies())));
+        assertThat(request.cookie("cookie2"), isValue(requestCookie("cookie2", "bar")));
+        assertThrows(UnsupportedOperationException.class, () -> request.cookies().clear());
+    }
+
+    @Test
+    public void looksUpSingleCookieValues() {
+        LiveHttpRequest request = get("/")
+                .header(COOKIE, "cookie1=foo; cookie2=\"bar\"; cookie1=ignored")
+                .build();
+
+        assertThat(request.cookieValue("cookie1"), isValue("foo"));
+        assertThat(request.cookieValue("cookie2"), isValue("\"bar\""));
+        assertThat(request.cookieValue("cookie3"), isAbsent());
+        assertThat(request.cookie("cookie1"), isValue(requestCookie("cookie1", "foo")));
+    }
+
+    @Test
+    public void cookiesReflectHeaderChangesInNewBuilder() {
+        LiveHttpRequest request = get("/").cookies(requestCookie("cookie1", "foo")).build();
+        request.cookies();
+
+        LiveHttpRequest modified = request.newBuilder().addCookies(requestCookie("cookie1", "bar")).build();
+
+        assertThat(modified.cookieValue("cookie1"), isValue("bar"));
+        assertThat(modified.cookies(), contains(requestCookie("cookie1", "bar")));
+    }
+
     @Test
     public void extractsEmptyIterableIfCookieHeaderNotSet() {
         LiveHttpRequest request = get("/").build();
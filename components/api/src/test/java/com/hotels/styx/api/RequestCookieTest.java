@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,10 +18,16 @@ package com.hotels.styx.api;
 import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+
+import static com.hotels.styx.api.HttpHeaderNames.COOKIE;
+import static com.hotels.styx.api.RequestCookie.decode;
 import static com.hotels.styx.api.RequestCookie.encode;
+import static com.hotels.styx.api.RequestCookie.findValue;
 import static com.hotels.styx.api.RequestCookie.requestCookie;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class RequestCookieTest {
@@ -52,4 +58,55 @@ public class RequestCookieTest {
 
         assertThat(encoded, is("bar=foo; foo=bar"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findsSameValuesAsDecode() {
+        String[] headers = {
+                "",
+                "a=1",
+                "a=1; b=2; c=3",
+                "a=1;b=2 ,c=3",
+                "  a=1 ;\tb = 2",
+                "a=1; a=2",
+                "a=\"1; a=2",
+                "a=\"quoted\"; b=\"\"",
+                "a; b=2",
+                "=1; a=3",
+                "a=",
+                "a=1=2; b",
+                "ab=1; a=2; b=3",
+                "$Version=1; a=1; $Path=/; b=2; $Domain=x; $Port=80",
+                "$Version=1",
+                "a=x y z;b=%20",
+                "b\t\t=2; c =3",
+                "a b=1; b,=2",
+                "x=1, y=2"
+        };
+
+        for (String header : headers) {
+            for (String name : new String[]{"", "a", "b", "c", "ab", "a b", "b,", "x", "y", "$Path", "$Version", "b ", "missing"}) {
+                String expected = decode(header).stream()
+                        .filter(cookie -> cookie.name().equals(name))
+                        .map(RequestCookie::value)
+                        .findFirst()
+                        .orElse(null);
+
+                assertThat(header + " / " + name, findValue(header, name), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void findsNothingInAbsentHeader() {
+        assertThat(findValue(null, "a"), is(nullValue()));
+    }
+
+    @Test
+    public void findsNothingForAnEmptyName() {
+        assertThat(findValue("=1", ""), is(nullValue()));
+        assertThat(findValue("a=1; =2", ""), is(nullValue()));
+
+        assertThat(HttpRequest.get("/").header(COOKIE, "=1").build().cookie(""), is(Optional.empty()));
+        assertThat(LiveHttpRequest.get("/").header(COOKIE, "=1").build().cookie(""), is(Optional.empty()));
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -115,4 +115,28 @@ public class UrlQueryTest {
         assertThat(query.encodedQuery(), is(""));
         assertThat(query.parameters().isEmpty(), is(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void rawQueryIsCarriedUnparsedThroughNewBuilder() {
+        UrlQuery raw = new UrlQuery.Builder("foo=alpha&bar=beta&foo=gamma").build();
+        UrlQuery copy = raw.newBuilder().build();
+
+        assertThat(copy, equalTo(raw));
+        assertThat(copy.encodedQuery(), is("foo=alpha&foo=gamma&bar=beta"));
+    }
+
+    @Test
+    public void addingParameterToRawQueryDecodesItFirst() {
+        UrlQuery newQuery = new UrlQuery.Builder("foo=alpha&bar=beta")
+                .build()
+                .newBuilder()
+                .addParam("baz", "gamma")
+                .build();
+
+        assertThat(newQuery.parameters(), contains(
+                new Parameter("foo", "alpha"),
+                new Parameter("bar", "beta"),
+                new Parameter("baz", "gamma")
+        ));
+    }
+}
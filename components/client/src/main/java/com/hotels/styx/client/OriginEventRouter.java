@@ -0,0 +1,171 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.hotels.styx.api.Id;
+import com.hotels.styx.api.extension.OriginsChangeListener;
+import com.hotels.styx.api.extension.OriginsSnapshot;
+import com.hotels.styx.client.origincommands.DisableOrigin;
+import com.hotels.styx.client.origincommands.EnableOrigin;
+import com.hotels.styx.client.origincommands.GetOriginsInventorySnapshot;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Routes origin commands and origin snapshots between the origins inventories and their observers.
+ * <p>
+ * Commands are delivered only to the inventories of the application they name. Snapshots are
+ * delivered to the listeners of their application, and to the listeners of all applications.
+ * <p>
+ * Snapshots are delivered asynchronously on the executor, which must run tasks one at a time in
+ * submission order. If several snapshots for an application are published before the first one is
+ * delivered, only the latest is delivered.
+ */
+public class OriginEventRouter {
+    private static final Logger LOG = getLogger(OriginEventRouter.class);
+
+    private final Executor executor;
+    private final Map<Id, Set<OriginsCommandsListener>> commandListeners = new ConcurrentHashMap<>();
+    private final Map<Id, Set<OriginsChangeListener>> appSnapshotListeners = new ConcurrentHashMap<>();
+    private final Set<OriginsChangeListener> snapshotListeners = new CopyOnWriteArraySet<>();
+    private final Map<Id, OriginsSnapshot> pendingSnapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an instance that delivers snapshots on the publishing thread.
+     */
+    public OriginEventRouter() {
+        this(Runnable::run);
+    }
+
+    /**
+     * Constructs an instance that delivers snapshots on an executor.
+     *
+     * @param executor a serial executor
+     */
+    public OriginEventRouter(Executor executor) {
+        this.executor = requireNonNull(executor);
+    }
+
+    public void addCommandListener(Id appId, OriginsCommandsListener listener) {
+        add(commandListeners, appId, listener);
+    }
+
+    public void removeCommandListener(Id appId, OriginsCommandsListener listener) {
+        remove(commandListeners, appId, listener);
+    }
+
+    /**
+     * Adds a listener for the snapshots of all applications.
+     *
+     * @param listener listener
+     */
+    public void addSnapshotListener(OriginsChangeListener listener) {
+        snapshotListeners.add(requireNonNull(listener));
+    }
+
+    public void removeSnapshotListener(OriginsChangeListener listener) {
+        snapshotListeners.remove(listener);
+    }
+
+    /**
+     * Adds a listener for the snapshots of one application.
+     *
+     * @param appId    application ID
+     * @param listener listener
+     */
+    public void addSnapshotListener(Id appId, OriginsChangeListener listener) {
+        add(appSnapshotListeners, appId, listener);
+    }
+
+    public void removeSnapshotListener(Id appId, OriginsChangeListener listener) {
+        remove(appSnapshotListeners, appId, listener);
+    }
+
+    public void send(EnableOrigin command) {
+        deliver(commandListeners.get(command.appId()), listener -> listener.onCommand(command));
+    }
+
+    public void send(DisableOrigin command) {
+        deliver(commandListeners.get(command.appId()), listener -> listener.onCommand(command));
+    }
+
+    /**
+     * Asks every origins inventory to publish a snapshot of its current state.
+     */
+    public void requestSnapshots() {
+        GetOriginsInventorySnapshot command = new GetOriginsInventorySnapshot();
+        commandListeners.values().forEach(listeners -> deliver(listeners, listener -> listener.onCommand(command)));
+    }
+
+    public void publish(OriginsSnapshot snapshot) {
+        Id appId = snapshot.appId();
+        if (pendingSnapshots.put(appId, snapshot) == null) {
+            try {
+                executor.execute(() -> deliverPendingSnapshot(appId));
+            } catch (RejectedExecutionException e) {
+                pendingSnapshots.remove(appId);
+                LOG.warn("Origins snapshot not delivered. appId={}", appId);
+            }
+        }
+    }
+
+    private void deliverPendingSnapshot(Id appId) {
+        OriginsSnapshot snapshot = pendingSnapshots.remove(appId);
+        if (snapshot != null) {
+            deliver(appSnapshotListeners.get(appId), listener -> listener.originsChanged(snapshot));
+            deliver(snapshotListeners, listener -> listener.originsChanged(snapshot));
+        }
+    }
+
+    private static <T> void deliver(Set<T> listeners, Consumer<T> action) {
+        if (listeners == null) {
+            return;
+        }
+        for (T listener : listeners) {
+            try {
+                action.accept(listener);
+            } catch (RuntimeException e) {
+                LOG.error("Origin event listener failed. listener={}", listener, e);
+            }
+        }
+    }
+
+    private static <T> void add(Map<Id, Set<T>> listeners, Id appId, T listener) {
+        requireNonNull(listener);
+        listeners.compute(appId, (id, set) -> {
+            Set<T> updated = set == null ? new CopyOnWriteArraySet<>() : set;
+            updated.add(listener);
+            return updated;
+        });
+    }
+
+    private static <T> void remove(Map<Id, Set<T>> listeners, Id appId, T listener) {
+        listeners.computeIfPresent(appId, (id, set) -> {
+            set.remove(listener);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
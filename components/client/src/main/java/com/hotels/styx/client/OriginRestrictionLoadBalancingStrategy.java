@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,35 +16,58 @@
 package com.hotels.styx.client;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.hotels.styx.api.extension.ActiveOrigins;
+import com.hotels.styx.api.extension.OriginsChangeListener;
+import com.hotels.styx.api.extension.OriginsSnapshot;
 import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
 import org.slf4j.Logger;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
-import java.util.StringTokenizer;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.StreamSupport.stream;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * A load balancing strategy that restricts available origins according to a cookie value.
+ * <p>
+ * The patterns compiled from recently seen cookie values are kept in a bounded cache, together with
+ * the subset of active origins they allow. A cached subset is recomputed when the active origins change.
+ * <p>
+ * When the active origins come from an {@link OriginsChangeListener.Announcer}, such as the
+ * {@link OriginsInventory}, the strategy listens to its change events and takes a new snapshot
+ * only after a change. Otherwise it takes a snapshot for each request, and relies on an unchanged
+ * source returning the same snapshot instance.
  */
 public class OriginRestrictionLoadBalancingStrategy implements LoadBalancer {
     private static final Logger LOG = getLogger(OriginRestrictionLoadBalancingStrategy.class);
     private static final Pattern MATCH_ALL = Pattern.compile(".*");
+    private static final int MAX_CACHED_RESTRICTIONS = 1024;
 
     private final ActiveOrigins activeOrigins;
     private final LoadBalancer delegate;
     private Random rng;
+    private final LoadingCache<String, Restriction> restrictions = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_RESTRICTIONS)
+            .build(new CacheLoader<String, Restriction>() {
+                @Override
+                public Restriction load(String cookieValue) {
+                    return new Restriction(compileRegularExpressions(cookieValue));
+                }
+            });
+    private final boolean announced;
+    private final AtomicInteger changes = new AtomicInteger();
+    private volatile Origins origins = new Origins(null, emptyList(), new Object(), -1);
 
     public OriginRestrictionLoadBalancingStrategy(ActiveOrigins activeOrigins, LoadBalancer delegate) {
         this(activeOrigins, delegate, new Random());
@@ -55,47 +78,68 @@ public class OriginRestrictionLoadBalancingStrategy implements LoadBalancer {
         this.activeOrigins = activeOrigins;
         this.delegate = requireNonNull(delegate);
         this.rng = requireNonNull(rng);
+        this.announced = activeOrigins instanceof OriginsChangeListener.Announcer;
+        if (announced) {
+            ((OriginsChangeListener.Announcer) activeOrigins).addOriginsChangeListener(this);
+        }
     }
 
     @Override
     public Optional<RemoteHost> choose(LoadBalancer.Preferences context) {
         return context.preferredOrigins()
-                .map(hostPreference -> {
-                            List<RemoteHost> list = stream(activeOrigins.snapshot().spliterator(), false)
-                                    .filter(originIsAllowed(hostPreference))
-                                    .collect(toList());
-                            if (list.size() > 0) {
-                                return Optional.of(list.get(rng.nextInt(list.size())));
-                            } else {
-                                return Optional.<RemoteHost>empty();
-                            }
-                        }
-                )
+                .map(this::chooseAllowed)
                 .orElseGet(() -> delegate.choose(context));
     }
 
-    private Predicate<RemoteHost> originIsAllowed(String cookieValue) {
-        return originIdMatcherStream(cookieValue)
-                .reduce(Predicate::or)
-                .orElse(input -> false);
+    @Override
+    public void originsChanged(OriginsSnapshot snapshot) {
+        changes.incrementAndGet();
+    }
+
+    private Optional<RemoteHost> chooseAllowed(String cookieValue) {
+        Origins current = currentOrigins();
+        int[] allowed = restrictions.getUnchecked(cookieValue).allowed(current);
+        if (allowed.length > 0) {
+            return Optional.of(current.hosts.get(allowed[rng.nextInt(allowed.length)]));
+        } else {
+            return Optional.empty();
+        }
     }
 
-    private Stream<Predicate<RemoteHost>> originIdMatcherStream(String cookieValue) {
-        return regularExpressionStream(cookieValue)
-                .map(this::compileRegularExpression)
-                .map(this::originIdMatches);
+    private Origins currentOrigins() {
+        Origins current = this.origins;
+        // Read before the snapshot, so that a change announced meanwhile invalidates the result.
+        int version = changes.get();
+        if (announced && current.version == version) {
+            return current;
+        }
+
+        Iterable<RemoteHost> snapshot = activeOrigins.snapshot();
+        if (!announced && snapshot == current.source) {
+            return current;
+        }
+
+        List<RemoteHost> hosts = new ArrayList<>();
+        snapshot.forEach(hosts::add);
+
+        // An equal snapshot keeps its generation, so the cached subsets stay valid.
+        Object generation = hosts.equals(current.hosts) ? current.generation : new Object();
+        Origins updated = new Origins(snapshot, hosts, generation, version);
+        this.origins = updated;
+        return updated;
     }
 
-    // CHECKSTYLE:OFF
-    private Stream<String> regularExpressionStream(String cookieValue) {
-        return Collections.list(new StringTokenizer(cookieValue, ","))
-                .stream()
-                .map(String.class::cast)
-                .map(String::trim);
+    private static Pattern[] compileRegularExpressions(String cookieValue) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String token : cookieValue.split(",")) {
+            if (!token.isEmpty()) {
+                patterns.add(compileRegularExpression(token.trim()));
+            }
+        }
+        return patterns.toArray(new Pattern[0]);
     }
-    // CHECKSTYLE:ON
 
-    private Pattern compileRegularExpression(String regex) {
+    private static Pattern compileRegularExpression(String regex) {
         try {
             return Pattern.compile(regex);
         } catch (Exception e) {
@@ -104,8 +148,70 @@ public class OriginRestrictionLoadBalancingStrategy implements LoadBalancer {
         }
     }
 
-    private Predicate<RemoteHost> originIdMatches(Pattern pattern) {
-        return remoteHost -> pattern.matcher(remoteHost.id().toString()).matches();
+    /**
+     * The active origins as of a snapshot, taken after the given number of announced changes.
+     * Origins with the same generation list equal hosts in the same order.
+     */
+    private static final class Origins {
+        private final Iterable<RemoteHost> source;
+        private final List<RemoteHost> hosts;
+        private final Object generation;
+        private final int version;
+
+        Origins(Iterable<RemoteHost> source, List<RemoteHost> hosts, Object generation, int version) {
+            this.source = source;
+            this.hosts = hosts;
+            this.generation = generation;
+            this.version = version;
+        }
     }
 
+    /**
+     * The patterns compiled from one cookie value, with the positions of the origins they allowed
+     * in the most recent generation of active origins.
+     */
+    private static final class Restriction {
+        private final Pattern[] patterns;
+        private volatile Allowed allowed = new Allowed(null, new int[0]);
+
+        Restriction(Pattern[] patterns) {
+            this.patterns = patterns;
+        }
+
+        int[] allowed(Origins origins) {
+            Allowed cached = this.allowed;
+            if (cached.generation == origins.generation) {
+                return cached.indices;
+            }
+            int[] indices = new int[origins.hosts.size()];
+            int count = 0;
+            for (int i = 0; i < origins.hosts.size(); i++) {
+                if (matchesAny(origins.hosts.get(i).id().toString())) {
+                    indices[count++] = i;
+                }
+            }
+            int[] result = Arrays.copyOf(indices, count);
+            this.allowed = new Allowed(origins.generation, result);
+            return result;
+        }
+
+        private boolean matchesAny(String originId) {
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(originId).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Allowed {
+        private final Object generation;
+        private final int[] indices;
+
+        Allowed(Object generation, int[] indices) {
+            this.generation = generation;
+            this.indices = indices;
+        }
+    }
 }
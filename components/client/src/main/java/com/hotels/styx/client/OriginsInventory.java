@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,8 +18,6 @@ package com.hotels.styx.client;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
 import com.hotels.styx.api.Eventual;
 import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.Id;
@@ -91,7 +89,7 @@ public final class OriginsInventory
 
     private final Announcer<OriginsChangeListener> inventoryListeners = Announcer.to(OriginsChangeListener.class);
 
-    private final EventBus eventBus;
+    private final OriginEventRouter eventRouter;
     private final Id appId;
     private final OriginHealthStatusMonitor originHealthStatusMonitor;
     private final ConnectionPool.Factory hostConnectionPoolFactory;
@@ -106,26 +104,26 @@ public final class OriginsInventory
     /**
      * Construct an instance.
      *
-     * @param eventBus                  an event bus to subscribe to
+     * @param eventRouter               a router to receive commands from, and to publish snapshots to
      * @param appId                     the application that this inventory's origins are associated with
      * @param originHealthStatusMonitor origin health status monitor
      * @param hostConnectionPoolFactory factory to create connection pools for origins
      * @param meterRegistry             metric registry
      */
-    public OriginsInventory(EventBus eventBus,
+    public OriginsInventory(OriginEventRouter eventRouter,
                             Id appId,
                             OriginHealthStatusMonitor originHealthStatusMonitor,
                             ConnectionPool.Factory hostConnectionPoolFactory,
                             StyxHostHttpClient.Factory hostClientFactory,
                             MeterRegistry meterRegistry) {
-        this.eventBus = requireNonNull(eventBus);
+        this.eventRouter = requireNonNull(eventRouter);
         this.appId = requireNonNull(appId);
         this.originHealthStatusMonitor = requireNonNull(originHealthStatusMonitor);
         this.hostConnectionPoolFactory = requireNonNull(hostConnectionPoolFactory);
         this.hostClientFactory = requireNonNull(hostClientFactory);
         this.meterRegistry = requireNonNull(meterRegistry);
 
-        this.eventBus.register(this);
+        this.eventRouter.addCommandListener(appId, this);
         this.originHealthStatusMonitor.addOriginStatusListener(this);
         eventQueue = new QueueDrainingEventProcessor(this, true);
     }
@@ -162,19 +160,16 @@ public final class OriginsInventory
         eventQueue.submit(new OriginHealthEvent(origin, UNHEALTHY));
     }
 
-    @Subscribe
     @Override
     public void onCommand(EnableOrigin enableOrigin) {
         eventQueue.submit(new EnableOriginCommand(enableOrigin));
     }
 
-    @Subscribe
     @Override
     public void onCommand(DisableOrigin disableOrigin) {
         eventQueue.submit(new DisableOriginCommand(disableOrigin));
     }
 
-    @Subscribe
     @Override
     public void onCommand(GetOriginsInventorySnapshot getOriginsInventorySnapshot) {
         notifyStateChange();
@@ -284,7 +279,7 @@ public final class OriginsInventory
             origins.values().forEach(host -> removeMonitoredEndpoint(host.origin.id()));
             this.origins = ImmutableMap.of();
             notifyStateChange();
-            eventBus.unregister(this);
+            eventRouter.removeCommandListener(appId, this);
         }
     }
 
@@ -391,7 +386,7 @@ public final class OriginsInventory
     private void notifyStateChange() {
         OriginsSnapshot event = new OriginsSnapshot(appId, pools(ACTIVE), pools(INACTIVE), pools(DISABLED));
         inventoryListeners.announce().originsChanged(event);
-        eventBus.post(event);
+        eventRouter.publish(event);
     }
 
     private Collection<RemoteHost> pools(OriginState state) {
@@ -515,7 +510,7 @@ public final class OriginsInventory
         private final Id appId;
         private OriginHealthStatusMonitor originHealthMonitor = new NoOriginHealthStatusMonitor();
         private MeterRegistry meterRegistry;
-        private EventBus eventBus = new EventBus();
+        private OriginEventRouter eventRouter = new OriginEventRouter();
         private ConnectionPool.Factory connectionPoolFactory = simplePoolFactory();
         private StyxHostHttpClient.Factory hostClientFactory;
         private Set<Origin> initialOrigins = emptySet();
@@ -540,8 +535,8 @@ public final class OriginsInventory
             return this;
         }
 
-        public Builder eventBus(EventBus eventBus) {
-            this.eventBus = requireNonNull(eventBus);
+        public Builder eventRouter(OriginEventRouter eventRouter) {
+            this.eventRouter = requireNonNull(eventRouter);
             return this;
         }
 
@@ -566,7 +561,7 @@ public final class OriginsInventory
             }
 
             OriginsInventory originsInventory = new OriginsInventory(
-                    eventBus,
+                    eventRouter,
                     appId,
                     originHealthMonitor,
                     connectionPoolFactory,
@@ -0,0 +1,121 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A character trie over literal path prefixes. Each node holds, in ascending order, the
+ * indices of every entry whose prefix is a prefix of the string spelled by that node, so a
+ * lookup is a single walk down the path with no allocation.
+ */
+final class PrefixTrie {
+    private static final int[] NONE = new int[0];
+
+    private final Node root;
+
+    /**
+     * Builds a trie where the entry at position {@code i} of {@code prefixes} is identified by {@code i}.
+     *
+     * @param prefixes literal prefixes
+     */
+    PrefixTrie(List<String> prefixes) {
+        MutableNode root = new MutableNode();
+        for (int i = 0; i < prefixes.size(); i++) {
+            MutableNode node = root;
+            String prefix = prefixes.get(i);
+            for (int j = 0; j < prefix.length(); j++) {
+                node = node.children.computeIfAbsent(prefix.charAt(j), c -> new MutableNode());
+            }
+            node.entries = append(node.entries, i);
+        }
+        this.root = root.freeze(NONE);
+    }
+
+    /**
+     * Returns the indices, in ascending order, of the entries whose prefix is a prefix of {@code path}.
+     *
+     * @param path a path
+     * @return candidate entry indices
+     */
+    int[] candidates(String path) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            Node child = node.child(path.charAt(i));
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+        return node.candidates;
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static final class MutableNode {
+        private final SortedMap<Character, MutableNode> children = new TreeMap<>();
+        private int[] entries = NONE;
+
+        Node freeze(int[] inherited) {
+            int[] candidates = merge(inherited, entries);
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                nodes[i] = child.getValue().freeze(candidates);
+                i++;
+            }
+            return new Node(keys, nodes, candidates);
+        }
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] candidates;
+
+        Node(char[] keys, Node[] children, int[] candidates) {
+            this.keys = keys;
+            this.children = children;
+            this.candidates = candidates;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+}
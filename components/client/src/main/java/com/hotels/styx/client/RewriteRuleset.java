@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,8 +18,10 @@ package com.hotels.styx.client;
 import com.google.common.collect.ImmutableList;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.Url;
+import com.hotels.styx.api.extension.service.RewriteConfig;
 import com.hotels.styx.api.extension.service.RewriteRule;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -27,9 +29,16 @@ import java.util.Optional;
 /**
  * A list of rules that defines how to rewrite the URL in HTTP requests. The rules are tested in order, until a matching
  * rule is found. When the match is found, a rewrite is performed. If no match is found, the original URL is retained.
+ * <p>
+ * The literal prefix of each {@link RewriteConfig} pattern is indexed in a {@link PrefixTrie}, so only the rules
+ * that could possibly match a path have their regular expression evaluated.
  */
 public class RewriteRuleset {
-    private final List<RewriteRule> rewriteRules;
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String OPTIONAL_QUANTIFIERS = "?*{";
+
+    private final RewriteRule[] rewriteRules;
+    private final PrefixTrie prefixes;
 
     /**
      * Constructs an instance with a list of rewrite rules.
@@ -37,7 +46,13 @@ public class RewriteRuleset {
      * @param rewriteRules rewrite rules
      */
     public RewriteRuleset(List<RewriteRule> rewriteRules) {
-        this.rewriteRules = ImmutableList.copyOf(rewriteRules);
+        List<RewriteRule> rules = ImmutableList.copyOf(rewriteRules);
+        List<String> literalPrefixes = new ArrayList<>(rules.size());
+        for (RewriteRule rule : rules) {
+            literalPrefixes.add(rule instanceof RewriteConfig ? literalPrefix(((RewriteConfig) rule).urlPattern()) : "");
+        }
+        this.rewriteRules = rules.toArray(new RewriteRule[0]);
+        this.prefixes = new PrefixTrie(literalPrefixes);
     }
 
     /**
@@ -61,11 +76,46 @@ public class RewriteRuleset {
     }
 
     private String newPath(String requestUri) {
-        return rewriteRules.stream()
-                .map(rewriteRule -> rewriteRule.rewrite(requestUri))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .findFirst()
-                .orElse(requestUri);
+        for (int index : prefixes.candidates(requestUri)) {
+            Optional<String> rewritten = rewriteRules[index].rewrite(requestUri);
+            if (rewritten.isPresent()) {
+                return rewritten.get();
+            }
+        }
+        return requestUri;
+    }
+
+    /**
+     * Returns a string that every input matched by {@code regex} must start with. The result
+     * is conservative: an empty string is returned when no such prefix can be determined.
+     *
+     * @param regex a regular expression
+     * @return literal prefix
+     */
+    static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int next = i + 1;
+            if (c == '\\') {
+                if (next == regex.length() || Character.isLetterOrDigit(regex.charAt(next))) {
+                    break;
+                }
+                c = regex.charAt(next);
+                next++;
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                break;
+            }
+            if (next < regex.length() && OPTIONAL_QUANTIFIERS.indexOf(regex.charAt(next)) >= 0) {
+                break;
+            }
+            prefix.append(c);
+            i = next;
+        }
+        return prefix.toString();
     }
 }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -21,7 +21,6 @@ import com.hotels.styx.api.HttpResponseStatus;
 import com.hotels.styx.api.Id;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
-import com.hotels.styx.api.RequestCookie;
 import com.hotels.styx.api.ResponseEventListener;
 import com.hotels.styx.api.exceptions.NoAvailableHostsException;
 import com.hotels.styx.api.extension.Origin;
@@ -33,12 +32,14 @@ import com.hotels.styx.api.extension.service.StickySessionConfig;
 import com.hotels.styx.client.OriginStatsFactory.CachingOriginStatsFactory;
 import com.hotels.styx.client.retry.RetryNTimes;
 import com.hotels.styx.client.stickysession.StickySessionLoadBalancingStrategy;
+import com.hotels.styx.common.logging.AggregatedErrorLog;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -66,6 +67,8 @@ import static org.slf4j.LoggerFactory.getLogger;
 public final class StyxBackendServiceClient implements BackendServiceClient {
     private static final Logger LOGGER = getLogger(StyxBackendServiceClient.class);
     private static final int MAX_RETRY_ATTEMPTS = 3;
+    private static final Duration ERROR_SUMMARY_INTERVAL = Duration.ofSeconds(10);
+    private static final int MAX_ERROR_GROUPS = 64;
 
     private final Id id;
     private final RewriteRuleset rewriteRuleset;
@@ -74,8 +77,10 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
     private final OriginStatsFactory originStatsFactory;
     private final MeterRegistry meterRegistry;
     private final String originsRestrictionCookieName;
+    private final String stickySessionCookieName;
     private final StickySessionConfig stickySessionConfig;
     private final CharSequence originIdHeader;
+    private final AggregatedErrorLog errorLog = new AggregatedErrorLog(LOGGER, ERROR_SUMMARY_INTERVAL, MAX_ERROR_GROUPS);
 
     private StyxBackendServiceClient(Builder builder) {
         this.id = requireNonNull(builder.backendServiceId);
@@ -94,6 +99,7 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
 
         this.meterRegistry = builder.meterRegistry;
         this.originsRestrictionCookieName = builder.originsRestrictionCookieName;
+        this.stickySessionCookieName = "styx_origin_" + id;
         this.originIdHeader = builder.originIdHeader;
     }
 
@@ -147,14 +153,11 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
             List<RemoteHost> newPreviousOrigins = newArrayList(previousOrigins);
             newPreviousOrigins.add(remoteHost.get());
 
-            return ResponseEventListener.from(host.hostClient().handle(request, context)
-                    .map(response -> addStickySessionIdentifier(response, host.origin())))
+            return ResponseEventListener.from(host.hostClient().handle(request, context))
                     .whenResponseError(cause -> logError(request, cause))
                     .whenCancelled(() -> originStatsFactory.originStats(host.origin()).requestCancelled())
                     .apply()
-                    .doOnNext(this::recordErrorStatusMetrics)
-                    .map(response -> removeUnexpectedResponseBody(request, response))
-                    .map(StyxBackendServiceClient::removeRedundantContentLengthHeader)
+                    .map(response -> originResponse(request, host.origin(), response))
                     .onErrorResume(cause -> {
                         RetryPolicyContext retryContext = new RetryPolicyContext(this.id, attempt + 1, cause, request, previousOrigins);
                         return retry(request, retryContext, newPreviousOrigins, attempt + 1, cause, context);
@@ -166,6 +169,12 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
         }
     }
 
+    private LiveHttpResponse originResponse(LiveHttpRequest request, Origin origin, LiveHttpResponse response) {
+        LiveHttpResponse stickyResponse = addStickySessionIdentifier(response, origin);
+        recordErrorStatusMetrics(stickyResponse);
+        return removeRedundantContentLengthHeader(removeUnexpectedResponseBody(request, stickyResponse));
+    }
+
     private LiveHttpResponse addOriginId(Id originId, LiveHttpResponse response) {
         return response.newBuilder()
                 .header(originIdHeader, originId)
@@ -266,7 +275,10 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
         }
     }
 
-    private static void logError(LiveHttpRequest request, Throwable throwable) {
+    private void logError(LiveHttpRequest request, Throwable throwable) {
+        if (!errorLog.admit(throwable)) {
+            return;
+        }
         LOGGER.error("Error Handling request={} exceptionClass={} exceptionMessage=\"{}\"",
                 new Object[]{request, throwable.getClass().getName(), throwable.getMessage()});
     }
@@ -299,12 +311,11 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
             @Override
             public Optional<String> preferredOrigins() {
                 if (nonNull(originsRestrictionCookieName)) {
-                    return rewrittenRequest.cookie(originsRestrictionCookieName)
-                            .map(RequestCookie::value)
+                    return rewrittenRequest.cookieValue(originsRestrictionCookieName)
                             .map(Optional::of)
-                            .orElseGet(() -> rewrittenRequest.cookie("styx_origin_" + id).map(RequestCookie::value));
+                            .orElseGet(() -> rewrittenRequest.cookieValue(stickySessionCookieName));
                 } else {
-                    return rewrittenRequest.cookie("styx_origin_" + id).map(RequestCookie::value);
+                    return rewrittenRequest.cookieValue(stickySessionCookieName);
                 }
             }
 
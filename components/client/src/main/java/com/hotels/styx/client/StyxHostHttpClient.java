@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -23,7 +23,6 @@ import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetric;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier;
 import com.hotels.styx.client.connectionpool.ConnectionPool;
 import org.reactivestreams.Publisher;
-import reactor.core.publisher.Flux;
 
 import static java.util.Objects.requireNonNull;
 
@@ -47,16 +46,13 @@ public class StyxHostHttpClient implements LoadBalancingMetricSupplier {
         if (context != null) {
             context.add(ORIGINID_CONTEXT_KEY, pool.getOrigin().id());
         }
-        return Flux.from(pool.borrowConnection())
-                .flatMap(connection -> {
-
-                    return ResponseEventListener.from(connection.write(request))
-                            .whenCancelled(() -> pool.closeConnection(connection))
-                            .whenResponseError(cause -> pool.closeConnection(connection))
-                            .whenContentError(cause -> pool.closeConnection(connection))
-                            .whenCompleted(response -> pool.returnConnection(connection))
-                            .apply();
-                });
+        // Every subscription borrows its own connection, and gives it back when the response ends:
+        return ResponseEventListener.using(
+                pool.borrowConnection(),
+                connection -> connection.write(request),
+                pool::returnConnection,
+                pool::closeConnection)
+                .apply();
     }
 
     public void close() {
@@ -0,0 +1,167 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.hotels.styx.api.extension.OriginsChangeListener;
+import com.hotels.styx.api.extension.OriginsSnapshot;
+import com.hotels.styx.client.origincommands.DisableOrigin;
+import com.hotels.styx.client.origincommands.EnableOrigin;
+import com.hotels.styx.client.origincommands.GetOriginsInventorySnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hotels.styx.api.Id.id;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class OriginEventRouterTest {
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final OriginEventRouter router = new OriginEventRouter(tasks::add);
+
+    @Test
+    public void sendsCommandsOnlyToListenersOfTheApplication() {
+        OriginsCommandsListener foo = mock(OriginsCommandsListener.class);
+        OriginsCommandsListener bar = mock(OriginsCommandsListener.class);
+        router.addCommandListener(id("foo"), foo);
+        router.addCommandListener(id("bar"), bar);
+
+        router.send(new EnableOrigin(id("foo"), id("foo-01")));
+        router.send(new DisableOrigin(id("foo"), id("foo-01")));
+
+        verify(foo).onCommand(new EnableOrigin(id("foo"), id("foo-01")));
+        verify(foo).onCommand(new DisableOrigin(id("foo"), id("foo-01")));
+        verify(bar, never()).onCommand(any(EnableOrigin.class));
+        verify(bar, never()).onCommand(any(DisableOrigin.class));
+    }
+
+    @Test
+    public void requestsSnapshotsFromAllApplications() {
+        OriginsCommandsListener foo = mock(OriginsCommandsListener.class);
+        OriginsCommandsListener bar = mock(OriginsCommandsListener.class);
+        router.addCommandListener(id("foo"), foo);
+        router.addCommandListener(id("bar"), bar);
+
+        router.requestSnapshots();
+
+        verify(foo).onCommand(any(GetOriginsInventorySnapshot.class));
+        verify(bar).onCommand(any(GetOriginsInventorySnapshot.class));
+    }
+
+    @Test
+    public void stopsSendingCommandsToRemovedListeners() {
+        OriginsCommandsListener foo = mock(OriginsCommandsListener.class);
+        router.addCommandListener(id("foo"), foo);
+        router.removeCommandListener(id("foo"), foo);
+
+        router.send(new EnableOrigin(id("foo"), id("foo-01")));
+
+        verify(foo, never()).onCommand(any(EnableOrigin.class));
+    }
+
+    @Test
+    public void deliversSnapshotsAsynchronouslyToApplicationAndGlobalListeners() {
+        RecordingListener foo = new RecordingListener();
+        RecordingListener bar = new RecordingListener();
+        RecordingListener all = new RecordingListener();
+        router.addSnapshotListener(id("foo"), foo);
+        router.addSnapshotListener(id("bar"), bar);
+        router.addSnapshotListener(all);
+
+        OriginsSnapshot snapshot = snapshot("foo");
+        router.publish(snapshot);
+
+        assertThat(foo.snapshots, is(empty()));
+
+        runTasks();
+
+        assertThat(foo.snapshots, contains(snapshot));
+        assertThat(all.snapshots, contains(snapshot));
+        assertThat(bar.snapshots, is(empty()));
+    }
+
+    @Test
+    public void coalescesSnapshotsPublishedBeforeDelivery() {
+        RecordingListener all = new RecordingListener();
+        router.addSnapshotListener(all);
+
+        OriginsSnapshot foo1 = snapshot("foo");
+        OriginsSnapshot foo2 = snapshot("foo");
+        OriginsSnapshot bar = snapshot("bar");
+        router.publish(foo1);
+        router.publish(bar);
+        router.publish(foo2);
+
+        assertThat(tasks.size(), is(2));
+
+        runTasks();
+
+        assertThat(all.snapshots, contains(foo2, bar));
+    }
+
+    @Test
+    public void deliversOnPublishingThreadByDefault() {
+        OriginEventRouter synchronous = new OriginEventRouter();
+        RecordingListener all = new RecordingListener();
+        synchronous.addSnapshotListener(all);
+
+        OriginsSnapshot snapshot = snapshot("foo");
+        synchronous.publish(snapshot);
+
+        assertThat(all.snapshots, contains(snapshot));
+    }
+
+    @Test
+    public void continuesDeliveryWhenListenerFails() {
+        RecordingListener all = new RecordingListener();
+        router.addSnapshotListener(id("foo"), snapshot -> {
+            throw new RuntimeException("This is just a test");
+        });
+        router.addSnapshotListener(all);
+
+        router.publish(snapshot("foo"));
+        runTasks();
+
+        assertThat(all.snapshots.size(), is(1));
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static OriginsSnapshot snapshot(String appId) {
+        return new OriginsSnapshot(id(appId), emptyList(), emptyList(), emptyList());
+    }
+
+    private static class RecordingListener implements OriginsChangeListener {
+        private final List<OriginsSnapshot> snapshots = new ArrayList<>();
+
+        @Override
+        public void originsChanged(OriginsSnapshot snapshot) {
+            snapshots.add(snapshot);
+        }
+    }
+}
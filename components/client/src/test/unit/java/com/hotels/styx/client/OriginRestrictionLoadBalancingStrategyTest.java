@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 package com.hotels.styx.client;
 
 import com.hotels.styx.api.HttpHandler;
+import com.hotels.styx.api.extension.ActiveOrigins;
 import com.hotels.styx.api.extension.Origin;
+import com.hotels.styx.api.extension.OriginsChangeListener;
 import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier;
@@ -25,9 +27,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import static ch.qos.logback.classic.Level.ERROR;
@@ -44,6 +48,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -189,6 +194,74 @@ public class OriginRestrictionLoadBalancingStrategyTest {
         assertThat(log.lastMessage(), is(loggingEvent(ERROR, "Invalid origin restriction cookie value=.*, Cause=Dangling meta character .*")));
     }
 
+    @Test
+    public void recomputesAllowedOriginsWhenActiveOriginsChange() {
+        AtomicReference<List<RemoteHost>> active = new AtomicReference<>(origins.subList(0, 3));
+        Random mockRandom = mock(Random.class);
+        when(mockRandom.nextInt(any(Integer.class))).thenReturn(0);
+
+        strategy = new OriginRestrictionLoadBalancingStrategy(active::get, delegate, mockRandom);
+
+        assertThat(strategy.choose(lbPreference(Optional.of("origin-[2-5]"))).get(), is(origins.get(2)));
+
+        active.set(origins.subList(3, 7));
+        assertThat(strategy.choose(lbPreference(Optional.of("origin-[2-5]"))).get(), is(origins.get(3)));
+        verify(mockRandom).nextInt(eq(3));
+
+        active.set(origins.subList(6, 7));
+        assertThat(strategy.choose(lbPreference(Optional.of("origin-[2-5]"))), is(empty()));
+    }
+
+    @Test
+    public void choosesFromLatestSnapshotWhenOriginsAreUnchanged() {
+        Random mockRandom = mock(Random.class);
+        when(mockRandom.nextInt(any(Integer.class))).thenReturn(0);
+
+        strategy = new OriginRestrictionLoadBalancingStrategy(() -> Stream.of(0, 1)
+                .map(i -> newOriginBuilder("localhost", 8080 + i).id("origin-" + i).build())
+                .map(origin -> remoteHost(origin, mock(HttpHandler.class), mock(LoadBalancingMetricSupplier.class)))
+                .collect(toList()), delegate, mockRandom);
+
+        RemoteHost first = strategy.choose(lbPreference(Optional.of("origin-1"))).get();
+        RemoteHost second = strategy.choose(lbPreference(Optional.of("origin-1"))).get();
+
+        assertThat(first.id(), is(id("origin-1")));
+        assertThat(second.id(), is(id("origin-1")));
+        assertThat(first == second, is(false));
+    }
+
+    @Test
+    public void compilesEachCookieValueOnce() {
+        Random mockRandom = mock(Random.class);
+        strategy = new OriginRestrictionLoadBalancingStrategy(() -> origins, delegate, mockRandom);
+
+        strategy.choose(lbPreference(Optional.of("*-01")));
+        strategy.choose(lbPreference(Optional.of("*-01")));
+        strategy.choose(lbPreference(Optional.of("*-01")));
+
+        assertThat(log.log().size(), is(1));
+        verify(mockRandom, times(3)).nextInt(eq(7));
+    }
+
+    @Test
+    public void takesSnapshotOnlyAfterAnnouncedChanges() {
+        AnnouncedOrigins active = new AnnouncedOrigins(origins.subList(0, 3));
+        Random mockRandom = mock(Random.class);
+        when(mockRandom.nextInt(any(Integer.class))).thenReturn(0);
+
+        strategy = new OriginRestrictionLoadBalancingStrategy(active, delegate, mockRandom);
+
+        assertThat(strategy.choose(lbPreference(Optional.of("origin-[2-5]"))).get(), is(origins.get(2)));
+        assertThat(strategy.choose(lbPreference(Optional.of("origin-[2-5]"))).get(), is(origins.get(2)));
+        assertThat(active.snapshots, is(1));
+
+        active.change(origins.subList(3, 7));
+
+        assertThat(strategy.choose(lbPreference(Optional.of("origin-[2-5]"))).get(), is(origins.get(3)));
+        assertThat(strategy.choose(lbPreference(Optional.of("origin-[2-5]"))).get(), is(origins.get(3)));
+        assertThat(active.snapshots, is(2));
+    }
+
     private static LoadBalancer.Preferences lbPreference(Optional<String> preferredOrigins) {
         return new LoadBalancer.Preferences() {
 
@@ -203,4 +276,30 @@ public class OriginRestrictionLoadBalancingStrategyTest {
             }
         };
     }
-}
\ No newline at end of file
+
+    private static final class AnnouncedOrigins implements ActiveOrigins, OriginsChangeListener.Announcer {
+        private final List<OriginsChangeListener> listeners = new ArrayList<>();
+        private List<RemoteHost> active;
+        private int snapshots;
+
+        AnnouncedOrigins(List<RemoteHost> active) {
+            this.active = active;
+        }
+
+        void change(List<RemoteHost> active) {
+            this.active = active;
+            listeners.forEach(listener -> listener.originsChanged(null));
+        }
+
+        @Override
+        public Iterable<RemoteHost> snapshot() {
+            snapshots++;
+            return new ArrayList<>(active);
+        }
+
+        @Override
+        public void addOriginsChangeListener(OriginsChangeListener listener) {
+            listeners.add(listener);
+        }
+    }
+}
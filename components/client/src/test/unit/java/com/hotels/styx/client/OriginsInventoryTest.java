@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,7 +16,6 @@
 package com.hotels.styx.client;
 
 import com.google.common.collect.ImmutableSet;
-import com.google.common.eventbus.EventBus;
 import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.api.extension.OriginsChangeListener;
 import com.hotels.styx.api.extension.OriginsSnapshot;
@@ -69,7 +68,7 @@ public class OriginsInventoryTest {
     private MeterRegistry meterRegistry;
     private LoggingTestSupport logger;
     private OriginHealthStatusMonitor monitor;
-    private EventBus eventBus;
+    private OriginEventRouter eventRouter;
     private OriginsInventory inventory;
     private StyxHostHttpClient.Factory hostClientFactory = pool -> mock(StyxHostHttpClient.class);
 
@@ -78,8 +77,8 @@ public class OriginsInventoryTest {
         meterRegistry = new SimpleMeterRegistry();
         logger = new LoggingTestSupport(OriginsInventory.class);
         monitor = mock(OriginHealthStatusMonitor.class);
-        eventBus = mock(EventBus.class);
-        inventory = new OriginsInventory(eventBus, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
+        eventRouter = mock(OriginEventRouter.class);
+        inventory = new OriginsInventory(eventRouter, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
     }
 
     @AfterEach
@@ -101,7 +100,7 @@ public class OriginsInventoryTest {
         assertThat(gaugeValue("generic-app", "app-01"), isValue(1.0));
         assertThat(gaugeValue("generic-app", "app-02"), isValue(1.0));
 
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -114,7 +113,7 @@ public class OriginsInventoryTest {
         assertThat(inventory.originCount(ACTIVE), is(1));
         verify(monitor).monitor(singleton(originV1));
         assertThat(gaugeValue("generic-app", "acme-01"), isValue(1.0));
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
 
         inventory.setOrigins(originV2);
 
@@ -122,7 +121,7 @@ public class OriginsInventoryTest {
         verify(monitor).stopMonitoring(singleton(originV1));
         verify(monitor).monitor(singleton(originV2));
         assertThat(gaugeValue("generic-app", "acme-01"), isValue(1.0));
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -135,7 +134,7 @@ public class OriginsInventoryTest {
         assertThat(inventory.originCount(ACTIVE), is(1));
         verify(monitor).monitor(singleton(originV1));
         assertThat(gaugeValue("generic-app", "acme-01"), isValue(1.0));
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
 
         inventory.setOrigins(originV2);
 
@@ -143,7 +142,7 @@ public class OriginsInventoryTest {
         verify(monitor).stopMonitoring(singleton(originV1));
         verify(monitor).monitor(singleton(originV2));
         assertThat(gaugeValue("generic-app", "acme-01"), isValue(1.0));
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -172,7 +171,7 @@ public class OriginsInventoryTest {
         when(connectionFactory.create(eq(originV1))).thenReturn(pool1);
         when(connectionFactory.create(eq(originV2))).thenReturn(pool2);
 
-        inventory = new OriginsInventory(eventBus, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
+        inventory = new OriginsInventory(eventRouter, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
 
         inventory.setOrigins(originV1);
         verify(connectionFactory).create(eq(originV1));
@@ -193,14 +192,14 @@ public class OriginsInventoryTest {
         verify(monitor).monitor(singleton(ORIGIN_2));
         assertThat(gaugeValue("generic-app", "app-01"), isValue(1.0));
         assertThat(gaugeValue("generic-app", "app-02"), isValue(1.0));
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
 
         inventory.setOrigins(ORIGIN_1, ORIGIN_2);
 
         assertThat(inventory.originCount(ACTIVE), is(2));
         verify(monitor, times(1)).monitor(singleton(ORIGIN_1));
         verify(monitor, times(1)).monitor(singleton(ORIGIN_2));
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -212,7 +211,7 @@ public class OriginsInventoryTest {
         verify(monitor).monitor(singleton(ORIGIN_2));
         assertThat(gaugeValue("generic-app", "app-01"), isValue(1.0));
         assertThat(gaugeValue("generic-app", "app-02"), isValue(1.0));
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
 
         inventory.setOrigins(ORIGIN_2);
 
@@ -220,7 +219,7 @@ public class OriginsInventoryTest {
         verify(monitor).stopMonitoring(singleton(ORIGIN_1));
         assertThat(gaugeValue("generic-app", "app-01"), isAbsent());
         assertThat(gaugeValue("generic-app", "app-02"), isValue(1.0));
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
     }
 
 
@@ -253,7 +252,7 @@ public class OriginsInventoryTest {
         when(connectionFactory.create(eq(originV1))).thenReturn(pool1);
         when(connectionFactory.create(eq(originV2))).thenReturn(pool2);
 
-        inventory = new OriginsInventory(eventBus, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
+        inventory = new OriginsInventory(eventRouter, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
 
         inventory.setOrigins(originV1, originV2);
 
@@ -265,12 +264,12 @@ public class OriginsInventoryTest {
     @Test
     public void willNotDisableOriginsNotBelongingToTheApp() {
         inventory.setOrigins(ORIGIN_1);
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
 
         inventory.onCommand(new DisableOrigin(id("some-other-app"), ORIGIN_1.id()));
 
         assertThat(inventory.originCount(ACTIVE), is(1));
-        verify(eventBus).post(any(OriginsSnapshot.class));
+        verify(eventRouter).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -281,7 +280,7 @@ public class OriginsInventoryTest {
         inventory.onCommand(new EnableOrigin(id("some-other-app"), ORIGIN_1.id()));
 
         assertThat(inventory.originCount(ACTIVE), is(0));
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -295,7 +294,7 @@ public class OriginsInventoryTest {
 
         verify(monitor).stopMonitoring(singleton(ORIGIN_1));
         assertThat(gaugeValue("generic-app", "app-01"), isValue(-1.0));
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -310,7 +309,7 @@ public class OriginsInventoryTest {
 
         verify(monitor).stopMonitoring(singleton(ORIGIN_1));
         assertThat(gaugeValue("generic-app", "app-01"), isValue(-1.0));
-        verify(eventBus, times(3)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(3)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -322,7 +321,7 @@ public class OriginsInventoryTest {
 
         verify(monitor, times(2)).monitor(singleton(ORIGIN_1));
         assertThat(gaugeValue("generic-app", "app-01"), isValue(0.0));
-        verify(eventBus, times(3)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(3)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -334,7 +333,7 @@ public class OriginsInventoryTest {
 
         assertThat(inventory.originCount(ACTIVE), is(0));
         assertThat(gaugeValue("generic-app", "app-01"), isValue(0.0));
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -347,7 +346,7 @@ public class OriginsInventoryTest {
 
         assertThat(inventory.originCount(ACTIVE), is(1));
         assertThat(gaugeValue("generic-app", "app-01"), isValue(1.0));
-        verify(eventBus, times(3)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(3)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -360,7 +359,7 @@ public class OriginsInventoryTest {
         inventory.originHealthy(ORIGIN_1);
 
         assertThat(inventory.originCount(ACTIVE), is(1));
-        verify(eventBus, times(1)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(1)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -373,7 +372,7 @@ public class OriginsInventoryTest {
         inventory.originUnhealthy(ORIGIN_1);
 
         assertThat(inventory.originCount(ACTIVE), is(0));
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
     }
 
     @Test
@@ -443,8 +442,8 @@ public class OriginsInventoryTest {
     }
 
     @Test
-    public void registersToEventBusWhenCreated() {
-        verify(eventBus).register(eq(inventory));
+    public void registersToEventRouterWhenCreated() {
+        verify(eventRouter).addCommandListener(eq(GENERIC_APP), eq(inventory));
     }
 
     @Test
@@ -460,7 +459,7 @@ public class OriginsInventoryTest {
         when(connectionFactory.create(eq(ORIGIN_1))).thenReturn(pool1);
         when(connectionFactory.create(eq(ORIGIN_2))).thenReturn(pool2);
 
-        inventory = new OriginsInventory(eventBus, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
+        inventory = new OriginsInventory(eventRouter, GENERIC_APP, monitor, connectionFactory, hostClientFactory, meterRegistry);
         inventory.setOrigins(ORIGIN_1, ORIGIN_2);
         inventory.close();
 
@@ -472,8 +471,8 @@ public class OriginsInventoryTest {
         verify(pool1).close();
         verify(pool2).close();
 
-        verify(eventBus, times(2)).post(any(OriginsSnapshot.class));
-        verify(eventBus).unregister(eq(inventory));
+        verify(eventRouter, times(2)).publish(any(OriginsSnapshot.class));
+        verify(eventRouter).removeCommandListener(eq(GENERIC_APP), eq(inventory));
     }
 
     private Optional<Double> gaugeValue(String appId, String originId) {
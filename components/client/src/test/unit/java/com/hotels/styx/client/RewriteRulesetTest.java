@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import com.hotels.styx.api.extension.service.RewriteRule;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -87,6 +88,46 @@ public class RewriteRulesetTest {
         assertThat(rewriter.rewrite(requestWithUrl("/significant/path?a=b&c=d")).url().toString(), is("/significant/path?a=b&c=d"));
     }
 
+    @Test
+    public void preservesRuleOrderAcrossDifferentLiteralPrefixes() {
+        List<RewriteRule> config = asList(
+                new RewriteConfig("/a/b/(.*)", "/first/$1"),
+                new RewriteConfig("(.*)/c", "/second$1"),
+                new RewriteConfig("/a/(.*)", "/third/$1"),
+                new RewriteConfig("^/b\\.x?y/(.*)", "/fourth/$1"));
+
+        RewriteRuleset rewriter = new RewriteRuleset(config);
+        assertThat(rewriter.rewrite(requestWithUrl("/a/b/c")).path(), is("/first/c"));
+        assertThat(rewriter.rewrite(requestWithUrl("/a/x/c")).path(), is("/second/a/x"));
+        assertThat(rewriter.rewrite(requestWithUrl("/a/x/d")).path(), is("/third/x/d"));
+        assertThat(rewriter.rewrite(requestWithUrl("/b.y/d")).path(), is("/fourth/d"));
+        assertThat(rewriter.rewrite(requestWithUrl("/b/d")).path(), is("/b/d"));
+    }
+
+    @Test
+    public void consultsCustomRulesForEveryPath() {
+        RewriteRule custom = path -> path.endsWith("/z") ? Optional.of("/custom") : Optional.empty();
+        RewriteRuleset rewriter = new RewriteRuleset(asList(new RewriteConfig("/a/(.*)", "/$1"), custom));
+
+        assertThat(rewriter.rewrite(requestWithUrl("/b/z")).path(), is("/custom"));
+        assertThat(rewriter.rewrite(requestWithUrl("/a/z")).path(), is("/z"));
+    }
+
+    @Test
+    public void extractsLiteralPrefixOfRegularExpression() {
+        assertThat(RewriteRuleset.literalPrefix("/sp/foo/bar/(.*)"), is("/sp/foo/bar/"));
+        assertThat(RewriteRuleset.literalPrefix("^/sp/.*"), is("/sp/"));
+        assertThat(RewriteRuleset.literalPrefix("/sp\\.html"), is("/sp.html"));
+        assertThat(RewriteRuleset.literalPrefix("/sp\\d+"), is("/sp"));
+        assertThat(RewriteRuleset.literalPrefix("/spx?/"), is("/sp"));
+        assertThat(RewriteRuleset.literalPrefix("/spx*/"), is("/sp"));
+        assertThat(RewriteRuleset.literalPrefix("/spx{0,2}/"), is("/sp"));
+        assertThat(RewriteRuleset.literalPrefix("/spx+/"), is("/spx"));
+        assertThat(RewriteRuleset.literalPrefix("/a/.*|/b/.*"), is(""));
+        assertThat(RewriteRuleset.literalPrefix("(?i)/sp/.*"), is(""));
+        assertThat(RewriteRuleset.literalPrefix("[/]sp"), is(""));
+    }
+
     private LiveHttpRequest requestWithUrl(String url) {
         return LiveHttpRequest.get(url).build();
     }
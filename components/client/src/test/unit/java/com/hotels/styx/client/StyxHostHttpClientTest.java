@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -37,12 +37,14 @@ import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.TestPublisher;
 
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hotels.styx.api.HttpResponseStatus.OK;
 import static com.hotels.styx.client.StyxHostHttpClient.ORIGINID_CONTEXT_KEY;
 import static com.hotels.styx.support.Support.requestContext;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -223,6 +225,28 @@ public class StyxHostHttpClientTest {
         verify(context).add(ORIGINID_CONTEXT_KEY, Id.id("mockorigin"));
     }
 
+    @Test
+    public void borrowsANewConnectionWhenResubscribed() {
+        Connection failed = mockConnection(Flux.error(new RuntimeException()));
+        Connection healthy = mockConnection(just(response));
+        ConnectionPool pool = mockPool(failed);
+        Iterator<Connection> connections = asList(failed, healthy).iterator();
+        when(pool.borrowConnection()).thenReturn(Flux.defer(() -> just(connections.next())));
+        Context context = mockContext();
+
+        StyxHostHttpClient hostClient = new StyxHostHttpClient(pool);
+
+        StepVerifier.create(Flux.from(hostClient.sendRequest(request, context)).retry(1))
+                .consumeNextWith(response -> response.consume())
+                .expectComplete()
+                .verify();
+
+        verify(pool).closeConnection(failed);
+        verify(pool).returnConnection(healthy);
+        verify(pool, never()).returnConnection(failed);
+        verify(pool, never()).closeConnection(healthy);
+    }
+
     @Test
     public void closesTheConnectionPool() {
         ConnectionPool pool = mock(ConnectionPool.class);
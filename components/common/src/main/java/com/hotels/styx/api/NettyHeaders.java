@@ -0,0 +1,45 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+
+/**
+ * Conversions between Netty HttpHeaders and Styx message builders.
+ */
+public final class NettyHeaders {
+    private NettyHeaders() {
+    }
+
+    /**
+     * Sets the headers of a request builder from Netty headers. Plain {@link DefaultHttpHeaders},
+     * as produced by the Netty HTTP decoder, are adopted without copying, so the caller must not
+     * use them afterwards. Other implementations are copied.
+     *
+     * @param builder request builder
+     * @param headers Netty headers
+     * @return the request builder
+     */
+    public static LiveHttpRequest.Builder adoptHeaders(LiveHttpRequest.Builder builder, HttpHeaders headers) {
+        if (headers.getClass() == DefaultHttpHeaders.class) {
+            return builder.headersBuilder(new com.hotels.styx.api.HttpHeaders.Builder((DefaultHttpHeaders) headers));
+        }
+
+        headers.forEach(entry -> builder.addHeader(entry.getKey(), entry.getValue()));
+        return builder;
+    }
+}
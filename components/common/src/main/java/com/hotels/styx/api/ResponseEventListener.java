@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,64 +15,126 @@
  */
 package com.hotels.styx.api;
 
-import com.hotels.styx.common.EventProcessor;
-import com.hotels.styx.common.QueueDrainingEventProcessor;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.CoreSubscriber;
 import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
 
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
-import static com.hotels.styx.api.ResponseEventListener.State.INITIAL;
-import static com.hotels.styx.api.ResponseEventListener.State.COMPLETED;
-import static com.hotels.styx.api.ResponseEventListener.State.STREAMING;
-import static com.hotels.styx.api.ResponseEventListener.State.TERMINATED;
 import static java.util.Objects.requireNonNull;
 
 /**
  * Associate callbacks to Streaming Response object.
+ * <p>
+ * The callbacks are driven by a single operator, which observes both the response publisher and
+ * the response body. Layers that each want to observe the same response share one listener:
+ * calling {@link #from(Publisher)} with a publisher returned by {@link #apply()}, or with an
+ * {@link Eventual} wrapping it, returns the existing listener so that further callbacks are
+ * added to it rather than stacking another operator. Callbacks accumulate, and run in the
+ * order they were registered. They should be registered before the response is subscribed to.
+ * <p>
+ * The callbacks are shared, but each subscription to the response tracks its own state, so that
+ * a re-subscribed response fires its callbacks again. Exceptions thrown by callbacks are logged.
  */
 public class ResponseEventListener {
-    private final Flux<LiveHttpResponse> publisher;
-    private Consumer<Throwable> responseErrorAction = cause -> { };
-    private Consumer<Throwable> contentErrorAction = cause -> { };
-    private Consumer<LiveHttpResponse> onCompletedAction = r -> { };
-    private Runnable cancelAction = () -> { };
-    private Runnable onHeaders = () -> { };
-    private Runnable whenFinishedAction = () -> { };
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseEventListener.class);
+
+    private static final Runnable NO_ACTION = () -> { };
+    private static final Consumer<Object> NO_CONSUMER = it -> { };
+
+    private static final int INITIAL = 0;
+    private static final int STREAMING = 1;
+    private static final int TERMINATED = 2;
+    private static final int COMPLETED = 3;
+
+    private static final AtomicIntegerFieldUpdater<Session> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Session.class, "state");
+
+    private final Function<Session, Publisher<LiveHttpResponse>> source;
+    private final Lifecycle lifecycle = new Lifecycle();
+    private Consumer<? super Throwable> responseErrorAction = NO_CONSUMER;
+    private Consumer<? super Throwable> contentErrorAction = NO_CONSUMER;
+    private Consumer<? super LiveHttpResponse> onCompletedAction = NO_CONSUMER;
+    private Runnable cancelAction = NO_ACTION;
+    private Runnable onHeaders = NO_ACTION;
+    private Runnable whenFinishedAction = NO_ACTION;
+
+    private ResponseEventListener(Function<Session, Publisher<LiveHttpResponse>> source) {
+        this.source = requireNonNull(source);
+    }
 
-    private volatile State state = INITIAL;
+    public static ResponseEventListener from(Publisher<LiveHttpResponse> publisher) {
+        requireNonNull(publisher);
+        Publisher<LiveHttpResponse> source = publisher instanceof Eventual
+                ? ((Eventual<LiveHttpResponse>) publisher).publisher()
+                : publisher;
 
-    private ResponseEventListener(Publisher<LiveHttpResponse> publisher) {
-        this.publisher = Flux.from(requireNonNull(publisher));
+        if (source instanceof Lifecycle) {
+            return ((Lifecycle) source).listener();
+        }
+        return new ResponseEventListener(session -> publisher);
     }
 
-    public static ResponseEventListener from(Publisher<LiveHttpResponse> publisher) {
-        return new ResponseEventListener(publisher);
+    /**
+     * Creates a listener for a response obtained from a resource, such as a pooled connection.
+     * <p>
+     * Every subscription acquires its own resource from {@code resource}. The resource is
+     * released once the response body has been fully consumed, and discarded if the response
+     * fails or is cancelled at any point, including before the resource has been acquired.
+     *
+     * @param resource publisher of the resource
+     * @param response a function that produces the response from an acquired resource
+     * @param release action that releases the resource after a successful response
+     * @param discard action that discards the resource after an unsuccessful response
+     * @param <R> resource type
+     * @return a new listener
+     */
+    public static <R> ResponseEventListener using(
+            Publisher<R> resource,
+            Function<? super R, ? extends Publisher<LiveHttpResponse>> response,
+            Consumer<? super R> release,
+            Consumer<? super R> discard) {
+        requireNonNull(resource);
+        requireNonNull(response);
+        requireNonNull(release);
+        requireNonNull(discard);
+
+        return new ResponseEventListener(session -> Flux.from(resource)
+                .flatMap(it -> {
+                    session.attach(new Attachment(() -> release.accept(it), () -> discard.accept(it)));
+                    return response.apply(it);
+                }));
     }
 
     public ResponseEventListener whenCancelled(Runnable action) {
-        this.cancelAction = requireNonNull(action);
+        this.cancelAction = andThen(cancelAction, requireNonNull(action));
         return this;
     }
 
     public ResponseEventListener whenResponseError(Consumer<Throwable> responseErrorAction) {
-        this.responseErrorAction = requireNonNull(responseErrorAction);
+        this.responseErrorAction = andThen(this.responseErrorAction, requireNonNull(responseErrorAction));
         return this;
     }
 
     public ResponseEventListener whenContentError(Consumer<Throwable> contentErrorAction) {
-        this.contentErrorAction = requireNonNull(contentErrorAction);
+        this.contentErrorAction = andThen(this.contentErrorAction, requireNonNull(contentErrorAction));
         return this;
     }
 
     public ResponseEventListener whenCompleted(Consumer<LiveHttpResponse> completeAction) {
-        this.onCompletedAction = requireNonNull(completeAction);
+        this.onCompletedAction = andThen(this.onCompletedAction, requireNonNull(completeAction));
         return this;
     }
 
     public ResponseEventListener whenHeadersComplete(Runnable action) {
-        this.onHeaders = requireNonNull(action);
+        this.onHeaders = andThen(onHeaders, requireNonNull(action));
         return this;
     }
 
@@ -84,132 +146,286 @@ public class ResponseEventListener {
      * @return the builder
      */
     public ResponseEventListener whenFinished(Runnable action) {
-        this.whenFinishedAction = requireNonNull(action);
+        this.whenFinishedAction = andThen(whenFinishedAction, requireNonNull(action));
         return this;
     }
 
     public Flux<LiveHttpResponse> apply() {
+        return lifecycle;
+    }
 
-        EventProcessor eventProcessor = new QueueDrainingEventProcessor(
-                event -> {
-                    switch (state) {
-                        case INITIAL:
-                            if (event instanceof MessageHeaders) {
-                                onHeaders.run();
-                                state = STREAMING;
-                            } else if (event instanceof MessageCancelled) {
-                                cancelAction.run();
-                                whenFinishedAction.run();
-                                state = TERMINATED;
-                            } else if (event instanceof MessageCompleted) {
-                                // TODO: Add custom exception type?
-                                responseErrorAction.accept(new RuntimeException("Response Observable completed without message headers."));
-                                whenFinishedAction.run();
-                                state = TERMINATED;
-                            } else if (event instanceof MessageError) {
-                                responseErrorAction.accept(((MessageError) event).cause());
-                                whenFinishedAction.run();
-                                state = TERMINATED;
-                            }
-
-                            break;
-                        case STREAMING:
-                            if (event instanceof ContentEnd) {
-                                onCompletedAction.accept(((ContentEnd) event).response);
-                                whenFinishedAction.run();
-                                state = COMPLETED;
-                            } else if (event instanceof ContentError) {
-                                contentErrorAction.accept(((ContentError) event).cause());
-                                whenFinishedAction.run();
-                                state = TERMINATED;
-                            } else if (event instanceof ContentCancelled) {
-                                cancelAction.run();
-                                whenFinishedAction.run();
-                                state = TERMINATED;
-                            }
-
-                            break;
-                    }
-                });
-
-        return publisher
-                .doOnNext(headers -> eventProcessor.submit(new MessageHeaders()))
-                .doOnComplete(() -> eventProcessor.submit(new MessageCompleted()))
-                .doOnError(cause -> eventProcessor.submit(new MessageError(cause)))
-                .doOnCancel(() -> eventProcessor.submit(new MessageCancelled()))
-                .map(response ->
-                    response.newBuilder()
-                            .body(it -> it.doOnEnd(ifError(cause -> eventProcessor.submit(new ContentError(cause)))))
-                            .body(it -> it.doOnEnd(ifSuccessful(() -> eventProcessor.submit(new ContentEnd(response)))))
-                            .body(it -> it.doOnCancel(() -> eventProcessor.submit(new ContentCancelled())))
-                            .build());
-    }
-
-    enum State {
-        INITIAL,
-        STREAMING,
-        TERMINATED,
-        COMPLETED
-    }
-
-    private static Consumer<Optional<Throwable>> ifError(Consumer<Throwable> action) {
-        return maybeCause -> maybeCause.ifPresent(action);
-    }
-
-    private static Consumer<Optional<Throwable>> ifSuccessful(Runnable action) {
-        return maybeCause -> {
-            if (!maybeCause.isPresent()) {
-                action.run();
-            }
+    private static Runnable andThen(Runnable first, Runnable second) {
+        if (first == NO_ACTION) {
+            return second;
+        }
+        return () -> {
+            runQuietly(first);
+            runQuietly(second);
         };
     }
 
-    private static class MessageHeaders {
+    private static <T> Consumer<T> andThen(Consumer<? super T> first, Consumer<? super T> second) {
+        if (first == NO_CONSUMER) {
+            return second::accept;
+        }
+        return value -> {
+            acceptQuietly(first, value);
+            acceptQuietly(second, value);
+        };
+    }
 
+    // Exceptions thrown by callbacks must not disturb the response stream.
+    private static void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Response event callback failed", e);
+        }
     }
 
-    private static class MessageError {
-        private Throwable cause;
+    private static <T> void acceptQuietly(Consumer<? super T> action, T value) {
+        try {
+            action.accept(value);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Response event callback failed", e);
+        }
+    }
 
-        public MessageError(Throwable cause) {
+    /**
+     * A resource acquired for one subscription, and the actions that dispose of it.
+     */
+    private static final class Attachment {
+        private final Runnable release;
+        private final Runnable discard;
 
-            this.cause = cause;
+        Attachment(Runnable release, Runnable discard) {
+            this.release = release;
+            this.discard = discard;
         }
+    }
+
+    /**
+     * The lifecycle state of one subscription to the response publisher.
+     * <p>
+     * Each subscription, including a re-subscription by a retrying operator, goes through
+     * its own lifecycle and fires the listener callbacks independently.
+     */
+    private final class Session {
+        private final AtomicReference<Attachment> attachment = new AtomicReference<>();
+        private volatile int state = INITIAL;
 
-        public Throwable cause() {
-            return cause;
+        private boolean transition(int from, int to) {
+            return state == from && STATE.compareAndSet(this, from, to);
+        }
+
+        void attach(Attachment resource) {
+            attachment.set(resource);
+            // The response may have been cancelled while the resource was being acquired:
+            if (state != INITIAL) {
+                detach(false);
+            }
+        }
+
+        private void detach(boolean successful) {
+            Attachment resource = attachment.getAndSet(null);
+            if (resource != null) {
+                runQuietly(successful ? resource.release : resource.discard);
+            }
+        }
+
+        void headers() {
+            if (transition(INITIAL, STREAMING)) {
+                runQuietly(onHeaders);
+            }
+        }
+
+        void messageError(Throwable cause) {
+            if (transition(INITIAL, TERMINATED)) {
+                detach(false);
+                acceptQuietly(responseErrorAction, cause);
+                runQuietly(whenFinishedAction);
+            }
+        }
+
+        void messageCompleted() {
+            if (transition(INITIAL, TERMINATED)) {
+                detach(false);
+                // TODO: Add custom exception type?
+                acceptQuietly(responseErrorAction, new RuntimeException("Response Observable completed without message headers."));
+                runQuietly(whenFinishedAction);
+            }
+        }
+
+        void messageCancelled() {
+            if (transition(INITIAL, TERMINATED)) {
+                detach(false);
+                runQuietly(cancelAction);
+                runQuietly(whenFinishedAction);
+            }
+        }
+
+        void contentEnd(LiveHttpResponse response) {
+            if (transition(STREAMING, COMPLETED)) {
+                detach(true);
+                acceptQuietly(onCompletedAction, response);
+                runQuietly(whenFinishedAction);
+            }
+        }
+
+        void contentError(Throwable cause) {
+            if (transition(STREAMING, TERMINATED)) {
+                detach(false);
+                acceptQuietly(contentErrorAction, cause);
+                runQuietly(whenFinishedAction);
+            }
+        }
+
+        void contentCancelled() {
+            if (transition(STREAMING, TERMINATED)) {
+                detach(false);
+                runQuietly(cancelAction);
+                runQuietly(whenFinishedAction);
+            }
         }
     }
 
-    private static class MessageCompleted {
+    /**
+     * The response publisher with lifecycle events attached.
+     */
+    private final class Lifecycle extends Flux<LiveHttpResponse> {
+        ResponseEventListener listener() {
+            return ResponseEventListener.this;
+        }
 
+        @Override
+        public void subscribe(CoreSubscriber<? super LiveHttpResponse> actual) {
+            Session session = new Session();
+            source.apply(session).subscribe(new ResponseSubscriber(actual, session));
+        }
     }
 
-    private static class MessageCancelled {
+    private final class ResponseSubscriber implements CoreSubscriber<LiveHttpResponse>, Subscription {
+        private final CoreSubscriber<? super LiveHttpResponse> actual;
+        private final Session session;
+        private Subscription upstream;
+
+        ResponseSubscriber(CoreSubscriber<? super LiveHttpResponse> actual, Session session) {
+            this.actual = actual;
+            this.session = session;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.upstream = subscription;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(LiveHttpResponse response) {
+            session.headers();
+            actual.onNext(response.newBuilder()
+                    .body(body -> new ByteStream(new Content(body, response, session)))
+                    .build());
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            session.messageError(cause);
+            actual.onError(cause);
+        }
+
+        @Override
+        public void onComplete() {
+            session.messageCompleted();
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
 
+        @Override
+        public void cancel() {
+            session.messageCancelled();
+            upstream.cancel();
+        }
     }
 
-    private static class ContentEnd {
+    /**
+     * The response body with lifecycle events attached.
+     */
+    private final class Content extends Flux<Buffer> {
+        private final Publisher<Buffer> body;
         private final LiveHttpResponse response;
-        public ContentEnd(LiveHttpResponse response) {
+        private final Session session;
+
+        Content(Publisher<Buffer> body, LiveHttpResponse response, Session session) {
+            this.body = body;
             this.response = response;
+            this.session = session;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super Buffer> actual) {
+            body.subscribe(new ContentSubscriber(actual, response, session));
         }
     }
 
-    private static class ContentError {
-        private Throwable cause;
+    private final class ContentSubscriber implements CoreSubscriber<Buffer>, Subscription {
+        private final CoreSubscriber<? super Buffer> actual;
+        private final LiveHttpResponse response;
+        private final Session session;
+        private Subscription upstream;
 
-        public ContentError(Throwable cause) {
+        ContentSubscriber(CoreSubscriber<? super Buffer> actual, LiveHttpResponse response, Session session) {
+            this.actual = actual;
+            this.response = response;
+            this.session = session;
+        }
 
-            this.cause = cause;
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
         }
 
-        public Throwable cause() {
-            return cause;
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.upstream = subscription;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(Buffer buffer) {
+            actual.onNext(buffer);
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            session.contentError(cause);
+            actual.onError(cause);
         }
-    }
 
-    private static class ContentCancelled {
+        @Override
+        public void onComplete() {
+            session.contentEnd(response);
+            actual.onComplete();
+        }
 
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            session.contentCancelled();
+            upstream.cancel();
+        }
     }
 }
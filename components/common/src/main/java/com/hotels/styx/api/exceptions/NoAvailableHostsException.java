@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -33,8 +33,17 @@ public class NoAvailableHostsException extends RuntimeException implements StyxE
      * @param applicationId ID of the application for which there are no hosts
      */
     public NoAvailableHostsException(Id applicationId) {
-        super(String.format("No hosts available for application %s", requireNonNull(applicationId)));
-        this.applicationId = applicationId;
+        this.applicationId = requireNonNull(applicationId);
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("No hosts available for application %s", applicationId);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraces.writable() ? super.fillInStackTrace() : this;
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -37,10 +37,20 @@ public class OriginUnreachableException extends TransportException implements St
      * @param cause exception that caused this exception
      */
     public OriginUnreachableException(Origin origin, Throwable cause) {
-        super(format(MESSAGE_FORMAT, origin), cause);
+        super(null, cause);
         this.origin = origin;
     }
 
+    @Override
+    public String getMessage() {
+        return format(MESSAGE_FORMAT, origin);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraces.writable() ? super.fillInStackTrace() : this;
+    }
+
     /**
      * Origin that is down.
      *
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -27,10 +27,29 @@ import static java.lang.String.format;
  */
 public class ResponseTimeoutException extends TransportException implements StyxException {
     private final Origin origin;
+    private final String reason;
+    private final long bytesReceived;
+    private final long chunksReceived;
+    private final long bytesEmitted;
+    private final long chunksEmitted;
 
     public ResponseTimeoutException(Origin origin, String reason, long bytesReceived, long chunksReceived, long bytesEmitted, long chunksEmitted) {
-        super(message(origin, reason, bytesReceived, chunksReceived, bytesEmitted, chunksEmitted));
         this.origin = origin;
+        this.reason = reason;
+        this.bytesReceived = bytesReceived;
+        this.chunksReceived = chunksReceived;
+        this.bytesEmitted = bytesEmitted;
+        this.chunksEmitted = chunksEmitted;
+    }
+
+    @Override
+    public String getMessage() {
+        return message(origin, reason, bytesReceived, chunksReceived, bytesEmitted, chunksEmitted);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraces.writable() ? super.fillInStackTrace() : this;
     }
 
     /**
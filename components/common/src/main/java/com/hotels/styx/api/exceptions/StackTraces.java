@@ -0,0 +1,39 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.exceptions;
+
+import org.slf4j.Logger;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Decides whether the proxy failure exceptions capture a stack trace.
+ * <p>
+ * These exceptions are created on every failed request, and during an origin outage
+ * that can be thousands per second. Their stack traces only ever show Netty and
+ * Reactor internals, so they are captured only when DEBUG logging is enabled for
+ * this package.
+ */
+final class StackTraces {
+    private static final Logger LOGGER = getLogger(StackTraces.class.getPackage().getName());
+
+    private StackTraces() {
+    }
+
+    static boolean writable() {
+        return LOGGER.isDebugEnabled();
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -47,4 +47,9 @@ public class TransportException extends RuntimeException {
         super(message, cause);
     }
 
+    /**
+     * Constructor for subclasses that override {@link #getMessage()}.
+     */
+    protected TransportException() {
+    }
 }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -45,11 +45,21 @@ public class TransportLostException extends TransportException implements StyxEx
      * @param origin  origin connected to
      */
     public TransportLostException(SocketAddress address, Origin origin) {
-        super(format(MESSAGE_FORMAT, origin, address));
         this.address = address;
         this.origin = origin;
     }
 
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : format(MESSAGE_FORMAT, origin, address);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraces.writable() ? super.fillInStackTrace() : this;
+    }
+
     /**
      * Address of socket used for connection.
      *
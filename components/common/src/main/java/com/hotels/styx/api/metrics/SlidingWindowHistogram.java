@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,73 +18,114 @@ package com.hotels.styx.api.metrics;
 import com.hotels.styx.api.Clock;
 import com.hotels.styx.api.Clocks;
 import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.hotels.styx.common.Preconditions.checkArgument;
-import static java.lang.System.currentTimeMillis;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Implements an HDR histogram with a sliding window behaviour. The sliding
  * window size is fixed to 10 seconds and window granularity is one second.
+ * <p>
+ * Values are recorded into an HdrHistogram {@link Recorder}, which is wait-free for writers.
+ * Recorded values are moved into the per-interval histograms of the sliding window when the
+ * histogram is read, and when a writer is the first to record in a new interval. Neither
+ * blocks writers: a writer skips the move if a reader is already doing it.
  */
 public final class SlidingWindowHistogram {
     private static final int DEFAULT_NUMBER_OF_INTERVALS = 10;
+    private static final long NO_INTERVAL = Long.MIN_VALUE;
+
     private final Clock clock;
+    private final Recorder recorder;
     private final Histogram aggregateHistogram;
     private final IntervalBucket[] window;
+    private final ReentrantLock lock = new ReentrantLock();
 
     private final int numberOfIntervals;
     private final long intervalDurationMillis;
-    private long lastUpdateTime;
+    private volatile long currentInterval;
+    private Histogram recycledHistogram;
 
     private SlidingWindowHistogram(Builder builder) {
         this.numberOfIntervals = builder.numberOfIntervals;
         this.intervalDurationMillis = builder.intervalDurationMillis;
         this.clock = builder.clock;
 
-        this.aggregateHistogram = new Histogram(builder.lowestDiscernibleValue, builder.highestTrackableValue, builder.numberOfSignificantDigits);
-        if (builder.autoResize) {
-            this.aggregateHistogram.setAutoResize(true);
-        }
+        this.recorder = builder.autoResize
+                ? new Recorder(builder.numberOfSignificantDigits)
+                : new Recorder(builder.lowestDiscernibleValue, builder.highestTrackableValue, builder.numberOfSignificantDigits);
+        this.aggregateHistogram = newHistogram(builder);
 
         this.window = new IntervalBucket[this.numberOfIntervals];
         for (int i = 0; i < this.numberOfIntervals; i++) {
-            this.window[i] = new IntervalBucket(this.aggregateHistogram, builder.lowestDiscernibleValue,
-                    builder.highestTrackableValue, builder.numberOfSignificantDigits, builder.autoResize);
+            this.window[i] = new IntervalBucket(newHistogram(builder));
         }
 
-        this.lastUpdateTime = currentTimeMillis();
+        this.currentInterval = intervalNumber(clock.tickMillis());
     }
 
-    public synchronized void recordValue(long msValue) {
-        checkArgument(msValue >= 0, "Recorded value must be a positive number.");
+    private static Histogram newHistogram(Builder builder) {
+        Histogram histogram = new Histogram(builder.lowestDiscernibleValue, builder.highestTrackableValue, builder.numberOfSignificantDigits);
+        if (builder.autoResize) {
+            histogram.setAutoResize(true);
+        }
+        return histogram;
+    }
 
-        long currentTime = clock.tickMillis();
-        purgeOldHistograms(currentTime);
+    public void recordValue(long msValue) {
+        checkArgument(msValue >= 0, "Recorded value must be a positive number.");
 
-        int bucket = bucketFromTime(currentTime);
-        window[bucket].recordValue(msValue);
+        long interval = intervalNumber(clock.tickMillis());
+        if (interval != currentInterval && lock.tryLock()) {
+            try {
+                advance(interval);
+            } finally {
+                lock.unlock();
+            }
+        }
 
-        lastUpdateTime = currentTime;
+        recorder.recordValue(msValue);
     }
 
-    public synchronized double getMean() {
-        return getAggregateHistogram().getMean();
+    public double getMean() {
+        lock.lock();
+        try {
+            return getAggregateHistogram().getMean();
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized double getValueAtPercentile(double percentile) {
-        return getAggregateHistogram().getValueAtPercentile(percentile);
+    public double getValueAtPercentile(double percentile) {
+        lock.lock();
+        try {
+            return getAggregateHistogram().getValueAtPercentile(percentile);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized double getStdDeviation() {
-        return getAggregateHistogram().getStdDeviation();
+    public double getStdDeviation() {
+        lock.lock();
+        try {
+            return getAggregateHistogram().getStdDeviation();
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized Histogram copy() {
-        return getAggregateHistogram().copy();
+    public Histogram copy() {
+        lock.lock();
+        try {
+            return getAggregateHistogram().copy();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public int windowSize() {
@@ -96,87 +137,72 @@ public final class SlidingWindowHistogram {
     }
 
     private Histogram getAggregateHistogram() {
-        long currentTime = clock.tickMillis();
-        purgeOldHistograms(currentTime);
-
-        aggregateHistograms();
+        advance(intervalNumber(clock.tickMillis()));
         return aggregateHistogram;
     }
 
-    private boolean timePassed(long currentTime) {
-        return intervalNumber(lastUpdateTime) < intervalNumber(currentTime);
-    }
+    /**
+     * Moves the values recorded since the last call into the current interval bucket,
+     * then makes the given interval the current one, expiring intervals that fall out of the window.
+     * Must be called with the lock held.
+     */
+    private void advance(long interval) {
+        long previousInterval = currentInterval;
+
+        recycledHistogram = recorder.getIntervalHistogram(recycledHistogram);
+        if (recycledHistogram.getTotalCount() > 0 && !expired(previousInterval, interval)) {
+            IntervalBucket bucket = window[bucketFromInterval(previousInterval)];
+            if (bucket.interval != previousInterval) {
+                bucket.reset(aggregateHistogram);
+                bucket.interval = previousInterval;
+            }
+            bucket.add(recycledHistogram, aggregateHistogram);
+        }
 
-    private void purgeOldHistograms(long currentTime) {
-        if (timePassed(currentTime)) {
-            int i = 0;
-            long startTime = Math.min(lastUpdateTime + intervalDurationMillis, currentTime);
-            for (long t = startTime; i < numberOfIntervals && t <= currentTime; i++, t += intervalDurationMillis) {
-                int bucket = bucketFromTime(t);
-                window[bucket].reset();
+        if (interval > previousInterval) {
+            currentInterval = interval;
+            for (IntervalBucket bucket : window) {
+                if (bucket.interval != NO_INTERVAL && expired(bucket.interval, interval)) {
+                    bucket.reset(aggregateHistogram);
+                }
             }
         }
     }
 
-    private int bucketFromTime(long timeMs) {
-        return (int) (intervalNumber(timeMs) % numberOfIntervals);
+    private boolean expired(long interval, long now) {
+        return interval <= now - numberOfIntervals;
     }
 
-    private long intervalNumber(long timeMs) {
-        return timeMs / intervalDurationMillis;
+    private int bucketFromInterval(long interval) {
+        return (int) Math.floorMod(interval, (long) numberOfIntervals);
     }
 
-    private void aggregateHistograms() {
-        for (int i = 0; i < numberOfIntervals; i++) {
-            window[i].aggregate();
-        }
+    private long intervalNumber(long timeMs) {
+        return timeMs / intervalDurationMillis;
     }
 
     private static class IntervalBucket {
-        private final Histogram aggregateHistogram;
         private final Histogram intervalHistogram;
-        private IntervalState state;
-
-        public IntervalBucket(Histogram aggregateHistogram, long lowestDiscernibleValue, long highestTrackableValue, int numberOfSignificantDigits, Boolean autoResize) {
-            this.aggregateHistogram = aggregateHistogram;
-            this.intervalHistogram = new Histogram(lowestDiscernibleValue, highestTrackableValue, numberOfSignificantDigits);
-            if (autoResize) {
-                this.intervalHistogram.setAutoResize(true);
-            }
-            this.state = IntervalState.EMPTY;
-        }
+        private long interval = NO_INTERVAL;
 
-        public void recordValue(long msValue) {
-            intervalHistogram.recordValue(msValue);
-            if (this.state == IntervalState.AGGREGATED) {
-                aggregateHistogram.recordValue(msValue);
-            } else {
-                this.state = IntervalState.UPDATED;
-            }
+        IntervalBucket(Histogram intervalHistogram) {
+            this.intervalHistogram = intervalHistogram;
         }
 
-        public void reset() {
-            if (this.state == IntervalState.AGGREGATED) {
-                aggregateHistogram.subtract(this.intervalHistogram);
-            }
-            this.intervalHistogram.reset();
-            this.state = IntervalState.EMPTY;
+        void add(Histogram values, Histogram aggregateHistogram) {
+            intervalHistogram.add(values);
+            aggregateHistogram.add(values);
         }
 
-        public void aggregate() {
-            if (this.state == IntervalState.UPDATED) {
-                aggregateHistogram.add(this.intervalHistogram);
-                this.state = IntervalState.AGGREGATED;
+        void reset(Histogram aggregateHistogram) {
+            if (intervalHistogram.getTotalCount() > 0) {
+                aggregateHistogram.subtract(intervalHistogram);
+                intervalHistogram.reset();
             }
+            interval = NO_INTERVAL;
         }
     }
 
-    private enum IntervalState {
-        AGGREGATED,
-        UPDATED,
-        EMPTY
-    }
-
     /**
      * A builder object for constructing SlidingWindowHistogram instances.
      */
@@ -0,0 +1,79 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A family of counters that differ only by HTTP response status code.
+ * <p>
+ * Counters for status codes 100-599 are held in a flat array, so that recording a
+ * response is an array lookup and a counter increment, instead of building tags and
+ * looking the counter up from the registry. A counter is registered the first time its
+ * status code is recorded, so that unused status codes do not show up as metrics.
+ * Status codes outside the valid range are looked up from the factory every time.
+ */
+public final class StatusCounters {
+    private static final int MIN_STATUS_CODE = 100;
+    private static final int MAX_STATUS_CODE = 599;
+
+    private final IntFunction<Counter> factory;
+    private final AtomicReferenceArray<Counter> counters = new AtomicReferenceArray<>(MAX_STATUS_CODE - MIN_STATUS_CODE + 1);
+
+    /**
+     * Constructs an instance.
+     *
+     * @param factory creates, or looks up, the counter for a status code
+     */
+    public StatusCounters(IntFunction<Counter> factory) {
+        this.factory = requireNonNull(factory);
+    }
+
+    /**
+     * Increments the counter for a status code.
+     *
+     * @param statusCode HTTP response status code
+     */
+    public void increment(int statusCode) {
+        counter(statusCode).increment();
+    }
+
+    /**
+     * Returns the counter for a status code.
+     *
+     * @param statusCode HTTP response status code
+     * @return counter
+     */
+    public Counter counter(int statusCode) {
+        if (statusCode < MIN_STATUS_CODE || statusCode > MAX_STATUS_CODE) {
+            return factory.apply(statusCode);
+        }
+
+        int index = statusCode - MIN_STATUS_CODE;
+        Counter counter = counters.get(index);
+        if (counter == null) {
+            // Registration is idempotent, so a race here at most looks the same counter up twice.
+            counter = factory.apply(statusCode);
+            counters.set(index, counter);
+        }
+        return counter;
+    }
+}
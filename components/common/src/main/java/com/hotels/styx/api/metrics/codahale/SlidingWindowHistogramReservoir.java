@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -34,12 +34,14 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * A {@link Reservoir} backed by a {@link SlidingWindowHistogram}.
+ * <p>
+ * Updates do not lock. Snapshots are cached until the reservoir is updated, or the sliding window has passed.
  */
 public class SlidingWindowHistogramReservoir implements Reservoir {
     private final SlidingWindowHistogram histogram;
     private final Clock clock;
     private volatile HistogramSnapshot snapshot;
-    private boolean updated = true;
+    private volatile boolean updated = true;
     private long snapshotCreationTime;
 
     public SlidingWindowHistogramReservoir() {
@@ -66,16 +68,20 @@ public class SlidingWindowHistogramReservoir implements Reservoir {
     }
 
     @Override
-    public synchronized void update(long value) {
-        updated = true;
+    public void update(long value) {
         histogram.recordValue(value);
+        if (!updated) {
+            // Avoids a write to this shared field, and its cache-line traffic, on every update.
+            updated = true;
+        }
     }
 
     @Override
     public synchronized Snapshot getSnapshot() {
         if (updated || snapshotExpired(clock.tickMillis())) {
-            snapshot = new HistogramSnapshot(histogram);
+            // Cleared before the copy so that a concurrent update invalidates the new snapshot.
             updated = false;
+            snapshot = new HistogramSnapshot(histogram);
             snapshotCreationTime = clock.tickMillis();
         }
         return snapshot;
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -22,10 +22,15 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Allows various types of failure handling to be applied when applying a function over a list of inputs.
@@ -76,6 +81,56 @@ public class FailureHandlingStrategy<T, R> {
         return successes;
     }
 
+    /**
+     * Execute a function on each item in a list of inputs concurrently, using the configured failure handling.
+     * <p>
+     * The failure callbacks are invoked on the calling thread, in input order, exactly as in
+     * {@link #process(List, FallibleFunction)}. Outputs are also returned in input order. If the callback for
+     * an individual failure rethrows, inputs that have not started yet are skipped.
+     *
+     * @param inputs a list of inputs
+     * @param function a function to execute
+     * @param executor an executor to run the function on
+     * @return a list of outputs
+     */
+    public List<R> process(List<T> inputs, FallibleFunction<T, R> function, Executor executor) {
+        List<CompletableFuture<R>> futures = inputs.stream()
+                .map(input -> supplyAsync(() -> {
+                    try {
+                        return function.execute(input);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor))
+                .collect(toList());
+
+        List<R> successes = new ArrayList<>();
+        Map<T, Exception> failures = new LinkedHashMap<>();
+
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                try {
+                    successes.add(futures.get(i).join());
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    onEachFailure.accept(inputs.get(i), cause);
+                    failures.put(inputs.get(i), cause);
+                }
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        if (!failures.isEmpty()) {
+            failuresPostProcessing.accept(failures);
+        }
+
+        return successes;
+    }
+
     /**
      * Builds {@link FailureHandlingStrategy}.
      *
@@ -0,0 +1,232 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.common;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hotels.styx.api.Eventual;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hotels.styx.common.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A bounded executor for short blocking tasks that must not run on an event loop, such as
+ * local file lookups or calls into synchronous libraries.
+ * <p>
+ * Tasks run on virtual threads when the JVM supports them, and on daemon platform threads
+ * otherwise. At most {@code maxConcurrency} tasks run at once, and at most {@code maxQueueSize}
+ * wait for a thread. Further tasks are rejected with an {@link OffloadRejectedException}. Tasks
+ * submitted after {@link #shutdown()} fail with a plain {@link RejectedExecutionException}.
+ * Results are delivered on the executor supplied with each task, normally the event loop that
+ * is handling the request.
+ */
+public final class OffloadExecutor {
+    public static final String QUEUE_TIME_TIMER_NAME = "proxy.offload.queueTime";
+    public static final String IN_FLIGHT_GAUGE_NAME = "proxy.offload.inFlight";
+    public static final String REJECTED_COUNTER_NAME = "proxy.offload.rejected";
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 64;
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 1024;
+
+    private static final Logger LOGGER = getLogger(OffloadExecutor.class);
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final ThreadPoolExecutor executor;
+    private final boolean virtualThreads;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer queueTime;
+    private final Counter rejected;
+    private final int maxQueueSize;
+
+    private OffloadExecutor(String name, int maxConcurrency, int maxQueueSize, boolean preferVirtualThreads, MeterRegistry registry) {
+        checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+        checkArgument(maxQueueSize > 0, "maxQueueSize must be positive");
+
+        ThreadFactory virtualThreadFactory = preferVirtualThreads ? virtualThreadFactory(name) : null;
+        this.virtualThreads = virtualThreadFactory != null;
+        this.maxQueueSize = maxQueueSize;
+
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, KEEP_ALIVE_SECONDS, SECONDS,
+                new ArrayBlockingQueue<>(maxQueueSize),
+                virtualThreads ? virtualThreadFactory : new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.queueTime = Timer.builder(QUEUE_TIME_TIMER_NAME).register(registry);
+        this.rejected = registry.counter(REJECTED_COUNTER_NAME);
+        Gauge.builder(IN_FLIGHT_GAUGE_NAME, inFlight, AtomicInteger::get).register(registry);
+
+        LOGGER.debug("Offloading blocking tasks to {} threads. maxConcurrency={}, maxQueueSize={}",
+                virtualThreads ? "virtual" : "platform", maxConcurrency, maxQueueSize);
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param name                  thread name prefix
+     * @param maxConcurrency        maximum number of tasks running at once
+     * @param maxQueueSize          maximum number of tasks waiting for a thread
+     * @param preferVirtualThreads  use virtual threads if the JVM supports them
+     * @param registry              meter registry
+     * @return a new executor
+     */
+    public static OffloadExecutor create(String name, int maxConcurrency, int maxQueueSize, boolean preferVirtualThreads, MeterRegistry registry) {
+        return new OffloadExecutor(requireNonNull(name), maxConcurrency, maxQueueSize, preferVirtualThreads, requireNonNull(registry));
+    }
+
+    /**
+     * Runs a task on this executor and delivers its outcome on {@code resumeOn}.
+     * <p>
+     * The task is submitted when the returned {@link Eventual} is subscribed to. A task that is
+     * still queued when the subscription is cancelled is removed from the queue.
+     *
+     * @param task     blocking task
+     * @param resumeOn executor that receives the result
+     * @param <T>      type of result
+     * @return eventual result of the task. Empty if the task returns null.
+     */
+    public <T> Eventual<T> submit(Callable<T> task, Executor resumeOn) {
+        requireNonNull(task);
+        requireNonNull(resumeOn);
+
+        return new Eventual<>(Mono.create(sink -> {
+            OffloadedTask<T> offloaded = new OffloadedTask<>(task, sink, resumeOn);
+            sink.onCancel(offloaded::cancel);
+
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(offloaded);
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                sink.error(rejection(e));
+            }
+        }));
+    }
+
+    private RejectedExecutionException rejection(RejectedExecutionException cause) {
+        if (executor.isShutdown()) {
+            return cause;
+        }
+        rejected.increment();
+        return new OffloadRejectedException("Offload queue is full. maxQueueSize=" + maxQueueSize, cause);
+    }
+
+    /**
+     * Returns true if tasks run on virtual threads.
+     *
+     * @return true if tasks run on virtual threads
+     */
+    public boolean virtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Number of tasks that are queued or running.
+     *
+     * @return number of tasks in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Stops accepting tasks. Tasks already submitted are allowed to complete.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Thread.ofVirtual() is looked up reflectively, so that the same build runs on JVMs without virtual threads.
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private final class OffloadedTask<T> implements Runnable {
+        private final Callable<T> task;
+        private final MonoSink<T> sink;
+        private final Executor resumeOn;
+        private final long queuedAt = System.nanoTime();
+        private volatile boolean cancelled;
+
+        OffloadedTask(Callable<T> task, MonoSink<T> sink, Executor resumeOn) {
+            this.task = task;
+            this.sink = sink;
+            this.resumeOn = resumeOn;
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (executor.remove(this)) {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void run() {
+            queueTime.record(System.nanoTime() - queuedAt, NANOSECONDS);
+            try {
+                if (!cancelled) {
+                    call();
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private void call() {
+            T result;
+            try {
+                result = task.call();
+            } catch (Throwable cause) {
+                resume(() -> sink.error(cause));
+                return;
+            }
+            resume(() -> sink.success(result));
+        }
+
+        private void resume(Runnable completion) {
+            try {
+                resumeOn.execute(completion);
+            } catch (RejectedExecutionException e) {
+                // The event loop is shutting down. Complete here rather than leave the subscriber waiting.
+                completion.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.common;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when an {@link OffloadExecutor} has no room for a task, because too many tasks are
+ * already queued. The proxy responds with 503 Service Unavailable.
+ */
+public class OffloadRejectedException extends RejectedExecutionException {
+    public OffloadRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.common.logging;
+
+import com.hotels.styx.api.Id;
+import com.hotels.styx.api.exceptions.StyxException;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Rate limits error logging during error storms.
+ * <p>
+ * Only proxy failures, i.e. errors caused by one of the {@link StyxException}s in
+ * {@code com.hotels.styx.api.exceptions}, are rate limited. Any other error is always admitted, as
+ * it may reveal a bug whose causes vary from one occurrence to the next.
+ * <p>
+ * Proxy failures are grouped by exception class, application and origin. The first error of each group
+ * in an interval is admitted, and should be logged in full by the caller. Further errors of the
+ * same group are only counted, and the counts are logged as one summary line per group when the
+ * next error arrives after the interval has elapsed.
+ * <p>
+ * When DEBUG is enabled on the logger, every error is admitted.
+ */
+public final class AggregatedErrorLog {
+    private final Logger logger;
+    private final long intervalNanos;
+    private final int maxGroups;
+    private final LongSupplier nanoClock;
+
+    private final Map<ErrorGroup, LongAdder> suppressed = new ConcurrentHashMap<>();
+    private final LongAdder overflow = new LongAdder();
+    private final AtomicLong intervalStart;
+
+    public AggregatedErrorLog(Logger logger, Duration interval, int maxGroups) {
+        this(logger, interval, maxGroups, System::nanoTime);
+    }
+
+    AggregatedErrorLog(Logger logger, Duration interval, int maxGroups, LongSupplier nanoClock) {
+        this.logger = requireNonNull(logger);
+        this.intervalNanos = interval.toNanos();
+        this.maxGroups = maxGroups;
+        this.nanoClock = requireNonNull(nanoClock);
+        this.intervalStart = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Records an error and decides whether it should be logged.
+     *
+     * @param cause error
+     * @return true if the caller should log the error, false if it has been counted instead
+     */
+    public boolean admit(Throwable cause) {
+        if (logger.isDebugEnabled()) {
+            return true;
+        }
+
+        reportIfIntervalElapsed();
+
+        ErrorGroup group = ErrorGroup.of(cause);
+        if (group == null) {
+            return true;
+        }
+
+        LongAdder count = suppressed.get(group);
+        if (count == null) {
+            if (suppressed.size() >= maxGroups) {
+                overflow.increment();
+                return false;
+            }
+            count = suppressed.putIfAbsent(group, new LongAdder());
+            if (count == null) {
+                return true;
+            }
+        }
+        count.increment();
+        return false;
+    }
+
+    private void reportIfIntervalElapsed() {
+        long now = nanoClock.getAsLong();
+        long start = intervalStart.get();
+
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            report(NANOSECONDS.toMillis(now - start));
+        }
+    }
+
+    private void report(long elapsedMillis) {
+        Iterator<Map.Entry<ErrorGroup, LongAdder>> entries = suppressed.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<ErrorGroup, LongAdder> entry = entries.next();
+            entries.remove();
+
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                ErrorGroup group = entry.getKey();
+                logger.error("Suppressed {} similar errors in the last {} ms. exceptionClass={}, application={}, origin={}",
+                        new Object[]{count, elapsedMillis, group.exceptionClass, group.application, group.origin});
+            }
+        }
+
+        long others = overflow.sumThenReset();
+        if (others > 0) {
+            logger.error("Suppressed {} other errors in the last {} ms", others, elapsedMillis);
+        }
+    }
+
+    private static final class ErrorGroup {
+        private final String exceptionClass;
+        private final Id application;
+        private final Id origin;
+
+        private ErrorGroup(String exceptionClass, Id application, Id origin) {
+            this.exceptionClass = exceptionClass;
+            this.application = application;
+            this.origin = origin;
+        }
+
+        static ErrorGroup of(Throwable cause) {
+            Throwable head = cause;
+            while (head != null && !isProxyFailure(head)) {
+                head = head.getCause();
+            }
+
+            if (head == null) {
+                return null;
+            }
+
+            StyxException styxException = (StyxException) head;
+            return new ErrorGroup(cause.getClass().getName(), styxException.application(), styxException.origin().orElse(null));
+        }
+
+        private static boolean isProxyFailure(Throwable throwable) {
+            return throwable instanceof StyxException
+                    && throwable.getClass().getPackage() == StyxException.class.getPackage();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ErrorGroup other = (ErrorGroup) o;
+            return exceptionClass.equals(other.exceptionClass)
+                    && Objects.equals(application, other.application)
+                    && Objects.equals(origin, other.origin);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(exceptionClass, application, origin);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import static com.hotels.styx.config.schema.SchemaDsl.object;
 import static com.hotels.styx.config.schema.SchemaDsl.optional;
 import static com.hotels.styx.config.schema.SchemaDsl.string;
 import static com.hotels.styx.config.schema.SchemaDsl.union;
+import static java.lang.Double.parseDouble;
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -262,6 +263,35 @@ public class Schema {
         }
     }
 
+    /**
+     * Number schema field type. Accepts integers as well as decimal numbers.
+     */
+    public static class NumberField implements FieldType {
+        @Override
+        public void validate(List<String> parents, JsonNode parent, JsonNode value, Function<String, FieldType> typeExtensions) {
+            if (!value.isNumber() && !canParseAsNumber(value)) {
+                throw new SchemaValidationException(message(parents, describe(), value));
+            }
+        }
+
+        @Override
+        public String describe() {
+            return "NUMBER";
+        }
+
+        private static boolean canParseAsNumber(JsonNode value) {
+            if (!value.isTextual()) {
+                return false;
+            }
+            try {
+                parseDouble(value.textValue());
+                return true;
+            } catch (NumberFormatException cause) {
+                return false;
+            }
+        }
+    }
+
     /**
      * String schema field type.
      */
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,11 +16,14 @@
 package com.hotels.styx.server;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.hotels.styx.api.Eventual;
 import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.common.OffloadExecutor;
 
 import java.net.InetSocketAddress;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 
@@ -33,6 +36,7 @@ public final class HttpInterceptorContext implements HttpInterceptor.Context {
     private final boolean secure;
     private final InetSocketAddress clientAddress;
     private final Executor executor;
+    private final OffloadExecutor offloadExecutor;
 
     /**
      * Construct a new instance.
@@ -41,9 +45,22 @@ public final class HttpInterceptorContext implements HttpInterceptor.Context {
      * @param clientAddress address that request came from, or null if not-applicable
      */
     public HttpInterceptorContext(boolean secure, InetSocketAddress clientAddress, Executor executor) {
+        this(secure, clientAddress, executor, null);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param secure true if the request was received via SSL
+     * @param clientAddress address that request came from, or null if not-applicable
+     * @param executor executor that is handling the request
+     * @param offloadExecutor executor for blocking tasks, or null to run them in place
+     */
+    public HttpInterceptorContext(boolean secure, InetSocketAddress clientAddress, Executor executor, OffloadExecutor offloadExecutor) {
         this.secure = secure;
         this.clientAddress = clientAddress; // intentionally nullable
         this.executor = executor;
+        this.offloadExecutor = offloadExecutor; // intentionally nullable
     }
 
     /**
@@ -80,4 +97,11 @@ public final class HttpInterceptorContext implements HttpInterceptor.Context {
     public Executor executor() {
         return this.executor;
     }
+
+    @Override
+    public <T> Eventual<T> offload(Callable<T> task) {
+        return offloadExecutor == null
+                ? HttpInterceptor.Context.super.offload(task)
+                : offloadExecutor.submit(task, executor);
+    }
 }
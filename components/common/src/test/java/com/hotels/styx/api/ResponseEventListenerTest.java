@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -23,15 +23,20 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hotels.styx.api.HttpResponseStatus.OK;
 import static com.hotels.styx.api.LiveHttpResponse.response;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ResponseEventListenerTest {
@@ -200,4 +205,143 @@ public class ResponseEventListenerTest {
         assertTrue(responseError.get() instanceof RuntimeException);
         assertTrue(finished.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sharesListenerWithPublishersItHasAlreadyInstrumented() {
+        ResponseEventListener inner = ResponseEventListener.from(Mono.just(response(OK).build()));
+        Flux<LiveHttpResponse> applied = inner.apply();
+
+        assertSame(inner, ResponseEventListener.from(applied));
+        assertSame(inner, ResponseEventListener.from(new Eventual<>(applied)));
+        assertSame(applied, ResponseEventListener.from(applied).apply());
+    }
+
+    @Test
+    public void runsAccumulatedActionsInRegistrationOrder() {
+        List<String> events = new ArrayList<>();
+
+        Flux<LiveHttpResponse> inner = ResponseEventListener.from(
+                Mono.just(response(OK).body(new ByteStream(Flux.just(new Buffer("hey", UTF_8)))).build()))
+                .whenCompleted(response -> events.add("inner completed"))
+                .whenFinished(() -> events.add("inner finished"))
+                .apply();
+
+        Flux<LiveHttpResponse> outer = ResponseEventListener.from(new Eventual<>(inner))
+                .whenCompleted(response -> events.add("outer completed"))
+                .whenFinished(() -> events.add("outer finished"))
+                .apply();
+
+        StepVerifier.create(outer)
+                .consumeNextWith(LiveHttpMessage::consume)
+                .verifyComplete();
+
+        assertEquals(asList("inner completed", "outer completed", "inner finished", "outer finished"), events);
+    }
+
+    @Test
+    public void actionFailuresDoNotAffectOtherActionsOrTheResponse() {
+        Flux<LiveHttpResponse> listener = ResponseEventListener.from(
+                Mono.just(response(OK).body(new ByteStream(Flux.just(new Buffer("hey", UTF_8)))).build()))
+                .whenCompleted(response -> {
+                    throw new IllegalStateException();
+                })
+                .whenCompleted(response -> completed.set(response))
+                .whenFinished(() -> finished.set(true))
+                .apply();
+
+        StepVerifier.create(listener)
+                .consumeNextWith(response -> assertEquals("hey", Mono.from(response.aggregate(100)).block().bodyAs(UTF_8)))
+                .verifyComplete();
+
+        assertTrue(completed.get() != null);
+        assertTrue(finished.get());
+    }
+
+    @Test
+    public void firesEachTerminalEventOnce() {
+        AtomicReference<Integer> finishedCount = new AtomicReference<>(0);
+        EmitterProcessor<Buffer> contentPublisher = EmitterProcessor.create();
+
+        Flux<LiveHttpResponse> listener = ResponseEventListener.from(
+                Flux.just(response(OK).body(new ByteStream(contentPublisher)).build()))
+                .whenCancelled(() -> cancelled.set(true))
+                .whenContentError(cause -> contentError.set(cause))
+                .whenFinished(() -> finishedCount.updateAndGet(n -> n + 1))
+                .apply();
+
+        StepVerifier.create(listener)
+                .consumeNextWith(response ->
+                        StepVerifier.create(response.body())
+                                .then(() -> contentPublisher.onError(new RuntimeException()))
+                                .verifyError())
+                .verifyComplete();
+
+        assertTrue(contentError.get() instanceof RuntimeException);
+        assertFalse(cancelled.get());
+        assertEquals(1, finishedCount.get());
+    }
+
+    @Test
+    public void tracksEachSubscriptionSeparately() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<String> events = new ArrayList<>();
+
+        Flux<LiveHttpResponse> publisher = Flux.defer(() -> attempts.incrementAndGet() == 1
+                ? Flux.error(new RuntimeException("first attempt"))
+                : Flux.just(response(OK).body(new ByteStream(Flux.just(new Buffer("hey", UTF_8)))).build()));
+
+        Flux<LiveHttpResponse> listener = ResponseEventListener.from(publisher)
+                .whenResponseError(cause -> events.add("error"))
+                .whenHeadersComplete(() -> events.add("headers"))
+                .whenCompleted(response -> events.add("completed"))
+                .whenFinished(() -> events.add("finished"))
+                .apply();
+
+        StepVerifier.create(listener.retry(1))
+                .consumeNextWith(LiveHttpMessage::consume)
+                .verifyComplete();
+
+        assertEquals(asList("error", "finished", "headers", "completed", "finished"), events);
+    }
+
+    @Test
+    public void acquiresAndReleasesAResourceForEachSubscription() {
+        AtomicInteger acquired = new AtomicInteger();
+        List<String> events = new ArrayList<>();
+
+        Flux<LiveHttpResponse> listener = ResponseEventListener.using(
+                Flux.defer(() -> Flux.just(acquired.incrementAndGet())),
+                resource -> resource == 1
+                        ? Flux.error(new RuntimeException("first attempt"))
+                        : Flux.just(response(OK).body(new ByteStream(Flux.just(new Buffer("hey", UTF_8)))).build()),
+                resource -> events.add("released " + resource),
+                resource -> events.add("discarded " + resource))
+                .apply();
+
+        StepVerifier.create(listener.retry(1))
+                .consumeNextWith(LiveHttpMessage::consume)
+                .verifyComplete();
+
+        assertEquals(asList("discarded 1", "released 2"), events);
+    }
+
+    @Test
+    public void discardsTheResourceWhenCancelledBeforeHeaders() {
+        EmitterProcessor<String> resource = EmitterProcessor.create();
+        List<String> events = new ArrayList<>();
+
+        Flux<LiveHttpResponse> listener = ResponseEventListener.using(
+                resource,
+                it -> Flux.<LiveHttpResponse>never(),
+                it -> events.add("released " + it),
+                it -> events.add("discarded " + it))
+                .apply();
+
+        StepVerifier.create(listener)
+                .then(() -> resource.onNext("connection"))
+                .thenCancel()
+                .verify();
+
+        assertEquals(asList("discarded connection"), events);
+    }
+}
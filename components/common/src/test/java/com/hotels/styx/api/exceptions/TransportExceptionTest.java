@@ -0,0 +1,68 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.exceptions;
+
+import com.hotels.styx.api.extension.Origin;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+
+import static com.hotels.styx.api.Id.id;
+import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+
+public class TransportExceptionTest {
+    private final Origin origin = newOriginBuilder("localhost", 8080).applicationId("app").id("app-01").build();
+
+    @Test
+    public void proxyExceptionsDoNotCaptureStackTraceUnlessDebugIsEnabled() {
+        assertThat(new OriginUnreachableException(origin, null).getStackTrace(), is(emptyArray()));
+        assertThat(new NoAvailableHostsException(id("app")).getStackTrace(), is(emptyArray()));
+        assertThat(new ResponseTimeoutException(origin, "idle", 1, 2, 3, 4).getStackTrace(), is(emptyArray()));
+        assertThat(new TransportLostException(new InetSocketAddress(8080), origin).getStackTrace(), is(emptyArray()));
+    }
+
+    @Test
+    public void formatsMessagesOnDemand() {
+        assertThat(new OriginUnreachableException(origin, null).getMessage(),
+                is("Origin server is unreachable. Could not connect to origin=" + origin));
+        assertThat(new NoAvailableHostsException(id("app")).getMessage(),
+                is("No hosts available for application app"));
+        assertThat(new ResponseTimeoutException(origin, "idle", 1, 2, 3, 4).getMessage(),
+                is("No response from origin. origin=" + origin + ", reason=idle, bytesReceived=1, chunksReceived=2, bytesEmitted=3, chunksEmitted=4"));
+    }
+
+    @Test
+    public void acceptsCauseWhenNoneWasGiven() {
+        Throwable cause = new IllegalStateException();
+
+        assertThat(new NoAvailableHostsException(id("app")).initCause(cause).getCause(), is(cause));
+        assertThat(new ResponseTimeoutException(origin, "idle", 1, 2, 3, 4).initCause(cause).getCause(), is(cause));
+        assertThat(new TransportLostException(new InetSocketAddress(8080), origin).initCause(cause).getCause(), is(cause));
+    }
+
+    @Test
+    public void acceptsStackTraceSetExplicitly() {
+        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        NoAvailableHostsException exception = new NoAvailableHostsException(id("app"));
+
+        exception.setStackTrace(stackTrace);
+
+        assertThat(exception.getStackTrace(), is(stackTrace));
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -21,9 +21,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
@@ -237,6 +245,69 @@ public class SlidingWindowHistogramTest {
         assertThat(histogram.getMean(), is(closeTo(20, 1.0)));
     }
 
+    @Test
+    public void recordsConcurrentlyWithoutLosingValues() throws Exception {
+        int threads = 32;
+        int valuesPerThread = 10_000;
+        SlidingWindowHistogram histogram = newHistogram(10, 1000);
+
+        runConcurrently(threads, () -> {
+            for (int i = 1; i <= valuesPerThread; i++) {
+                histogram.recordValue(i % 100 + 1);
+            }
+        });
+
+        assertThat(histogram.copy().getTotalCount(), is((long) threads * valuesPerThread));
+    }
+
+    @Test
+    public void readsAndRotatesIntervalsWhileWritersAreRecording() throws Exception {
+        int threads = 32;
+        int valuesPerThread = 10_000;
+        AtomicLong time = new AtomicLong();
+        SlidingWindowHistogram histogram = new SlidingWindowHistogram.Builder()
+                .clock(time::incrementAndGet)
+                .lowestDiscernibleValue(1)
+                .highestTrackableValue(60000)
+                .numberOfSignificantDigits(2)
+                .numberOfIntervals(100)
+                .intervalDuration(10_000, MILLISECONDS)
+                .build();
+
+        runConcurrently(threads, () -> {
+            for (int i = 1; i <= valuesPerThread; i++) {
+                histogram.recordValue(10);
+                if (i % 1000 == 0) {
+                    histogram.getMean();
+                }
+            }
+        });
+
+        assertThat(histogram.copy().getTotalCount(), is((long) threads * valuesPerThread));
+        assertThat(histogram.getMean(), is(closeTo(10.0, 1.0)));
+    }
+
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private static Stream<Arguments> getWindowSizeAndInterval() {
         return Stream.of(
             Arguments.of(10, 1000),
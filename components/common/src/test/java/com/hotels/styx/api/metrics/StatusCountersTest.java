@@ -0,0 +1,86 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.valueOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class StatusCountersTest {
+    private MeterRegistry registry;
+    private AtomicInteger lookups;
+    private StatusCounters counters;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        lookups = new AtomicInteger();
+        counters = new StatusCounters(code -> {
+            lookups.incrementAndGet();
+            return registry.counter("response.status", "statusCode", valueOf(code));
+        });
+    }
+
+    @Test
+    public void countsResponsesPerStatusCode() {
+        counters.increment(200);
+        counters.increment(200);
+        counters.increment(503);
+
+        assertThat(registry.find("response.status").tag("statusCode", "200").counter().count(), is(2.0));
+        assertThat(registry.find("response.status").tag("statusCode", "503").counter().count(), is(1.0));
+    }
+
+    @Test
+    public void looksUpEachValidStatusCodeOnlyOnce() {
+        Counter first = counters.counter(404);
+        counters.increment(404);
+        counters.increment(404);
+
+        assertThat(counters.counter(404), is(sameInstance(first)));
+        assertThat(lookups.get(), is(1));
+    }
+
+    @Test
+    public void registersCountersOnFirstUse() {
+        assertThat(registry.find("response.status").counter(), is(nullValue()));
+
+        counters.increment(100);
+        counters.increment(599);
+
+        assertThat(registry.find("response.status").counters().size(), is(2));
+    }
+
+    @Test
+    public void looksUpStatusCodesOutsideValidRangeFromFactory() {
+        counters.increment(99);
+        counters.increment(600);
+        counters.increment(600);
+
+        assertThat(registry.find("response.status").tag("statusCode", "600").counter().count(), is(2.0));
+        assertThat(lookups.get(), is(3));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FailureHandlingStrategyTest {
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void processesInputsConcurrentlyAndReturnsOutputsInInputOrder() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        FailureHandlingStrategy<String, String> strategy = new FailureHandlingStrategy.Builder<String, String>().build();
+
+        List<String> outputs = strategy.process(asList("a", "b", "c"), input -> {
+            allStarted.countDown();
+            // Only completes if all three inputs are processed at the same time:
+            if (!allStarted.await(5, SECONDS)) {
+                throw new IllegalStateException("Inputs were not processed concurrently");
+            }
+            return input.toUpperCase();
+        }, executor);
+
+        assertThat(outputs, contains("A", "B", "C"));
+    }
+
+    @Test
+    public void reportsFailuresInInputOrder() {
+        List<String> failed = new ArrayList<>();
+        AtomicReference<Map<String, Exception>> allFailures = new AtomicReference<>();
+
+        FailureHandlingStrategy<String, String> strategy = new FailureHandlingStrategy.Builder<String, String>()
+                .doImmediatelyOnEachFailure((input, err) -> failed.add(input))
+                .doOnFailuresAfterAllProcessing(allFailures::set)
+                .build();
+
+        List<String> outputs = strategy.process(asList("a", "fail-b", "c", "fail-d"), input -> {
+            if (input.startsWith("fail")) {
+                throw new Exception("failed " + input);
+            }
+            return input;
+        }, executor);
+
+        assertThat(outputs, contains("a", "c"));
+        assertThat(failed, contains("fail-b", "fail-d"));
+        assertThat(allFailures.get().keySet(), contains("fail-b", "fail-d"));
+        assertThat(allFailures.get().get("fail-b").getMessage(), is("failed fail-b"));
+    }
+
+    @Test
+    public void propagatesExceptionsThrownByFailureHandlers() {
+        FailureHandlingStrategy<String, String> strategy = new FailureHandlingStrategy.Builder<String, String>()
+                .doImmediatelyOnEachFailure((input, err) -> {
+                    throw new IllegalStateException("fail fast", err);
+                })
+                .build();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> strategy.process(asList("a", "b"), input -> {
+            throw new Exception("failed " + input);
+        }, executor));
+
+        assertThat(e.getCause().getMessage(), is("failed a"));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.common;
+
+import com.hotels.styx.api.Eventual;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hotels.styx.common.OffloadExecutor.IN_FLIGHT_GAUGE_NAME;
+import static com.hotels.styx.common.OffloadExecutor.QUEUE_TIME_TIMER_NAME;
+import static com.hotels.styx.common.OffloadExecutor.REJECTED_COUNTER_NAME;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OffloadExecutorTest {
+    private MeterRegistry registry;
+    private ExecutorService eventLoop;
+    private OffloadExecutor offloadExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        eventLoop = newSingleThreadExecutor(runnable -> new Thread(runnable, "event-loop"));
+        offloadExecutor = OffloadExecutor.create("offload", 1, 1, false, registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        offloadExecutor.shutdown();
+        eventLoop.shutdownNow();
+    }
+
+    @Test
+    public void runsTaskAwayFromCallerAndResumesOnGivenExecutor() {
+        String[] taskThread = new String[1];
+
+        String resumedOn = Mono.from(offloadExecutor.submit(() -> {
+            taskThread[0] = Thread.currentThread().getName();
+            return "result";
+        }, eventLoop).map(result -> result + ":" + Thread.currentThread().getName())).block();
+
+        assertThat(taskThread[0], startsWith("offload-"));
+        assertThat(resumedOn, is("result:event-loop"));
+        assertThat(offloadExecutor.virtualThreads(), is(false));
+        assertThat(registry.get(QUEUE_TIME_TIMER_NAME).timer().count(), is(1L));
+    }
+
+    @Test
+    public void emitsTaskFailure() {
+        Eventual<String> result = offloadExecutor.submit(() -> {
+            throw new IllegalStateException("failed");
+        }, eventLoop);
+
+        assertThrows(IllegalStateException.class, () -> Mono.from(result).block());
+    }
+
+    @Test
+    public void completesEmptyWhenTaskReturnsNull() {
+        assertThat(Mono.from(offloadExecutor.submit(() -> null, eventLoop)).block(), is(nullValue()));
+    }
+
+    @Test
+    public void doesNotRunTaskUntilSubscribed() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        offloadExecutor.submit(() -> ran.getAndSet(true), eventLoop);
+
+        assertThat(ran.get(), is(false));
+    }
+
+    @Test
+    public void rejectsTasksWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Mono.from(offloadExecutor.submit(() -> {
+            started.countDown();
+            return release.await(5, SECONDS);
+        }, eventLoop)).subscribe();
+        assertThat(started.await(5, SECONDS), is(true));
+
+        Mono.from(offloadExecutor.submit(() -> "queued", eventLoop)).subscribe();
+
+        assertThrows(OffloadRejectedException.class,
+                () -> Mono.from(offloadExecutor.submit(() -> "rejected", eventLoop)).block());
+        assertThat(registry.get(REJECTED_COUNTER_NAME).counter().count(), is(1.0));
+        assertThat(registry.get(IN_FLIGHT_GAUGE_NAME).gauge().value(), is(2.0));
+
+        release.countDown();
+    }
+
+    @Test
+    public void rejectsTasksAfterShutdownWithoutCountingThem() {
+        offloadExecutor.shutdown();
+
+        RejectedExecutionException e = assertThrows(RejectedExecutionException.class,
+                () -> Mono.from(offloadExecutor.submit(() -> "rejected", eventLoop)).block());
+
+        assertThat(e, is(not(instanceOf(OffloadRejectedException.class))));
+        assertThat(registry.get(REJECTED_COUNTER_NAME).counter().count(), is(0.0));
+    }
+
+    @Test
+    public void removesQueuedTaskWhenSubscriptionIsCancelled() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Mono.from(offloadExecutor.submit(() -> release.await(5, SECONDS), eventLoop)).subscribe();
+        Mono.from(offloadExecutor.submit(() -> ran.getAndSet(true), eventLoop)).subscribe().dispose();
+        assertThat(offloadExecutor.inFlight(), is(1));
+
+        release.countDown();
+        Mono.from(offloadExecutor.submit(() -> "last", eventLoop)).block();
+
+        assertThat(ran.get(), is(false));
+    }
+}
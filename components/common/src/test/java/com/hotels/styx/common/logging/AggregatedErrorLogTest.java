@@ -0,0 +1,126 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.common.logging;
+
+import com.hotels.styx.api.exceptions.NoAvailableHostsException;
+import com.hotels.styx.api.exceptions.OriginUnreachableException;
+import com.hotels.styx.api.extension.Origin;
+import com.hotels.styx.support.matchers.LoggingTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ch.qos.logback.classic.Level.ERROR;
+import static com.hotels.styx.api.Id.id;
+import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
+import static com.hotels.styx.support.matchers.LoggingEventMatcher.loggingEvent;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class AggregatedErrorLogTest {
+    private static final Duration INTERVAL = Duration.ofSeconds(10);
+
+    private final Origin origin = newOriginBuilder("localhost", 8080).applicationId("app").id("app-01").build();
+    private final AtomicLong clock = new AtomicLong();
+
+    private LoggingTestSupport log;
+    private AggregatedErrorLog errorLog;
+
+    @BeforeEach
+    public void setUp() {
+        log = new LoggingTestSupport(AggregatedErrorLogTest.class);
+        errorLog = new AggregatedErrorLog(log.logger, INTERVAL, 2, clock::get);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        log.stop();
+    }
+
+    @Test
+    public void admitsFirstErrorOfEachGroup() {
+        assertThat(errorLog.admit(new OriginUnreachableException(origin, null)), is(true));
+        assertThat(errorLog.admit(new NoAvailableHostsException(id("app"))), is(true));
+
+        assertThat(errorLog.admit(new OriginUnreachableException(origin, null)), is(false));
+        assertThat(errorLog.admit(new NoAvailableHostsException(id("app"))), is(false));
+    }
+
+    @Test
+    public void groupsByOrigin() {
+        Origin other = newOriginBuilder("localhost", 8081).applicationId("app").id("app-02").build();
+
+        assertThat(errorLog.admit(new OriginUnreachableException(origin, null)), is(true));
+        assertThat(errorLog.admit(new OriginUnreachableException(other, null)), is(true));
+    }
+
+    @Test
+    public void reportsSuppressedCountsAfterInterval() {
+        errorLog.admit(new OriginUnreachableException(origin, null));
+        errorLog.admit(new OriginUnreachableException(origin, null));
+        errorLog.admit(new OriginUnreachableException(origin, null));
+
+        assertThat(log.log(), is(empty()));
+
+        clock.addAndGet(INTERVAL.toNanos());
+
+        assertThat(errorLog.admit(new OriginUnreachableException(origin, null)), is(true));
+        assertThat(log.log(), contains(loggingEvent(ERROR,
+                "Suppressed 2 similar errors in the last 10000 ms. exceptionClass=com.hotels.styx.api.exceptions.OriginUnreachableException, "
+                        + "application=app, origin=app-01")));
+    }
+
+    @Test
+    public void groupsProxyFailuresWrappedInOtherExceptions() {
+        assertThat(errorLog.admit(new RuntimeException(new OriginUnreachableException(origin, null))), is(true));
+        assertThat(errorLog.admit(new RuntimeException(new OriginUnreachableException(origin, null))), is(false));
+    }
+
+    @Test
+    public void admitsEveryErrorThatIsNotAProxyFailure() {
+        assertThat(errorLog.admit(new IllegalStateException("first")), is(true));
+        assertThat(errorLog.admit(new IllegalStateException("second")), is(true));
+        assertThat(errorLog.admit(new RuntimeException(new IllegalStateException("third"))), is(true));
+
+        clock.addAndGet(INTERVAL.toNanos());
+        errorLog.admit(new IllegalStateException("fourth"));
+
+        assertThat(log.log(), is(empty()));
+    }
+
+    @Test
+    public void countsErrorsBeyondGroupLimitTogether() {
+        errorLog.admit(new OriginUnreachableException(origin("app-01"), null));
+        errorLog.admit(new OriginUnreachableException(origin("app-02"), null));
+
+        assertThat(errorLog.admit(new OriginUnreachableException(origin("app-03"), null)), is(false));
+        assertThat(errorLog.admit(new OriginUnreachableException(origin("app-04"), null)), is(false));
+
+        clock.addAndGet(INTERVAL.toNanos());
+        errorLog.admit(new OriginUnreachableException(origin("app-01"), null));
+
+        assertThat(log.log(), contains(loggingEvent(ERROR, "Suppressed 2 other errors in the last 10000 ms")));
+    }
+
+    private static Origin origin(String id) {
+        return newOriginBuilder("localhost", 8080).applicationId("app").id(id).build();
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -35,6 +35,7 @@ import static com.hotels.styx.config.schema.SchemaDsl.field;
 import static com.hotels.styx.config.schema.SchemaDsl.integer;
 import static com.hotels.styx.config.schema.SchemaDsl.list;
 import static com.hotels.styx.config.schema.SchemaDsl.map;
+import static com.hotels.styx.config.schema.SchemaDsl.number;
 import static com.hotels.styx.config.schema.SchemaDsl.object;
 import static com.hotels.styx.config.schema.SchemaDsl.opaque;
 import static com.hotels.styx.config.schema.SchemaDsl.optional;
@@ -67,6 +68,22 @@ public class SchemaTest {
         assertEquals("Unexpected field type. Field 'myNokValue' should be INTEGER, but it is BOOLEAN", e.getMessage());
     }
 
+    @Test
+    public void number_validatesNumericValues() throws Exception {
+        JsonNode root = YAML_MAPPER.readTree(""
+                + "  myInt: 5 \n"
+                + "  myDouble: 0.25 \n"
+                + "  myString: '0.5' \n"
+                + "  myNokValue: abc \n");
+
+        number().validate(ImmutableList.of("myInt"), root, root.get("myInt"), NO_EXTENSIONS);
+        number().validate(ImmutableList.of("myDouble"), root, root.get("myDouble"), NO_EXTENSIONS);
+        number().validate(ImmutableList.of("myString"), root, root.get("myString"), NO_EXTENSIONS);
+        Exception e = assertThrows(SchemaValidationException.class,
+                () -> number().validate(ImmutableList.of("myNokValue"), root, root.get("myNokValue"), NO_EXTENSIONS));
+        assertEquals("Unexpected field type. Field 'myNokValue' should be NUMBER, but it is STRING", e.getMessage());
+    }
+
     @Test
     public void string_validatesStringValues() throws Exception {
         JsonNode root = YAML_MAPPER.readTree(""
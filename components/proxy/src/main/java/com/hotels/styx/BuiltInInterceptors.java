@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package com.hotels.styx;
 import com.google.common.collect.ImmutableList;
 import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.common.format.HttpMessageFormatter;
+import com.hotels.styx.proxy.accesslog.AccessLogInterceptor;
+import com.hotels.styx.proxy.accesslog.AccessLogger;
 import com.hotels.styx.proxy.interceptors.ConfigurationContextResolverInterceptor;
 import com.hotels.styx.proxy.interceptors.HopByHopHeadersRemovingInterceptor;
 import com.hotels.styx.proxy.interceptors.HttpMessageLoggingInterceptor;
@@ -27,6 +29,7 @@ import com.hotels.styx.proxy.interceptors.UnexpectedRequestContentLengthRemover;
 import com.hotels.styx.proxy.interceptors.ViaHeaderAppendingInterceptor;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.hotels.styx.api.configuration.ConfigurationContextResolver.EMPTY_CONFIGURATION_CONTEXT_RESOLVER;
 
@@ -37,9 +40,11 @@ final class BuiltInInterceptors {
     private BuiltInInterceptors() {
     }
 
-    static List<HttpInterceptor> internalStyxInterceptors(StyxConfig config, HttpMessageFormatter httpMessageFormatter) {
+    static List<HttpInterceptor> internalStyxInterceptors(StyxConfig config, HttpMessageFormatter httpMessageFormatter, Optional<AccessLogger> accessLogger) {
         ImmutableList.Builder<HttpInterceptor> builder = ImmutableList.builder();
 
+        accessLogger.ifPresent(it -> builder.add(new AccessLogInterceptor(it, config.styxHeaderConfig().originIdHeaderName())));
+
         boolean loggingEnabled = config.get("request-logging.inbound.enabled", Boolean.class)
                 .orElse(false);
 
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,10 +15,13 @@
  */
 package com.hotels.styx;
 
-import com.google.common.eventbus.EventBus;
 import com.hotels.styx.api.MetricRegistry;
+import com.hotels.styx.client.OriginEventRouter;
+import com.hotels.styx.common.OffloadExecutor;
 import com.hotels.styx.common.format.DefaultHttpMessageFormatter;
 import com.hotels.styx.common.format.HttpMessageFormatter;
+import com.hotels.styx.proxy.accesslog.AccessLogConfig;
+import com.hotels.styx.proxy.accesslog.AccessLogger;
 import com.hotels.styx.proxy.HttpErrorStatusCauseLogger;
 import com.hotels.styx.proxy.HttpErrorStatusMetrics;
 import com.hotels.styx.proxy.plugin.NamedPlugin;
@@ -28,24 +31,29 @@ import io.micrometer.core.instrument.MeterRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 
+import static com.hotels.styx.common.OffloadExecutor.DEFAULT_MAX_CONCURRENCY;
+import static com.hotels.styx.common.OffloadExecutor.DEFAULT_MAX_QUEUE_SIZE;
 import static java.util.Objects.requireNonNull;
 
 /**
- * Environment: metrics, health check, build info, event bus.
+ * Environment: metrics, health check, build info, origin event router.
  */
 public final class Environment implements com.hotels.styx.api.Environment {
     private final Version version;
-    private final EventBus eventBus;
+    private final OriginEventRouter originEventRouter;
     private final List<NamedPlugin> plugins;
     private final StyxConfig configuration;
     private final HttpErrorStatusListener httpErrorStatusListener;
     private final ServerEnvironment serverEnvironment;
     private final HttpMessageFormatter httpMessageFormatter;
+    private final OffloadExecutor offloadExecutor;
+    private final AccessLogger accessLogger;
 
     private Environment(Builder builder) {
-        this.eventBus = firstNonNull(builder.eventBus, () -> new EventBus("Styx"));
+        this.originEventRouter = firstNonNull(builder.originEventRouter, OriginEventRouter::new);
         this.plugins = new ArrayList<>();
 
         this.configuration = builder.configuration;
@@ -56,6 +64,20 @@ public final class Environment implements com.hotels.styx.api.Environment {
         this.httpErrorStatusListener = HttpErrorStatusListener.compose(
                 new HttpErrorStatusCauseLogger(httpMessageFormatter),
                 new HttpErrorStatusMetrics(serverEnvironment.registry()));
+
+        this.offloadExecutor = offloadExecutor(configuration, serverEnvironment.registry());
+        this.accessLogger = configuration.get("request-logging.access", AccessLogConfig.class)
+                .filter(AccessLogConfig::enabled)
+                .map(config -> AccessLogger.create(config, serverEnvironment.registry()))
+                .orElse(null);
+    }
+
+    private static OffloadExecutor offloadExecutor(StyxConfig configuration, MeterRegistry registry) {
+        return OffloadExecutor.create("Styx-Offload",
+                configuration.get("offload.maxConcurrency", Integer.class).orElse(DEFAULT_MAX_CONCURRENCY),
+                configuration.get("offload.maxQueueSize", Integer.class).orElse(DEFAULT_MAX_QUEUE_SIZE),
+                configuration.get("offload.virtualThreads", Boolean.class).orElse(true),
+                registry);
     }
 
     // prevent unnecessary construction of defaults
@@ -63,8 +85,13 @@ public final class Environment implements com.hotels.styx.api.Environment {
         return one != null ? one : two.get();
     }
 
-    public EventBus eventBus() {
-        return eventBus;
+    /**
+     * Routes origin commands to the origins inventories, and their snapshots to the admin interface.
+     *
+     * @return origin event router
+     */
+    public OriginEventRouter originEventRouter() {
+        return originEventRouter;
     }
 
     public List<NamedPlugin> plugins() {
@@ -112,13 +139,31 @@ public final class Environment implements com.hotels.styx.api.Environment {
         return httpMessageFormatter;
     }
 
+    /**
+     * Executor for blocking tasks that interceptors offload from the event loop.
+     *
+     * @return offload executor
+     */
+    public OffloadExecutor offloadExecutor() {
+        return offloadExecutor;
+    }
+
+    /**
+     * Access logger, if enabled by {@code request-logging.access.enabled}.
+     *
+     * @return access logger
+     */
+    public Optional<AccessLogger> accessLogger() {
+        return Optional.ofNullable(accessLogger);
+    }
+
     /**
      * Builder for {@link com.hotels.styx.Environment}.
      */
     public static class Builder {
         private MeterRegistry registry;
         private Version version;
-        private EventBus eventBus;
+        private OriginEventRouter originEventRouter;
         private StyxConfig configuration = StyxConfig.defaultConfig();
         private HttpMessageFormatter httpMessageFormatter = new DefaultHttpMessageFormatter();
 
@@ -137,8 +182,8 @@ public final class Environment implements com.hotels.styx.api.Environment {
             return this;
         }
 
-        public Builder eventBus(EventBus eventBus) {
-            this.eventBus = eventBus;
+        public Builder originEventRouter(OriginEventRouter originEventRouter) {
+            this.originEventRouter = originEventRouter;
             return this;
         }
 
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.hotels.styx;
 
 import com.hotels.styx.api.HttpHandler;
+import com.hotels.styx.common.OffloadExecutor;
 import com.hotels.styx.common.format.HttpMessageFormatter;
 import com.hotels.styx.proxy.HttpCompressor;
 import com.hotels.styx.proxy.ServerProtocolDistributionRecorder;
@@ -24,6 +25,7 @@ import com.hotels.styx.server.ConnectorConfig;
 import com.hotels.styx.server.HttpErrorStatusListener;
 import com.hotels.styx.server.HttpsConnectorConfig;
 import com.hotels.styx.server.RequestStatsCollector;
+import com.hotels.styx.server.UniqueIdSupplier;
 import com.hotels.styx.server.netty.NettyServerConfig;
 import com.hotels.styx.server.netty.ServerConnector;
 import com.hotels.styx.server.netty.ServerConnectorFactory;
@@ -75,6 +77,8 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
     private final boolean requestTracking;
     private final HttpMessageFormatter httpMessageFormatter;
     private final CharSequence originsHeader;
+    private final UniqueIdSupplier requestIdSupplier;
+    private final OffloadExecutor offloadExecutor;
 
     // CHECKSTYLE:OFF
     public ProxyConnectorFactory(NettyServerConfig serverConfig,
@@ -84,7 +88,9 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
                                  ResponseEnhancer responseEnhancer,
                                  boolean requestTracking,
                                  HttpMessageFormatter httpMessageFormatter,
-                                 CharSequence originsHeader) {
+                                 CharSequence originsHeader,
+                                 UniqueIdSupplier requestIdSupplier,
+                                 OffloadExecutor offloadExecutor) {
         this.serverConfig = requireNonNull(serverConfig);
         this.meterRegistry = requireNonNull(meterRegistry);
         this.errorStatusListener = requireNonNull(errorStatusListener);
@@ -93,6 +99,8 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
         this.requestTracking = requestTracking;
         this.httpMessageFormatter = httpMessageFormatter;
         this.originsHeader = originsHeader;
+        this.requestIdSupplier = requireNonNull(requestIdSupplier);
+        this.offloadExecutor = requireNonNull(offloadExecutor);
     }
     // CHECKSTYLE:ON
 
@@ -115,6 +123,8 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
         private final RequestTracker requestTracker;
         private final HttpMessageFormatter httpMessageFormatter;
         private final CharSequence originsHeader;
+        private final UniqueIdSupplier requestIdSupplier;
+        private final OffloadExecutor offloadExecutor;
 
         private ProxyConnector(ConnectorConfig config, ProxyConnectorFactory factory) {
             this.config = requireNonNull(config);
@@ -134,6 +144,8 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
             this.requestTracker = factory.requestTracking ? CurrentRequestTracker.INSTANCE : RequestTracker.NO_OP;
             this.httpMessageFormatter = factory.httpMessageFormatter;
             this.originsHeader = factory.originsHeader;
+            this.requestIdSupplier = factory.requestIdSupplier;
+            this.offloadExecutor = factory.offloadExecutor;
         }
 
         @Override
@@ -172,6 +184,7 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
                             .secure(sslContext.isPresent())
                             .requestTracker(requestTracker)
                             .xOriginsHeader(originsHeader)
+                            .offloadExecutor(offloadExecutor)
                             .build());
 
             if (serverConfig.compressResponses()) {
@@ -185,6 +198,7 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
                     .unwiseCharEncoder(unwiseCharEncoder)
                     .httpMessageFormatter(httpMessageFormatter)
                     .inactivityTimeoutMs(inactivityTimeoutMs)
+                    .uniqueIdSupplier(requestIdSupplier)
                     .build();
         }
 
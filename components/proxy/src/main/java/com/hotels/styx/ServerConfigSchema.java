@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import static com.hotels.styx.config.schema.SchemaDsl.field;
 import static com.hotels.styx.config.schema.SchemaDsl.integer;
 import static com.hotels.styx.config.schema.SchemaDsl.list;
 import static com.hotels.styx.config.schema.SchemaDsl.map;
+import static com.hotels.styx.config.schema.SchemaDsl.number;
 import static com.hotels.styx.config.schema.SchemaDsl.object;
 import static com.hotels.styx.config.schema.SchemaDsl.opaque;
 import static com.hotels.styx.config.schema.SchemaDsl.optional;
@@ -111,6 +112,10 @@ final class ServerConfigSchema {
                                     optional("metricsCache", object(
                                             field("enabled", bool()),
                                             field("expirationMillis", integer())
+                                    )),
+                                    optional("prometheusCache", object(
+                                            field("enabled", bool()),
+                                            field("expirationMillis", integer())
                                     ))
                             )),
                             optional("executors", map(routingObject())),
@@ -127,7 +132,17 @@ final class ServerConfigSchema {
                             optional("request-logging", object(
                                     optional("inbound", logFormatSchema),
                                     optional("outbound", logFormatSchema),
-                                    atLeastOne("inbound", "outbound"),
+                                    optional("access", object(
+                                            optional("enabled", bool()),
+                                            optional("file", string()),
+                                            optional("format", string()),
+                                            optional("samplingRate", number()),
+                                            optional("headers", list(string())),
+                                            optional("bufferSize", integer()),
+                                            optional("maxFileSize", number()),
+                                            optional("maxFiles", integer()),
+                                            optional("flushIntervalMillis", integer()))),
+                                    atLeastOne("inbound", "outbound", "access"),
                                     optional("hideHeaders", list(string())),
                                     optional("hideCookies", list(string()))
                             )),
@@ -158,6 +173,13 @@ final class ServerConfigSchema {
                             optional("logFormat", string()),
                             optional("userDefined", object(opaque())),
                             optional("requestTracking", bool()),
+                            optional("requestIdGenerator", object(
+                                    optional("type", string()),
+                                    optional("nodeId", integer()))),
+                            optional("offload", object(
+                                    optional("maxConcurrency", integer()),
+                                    optional("maxQueueSize", integer()),
+                                    optional("virtualThreads", bool()))),
                             optional("routingObjects", map(object(
                                     optional("name", string()),
                                     field("type", string()),
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -25,14 +25,20 @@ import com.hotels.styx.config.schema.SchemaValidationException;
 import com.hotels.styx.infrastructure.configuration.ConfigurationParser;
 import com.hotels.styx.infrastructure.configuration.yaml.YamlConfiguration;
 import com.hotels.styx.proxy.ProxyServerConfig;
+import com.hotels.styx.server.UniqueIdSupplier;
 import org.slf4j.Logger;
 
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.function.Supplier;
 
+import static com.google.common.base.Suppliers.memoize;
 import static com.hotels.styx.ServerConfigSchema.validateServerConfiguration;
 import static com.hotels.styx.infrastructure.configuration.ConfigurationSource.configSource;
 import static com.hotels.styx.infrastructure.configuration.yaml.YamlConfigurationFormat.YAML;
+import static com.hotels.styx.server.UniqueIdSuppliers.UUID_VERSION_ONE_SUPPLIER;
+import static com.hotels.styx.server.UniqueIdSuppliers.sequentialUniqueIdSupplier;
+import static java.lang.String.format;
 import static java.lang.System.getProperty;
 import static java.util.Arrays.stream;
 import static java.util.Objects.requireNonNull;
@@ -53,6 +59,8 @@ public final class StyxConfig implements Configuration {
     private final ProxyServerConfig proxyServerConfig;
     private final AdminServerConfig adminServerConfig;
     private final StyxHeaderConfig styxHeaderConfig;
+    // Shared by all connectors, so that sequential IDs are unique within the process:
+    private final Supplier<UniqueIdSupplier> requestIdSupplier = memoize(this::createRequestIdSupplier);
 
     public StyxConfig() {
         this(EMPTY_CONFIGURATION);
@@ -92,6 +100,28 @@ public final class StyxConfig implements Configuration {
         return adminServerConfig;
     }
 
+    /**
+     * Returns the request ID supplier selected by the {@code requestIdGenerator} block.
+     * Time-based UUIDs are used unless {@code type} is {@code sequential}.
+     * The same supplier is returned on every call.
+     *
+     * @return request ID supplier
+     */
+    public UniqueIdSupplier requestIdSupplier() {
+        return requestIdSupplier.get();
+    }
+
+    private UniqueIdSupplier createRequestIdSupplier() {
+        String type = get("requestIdGenerator.type").orElse("uuid");
+        if ("uuid".equals(type)) {
+            return UUID_VERSION_ONE_SUPPLIER;
+        }
+        if ("sequential".equals(type)) {
+            return sequentialUniqueIdSupplier(get("requestIdGenerator.nodeId", Integer.class).orElse(0));
+        }
+        throw new IllegalArgumentException(format("Unknown requestIdGenerator.type '%s'. Expected 'uuid' or 'sequential'", type));
+    }
+
     public int port() {
         return proxyServerConfig().httpConnectorConfig().get().port();
     }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -64,7 +64,7 @@ public class StyxPipelineFactory {
         boolean requestTracking = environment.configuration().get("requestTracking", Boolean.class).orElse(false);
 
         return new HttpInterceptorPipeline(
-                internalStyxInterceptors(environment.styxConfig(), environment.httpMessageFormatter()),
+                internalStyxInterceptors(environment.styxConfig(), environment.httpMessageFormatter(), environment.accessLogger()),
                 configuredPipeline(builtinRoutingObjects),
                 requestTracking);
     }
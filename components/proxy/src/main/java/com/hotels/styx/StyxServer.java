@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import com.hotels.styx.api.extension.service.spi.AbstractStyxService;
 import com.hotels.styx.api.extension.service.spi.Registry;
 import com.hotels.styx.config.schema.SchemaValidationException;
 import com.hotels.styx.infrastructure.MemoryBackedRegistry;
+import com.hotels.styx.proxy.accesslog.AccessLogger;
 import com.hotels.styx.proxy.plugin.NamedPlugin;
 import com.hotels.styx.server.ConnectorConfig;
 import com.hotels.styx.server.netty.NettyServerBuilder;
@@ -46,6 +47,7 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.InetSocketAddress;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -61,6 +63,7 @@ import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -199,8 +202,10 @@ public final class StyxServer extends AbstractService {
         adminServer = createAdminServer(components);
         services.add(toGuavaService(adminServer));
         services.add(toGuavaService(new PluginsManager("Styx-Plugins-Manager", components)));
-        services.add(toGuavaService(new ServiceProviderMonitor<>("Styx-Service-Monitor", components.servicesDatabase())));
-        components.services().values().forEach(it -> services.add(toGuavaService(it)));
+        services.add(toGuavaService(new ServiceProviderMonitor<>("Styx-Service-Monitor", components.servicesDatabase(), components.startupExecutor())));
+        components.services().values().forEach(it -> services.add(toGuavaService(it, components.startupExecutor())));
+        components.routeDatabaseSnapshots().ifPresent(it -> services.add(toGuavaService(it)));
+        components.eventLoopMonitor().ifPresent(it -> services.add(toGuavaService(it)));
         this.phase1Services = new ServiceManager(services);
 
         // Phase 2: start HTTP services;
@@ -208,6 +213,10 @@ public final class StyxServer extends AbstractService {
 
         proxyBossExecutor = NettyExecutor.create("Proxy-Boss", styxConfig.proxyServerConfig().bossThreadsCount());
         proxyWorkerExecutor = NettyExecutor.create("Proxy-Worker", styxConfig.proxyServerConfig().workerThreadsCount());
+        components.eventLoopMonitor().ifPresent(monitor -> {
+            monitor.monitor("Proxy-Boss", proxyBossExecutor.eventLoopGroup());
+            monitor.monitor("Proxy-Worker", proxyWorkerExecutor.eventLoopGroup());
+        });
 
         httpServer = styxConfig.proxyServerConfig()
                 .httpConnectorConfig()
@@ -224,7 +233,7 @@ public final class StyxServer extends AbstractService {
         Optional.ofNullable(httpServer).map(StyxServers::toGuavaService).ifPresent(services2::add);
         Optional.ofNullable(httpsServer).map(StyxServers::toGuavaService).ifPresent(services2::add);
 
-        services2.add(toGuavaService(new ServiceProviderMonitor<>("Styx-Server-Monitor", components.serversDatabase())));
+        services2.add(toGuavaService(new ServiceProviderMonitor<>("Styx-Server-Monitor", components.serversDatabase(), components.startupExecutor())));
 
         this.phase2Services = new ServiceManager(services2);
         this.showBanner = components.showBanner();
@@ -270,7 +279,9 @@ public final class StyxServer extends AbstractService {
                 (builder, request) -> builder.header(styxInfoHeaderName, responseInfoFormat.format(request)),
                 environment.configuration().get("requestTracking", Boolean.class).orElse(false),
                 environment.httpMessageFormatter(),
-                environment.configuration().styxHeaderConfig().originIdHeaderName())
+                environment.configuration().styxHeaderConfig().originIdHeaderName(),
+                environment.configuration().requestIdSupplier(),
+                environment.offloadExecutor())
                 .create(connectorConfig);
 
         return NettyServerBuilder.newBuilder()
@@ -318,9 +329,12 @@ public final class StyxServer extends AbstractService {
         CompletableFuture.runAsync(() -> {
             // doStart should return quicly. Therefore offload waiting on a separate thread:
             this.phase1Services.addListener(new Phase1ServerStatusListener(this), directExecutor());
-            this.phase1Services.startAsync().awaitHealthy();
+            components.startupTimings().time("startServices", () -> {
+                this.phase1Services.startAsync().awaitHealthy();
+                return null;
+            });
 
-            this.phase2Services.addListener(new Phase2ServerStatusListener(this), directExecutor());
+            this.phase2Services.addListener(new Phase2ServerStatusListener(this, Stopwatch.createStarted()), directExecutor());
             this.phase2Services.startAsync();
         });
     }
@@ -331,6 +345,8 @@ public final class StyxServer extends AbstractService {
 
         proxyBossExecutor.shut();
         proxyWorkerExecutor.shut();
+        components.environment().offloadExecutor().shutdown();
+        components.environment().accessLogger().ifPresent(AccessLogger::close);
 
         this.components.executors()
                 .entrySet()
@@ -392,13 +408,16 @@ public final class StyxServer extends AbstractService {
 
     private class Phase2ServerStatusListener extends ServiceManager.Listener {
         private final StyxServer styxServer;
+        private final Stopwatch serversStopwatch;
 
-        Phase2ServerStatusListener(StyxServer styxServer) {
+        Phase2ServerStatusListener(StyxServer styxServer, Stopwatch serversStopwatch) {
             this.styxServer = styxServer;
+            this.serversStopwatch = serversStopwatch;
         }
 
         @Override
         public void healthy() {
+            components.startupTimings().record("startServers", Duration.ofNanos(serversStopwatch.elapsed(NANOSECONDS)));
             styxServer.notifyStarted();
 
             if (stopwatch == null) {
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -19,6 +19,11 @@ import com.google.common.util.concurrent.AbstractService;
 import com.google.common.util.concurrent.Service;
 import com.hotels.styx.api.extension.service.spi.StyxService;
 
+import java.util.concurrent.Executor;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.function.Function.identity;
+
 /**
  * A helper class to manipulate StyxServer objects.
  */
@@ -55,4 +60,38 @@ public final class StyxServers {
             }
         };
     }
+
+    /**
+     * Convert a StyxService to a Guava Service that is started on the given executor.
+     * A Guava ServiceManager starts its services one after another on the calling thread. Starting
+     * them on an executor lets services that block in their start method start concurrently.
+     *
+     * @param styxService a Styx service
+     * @param startExecutor executor to start the service on
+     * @return a Guava service
+     */
+    public static Service toGuavaService(StyxService styxService, Executor startExecutor) {
+        return new AbstractService() {
+            @Override
+            protected void doStart() {
+                supplyAsync(styxService::start, startExecutor)
+                        .thenCompose(identity())
+                        .thenAccept(x -> notifyStarted())
+                        .exceptionally(e -> {
+                            notifyFailed(e);
+                            return null;
+                        });
+            }
+
+            @Override
+            protected void doStop() {
+                styxService.stop()
+                        .thenAccept(x -> notifyStopped())
+                        .exceptionally(e -> {
+                            notifyFailed(e);
+                            return null;
+                        });
+            }
+        };
+    }
 }
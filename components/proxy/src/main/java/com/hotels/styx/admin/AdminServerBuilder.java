@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -55,6 +55,8 @@ import com.hotels.styx.api.extension.service.spi.StyxService;
 import com.hotels.styx.common.http.handler.HttpAggregator;
 import com.hotels.styx.common.http.handler.HttpMethodFilteringHandler;
 import com.hotels.styx.common.http.handler.StaticBodyHttpHandler;
+import com.hotels.styx.executors.EventLoopMonitor;
+import com.hotels.styx.metrics.reporting.sets.BlockedEventLoopLog;
 import com.hotels.styx.routing.RoutingObjectRecord;
 import com.hotels.styx.routing.config.RoutingObjectFactory;
 import com.hotels.styx.routing.db.StyxObjectStore;
@@ -64,8 +66,8 @@ import com.hotels.styx.server.handlers.ClassPathResourceHandler;
 import com.hotels.styx.server.netty.NettyServerBuilder;
 import com.hotels.styx.server.netty.WebServerConnectorFactory;
 import com.hotels.styx.server.track.CurrentRequestTracker;
+import com.hotels.styx.startup.StartupTimings;
 import com.hotels.styx.startup.StyxServerComponents;
-import org.slf4j.Logger;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -80,17 +82,16 @@ import static com.hotels.styx.api.HttpMethod.POST;
 import static com.hotels.styx.routing.config.ConfigVersionResolver.Version.ROUTING_CONFIG_V1;
 import static com.hotels.styx.routing.config.ConfigVersionResolver.configVersion;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
-import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Builder for AdminServer.
  */
 public class AdminServerBuilder {
-    private static final Logger LOG = getLogger(AdminServerBuilder.class);
     private static final int MEGABYTE = 1024 * 1024;
 
     private final Environment environment;
@@ -100,6 +101,8 @@ public class AdminServerBuilder {
     private final StyxObjectStore<StyxObjectRecord<StyxService>> providerDatabase;
     private final StyxObjectStore<StyxObjectRecord<InetServer>> serverDatabase;
     private final StartupConfig startupConfig;
+    private final StartupTimings startupTimings;
+    private final Optional<BlockedEventLoopLog> blockedEventLoops;
 
     private Registry<BackendService> backendServicesRegistry;
 
@@ -111,6 +114,8 @@ public class AdminServerBuilder {
         this.configuration = this.environment.configuration();
         this.startupConfig = serverComponents.startupConfig();
         this.serverDatabase = requireNonNull(serverComponents.serversDatabase());
+        this.startupTimings = requireNonNull(serverComponents.startupTimings());
+        this.blockedEventLoops = serverComponents.eventLoopMonitor().map(EventLoopMonitor::blockedEventLoops);
     }
 
     public AdminServerBuilder backendServicesRegistry(Registry<BackendService> backendServicesRegistry) {
@@ -119,7 +124,6 @@ public class AdminServerBuilder {
     }
 
     public InetServer build() {
-        LOG.debug("event bus that will be used is {}", environment.eventBus());
         StyxConfig styxConfig = environment.configuration();
         AdminServerConfig adminServerConfig = styxConfig.adminServerConfig();
 
@@ -155,12 +159,15 @@ public class AdminServerBuilder {
         httpRouter.aggregate("/admin/threads", new ThreadsHandler());
         httpRouter.aggregate("/admin/current_requests", new CurrentRequestsHandler(CurrentRequestTracker.INSTANCE));
         MetricsHandler metricsHandler = new MetricsHandler(environment.metricRegistry(), metricsCacheExpiration);
-        httpRouter.aggregate("/admin/metrics", metricsHandler);
-        httpRouter.aggregate("/admin/metrics/", metricsHandler);
+        httpRouter.stream("/admin/metrics", metricsHandler);
+        httpRouter.stream("/admin/metrics/", metricsHandler);
         httpRouter.aggregate("/admin/configuration", new StyxConfigurationHandler(configuration));
         httpRouter.aggregate("/admin/jvm", new JVMMetricsHandler(environment.metricRegistry(), metricsCacheExpiration));
         httpRouter.aggregate("/admin/configuration/logging", new LoggingConfigurationHandler(startupConfig.logConfigLocation()));
         httpRouter.aggregate("/admin/configuration/startup", new StartupConfigHandler(startupConfig));
+        httpRouter.aggregate("/admin/startup", new JsonHandler<>(startupTimings::phases, Optional.empty()));
+        httpRouter.aggregate("/admin/eventloops/blocked", new JsonHandler<>(
+                () -> blockedEventLoops.map(BlockedEventLoopLog::events).orElse(emptyList()), Optional.empty()));
 
         RoutingObjectHandler routingObjectHandler = new RoutingObjectHandler(routeDatabase, routingObjectFactoryContext);
         httpRouter.aggregate("/admin/routing", routingObjectHandler);
@@ -177,10 +184,10 @@ public class AdminServerBuilder {
 
         // Replace them in the backwards compatibility mode only.
         // Remove altogether when Routing Engine is enabled:
-        httpRouter.aggregate("/admin/origins/status", new OriginsInventoryHandler(environment.eventBus()));
+        httpRouter.aggregate("/admin/origins/status", new OriginsInventoryHandler(environment.originEventRouter()));
         httpRouter.aggregate("/admin/configuration/origins", new OriginsHandler(backendServicesRegistry));
         httpRouter.aggregate("/admin/tasks/origins/reload", new HttpMethodFilteringHandler(POST, new OriginsReloadCommandHandler(backendServicesRegistry)));
-        httpRouter.aggregate("/admin/tasks/origins", new HttpMethodFilteringHandler(POST, new OriginsCommandHandler(environment.eventBus())));
+        httpRouter.aggregate("/admin/tasks/origins", new HttpMethodFilteringHandler(POST, new OriginsCommandHandler(environment.originEventRouter())));
 
         httpRouter.aggregate("/admin/tasks/plugin/", new PluginToggleHandler(environment.plugins()));
 
@@ -201,7 +208,7 @@ public class AdminServerBuilder {
         httpRouter.aggregate("/admin/servers", serverHandler);
         httpRouter.aggregate("/admin/servers/", serverHandler);
 
-        httpRouter.aggregate("/metrics", new PrometheusHandler(environment.meterRegistry()));
+        httpRouter.stream("/metrics", new PrometheusHandler(environment.meterRegistry(), styxConfig.adminServerConfig().prometheusCacheExpiration()));
 
         return httpRouter;
     }
@@ -223,6 +230,8 @@ public class AdminServerBuilder {
         builder.add(link("Configuration", "/admin/configuration?pretty"));
         builder.add(link("Log Configuration", "/admin/configuration/logging"));
         builder.add(link("Startup Configuration", "/admin/configuration/startup"));
+        builder.add(link("Startup Timings", "/admin/startup?pretty"));
+        builder.add(link("Blocked Event Loops", "/admin/eventloops/blocked?pretty"));
         builder.add(link("JVM", "/admin/jvm?pretty"));
         builder.add(link("Plugins", "/admin/plugins"));
         builder.add(link("Providers", "/admin/providers"));
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -35,15 +35,22 @@ public class AdminServerConfig extends NettyServerConfig {
     public static final int DEFAULT_ADMIN_PORT = 9000;
 
     private final Optional<Duration> metricsCacheExpiration;
+    private final Optional<Duration> prometheusCacheExpiration;
 
     public AdminServerConfig() {
         this.metricsCacheExpiration = Optional.empty();
+        this.prometheusCacheExpiration = Optional.empty();
     }
 
     private AdminServerConfig(Builder builder) {
         super(builder);
 
-        this.metricsCacheExpiration = ofNullable(builder.metricsCache)
+        this.metricsCacheExpiration = expiration(builder.metricsCache);
+        this.prometheusCacheExpiration = expiration(builder.prometheusCache);
+    }
+
+    private static Optional<Duration> expiration(MetricsCache metricsCache) {
+        return ofNullable(metricsCache)
                 .filter(cache -> cache.enabled)
                 .map(cache -> Duration.ofMillis(cache.expirationMillis));
     }
@@ -52,6 +59,10 @@ public class AdminServerConfig extends NettyServerConfig {
         return metricsCacheExpiration;
     }
 
+    public Optional<Duration> prometheusCacheExpiration() {
+        return prometheusCacheExpiration;
+    }
+
     /**
      * Metrics cache.
      */
@@ -73,6 +84,7 @@ public class AdminServerConfig extends NettyServerConfig {
     @JsonPOJOBuilder(withPrefix = "set")
     public static class Builder extends NettyServerConfig.Builder<Builder> {
         private MetricsCache metricsCache;
+        private MetricsCache prometheusCache;
 
         public Builder() {
             httpConnectorConfig = new HttpConnectorConfig(DEFAULT_ADMIN_PORT);
@@ -147,6 +159,12 @@ public class AdminServerConfig extends NettyServerConfig {
             return this;
         }
 
+        @JsonProperty("prometheusCache")
+        public Builder setPrometheusCache(MetricsCache prometheusCache) {
+            this.prometheusCache = prometheusCache;
+            return this;
+        }
+
         public AdminServerConfig build() {
             return new AdminServerConfig(this);
         }
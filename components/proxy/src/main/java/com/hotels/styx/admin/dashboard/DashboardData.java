@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -22,14 +22,14 @@ import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
 import com.hotels.styx.Version;
+import com.hotels.styx.api.Id;
 import com.hotels.styx.api.MetricRegistry;
 import com.hotels.styx.api.extension.OriginsChangeListener;
 import com.hotels.styx.api.extension.OriginsSnapshot;
 import com.hotels.styx.api.extension.service.BackendService;
 import com.hotels.styx.api.extension.service.spi.Registry;
+import com.hotels.styx.client.OriginEventRouter;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -57,16 +57,16 @@ public class DashboardData {
     private final Downstream downstream;
     private final String serverId;
     private final String version;
-    private final EventBus eventBus;
+    private final OriginEventRouter eventRouter;
     private final Registry<BackendService> backendServicesRegistry;
 
-    public DashboardData(MetricRegistry metrics, Registry<BackendService> backendServicesRegistry, String serverId, Version version, EventBus eventBus) {
+    public DashboardData(MetricRegistry metrics, Registry<BackendService> backendServicesRegistry, String serverId, Version version, OriginEventRouter eventRouter) {
         this.backendServicesRegistry = requireNonNull(backendServicesRegistry);
 
         this.serverId = requireNonNull(serverId);
         this.metrics = requireNonNull(metrics);
         this.version = version.releaseVersion();
-        this.eventBus = requireNonNull(eventBus);
+        this.eventRouter = requireNonNull(eventRouter);
 
         this.server = new Server();
         this.downstream = new Downstream();
@@ -194,6 +194,7 @@ public class DashboardData {
      */
     public final class Backend {
         private final String id;
+        private final Id appId;
         private final String name;
         private final List<Origin> origin;
         private List<Origin> registeredOrigins;
@@ -204,6 +205,7 @@ public class DashboardData {
         private final ConnectionsPoolsAggregate connectionsPoolsAggregate;
 
         private Backend(BackendService application) {
+            this.appId = application.id();
             this.name = application.id().toString();
             this.id = serverId + "-" + name;
             this.requests = new Requests("origins." + application.id());
@@ -212,7 +214,7 @@ public class DashboardData {
             this.registeredOrigins = new ArrayList<>();
 
             this.origin.forEach(origin -> {
-                eventBus.register(origin);
+                eventRouter.addSnapshotListener(appId, origin);
                 registeredOrigins.add(origin);
             });
 
@@ -226,9 +228,7 @@ public class DashboardData {
         }
 
         void unregister() {
-            registeredOrigins.forEach(origin -> {
-                eventBus.unregister(origin);
-            });
+            registeredOrigins.forEach(origin -> eventRouter.removeSnapshotListener(appId, origin));
             registeredOrigins = new ArrayList<>();
         }
 
@@ -474,7 +474,7 @@ public class DashboardData {
         private final Supplier<Map<String, Integer>> responsesSupplier;
         private final Requests requests;
         private final ConnectionsPool connectionsPool;
-        private String status = "unknown";
+        private volatile String status = "unknown";
 
         private Origin(com.hotels.styx.api.extension.Origin origin) {
             this.origin = origin;
@@ -486,7 +486,6 @@ public class DashboardData {
             this.requests = new Requests(format("origins.%s.%s", origin.applicationId(), origin.id()));
         }
 
-        @Subscribe
         @Override
         public void originsChanged(OriginsSnapshot snapshot) {
             if (snapshot.activeOrigins().contains(origin)) {
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ import com.hotels.styx.Environment;
 import com.hotels.styx.StyxConfig;
 import com.hotels.styx.Version;
 import com.hotels.styx.api.extension.service.BackendService;
-import com.hotels.styx.client.origincommands.GetOriginsInventorySnapshot;
 import com.hotels.styx.api.extension.service.spi.Registry;
 import org.slf4j.Logger;
 
@@ -55,7 +54,7 @@ public class DashboardDataSupplier implements Supplier<DashboardData>, Registry.
     public void onChange(Registry.Changes<BackendService> changes) {
         LOG.info("received new services changes set {}", changes);
         data = updateDashboardData(backendServicesRegistry);
-        environment.eventBus().post(new GetOriginsInventorySnapshot());
+        environment.originEventRouter().requestSnapshots();
     }
 
     private DashboardData updateDashboardData(Registry<BackendService> backendServices) {
@@ -63,7 +62,7 @@ public class DashboardDataSupplier implements Supplier<DashboardData>, Registry.
             this.data.unregister();
         }
 
-        return new DashboardData(environment.metricRegistry(), backendServices, jvmRouteName, buildInfo, environment.eventBus());
+        return new DashboardData(environment.metricRegistry(), backendServices, jvmRouteName, buildInfo, environment.originEventRouter());
     }
 
     @Override
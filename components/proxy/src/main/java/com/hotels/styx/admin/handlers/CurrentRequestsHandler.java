@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -37,6 +37,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Admin handler that will help in tracking only the current HTTP requests to Styx.
+ * <p>
+ * The tracker is snapshotted on each call. Requests still in the plugins pipeline report the
+ * sampled state of the thread working on them, and a full stack trace with {@code withStackTrace=true}.
  */
 public class CurrentRequestsHandler extends BaseHttpHandler {
     private final ThreadMXBean threadMXBean;
@@ -81,6 +84,8 @@ public class CurrentRequestsHandler extends BaseHttpHandler {
                 } else {
                     sb.append("Name: ");
                     sb.append(req.currentThread().getName());
+                    sb.append("\nState: ");
+                    sb.append(req.currentThread().getState());
                     sb.append("\n");
                 }
             }
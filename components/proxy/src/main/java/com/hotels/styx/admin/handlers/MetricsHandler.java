@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,131 +15,179 @@
  */
 package com.hotels.styx.admin.handlers;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Metric;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.json.MetricsModule;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.common.annotations.VisibleForTesting;
+import com.hotels.styx.admin.CachingSupplier;
+import com.hotels.styx.admin.handlers.json.ChunkedJsonStream;
+import com.hotels.styx.admin.handlers.json.ChunkedJsonStream.Step;
+import com.hotels.styx.admin.handlers.json.JsonReformatter;
+import com.hotels.styx.api.Clock;
 import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.HttpInterceptor;
-import com.hotels.styx.api.HttpRequest;
 import com.hotels.styx.api.HttpResponse;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
 import com.hotels.styx.api.MetricRegistry;
-import com.hotels.styx.api.WebServiceHandler;
-import com.hotels.styx.api.metrics.codahale.CodaHaleMetricRegistry;
-import com.hotels.styx.infrastructure.configuration.json.mixins.CodaHaleMetricRegistryMixin;
 
 import java.time.Duration;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
-import static com.hotels.styx.api.HttpResponse.response;
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static com.hotels.styx.admin.handlers.json.ChunkedJsonStream.DEFAULT_CHUNK_SIZE;
+import static com.hotels.styx.api.Clocks.systemClock;
+import static com.hotels.styx.api.HttpHeaderNames.CONTENT_TYPE;
+import static com.hotels.styx.api.HttpMethod.GET;
 import static com.hotels.styx.api.HttpResponseStatus.NOT_FOUND;
 import static com.hotels.styx.api.HttpResponseStatus.OK;
-import static com.hotels.styx.common.MapStream.stream;
+import static com.hotels.styx.api.LiveHttpResponse.response;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
- * Handler for showing all registered metrics for styx server. Can cache page content.
+ * Handler for showing all registered metrics for styx server.
+ * <p>
+ * The metric names are taken from a snapshot of the registry that is shared by all requests until it expires.
+ * The JSON is streamed in chunks as the client reads it, so that large registries are never rendered
+ * into memory in one piece.
  */
-public class MetricsHandler implements WebServiceHandler {
+public class MetricsHandler implements HttpHandler {
     private static final Pattern SPECIFIC_METRICS_PATH_PATTERN = Pattern.compile(".*/metrics/(.+)/?");
+    private static final Pattern FILTERED_METRICS_PATH_PATTERN = Pattern.compile(".*/metrics/.*");
+    private static final Duration DEFAULT_SNAPSHOT_EXPIRATION = Duration.ofSeconds(1);
     private static final boolean DO_NOT_SHOW_SAMPLES = false;
     private static final String FILTER_PARAM = "filter";
     private static final String PRETTY_PRINT_PARAM = "pretty";
+    private static final String REFORMAT_PARAM = "reformat";
 
-    private final ObjectMapper metricSerialiser = new ObjectMapper()
-            .registerModule(new MetricsModule(SECONDS, MILLISECONDS, DO_NOT_SHOW_SAMPLES))
-            .addMixIn(CodaHaleMetricRegistry.class, CodaHaleMetricRegistryMixin.class);
+    private final MetricsModule metricsModule = new MetricsModule(SECONDS, MILLISECONDS, DO_NOT_SHOW_SAMPLES);
+    private final ObjectMapper metricSerialiser = new ObjectMapper().registerModule(metricsModule);
 
-    private final MetricRegistry metricRegistry;
-    private final UrlPatternRouter urlMatcher;
+    private final Supplier<MetricsSnapshot> snapshots;
+    private final int chunkSize;
 
     /**
      * Constructs a new handler.
      *
      * @param metricRegistry  metrics registry
-     * @param cacheExpiration duration for which generated page content should be cached
+     * @param cacheExpiration duration for which a snapshot of the registry is shared between requests
      */
     public MetricsHandler(MetricRegistry metricRegistry, Optional<Duration> cacheExpiration) {
-        this.urlMatcher = new UrlPatternRouter.Builder()
-                .get(".*/metrics", new RootMetricsHandler(
-                        metricRegistry,
-                        cacheExpiration,
-                        new MetricsModule(SECONDS, MILLISECONDS, DO_NOT_SHOW_SAMPLES),
-                        new FullMetricsModule()))
-                .get(".*/metrics/.*", (request, context) -> Eventual.of(filteredMetricResponse(request)))
-                .build();
+        this(metricRegistry, cacheExpiration, systemClock(), DEFAULT_CHUNK_SIZE);
+    }
 
-        this.metricRegistry = metricRegistry;
+    @VisibleForTesting
+    MetricsHandler(MetricRegistry metricRegistry, Optional<Duration> cacheExpiration, Clock clock, int chunkSize) {
+        this.snapshots = new CachingSupplier<>(
+                () -> MetricsSnapshot.of(metricRegistry),
+                cacheExpiration.orElse(DEFAULT_SNAPSHOT_EXPIRATION),
+                clock);
+        this.chunkSize = chunkSize;
     }
 
     @Override
-    public Eventual<HttpResponse> handle(HttpRequest request, HttpInterceptor.Context context) {
-        return this.urlMatcher.handle(request, context);
-    }
+    public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
+        request.consume();
 
-    private static boolean matchesRoot(String metricName, String root) {
-        return root == null || metricName.equals(root) || metricName.startsWith(root + ".");
+        if (!GET.equals(request.method())) {
+            return Eventual.of(response(NOT_FOUND).build());
+        }
+
+        MetricsSnapshot snapshot = snapshots.get();
+
+        return Eventual.of(FILTERED_METRICS_PATH_PATTERN.matcher(request.path()).matches()
+                ? filteredMetricResponse(request, snapshot)
+                : allMetricsResponse(request, snapshot));
     }
 
-    private static boolean containsSearchTerm(String name, String searchTerm) {
-        return searchTerm == null || name.contains(searchTerm);
+    private LiveHttpResponse allMetricsResponse(LiveHttpRequest request, MetricsSnapshot snapshot) {
+        Stream<Step> steps = concatenate(
+                Stream.<Step>of(generator -> {
+                    generator.writeStartObject();
+                    generator.writeStringField("version", metricsModule.version().toString());
+                }),
+                section("gauges", Gauge.class, snapshot),
+                section("counters", Counter.class, snapshot),
+                section("histograms", Histogram.class, snapshot),
+                section("meters", Meter.class, snapshot),
+                section("timers", Timer.class, snapshot),
+                Stream.<Step>of(JsonGenerator::writeEndObject));
+
+        if (request.queryParam(REFORMAT_PARAM).isPresent()) {
+            return HttpResponse.response(OK)
+                    .disableCaching()
+                    .addHeader(CONTENT_TYPE, JSON_UTF_8.toString())
+                    .body(JsonReformatter.reformat(ChunkedJsonStream.render(metricSerialiser, false, steps.iterator())), UTF_8)
+                    .build()
+                    .stream();
+        }
+
+        return jsonResponse(steps.iterator(), request.queryParam(PRETTY_PRINT_PARAM).isPresent());
     }
 
-    private HttpResponse filteredMetricResponse(HttpRequest request) {
+    private LiveHttpResponse filteredMetricResponse(LiveHttpRequest request, MetricsSnapshot snapshot) {
         String root = Optional.of(SPECIFIC_METRICS_PATH_PATTERN.matcher(request.path()))
                 .filter(Matcher::matches)
                 .map(matcher -> matcher.group(1))
                 .orElse(null);
 
-        boolean prettyPrint = request.queryParam(PRETTY_PRINT_PARAM).isPresent();
+        if (!snapshot.metrics(root).findAny().isPresent()) {
+            return response(NOT_FOUND).build();
+        }
+
         String searchTerm = request.queryParam(FILTER_PARAM).orElse(null);
 
-        Map<String, Metric> result = stream(metricRegistry.getMetrics())
-                .filter((name, metric) -> matchesRoot(name, root))
-                .toMap();
+        Stream<Step> steps = concatenate(
+                Stream.<Step>of(JsonGenerator::writeStartObject),
+                snapshot.metrics(root)
+                        .filter(entry -> containsSearchTerm(entry.getKey(), searchTerm))
+                        .map(MetricsHandler::field),
+                Stream.<Step>of(JsonGenerator::writeEndObject));
 
-        if (result.isEmpty()) {
-            return response(NOT_FOUND).build();
-        } else {
-            return response(OK)
-                    .body(serialise(
-                            stream(result)
-                                    .filter((name, metric) -> containsSearchTerm(name, searchTerm))
-                                    .toMap(), prettyPrint), UTF_8)
-                    .disableCaching()
-                    .build();
-        }
+        return jsonResponse(steps.iterator(), request.queryParam(PRETTY_PRINT_PARAM).isPresent());
     }
 
-    private String serialise(Object object, boolean pretty) {
-        ObjectWriter writer = pretty ? metricSerialiser.writerWithDefaultPrettyPrinter() : metricSerialiser.writer();
-
-        try {
-            return writer.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+    private LiveHttpResponse jsonResponse(Iterator<Step> steps, boolean pretty) {
+        return response(OK)
+                .disableCaching()
+                .addHeader(CONTENT_TYPE, JSON_UTF_8.toString())
+                .body(ChunkedJsonStream.stream(metricSerialiser, pretty, steps, chunkSize))
+                .build();
     }
 
-    private static class RootMetricsHandler extends JsonHandler<MetricRegistry> {
-        public RootMetricsHandler(MetricRegistry data, Optional<Duration> cacheExpiration, Module... modules) {
-            super(data, cacheExpiration, modules);
-        }
+    private static Stream<Step> section(String name, Class<? extends Metric> type, MetricsSnapshot snapshot) {
+        return concatenate(
+                Stream.<Step>of(generator -> generator.writeObjectFieldStart(name)),
+                snapshot.metrics(type).map(MetricsHandler::field),
+                Stream.<Step>of(JsonGenerator::writeEndObject));
     }
 
-    private static class FullMetricsModule extends SimpleModule {
-        FullMetricsModule() {
-            setMixInAnnotation(CodaHaleMetricRegistry.class, CodaHaleMetricRegistryMixin.class);
-        }
+    // Stream.concat keeps the parts lazy, unlike flatMap which would buffer each part in turn.
+    @SafeVarargs
+    private static Stream<Step> concatenate(Stream<Step>... parts) {
+        return Stream.of(parts).reduce(Stream.empty(), Stream::concat);
     }
 
+    private static Step field(Map.Entry<String, Metric> entry) {
+        return generator -> generator.writeObjectField(entry.getKey(), entry.getValue());
+    }
 
+    private static boolean containsSearchTerm(String name, String searchTerm) {
+        return searchTerm == null || name.contains(searchTerm);
+    }
 }
@@ -0,0 +1,74 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.admin.handlers;
+
+import com.codahale.metrics.Metric;
+import com.hotels.styx.api.MetricRegistry;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static java.util.Collections.unmodifiableNavigableMap;
+
+/**
+ * The metrics of a registry at a point in time, sorted by name. Metrics under a name prefix are found as a
+ * range of the sorted names, so they can be looked up without scanning the whole registry.
+ */
+final class MetricsSnapshot {
+    private final NavigableMap<String, Metric> metrics;
+
+    private MetricsSnapshot(Map<String, Metric> metrics) {
+        this.metrics = unmodifiableNavigableMap(new TreeMap<>(metrics));
+    }
+
+    static MetricsSnapshot of(MetricRegistry registry) {
+        return new MetricsSnapshot(registry.getMetrics());
+    }
+
+    /**
+     * Returns the metrics named {@code root}, or whose name starts with {@code root} followed by a dot.
+     *
+     * @param root name prefix, or null for all metrics
+     * @return metrics in name order
+     */
+    Stream<Map.Entry<String, Metric>> metrics(String root) {
+        if (root == null) {
+            return metrics.entrySet().stream();
+        }
+
+        // '/' is the character following '.', so this range covers the names starting with "root."
+        Stream<Map.Entry<String, Metric>> children = metrics.subMap(root + ".", true, root + "/", false).entrySet().stream();
+        Metric metric = metrics.get(root);
+
+        return metric == null
+                ? children
+                : Stream.concat(Stream.of(new SimpleImmutableEntry<>(root, metric)), children);
+    }
+
+    /**
+     * Returns the metrics of a given type.
+     *
+     * @param type metric type
+     * @return metrics in name order
+     */
+    Stream<Map.Entry<String, Metric>> metrics(Class<? extends Metric> type) {
+        return metrics.entrySet().stream()
+                .filter(entry -> type.isInstance(entry.getValue()));
+    }
+}
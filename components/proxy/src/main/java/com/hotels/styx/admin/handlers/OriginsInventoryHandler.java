@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,15 +18,13 @@ package com.hotels.styx.admin.handlers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
 import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.api.HttpRequest;
 import com.hotels.styx.api.HttpResponse;
 import com.hotels.styx.api.Id;
 import com.hotels.styx.api.extension.OriginsChangeListener;
 import com.hotels.styx.api.extension.OriginsSnapshot;
-import com.hotels.styx.client.origincommands.GetOriginsInventorySnapshot;
+import com.hotels.styx.client.OriginEventRouter;
 import com.hotels.styx.common.http.handler.BaseHttpHandler;
 import org.slf4j.Logger;
 
@@ -57,11 +55,11 @@ public class OriginsInventoryHandler extends BaseHttpHandler implements OriginsC
     /**
      * Construct an instance.
      *
-     * @param eventBus an event-bus to listen to for inventory state changes
+     * @param eventRouter an event router to listen to for inventory state changes
      */
-    public OriginsInventoryHandler(EventBus eventBus) {
-        eventBus.register(this);
-        eventBus.post(new GetOriginsInventorySnapshot());
+    public OriginsInventoryHandler(OriginEventRouter eventRouter) {
+        eventRouter.addSnapshotListener(this);
+        eventRouter.requestSnapshots();
     }
 
     @Override
@@ -95,7 +93,6 @@ public class OriginsInventoryHandler extends BaseHttpHandler implements OriginsC
         return request.queryParam("pretty").isPresent();
     }
 
-    @Subscribe
     @Override
     public void originsChanged(OriginsSnapshot snapshot) {
         LOG.debug("received origins inventory state change {}", snapshot);
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,37 +15,180 @@
  */
 package com.hotels.styx.admin.handlers;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.hotels.styx.admin.CachingSupplier;
+import com.hotels.styx.api.ByteStream;
+import com.hotels.styx.api.Clock;
 import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.HttpInterceptor;
-import com.hotels.styx.api.HttpRequest;
-import com.hotels.styx.api.HttpResponse;
-import com.hotels.styx.api.WebServiceHandler;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.prometheus.PrometheusConfig;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.exporter.common.TextFormat;
+import reactor.core.publisher.Flux;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.base.Suppliers.memoize;
 import static com.google.common.net.MediaType.PLAIN_TEXT_UTF_8;
+import static com.hotels.styx.api.Buffers.toStyxBuffer;
+import static com.hotels.styx.api.Clocks.systemClock;
+import static com.hotels.styx.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static com.hotels.styx.api.HttpHeaderNames.CONTENT_ENCODING;
+import static com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH;
 import static com.hotels.styx.api.HttpHeaderNames.CONTENT_TYPE;
+import static com.hotels.styx.api.HttpHeaderNames.VARY;
 import static com.hotels.styx.api.HttpResponseStatus.OK;
+import static com.hotels.styx.api.LiveHttpResponse.response;
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static java.util.Collections.enumeration;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-public class PrometheusHandler implements WebServiceHandler {
+/**
+ * Handler for the Prometheus scrape endpoint.
+ * <p>
+ * When a cache expiration is given, the full scrape is rendered at most once per expiration period, and all scrapes
+ * in the meantime are served from the same rendered bytes. Scrapes can be limited to some meter families with
+ * {@code name[]} query parameters, and are compressed with gzip when the scraper accepts it.
+ */
+public class PrometheusHandler implements HttpHandler {
+    private static final String NAME_PARAM = "name[]";
+    private static final String GZIP = "gzip";
+    private static final int INITIAL_SIZE = 64 * 1024;
 
     private final PrometheusMeterRegistry prometheusRegistry;
+    private final Supplier<Scrape> fullScrape;
+    private volatile int lastSize = INITIAL_SIZE;
 
     public PrometheusHandler(MeterRegistry meterRegistry) {
+        this(meterRegistry, Optional.empty());
+    }
+
+    public PrometheusHandler(MeterRegistry meterRegistry, Optional<Duration> cacheExpiration) {
+        this(meterRegistry, cacheExpiration, systemClock());
+    }
+
+    @VisibleForTesting
+    PrometheusHandler(MeterRegistry meterRegistry, Optional<Duration> cacheExpiration, Clock clock) {
         prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
         ((CompositeMeterRegistry) meterRegistry).add(prometheusRegistry);
+
+        Supplier<Scrape> render = () -> render(prometheusRegistry.getPrometheusRegistry().metricFamilySamples());
+        this.fullScrape = cacheExpiration
+                .map(expiration -> (Supplier<Scrape>) new CachingSupplier<>(render, expiration, clock))
+                .orElse(render);
     }
 
     @Override
-    public Eventual<HttpResponse> handle(final HttpRequest request, final HttpInterceptor.Context context) {
-        return Eventual.of(HttpResponse
-                .response(OK)
+    public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
+        request.consume();
+
+        Set<String> names = new HashSet<>();
+        request.queryParams(NAME_PARAM).forEach(names::add);
+
+        Scrape scrape = names.isEmpty()
+                ? fullScrape.get()
+                : render(filtered(prometheusRegistry.getPrometheusRegistry().metricFamilySamples(), names));
+
+        boolean gzip = acceptsGzip(request);
+        byte[] content = gzip ? scrape.gzipped.get() : scrape.content;
+
+        LiveHttpResponse.Builder response = response(OK)
                 .disableCaching()
                 .header(CONTENT_TYPE, PLAIN_TEXT_UTF_8)
-                .body(prometheusRegistry.scrape(), UTF_8, true)
-                .build());
+                .header(VARY, ACCEPT_ENCODING)
+                .header(CONTENT_LENGTH, content.length)
+                .body(new ByteStream(Flux.just(toStyxBuffer(wrappedBuffer(content)))));
+
+        if (gzip) {
+            response.header(CONTENT_ENCODING, GZIP);
+        }
+
+        return Eventual.of(response.build());
+    }
+
+    // CollectorRegistry.filteredMetricFamilySamples cannot be used, because it indexes the names of a
+    // collector when it is registered, which is before Micrometer adds any meters to it.
+    private static Enumeration<MetricFamilySamples> filtered(Enumeration<MetricFamilySamples> samples, Set<String> names) {
+        List<MetricFamilySamples> filtered = new ArrayList<>();
+
+        while (samples.hasMoreElements()) {
+            MetricFamilySamples family = samples.nextElement();
+            if (names.contains(family.name) || family.samples.stream().anyMatch(sample -> names.contains(sample.name))) {
+                filtered.add(family);
+            }
+        }
+        return enumeration(filtered);
+    }
+
+    private Scrape render(Enumeration<MetricFamilySamples> samples) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(lastSize);
+
+        try (Writer writer = new OutputStreamWriter(output, UTF_8)) {
+            TextFormat.write004(writer, samples);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        lastSize = Math.max(lastSize, output.size());
+        return new Scrape(output.toByteArray());
+    }
+
+    private static boolean acceptsGzip(LiveHttpRequest request) {
+        return request.headers(ACCEPT_ENCODING).stream()
+                .flatMap(header -> Stream.of(header.split(",")))
+                .map(coding -> coding.split(";"))
+                .anyMatch(coding -> coding[0].trim().equalsIgnoreCase(GZIP) && !rejected(coding));
+    }
+
+    private static boolean rejected(String[] coding) {
+        return Stream.of(coding)
+                .skip(1)
+                .map(parameter -> parameter.replace(" ", ""))
+                .anyMatch(parameter -> parameter.matches("[qQ]=0(\\.0*)?"));
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Rendered scrape. The compressed form is created on first use, and shared from then on.
+     */
+    private static final class Scrape {
+        private final byte[] content;
+        private final Supplier<byte[]> gzipped;
+
+        Scrape(byte[] content) {
+            this.content = content;
+            this.gzipped = memoize(() -> gzip(content));
+        }
     }
 }
@@ -0,0 +1,188 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.admin.handlers.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.ByteStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import static com.hotels.styx.api.Buffers.toStyxBuffer;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a JSON document as a stream of pooled buffers. The document is produced by a sequence of steps,
+ * which are only run when the subscriber asks for more content, so that a large document is never held
+ * in memory all at once.
+ */
+public final class ChunkedJsonStream {
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private ChunkedJsonStream() {
+    }
+
+    /**
+     * Writes a part of a JSON document.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void writeTo(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Creates a byte stream of a JSON document. Each buffer holds at least {@code chunkSize} bytes,
+     * apart from the last one.
+     *
+     * @param mapper    object mapper used to serialise objects written by the steps
+     * @param pretty    true to pretty-print the document
+     * @param steps     steps that write the document
+     * @param chunkSize size of the buffers
+     * @return byte stream
+     */
+    public static ByteStream stream(ObjectMapper mapper, boolean pretty, Iterator<? extends Step> steps, int chunkSize) {
+        requireNonNull(mapper);
+        requireNonNull(steps);
+
+        return new ByteStream(Flux.generate(
+                () -> new State(mapper, pretty, steps, chunkSize, PooledByteBufAllocator.DEFAULT),
+                ChunkedJsonStream::next,
+                State::release));
+    }
+
+    /**
+     * Renders a JSON document into a string.
+     *
+     * @param mapper object mapper used to serialise objects written by the steps
+     * @param pretty true to pretty-print the document
+     * @param steps  steps that write the document
+     * @return JSON document
+     */
+    public static String render(ObjectMapper mapper, boolean pretty, Iterator<? extends Step> steps) {
+        StringWriter writer = new StringWriter();
+
+        try (JsonGenerator generator = prettyPrinted(mapper.getFactory().createGenerator(writer), pretty)) {
+            while (steps.hasNext()) {
+                steps.next().writeTo(generator);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    private static State next(State state, SynchronousSink<Buffer> sink) {
+        try {
+            while (state.steps.hasNext() && state.buffered() < state.chunkSize) {
+                state.steps.next().writeTo(state.generator);
+            }
+
+            state.generator.flush();
+            ByteBuf chunk = state.output.take();
+
+            if (chunk != null && chunk.isReadable()) {
+                sink.next(toStyxBuffer(chunk));
+            } else if (chunk != null) {
+                chunk.release();
+            }
+
+            if (!state.steps.hasNext()) {
+                sink.complete();
+            }
+        } catch (Exception e) {
+            sink.error(e);
+        }
+        return state;
+    }
+
+    private static JsonGenerator prettyPrinted(JsonGenerator generator, boolean pretty) {
+        return pretty ? generator.useDefaultPrettyPrinter() : generator;
+    }
+
+    private static final class State {
+        private final Iterator<? extends Step> steps;
+        private final int chunkSize;
+        private final ChunkOutputStream output;
+        private final JsonGenerator generator;
+
+        State(ObjectMapper mapper, boolean pretty, Iterator<? extends Step> steps, int chunkSize, ByteBufAllocator allocator) throws IOException {
+            this.steps = steps;
+            this.chunkSize = chunkSize;
+            this.output = new ChunkOutputStream(allocator, chunkSize);
+            this.generator = prettyPrinted(mapper.getFactory().createGenerator(output), pretty);
+        }
+
+        int buffered() {
+            return output.size() + generator.getOutputBuffered();
+        }
+
+        void release() {
+            ByteBuf remaining = output.take();
+            if (remaining != null) {
+                remaining.release();
+            }
+        }
+    }
+
+    private static final class ChunkOutputStream extends OutputStream {
+        private final ByteBufAllocator allocator;
+        private final int chunkSize;
+        private ByteBuf current;
+
+        ChunkOutputStream(ByteBufAllocator allocator, int chunkSize) {
+            this.allocator = allocator;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer().writeByte(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            buffer().writeBytes(bytes, offset, length);
+        }
+
+        int size() {
+            return current == null ? 0 : current.readableBytes();
+        }
+
+        ByteBuf take() {
+            ByteBuf chunk = current;
+            current = null;
+            return chunk;
+        }
+
+        private ByteBuf buffer() {
+            if (current == null) {
+                current = allocator.buffer(chunkSize);
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hotels.styx.api.extension.service.spi.AbstractStyxService;
+import com.hotels.styx.metrics.reporting.sets.BlockedEventLoopLog;
+import com.hotels.styx.metrics.reporting.sets.EventLoopMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+/**
+ * Binds {@link EventLoopMetrics} to the event loop groups of Styx executors while the service is running.
+ * All event loops are probed from a single thread.
+ */
+public class EventLoopMonitor extends AbstractStyxService {
+    private static final int BLOCKED_EVENT_LOOP_LOG_CAPACITY = 50;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration probeInterval;
+    private final Duration blockedThreshold;
+    private final BlockedEventLoopLog blockedEventLoops;
+    private final Map<String, EventLoopGroup> eventLoopGroups = new LinkedHashMap<>();
+    private final List<EventLoopMetrics> metrics = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public EventLoopMonitor(MeterRegistry meterRegistry, Duration probeInterval, Duration blockedThreshold, Duration reportInterval) {
+        super("EventLoopMonitor");
+        this.meterRegistry = requireNonNull(meterRegistry);
+        this.probeInterval = requireNonNull(probeInterval);
+        this.blockedThreshold = requireNonNull(blockedThreshold);
+        this.blockedEventLoops = new BlockedEventLoopLog(reportInterval, BLOCKED_EVENT_LOOP_LOG_CAPACITY);
+    }
+
+    /**
+     * Adds an event loop group to monitor. Monitoring starts when the service starts,
+     * or straight away if it is already running.
+     *
+     * @param executorName   executor name
+     * @param eventLoopGroup event loop group
+     */
+    public synchronized void monitor(String executorName, EventLoopGroup eventLoopGroup) {
+        if (eventLoopGroups.putIfAbsent(executorName, eventLoopGroup) == null && scheduler != null) {
+            bind(executorName, eventLoopGroup);
+        }
+    }
+
+    public BlockedEventLoopLog blockedEventLoops() {
+        return blockedEventLoops;
+    }
+
+    @Override
+    protected synchronized CompletableFuture<Void> startService() {
+        scheduler = newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("Styx-EventLoopMonitor")
+                .setDaemon(true)
+                .build());
+
+        eventLoopGroups.forEach(this::bind);
+        return completedFuture(null);
+    }
+
+    @Override
+    protected synchronized CompletableFuture<Void> stopService() {
+        metrics.forEach(EventLoopMetrics::close);
+        metrics.clear();
+        scheduler.shutdown();
+        scheduler = null;
+        return completedFuture(null);
+    }
+
+    private void bind(String executorName, EventLoopGroup eventLoopGroup) {
+        EventLoopMetrics eventLoopMetrics = new EventLoopMetrics(executorName, eventLoopGroup, scheduler,
+                probeInterval, blockedThreshold, blockedEventLoops);
+        eventLoopMetrics.bindTo(meterRegistry);
+        metrics.add(eventLoopMetrics);
+    }
+}
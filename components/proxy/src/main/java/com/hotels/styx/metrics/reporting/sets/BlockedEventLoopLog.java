@@ -0,0 +1,177 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.metrics.reporting.sets;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.annotations.VisibleForTesting;
+import com.hotels.styx.api.Clock;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hotels.styx.api.Clocks.systemClock;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Logs the stack traces of blocked event loop threads, and keeps the most recent ones.
+ * <p>
+ * Each event loop is reported at most once per report interval. Further reports within the
+ * interval are only counted, and the count is included in the next report.
+ */
+public class BlockedEventLoopLog {
+    private static final Logger LOGGER = getLogger(BlockedEventLoopLog.class);
+
+    private final long reportIntervalMillis;
+    private final int capacity;
+    private final Clock clock;
+    private final Map<String, Long> lastReports = new HashMap<>();
+    private final Map<String, Integer> suppressed = new HashMap<>();
+    private final Deque<Event> events = new ArrayDeque<>();
+
+    public BlockedEventLoopLog(Duration reportInterval, int capacity) {
+        this(reportInterval, capacity, systemClock());
+    }
+
+    @VisibleForTesting
+    BlockedEventLoopLog(Duration reportInterval, int capacity, Clock clock) {
+        this.reportIntervalMillis = reportInterval.toMillis();
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    /**
+     * Reports a blocked event loop.
+     *
+     * @param executor   executor name
+     * @param eventLoop  event loop name, within the executor
+     * @param thread     event loop thread, or null if it is not known yet
+     * @param blockedFor time the event loop has been blocked for
+     */
+    public void blocked(String executor, String eventLoop, Thread thread, Duration blockedFor) {
+        String key = executor + "/" + eventLoop;
+        long now = clock.tickMillis();
+        int previouslySuppressed;
+
+        synchronized (this) {
+            Long lastReport = lastReports.get(key);
+            if (lastReport != null && now - lastReport < reportIntervalMillis) {
+                suppressed.merge(key, 1, Integer::sum);
+                return;
+            }
+            lastReports.put(key, now);
+            previouslySuppressed = suppressed.getOrDefault(key, 0);
+            suppressed.remove(key);
+        }
+
+        List<String> stackTrace = thread == null
+                ? emptyList()
+                : Arrays.stream(thread.getStackTrace()).map(StackTraceElement::toString).collect(toList());
+
+        Event event = new Event(executor, eventLoop, thread == null ? null : thread.getName(),
+                blockedFor.toMillis(), Instant.ofEpochMilli(now), previouslySuppressed, stackTrace);
+
+        synchronized (this) {
+            events.addFirst(event);
+            if (events.size() > capacity) {
+                events.removeLast();
+            }
+        }
+
+        LOGGER.warn("Event loop blocked. executor={}, eventLoop={}, thread={}, blockedMillis={}, suppressedReports={}{}",
+                executor, eventLoop, event.thread, event.blockedMillis, previouslySuppressed,
+                stackTrace.stream().map(line -> "\n\tat " + line).collect(joining()));
+    }
+
+    /**
+     * Returns the most recent reports, newest first.
+     *
+     * @return reports
+     */
+    public synchronized List<Event> events() {
+        return unmodifiableList(new ArrayList<>(events));
+    }
+
+    /**
+     * A report of a blocked event loop.
+     */
+    public static final class Event {
+        private final String executor;
+        private final String eventLoop;
+        private final String thread;
+        private final long blockedMillis;
+        private final Instant timestamp;
+        private final int suppressedReports;
+        private final List<String> stackTrace;
+
+        Event(String executor, String eventLoop, String thread, long blockedMillis, Instant timestamp,
+              int suppressedReports, List<String> stackTrace) {
+            this.executor = executor;
+            this.eventLoop = eventLoop;
+            this.thread = thread;
+            this.blockedMillis = blockedMillis;
+            this.timestamp = timestamp;
+            this.suppressedReports = suppressedReports;
+            this.stackTrace = stackTrace;
+        }
+
+        @JsonProperty("executor")
+        public String executor() {
+            return executor;
+        }
+
+        @JsonProperty("eventLoop")
+        public String eventLoop() {
+            return eventLoop;
+        }
+
+        @JsonProperty("thread")
+        public String thread() {
+            return thread;
+        }
+
+        @JsonProperty("blockedMillis")
+        public long blockedMillis() {
+            return blockedMillis;
+        }
+
+        @JsonProperty("timestamp")
+        public String timestamp() {
+            return timestamp.toString();
+        }
+
+        @JsonProperty("suppressedReports")
+        public int suppressedReports() {
+            return suppressedReports;
+        }
+
+        @JsonProperty("stackTrace")
+        public List<String> stackTrace() {
+            return stackTrace;
+        }
+    }
+}
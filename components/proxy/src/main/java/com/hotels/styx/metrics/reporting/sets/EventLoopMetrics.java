@@ -0,0 +1,138 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.metrics.reporting.sets;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Monitors the event loops of a netty {@link EventLoopGroup}.
+ * <p>
+ * Every probe interval a no-op task is submitted to each event loop, and the time it waits before it runs is recorded
+ * by a timer per event loop. While a task has not run, no other task is submitted to the same loop. When a task
+ * has waited longer than the blocked threshold, the event loop is reported as blocked.
+ */
+public class EventLoopMetrics implements MeterBinder, AutoCloseable {
+    private final String executorName;
+    private final EventLoopGroup eventLoopGroup;
+    private final ScheduledExecutorService scheduler;
+    private final long probeIntervalNanos;
+    private final long blockedThresholdNanos;
+    private final BlockedEventLoopLog blockedEventLoops;
+    private final List<Probe> probes = new ArrayList<>();
+
+    private volatile ScheduledFuture<?> probing;
+
+    public EventLoopMetrics(String executorName, EventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler,
+                            Duration probeInterval, Duration blockedThreshold, BlockedEventLoopLog blockedEventLoops) {
+        this.executorName = requireNonNull(executorName);
+        this.eventLoopGroup = requireNonNull(eventLoopGroup);
+        this.scheduler = requireNonNull(scheduler);
+        this.probeIntervalNanos = probeInterval.toNanos();
+        this.blockedThresholdNanos = blockedThreshold.toNanos();
+        this.blockedEventLoops = requireNonNull(blockedEventLoops);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        int index = 0;
+        for (EventExecutor eventLoop : eventLoopGroup) {
+            probes.add(new Probe(eventLoop, String.valueOf(index++), registry));
+        }
+
+        probing = scheduler.scheduleAtFixedRate(this::probe, probeIntervalNanos, probeIntervalNanos, NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        ScheduledFuture<?> probing = this.probing;
+        if (probing != null) {
+            probing.cancel(false);
+        }
+    }
+
+    private void probe() {
+        long now = System.nanoTime();
+        probes.forEach(probe -> probe.probe(now));
+    }
+
+    private final class Probe {
+        private final EventExecutor eventLoop;
+        private final String name;
+        private final Timer delay;
+        private final Counter blocked;
+
+        // Zero when no task is pending:
+        private volatile long submittedNanos;
+        private volatile boolean reported;
+        private volatile Thread thread;
+
+        Probe(EventExecutor eventLoop, String name, MeterRegistry registry) {
+            this.eventLoop = eventLoop;
+            this.name = name;
+            this.delay = Timer.builder("styx.eventLoop.delay")
+                    .tags("executor", executorName, "eventLoop", name)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry);
+            this.blocked = Counter.builder("styx.eventLoop.blocked")
+                    .tags("executor", executorName, "eventLoop", name)
+                    .register(registry);
+        }
+
+        void probe(long now) {
+            long submitted = submittedNanos;
+
+            if (submitted != 0) {
+                long pending = now - submitted;
+                if (pending >= blockedThresholdNanos && !reported) {
+                    reported = true;
+                    blocked.increment();
+                    blockedEventLoops.blocked(executorName, name, thread, Duration.ofNanos(pending));
+                }
+            } else if (!eventLoop.isShuttingDown()) {
+                reported = false;
+                submittedNanos = now;
+                try {
+                    eventLoop.execute(this::run);
+                } catch (RejectedExecutionException e) {
+                    submittedNanos = 0;
+                }
+            }
+        }
+
+        private void run() {
+            thread = Thread.currentThread();
+            delay.record(System.nanoTime() - submittedNanos, NANOSECONDS);
+            submittedNanos = 0;
+        }
+    }
+}
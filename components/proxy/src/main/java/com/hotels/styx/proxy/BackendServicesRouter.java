@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -133,7 +133,7 @@ public class BackendServicesRouter implements HttpRouter, Registry.ChangeListene
             OriginHealthStatusMonitor healthStatusMonitor = healthStatusMonitor(backendService);
 
             OriginsInventory inventory = new OriginsInventory.Builder(backendService.id())
-                    .eventBus(environment.eventBus())
+                    .eventRouter(environment.originEventRouter())
                     .meterRegistry(environment.meterRegistry())
                     .connectionPoolFactory(connectionPoolFactory)
                     .originHealthMonitor(healthStatusMonitor)
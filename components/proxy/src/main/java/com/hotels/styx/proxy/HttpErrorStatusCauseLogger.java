@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -19,32 +19,46 @@ import com.hotels.styx.api.HttpResponseStatus;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
 import com.hotels.styx.common.format.HttpMessageFormatter;
+import com.hotels.styx.common.logging.AggregatedErrorLog;
 import com.hotels.styx.server.HttpErrorStatusListener;
 import org.slf4j.Logger;
 
 import java.net.InetSocketAddress;
+import java.time.Duration;
 
 import static java.util.Objects.requireNonNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Wrapper for {@link HttpErrorStatusListener} that also logs {@link Throwable}s.
+ * <p>
+ * Repeated proxy failures with the same cause are logged once per interval, followed by a count of the
+ * errors that were suppressed. See {@link AggregatedErrorLog}. Causes of 500 Internal Server Error
+ * responses are always logged in full.
  */
 public class HttpErrorStatusCauseLogger implements HttpErrorStatusListener {
 
     private static final Logger LOG = getLogger(HttpErrorStatusCauseLogger.class);
+    private static final Duration SUMMARY_INTERVAL = Duration.ofSeconds(10);
+    private static final int MAX_ERROR_GROUPS = 256;
+
     private final HttpMessageFormatter formatter;
+    private final AggregatedErrorLog errorLog;
 
     public HttpErrorStatusCauseLogger(HttpMessageFormatter formatter) {
         this.formatter = requireNonNull(formatter);
+        this.errorLog = new AggregatedErrorLog(LOG, SUMMARY_INTERVAL, MAX_ERROR_GROUPS);
     }
 
     @Override
     public void proxyErrorOccurred(HttpResponseStatus status, Throwable cause) {
         if (status.code() > 500) {
+            if (!errorLog.admit(cause)) {
+                return;
+            }
             // we remove the stack trace so that logs are not flooded with high volumes of data when origins are unreachable/timing out.
             LOG.error("Failure status=\"{}\", exception=\"{}\"", status, withoutStackTrace(cause));
-        } else {
+        } else if (status.code() == 500 || errorLog.admit(cause)) {
             LOG.error("Failure status=\"{}\"", status, cause);
         }
     }
@@ -60,16 +74,25 @@ public class HttpErrorStatusCauseLogger implements HttpErrorStatusListener {
 
     @Override
     public void proxyErrorOccurred(Throwable cause) {
+        if (!errorLog.admit(cause)) {
+            return;
+        }
         LOG.error("Error occurred during proxying", cause);
     }
 
     @Override
     public void proxyWriteFailure(LiveHttpRequest request, LiveHttpResponse response, Throwable cause) {
+        if (!errorLog.admit(cause)) {
+            return;
+        }
         LOG.error("Error writing response. request={}, response={}, cause={}", new Object[]{formatter.formatRequest(request), formatter.formatResponse(response), cause});
     }
 
     @Override
     public void proxyingFailure(LiveHttpRequest request, LiveHttpResponse response, Throwable cause) {
+        if (!errorLog.admit(cause)) {
+            return;
+        }
         LOG.error("Error proxying request. request={} response={} cause={}", new Object[]{formatter.formatRequest(request), formatter.formatResponse(response), cause});
     }
 
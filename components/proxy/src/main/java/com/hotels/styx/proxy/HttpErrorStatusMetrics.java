@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.hotels.styx.proxy;
 import com.hotels.styx.api.HttpResponseStatus;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.metrics.StatusCounters;
 import com.hotels.styx.api.plugins.spi.PluginException;
 import com.hotels.styx.server.HttpErrorStatusListener;
 import io.micrometer.core.instrument.Counter;
@@ -44,6 +45,7 @@ public class HttpErrorStatusMetrics implements HttpErrorStatusListener {
 
     private final MeterRegistry meterRegistry;
     private final Counter styxErrors;
+    private final StatusCounters statusCounters;
 
     /**
      * Construct a reporter with a given registry to report to.
@@ -52,6 +54,7 @@ public class HttpErrorStatusMetrics implements HttpErrorStatusListener {
      */
     public HttpErrorStatusMetrics(MeterRegistry meterRegistry) {
         this.meterRegistry = requireNonNull(meterRegistry);
+        this.statusCounters = new StatusCounters(code -> meterRegistry.counter(RESPONSE, STATUS_CODE_TAG, valueOf(code)));
 
         // This means we can find the expected metric names in the registry, even before the corresponding events have occurred
         preregisterMetrics();
@@ -104,23 +107,19 @@ public class HttpErrorStatusMetrics implements HttpErrorStatusListener {
         return meterRegistry.counter(EXCEPTION, TYPE_TAG, formattedExceptionName(exceptionClass));
     }
 
-    private Counter statusCounter(int statusCode) {
-        return meterRegistry.counter(RESPONSE, STATUS_CODE_TAG, valueOf(statusCode));
-    }
-
     private static boolean isError(HttpResponseStatus status) {
         return status.code() >= 400;
     }
 
     private void record(HttpResponseStatus status) {
         if (isError(status)) {
-            statusCounter(status.code()).increment();
+            statusCounters.increment(status.code());
         }
     }
 
     // we can't preregister every possible name in these categories, but getting the prefix there will make things easier
     private void preregisterMetrics() {
-        statusCounter(200);
+        statusCounters.counter(200);
         exceptionCounter(Exception.class);
     }
 }
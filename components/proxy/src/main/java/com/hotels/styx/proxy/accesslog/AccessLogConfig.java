@@ -0,0 +1,139 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static com.hotels.styx.common.Preconditions.checkArgument;
+import static java.util.Collections.emptyList;
+
+/**
+ * Configuration for the access log, read from the {@code request-logging.access} block.
+ */
+public class AccessLogConfig {
+    public static final String DEFAULT_FILE = "logs/access.log";
+    public static final double DEFAULT_SAMPLING_RATE = 1.0;
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+    public static final long DEFAULT_MAX_FILE_SIZE = 100L * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 10;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final boolean enabled;
+    private final String file;
+    private final AccessLogFormat format;
+    private final double samplingRate;
+    private final List<String> headers;
+    private final int bufferSize;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final long flushIntervalMillis;
+
+    // CHECKSTYLE:OFF
+    public AccessLogConfig(@JsonProperty("enabled") Boolean enabled,
+                           @JsonProperty("file") String file,
+                           @JsonProperty("format") String format,
+                           @JsonProperty("samplingRate") Double samplingRate,
+                           @JsonProperty("headers") List<String> headers,
+                           @JsonProperty("bufferSize") Integer bufferSize,
+                           @JsonProperty("maxFileSize") Long maxFileSize,
+                           @JsonProperty("maxFiles") Integer maxFiles,
+                           @JsonProperty("flushIntervalMillis") Long flushIntervalMillis) {
+        this.enabled = orDefault(enabled, false);
+        this.file = orDefault(file, DEFAULT_FILE);
+        this.format = format != null ? AccessLogFormat.fromName(format) : AccessLogFormat.JSON;
+        this.samplingRate = orDefault(samplingRate, DEFAULT_SAMPLING_RATE);
+        this.headers = ImmutableList.copyOf(orDefault(headers, emptyList()));
+        this.bufferSize = orDefault(bufferSize, DEFAULT_BUFFER_SIZE);
+        this.maxFileSize = orDefault(maxFileSize, DEFAULT_MAX_FILE_SIZE);
+        this.maxFiles = orDefault(maxFiles, DEFAULT_MAX_FILES);
+        this.flushIntervalMillis = orDefault(flushIntervalMillis, DEFAULT_FLUSH_INTERVAL_MILLIS);
+
+        checkArgument(this.samplingRate >= 0 && this.samplingRate <= 1, "samplingRate must be between 0 and 1");
+        checkArgument(this.bufferSize > 0, "bufferSize must be positive");
+        checkArgument(this.maxFileSize > 0, "maxFileSize must be positive");
+        checkArgument(this.maxFiles >= 0, "maxFiles must not be negative");
+        checkArgument(this.flushIntervalMillis > 0, "flushIntervalMillis must be positive");
+    }
+    // CHECKSTYLE:ON
+
+    private static <T> T orDefault(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Path of the active log file. Rotated files get the suffixes {@code .1}, {@code .2}, and so on.
+     *
+     * @return log file path
+     */
+    public String file() {
+        return file;
+    }
+
+    public AccessLogFormat format() {
+        return format;
+    }
+
+    /**
+     * Fraction of requests that are logged, between 0 and 1.
+     *
+     * @return sampling rate
+     */
+    public double samplingRate() {
+        return samplingRate;
+    }
+
+    /**
+     * Names of the request headers whose values are logged.
+     *
+     * @return header names
+     */
+    public List<String> headers() {
+        return headers;
+    }
+
+    /**
+     * Number of records the ring buffer holds. Rounded up to a power of two.
+     *
+     * @return buffer size
+     */
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    public long maxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * Number of rotated files to keep.
+     *
+     * @return number of rotated files
+     */
+    public int maxFiles() {
+        return maxFiles;
+    }
+
+    public long flushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Output formats of the access log.
+ */
+public enum AccessLogFormat {
+    /**
+     * One JSON object per line.
+     */
+    JSON {
+        @Override
+        AccessLogEncoder encoder(List<String> headerNames) {
+            return new JsonAccessLogEncoder(headerNames);
+        }
+    },
+
+    /**
+     * Length-prefixed binary records. See {@link BinaryAccessLogEncoder} for the layout.
+     */
+    BINARY {
+        @Override
+        AccessLogEncoder encoder(List<String> headerNames) {
+            return new BinaryAccessLogEncoder(headerNames);
+        }
+    };
+
+    abstract AccessLogEncoder encoder(List<String> headerNames);
+
+    static AccessLogFormat fromName(String name) {
+        for (AccessLogFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException(format("Unknown access log format '%s'. Expected 'json' or 'binary'", name));
+    }
+}
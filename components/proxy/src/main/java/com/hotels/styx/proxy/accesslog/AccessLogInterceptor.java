@@ -0,0 +1,140 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Records each sampled request and response in the access log. The record is written when
+ * the response body has been sent, the response is cancelled, or the request fails.
+ */
+public class AccessLogInterceptor implements HttpInterceptor {
+    private static final AtomicIntegerFieldUpdater<Exchange> COMPLETED = AtomicIntegerFieldUpdater.newUpdater(Exchange.class, "completed");
+
+    private final AccessLogger accessLogger;
+    private final CharSequence originIdHeaderName;
+    private final String[] headerNames;
+
+    public AccessLogInterceptor(AccessLogger accessLogger, CharSequence originIdHeaderName) {
+        this.accessLogger = requireNonNull(accessLogger);
+        this.originIdHeaderName = requireNonNull(originIdHeaderName);
+        List<String> names = accessLogger.headerNames();
+        this.headerNames = names.toArray(new String[0]);
+    }
+
+    @Override
+    public Eventual<LiveHttpResponse> intercept(LiveHttpRequest request, Chain chain) {
+        if (!accessLogger.sample()) {
+            return chain.proceed(request);
+        }
+
+        Exchange exchange = new Exchange(request, chain.context());
+        return chain.proceed(exchange.onRequest())
+                .map(exchange::onResponse)
+                .onError(cause -> {
+                    exchange.complete(cause, false);
+                    return Eventual.error(cause);
+                });
+    }
+
+    private final class Exchange {
+        private final LiveHttpRequest request;
+        private final Context context;
+        private final long timestamp = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+
+        private long firstByteNanos;
+        private int status;
+        private CharSequence originId;
+        private long requestBytes;
+        private long responseBytes;
+        volatile int completed;
+
+        Exchange(LiveHttpRequest request, Context context) {
+            this.request = request;
+            this.context = context;
+        }
+
+        // The request body is counted as it streams, because chunked requests have no Content-Length:
+        LiveHttpRequest onRequest() {
+            return request.newBuilder()
+                    .body(body -> body.map(this::countRequest))
+                    .build();
+        }
+
+        LiveHttpResponse onResponse(LiveHttpResponse response) {
+            firstByteNanos = System.nanoTime() - startNanos;
+            status = response.status().code();
+            originId = response.header(originIdHeaderName).orElse(null);
+
+            return response.newBuilder()
+                    .body(body -> body
+                            .map(this::countResponse)
+                            .doOnEnd(cause -> complete(cause.orElse(null), false))
+                            .doOnCancel(() -> complete(null, true)))
+                    .build();
+        }
+
+        private Buffer countRequest(Buffer buffer) {
+            requestBytes += buffer.size();
+            return buffer;
+        }
+
+        private Buffer countResponse(Buffer buffer) {
+            responseBytes += buffer.size();
+            return buffer;
+        }
+
+        void complete(Throwable cause, boolean cancelled) {
+            if (!COMPLETED.compareAndSet(this, 0, 1)) {
+                return;
+            }
+            AccessLogRecord record = accessLogger.claim();
+            if (record == null) {
+                return;
+            }
+
+            record.timestamp = timestamp;
+            record.firstByteNanos = firstByteNanos;
+            record.durationNanos = System.nanoTime() - startNanos;
+            record.status = status;
+            record.requestBytes = requestBytes;
+            record.responseBytes = responseBytes;
+            record.secure = context != null && context.isSecure();
+            record.cancelled = cancelled;
+            record.method = request.method();
+            record.path = request.path();
+            record.requestId = request.id();
+            record.clientAddress = context != null ? context.clientAddress().orElse(null) : null;
+            record.originId = originId;
+            record.error = cause != null ? cause.getClass() : null;
+            for (int i = 0; i < headerNames.length; i++) {
+                record.headers[i] = request.header(headerNames[i]).orElse(null);
+            }
+
+            accessLogger.publish(record);
+        }
+    }
+}
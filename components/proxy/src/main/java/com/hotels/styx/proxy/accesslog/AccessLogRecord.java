@@ -0,0 +1,63 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import com.hotels.styx.api.HttpMethod;
+
+import java.net.InetSocketAddress;
+
+/**
+ * A pre-allocated slot of the access log ring buffer. Event loops only copy numbers and
+ * references into it; all formatting happens on the writer thread.
+ */
+final class AccessLogRecord {
+    final String[] headers;
+
+    long timestamp;
+    long firstByteNanos;
+    long durationNanos;
+    int status;
+    long requestBytes;
+    long responseBytes;
+    boolean secure;
+    boolean cancelled;
+    HttpMethod method;
+    String path;
+    Object requestId;
+    InetSocketAddress clientAddress;
+    CharSequence originId;
+    Class<? extends Throwable> error;
+
+    // Ring buffer sequence at which this record was claimed.
+    long position;
+
+    AccessLogRecord(int headerCount) {
+        this.headers = new String[headerCount];
+    }
+
+    void clear() {
+        method = null;
+        path = null;
+        requestId = null;
+        clientAddress = null;
+        originId = null;
+        error = null;
+        cancelled = false;
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = null;
+        }
+    }
+}
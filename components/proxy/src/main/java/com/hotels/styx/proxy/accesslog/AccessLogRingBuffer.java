@@ -0,0 +1,112 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer ring of pre-allocated records.
+ * <p>
+ * Each slot carries a sequence number. A slot is free for the producer at position {@code p}
+ * when its sequence equals {@code p}, and readable by the consumer once the producer has
+ * published it by setting the sequence to {@code p + 1}. Producers never wait: when the ring
+ * is full, {@link #claim()} returns null and the caller drops the record.
+ */
+final class AccessLogRingBuffer {
+    private final AccessLogRecord[] records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only accessed by the consumer thread.
+    private long head;
+
+    AccessLogRingBuffer(int size, int headerCount) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.records = new AccessLogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new AccessLogRecord(headerCount);
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return records.length;
+    }
+
+    /**
+     * Claims a free record. The caller must fill it and then call {@link #publish}.
+     *
+     * @return a free record, or null if the ring is full
+     */
+    AccessLogRecord claim() {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    AccessLogRecord record = records[index];
+                    record.position = position;
+                    return record;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return null;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    void publish(AccessLogRecord record) {
+        sequences.set((int) record.position & mask, record.position + 1);
+    }
+
+    /**
+     * Passes up to {@code max} published records to the consumer, in order, and frees them.
+     * Must only be called from a single thread.
+     *
+     * @param consumer record consumer
+     * @param max      maximum number of records to drain
+     * @return number of records drained
+     */
+    int drain(Consumer<AccessLogRecord> consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            AccessLogRecord record = records[index];
+            try {
+                consumer.accept(record);
+            } finally {
+                record.clear();
+                sequences.set(index, head + records.length);
+                head++;
+            }
+            drained++;
+        }
+        return drained;
+    }
+}
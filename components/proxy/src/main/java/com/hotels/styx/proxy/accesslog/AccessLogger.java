@@ -0,0 +1,198 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Writes access log records to rotating files from a background thread.
+ * <p>
+ * Event loops copy each sampled exchange into a pre-allocated slot of a lock-free ring buffer.
+ * They never format strings, touch the disk or wait for the writer. If the ring buffer is full,
+ * the record is dropped and counted in {@code proxy.accessLog.dropped}.
+ */
+public final class AccessLogger implements Closeable {
+    public static final String RECORDS_COUNTER_NAME = "proxy.accessLog.records";
+    public static final String DROPPED_COUNTER_NAME = "proxy.accessLog.dropped";
+    public static final String ERRORS_COUNTER_NAME = "proxy.accessLog.errors";
+
+    private static final Logger LOGGER = getLogger(AccessLogger.class);
+    private static final int BATCH_SIZE = 1024;
+    private static final long MAX_IDLE_PARK_NANOS = MILLISECONDS.toNanos(10);
+
+    private final List<String> headerNames;
+    private final double samplingRate;
+    private final AccessLogRingBuffer ring;
+    private final AccessLogEncoder encoder;
+    private final RollingFileOutput output;
+    private final long flushIntervalNanos;
+    private final Counter records;
+    private final Counter dropped;
+    private final Counter errors;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    // Only accessed by the writer thread.
+    private boolean dirty;
+    private boolean failing;
+
+    private AccessLogger(AccessLogConfig config, MeterRegistry registry) throws IOException {
+        this.headerNames = config.headers();
+        this.samplingRate = config.samplingRate();
+        this.ring = new AccessLogRingBuffer(config.bufferSize(), headerNames.size());
+        this.encoder = config.format().encoder(headerNames);
+        this.output = new RollingFileOutput(Paths.get(config.file()), config.maxFileSize(), config.maxFiles());
+        this.flushIntervalNanos = MILLISECONDS.toNanos(config.flushIntervalMillis());
+
+        this.records = registry.counter(RECORDS_COUNTER_NAME);
+        this.dropped = registry.counter(DROPPED_COUNTER_NAME);
+        this.errors = registry.counter(ERRORS_COUNTER_NAME);
+
+        this.writer = new Thread(this::writeLoop, "Styx-AccessLog-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Creates an access logger and starts its writer thread.
+     *
+     * @param config   access log configuration
+     * @param registry meter registry
+     * @return a new access logger
+     */
+    public static AccessLogger create(AccessLogConfig config, MeterRegistry registry) {
+        try {
+            return new AccessLogger(requireNonNull(config), requireNonNull(registry));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open access log " + config.file(), e);
+        }
+    }
+
+    /**
+     * Decides whether the current request should be logged.
+     *
+     * @return true if the request is sampled
+     */
+    boolean sample() {
+        return samplingRate >= 1.0 || (samplingRate > 0 && ThreadLocalRandom.current().nextDouble() < samplingRate);
+    }
+
+    List<String> headerNames() {
+        return headerNames;
+    }
+
+    /**
+     * Claims a record to fill in. The caller must call {@link #publish} once the record is filled.
+     *
+     * @return a free record, or null if the buffer is full and the exchange must be dropped
+     */
+    AccessLogRecord claim() {
+        AccessLogRecord record = ring.claim();
+        if (record == null) {
+            dropped.increment();
+        }
+        return record;
+    }
+
+    void publish(AccessLogRecord record) {
+        ring.publish(record);
+    }
+
+    /**
+     * Stops the writer thread after the records already in the buffer have been written.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        long lastFlush = System.nanoTime();
+        while (true) {
+            boolean stopping = !running;
+            int drained = ring.drain(this::write, BATCH_SIZE);
+
+            long now = System.nanoTime();
+            if (dirty && (stopping || now - lastFlush >= flushIntervalNanos)) {
+                flush();
+                lastFlush = now;
+            }
+            if (drained == 0) {
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(min(flushIntervalNanos, MAX_IDLE_PARK_NANOS));
+            }
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing access log", e);
+        }
+    }
+
+    private void write(AccessLogRecord record) {
+        try {
+            encoder.encode(record, output);
+            output.rotateIfFull();
+            dirty = true;
+            records.increment();
+            failing = false;
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+        }
+    }
+
+    private void flush() {
+        try {
+            output.flush();
+            dirty = false;
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    private void failed(Exception e) {
+        errors.increment();
+        if (!failing) {
+            LOGGER.warn("Error writing access log. Further errors are counted in " + ERRORS_COUNTER_NAME + " until a write succeeds.", e);
+            failing = true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import static com.hotels.styx.proxy.accesslog.JsonAccessLogEncoder.clientAddress;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Writes each record as a big-endian binary frame:
+ * <pre>
+ * int     length of the rest of the frame
+ * byte    version (1)
+ * long    time, epoch millis
+ * long    first byte latency, micros
+ * long    duration, micros
+ * short   status
+ * long    request bytes (-1 if unknown)
+ * long    response bytes
+ * byte    flags: 1 = secure, 2 = cancelled
+ * string  request id, method, path, client, origin id, error
+ * short   header count, followed by one string per configured header
+ * </pre>
+ * A string is a presence byte followed, if present, by a {@link DataOutputStream#writeUTF} value.
+ */
+final class BinaryAccessLogEncoder implements AccessLogEncoder {
+    private static final int VERSION = 1;
+    private static final int MAX_STRING_LENGTH = 16 * 1024;
+
+    private final int headerCount;
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+    private final DataOutputStream data = new DataOutputStream(frame);
+
+    BinaryAccessLogEncoder(List<String> headerNames) {
+        this.headerCount = headerNames.size();
+    }
+
+    @Override
+    public void encode(AccessLogRecord record, OutputStream out) throws IOException {
+        frame.reset();
+        data.writeByte(VERSION);
+        data.writeLong(record.timestamp);
+        data.writeLong(NANOSECONDS.toMicros(record.firstByteNanos));
+        data.writeLong(NANOSECONDS.toMicros(record.durationNanos));
+        data.writeShort(record.status);
+        data.writeLong(record.requestBytes);
+        data.writeLong(record.responseBytes);
+        data.writeByte((record.secure ? 1 : 0) | (record.cancelled ? 2 : 0));
+        string(record.requestId);
+        string(record.method);
+        string(record.path);
+        string(clientAddress(record.clientAddress));
+        string(record.originId);
+        string(record.error != null ? record.error.getName() : null);
+        data.writeShort(headerCount);
+        for (String value : record.headers) {
+            string(value);
+        }
+        data.flush();
+
+        int length = frame.size();
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+        frame.writeTo(out);
+    }
+
+    private void string(Object value) throws IOException {
+        if (value == null) {
+            data.writeBoolean(false);
+        } else {
+            String text = value.toString();
+            data.writeBoolean(true);
+            data.writeUTF(text.length() > MAX_STRING_LENGTH ? text.substring(0, MAX_STRING_LENGTH) : text);
+        }
+    }
+}
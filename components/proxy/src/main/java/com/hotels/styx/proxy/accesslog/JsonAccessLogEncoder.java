@@ -0,0 +1,119 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Writes each record as a JSON object on its own line.
+ */
+final class JsonAccessLogEncoder implements AccessLogEncoder {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String[] headerNames;
+    private final StringBuilder line = new StringBuilder(512);
+
+    JsonAccessLogEncoder(List<String> headerNames) {
+        this.headerNames = headerNames.toArray(new String[0]);
+    }
+
+    @Override
+    public void encode(AccessLogRecord record, OutputStream out) throws IOException {
+        line.setLength(0);
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(record.timestamp)).append('"');
+        string("requestId", record.requestId);
+        string("method", record.method);
+        string("path", record.path);
+        number("status", record.status);
+        number("firstByteMicros", NANOSECONDS.toMicros(record.firstByteNanos));
+        number("durationMicros", NANOSECONDS.toMicros(record.durationNanos));
+        number("requestBytes", record.requestBytes);
+        number("responseBytes", record.responseBytes);
+        line.append(",\"secure\":").append(record.secure);
+        string("client", clientAddress(record.clientAddress));
+        string("originId", record.originId);
+        if (record.cancelled) {
+            line.append(",\"cancelled\":true");
+        }
+        if (record.error != null) {
+            string("error", record.error.getName());
+        }
+        headers(record.headers);
+        line.append("}\n");
+
+        out.write(line.toString().getBytes(UTF_8));
+    }
+
+    private void headers(String[] values) {
+        if (headerNames.length == 0) {
+            return;
+        }
+        line.append(",\"headers\":{");
+        boolean first = true;
+        for (int i = 0; i < headerNames.length; i++) {
+            if (values[i] != null) {
+                if (!first) {
+                    line.append(',');
+                }
+                quoted(headerNames[i]);
+                line.append(':');
+                quoted(values[i]);
+                first = false;
+            }
+        }
+        line.append('}');
+    }
+
+    private void number(String name, long value) {
+        line.append(",\"").append(name).append("\":").append(value);
+    }
+
+    private void string(String name, Object value) {
+        if (value != null) {
+            line.append(",\"").append(name).append("\":");
+            quoted(value.toString());
+        }
+    }
+
+    private void quoted(CharSequence value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    static String clientAddress(InetSocketAddress address) {
+        if (address == null) {
+            return null;
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A buffered file output that rotates to {@code file.1}, {@code file.2}, and so on once the
+ * active file exceeds a size limit. Not thread safe.
+ */
+final class RollingFileOutput extends OutputStream {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private OutputStream out;
+    private long size;
+
+    RollingFileOutput(Path file, long maxFileSize, int maxFiles) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+
+        Files.createDirectories(this.file.getParent());
+        open();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+        size += length;
+    }
+
+    /**
+     * Rotates the file if it has grown beyond the size limit. Called between records, so that
+     * a record is never split across files. If the rotation fails, the output carries on
+     * appending to the active file, and rotation is tried again after the next record.
+     *
+     * @throws IOException if the file could not be rotated
+     */
+    void rotateIfFull() throws IOException {
+        if (size < maxFileSize) {
+            return;
+        }
+
+        try {
+            out.close();
+            rotate();
+        } finally {
+            open();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void rotate() throws IOException {
+        if (maxFiles > 0) {
+            Files.deleteIfExists(rotated(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path source = rotated(i);
+                if (Files.exists(source)) {
+                    Files.move(source, rotated(i + 1), REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void open() throws IOException {
+        this.out = new BufferedOutputStream(new FileOutputStream(file.toFile(), true), BUFFER_SIZE);
+        this.size = Files.size(file);
+    }
+}
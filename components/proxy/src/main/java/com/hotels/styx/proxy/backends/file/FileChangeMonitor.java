@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -23,8 +23,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.FileTime;
 import java.time.Duration;
 import java.util.concurrent.ScheduledExecutorService;
@@ -36,17 +40,31 @@ import static java.lang.String.format;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Files.getLastModifiedTime;
 import static java.nio.file.Files.isReadable;
+import static java.nio.file.Files.isSymbolicLink;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Monitors a file system object and notifies the consumer of any changes.
+ * <p>
+ * The parent directory is watched with a {@link WatchService} (inotify on Linux). Bursts of
+ * file system events are debounced into one check of the modification time and content hash.
+ * A slow poll remains as a safety net. When the directory cannot be watched, the file is
+ * polled every {@code pollPeriod} instead.
  */
 public class FileChangeMonitor implements FileMonitor {
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(100);
+    private static final Duration WATCHED_POLL_PERIOD = Duration.ofSeconds(30);
+
     private final Path monitoredFile;
     private final ScheduledExecutorService executor = newSingleThreadScheduledExecutor();
     private final Duration pollPeriod;
+    private final Duration debounce;
 
     private final AtomicReference<FileTime> lastChangedTime = new AtomicReference<>(FileTime.fromMillis(0));
     private final AtomicReference<HashCode> hashCode = new AtomicReference<>();
@@ -54,17 +72,24 @@ public class FileChangeMonitor implements FileMonitor {
 
     private volatile boolean performHashCheck;
     private ScheduledFuture<?> monitoredTask;
+    private ScheduledFuture<?> pendingCheck;
+    private WatchService watchService;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FileChangeMonitor.class);
 
-    public FileChangeMonitor(String monitoredFile, Duration initialDelay, Duration pollPeriod) {
+    public FileChangeMonitor(String monitoredFile, Duration initialDelay, Duration pollPeriod, Duration debounce) {
         requireExists(requireNonNull(monitoredFile));
-        this.monitoredFile = Paths.get(monitoredFile);
+        this.monitoredFile = Paths.get(monitoredFile).toAbsolutePath();
         this.pollPeriod = pollPeriod;
         this.initialDelay = initialDelay;
+        this.debounce = requireNonNull(debounce);
         this.hashCode.set(HashCode.fromLong(0));
     }
 
+    public FileChangeMonitor(String monitoredFile, Duration initialDelay, Duration pollPeriod) {
+        this(monitoredFile, initialDelay, pollPeriod, DEFAULT_DEBOUNCE);
+    }
+
     public FileChangeMonitor(String monitoredFile) {
         this(monitoredFile, Duration.ofMillis(0), Duration.ofSeconds(1));
     }
@@ -78,42 +103,135 @@ public class FileChangeMonitor implements FileMonitor {
                 throw new IllegalStateException(message);
             }
 
-            monitoredTask = executor.scheduleAtFixedRate(
-                    detectFileChangesTask(listener),
-                    initialDelay.toMillis(),
-                    pollPeriod.toMillis(),
-                    MILLISECONDS);
+            Runnable check = detectFileChangesTask(listener);
+            watchService = watch(check);
+
+            Duration period = watchService == null ? pollPeriod : max(pollPeriod, WATCHED_POLL_PERIOD);
+            monitoredTask = executor.scheduleAtFixedRate(check, initialDelay.toMillis(), period.toMillis(), MILLISECONDS);
         }
     }
 
     public void stop() {
         LOGGER.debug("stop");
-        if (monitoredTask != null) {
-            monitoredTask.cancel(true);
+        synchronized (this) {
+            if (monitoredTask != null) {
+                monitoredTask.cancel(true);
+            }
+            closeWatchService();
+            executor.shutdownNow();
         }
     }
 
-    private Runnable detectFileChangesTask(Listener listener) {
-        return () -> {
-            LOGGER.debug("Poll {}", monitoredFile);
+    private WatchService watch(Runnable check) {
+        Path directory = monitoredFile.getParent();
+        try {
+            WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+            Thread thread = new Thread(() -> awaitEvents(service, check), "Styx-FileMonitor-" + monitoredFile.getFileName());
+            thread.setDaemon(true);
+            thread.start();
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.warn("Cannot watch directory, polling instead. Path={}, pollPeriod={}, cause={}", directory, pollPeriod, e.toString());
+            return null;
+        }
+    }
+
+    private void awaitEvents(WatchService service, Runnable check) {
+        try {
+            boolean valid = true;
+            while (valid) {
+                WatchKey key = service.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    relevant |= isRelevant(event);
+                }
+                valid = key.reset();
+
+                if (relevant) {
+                    scheduleCheck(check);
+                }
+            }
+            LOGGER.warn("Directory is no longer watched, polling instead. Path={}, pollPeriod={}", monitoredFile.getParent(), pollPeriod);
+            fallBackToPolling(check);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.debug("Watch service closed. Path={}", monitoredFile);
+        }
+    }
 
-            if (!exists(monitoredFile)) {
-                LOGGER.debug("Monitored file does not exist. Path={}", monitoredFile);
+    // A symbolic link may be swapped by renaming its target's directory, so any event in the directory is relevant.
+    private boolean isRelevant(WatchEvent<?> event) {
+        return event.kind() == OVERFLOW
+                || monitoredFile.getFileName().equals(event.context())
+                || isSymbolicLink(monitoredFile);
+    }
 
-            } else if (!isReadable(monitoredFile)) {
-                LOGGER.debug("Monitored file is no longer readable. Path={}", monitoredFile);
+    private synchronized void scheduleCheck(Runnable check) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (pendingCheck != null) {
+            pendingCheck.cancel(false);
+        }
+        pendingCheck = executor.schedule(check, debounce.toMillis(), MILLISECONDS);
+    }
 
-            } else if (modificationTimeChanged(monitoredFile)) {
-                hashCode.set(fileContentMd5(monitoredFile));
-                performHashCheck = true;
-                listener.fileChanged();
+    private synchronized void fallBackToPolling(Runnable check) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        closeWatchService();
+        monitoredTask.cancel(false);
+        monitoredTask = executor.scheduleAtFixedRate(check, pollPeriod.toMillis(), pollPeriod.toMillis(), MILLISECONDS);
+    }
 
-            } else if (performHashCheck && contentHashChanged(monitoredFile)) {
-                listener.fileChanged();
+    private void closeWatchService() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to close watch service. Path={}", monitoredFile, e);
+            }
+            watchService = null;
+        }
+    }
+
+    private static Duration max(Duration one, Duration another) {
+        return one.compareTo(another) >= 0 ? one : another;
+    }
+
+    private Runnable detectFileChangesTask(Listener listener) {
+        return () -> {
+            try {
+                detectFileChanges(listener);
+            } catch (RuntimeException e) {
+                LOGGER.warn("File change check failed. Path={}, cause={}", monitoredFile, e.toString());
             }
         };
     }
 
+    private void detectFileChanges(Listener listener) {
+        LOGGER.debug("Poll {}", monitoredFile);
+
+        if (!exists(monitoredFile)) {
+            LOGGER.debug("Monitored file does not exist. Path={}", monitoredFile);
+
+        } else if (!isReadable(monitoredFile)) {
+            LOGGER.debug("Monitored file is no longer readable. Path={}", monitoredFile);
+
+        } else if (modificationTimeChanged(monitoredFile)) {
+            hashCode.set(fileContentMd5(monitoredFile));
+            performHashCheck = true;
+            listener.fileChanged();
+
+        } else if (performHashCheck && contentHashChanged(monitoredFile)) {
+            listener.fileChanged();
+        }
+    }
+
     private boolean modificationTimeChanged(Path monitoredFile) {
         try {
             FileTime current = getLastModifiedTime(monitoredFile);
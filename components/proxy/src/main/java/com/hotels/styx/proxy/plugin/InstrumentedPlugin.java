@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.HttpResponseStatus;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.SynchronousHttpInterceptor;
+import com.hotels.styx.api.metrics.StatusCounters;
 import com.hotels.styx.api.plugins.spi.Plugin;
 import com.hotels.styx.api.plugins.spi.PluginException;
 import com.hotels.styx.common.SimpleCache;
@@ -29,6 +31,7 @@ import org.slf4j.Logger;
 import reactor.core.publisher.Flux;
 
 import java.util.Map;
+import java.util.Optional;
 
 import static com.hotels.styx.api.HttpResponseStatus.BAD_REQUEST;
 import static com.hotels.styx.api.HttpResponseStatus.INTERNAL_SERVER_ERROR;
@@ -39,13 +42,14 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Collects metrics on plugin.
  */
-public class InstrumentedPlugin implements NamedPlugin {
+public class InstrumentedPlugin implements NamedPlugin, SynchronousHttpInterceptor.Provider {
     private static final Logger LOGGER = getLogger(InstrumentedPlugin.class);
 
     private final NamedPlugin plugin;
-    private final SimpleCache<HttpResponseStatus, Counter> errorStatusMetrics;
+    private final StatusCounters errorStatusMetrics;
     private final SimpleCache<Class<? extends Throwable>, Counter> exceptionMetrics;
     private final Counter errors;
+    private final SynchronousHttpInterceptor synchronousInterceptor;
 
     public InstrumentedPlugin(NamedPlugin plugin, Environment environment) {
         requireNotAlreadyInstrumented(plugin);
@@ -53,10 +57,10 @@ public class InstrumentedPlugin implements NamedPlugin {
         this.plugin = requireNonNull(plugin);
         requireNonNull(environment);
 
-        this.errorStatusMetrics = new SimpleCache<>(statusCode ->
+        this.errorStatusMetrics = new StatusCounters(statusCode ->
                 Counter.builder("plugin.response")
                         .tag("plugin", plugin.name())
-                        .tag("statusCode", Integer.toString(statusCode.code()))
+                        .tag("statusCode", Integer.toString(statusCode))
                         .register(environment.meterRegistry())
         );
 
@@ -72,6 +76,10 @@ public class InstrumentedPlugin implements NamedPlugin {
                         .tag("plugin", plugin.name())
                         .register(environment.meterRegistry());
 
+        this.synchronousInterceptor = plugin instanceof WrappingNamedPlugin
+                ? SynchronousHttpInterceptor.synchronousForm(plugin.originalPlugin()).map(InstrumentedSynchronousInterceptor::new).orElse(null)
+                : null;
+
         LOGGER.info("Plugin {} instrumented", plugin.name());
     }
 
@@ -105,7 +113,7 @@ public class InstrumentedPlugin implements NamedPlugin {
         StatusRecordingChain chain = new StatusRecordingChain(originalChain);
         try {
             return new Eventual<>(Flux.from(plugin.intercept(request, chain))
-                    .doOnNext(response -> recordStatusCode(chain, response))
+                    .doOnNext(response -> recordStatusCode(chain.upstreamStatus, response))
                     .onErrorResume(error -> Flux.error(recordAndWrapError(chain, error))));
         } catch (Throwable e) {
             recordException(e);
@@ -113,9 +121,20 @@ public class InstrumentedPlugin implements NamedPlugin {
         }
     }
 
+    /**
+     * Returns an instrumented form of the plugin that a pipeline can run without reactive
+     * wrapping, if the plugin has a {@linkplain SynchronousHttpInterceptor#synchronousForm synchronous form}.
+     *
+     * @return synchronous interceptor, if available
+     */
+    @Override
+    public Optional<SynchronousHttpInterceptor> synchronousInterceptor() {
+        return Optional.ofNullable(synchronousInterceptor);
+    }
+
     private void recordException(Throwable e) {
         exceptionMetrics.get(e.getClass()).increment();
-        errorStatusMetrics.get(INTERNAL_SERVER_ERROR).increment();
+        errorStatusMetrics.increment(INTERNAL_SERVER_ERROR.code());
         errors.increment();
     }
 
@@ -128,12 +147,12 @@ public class InstrumentedPlugin implements NamedPlugin {
         return new PluginException(error, plugin.name());
     }
 
-    private void recordStatusCode(StatusRecordingChain chain, LiveHttpResponse response) {
+    private void recordStatusCode(HttpResponseStatus upstreamStatus, LiveHttpResponse response) {
         boolean isError = response.status().code() >= BAD_REQUEST.code();
-        boolean fromPlugin = response.status() != chain.upstreamStatus;
+        boolean fromPlugin = response.status() != upstreamStatus;
 
         if (isError && fromPlugin) {
-            errorStatusMetrics.get(response.status()).increment();
+            errorStatusMetrics.increment(response.status().code());
 
             if (response.status().equals(INTERNAL_SERVER_ERROR)) {
                 errors.increment();
@@ -166,6 +185,48 @@ public class InstrumentedPlugin implements NamedPlugin {
         return "InstrumentedPlugin{" + plugin + '}';
     }
 
+    private final class InstrumentedSynchronousInterceptor implements SynchronousHttpInterceptor {
+        private final SynchronousHttpInterceptor interceptor;
+
+        InstrumentedSynchronousInterceptor(SynchronousHttpInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public LiveHttpRequest onRequest(LiveHttpRequest request, Context context) {
+            if (!plugin.enabled()) {
+                return request;
+            }
+            try {
+                return interceptor.onRequest(request, context);
+            } catch (Throwable e) {
+                recordException(e);
+                throw new PluginException(e, plugin.name());
+            }
+        }
+
+        @Override
+        public LiveHttpResponse onResponse(LiveHttpRequest request, LiveHttpResponse response, Context context) {
+            if (!plugin.enabled()) {
+                return response;
+            }
+            LiveHttpResponse result;
+            try {
+                result = interceptor.onResponse(request, response, context);
+            } catch (Throwable e) {
+                recordException(e);
+                throw new PluginException(e, plugin.name());
+            }
+            recordStatusCode(response.status(), result);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return InstrumentedPlugin.this.toString();
+        }
+    }
+
     private static class StatusRecordingChain implements Chain {
         private final Chain chain;
         private volatile HttpResponseStatus upstreamStatus;
@@ -0,0 +1,287 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.buffering;
+
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.ByteStream;
+import com.hotels.styx.api.HttpInterceptor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hotels.styx.api.Buffers.toByteBuf;
+import static com.hotels.styx.api.Buffers.toStyxBuffer;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Buffers an HTTP message body. The body is kept in memory, as the (pooled, direct) buffers
+ * it was received in, until it grows beyond a memory threshold. After that the whole body
+ * is spilled into a temporary file.
+ * <p>
+ * Appending never blocks. Once {@link #flushRequired()} returns true, the caller must call
+ * {@link #flush()}, which does the blocking file I/O, before streaming the body. Callers on an
+ * event loop should run it on an offload executor, and stop reading further content meanwhile.
+ * Spilled content is read back from the file on the offload executor as well.
+ * <p>
+ * A buffered body can be streamed any number of times until the buffer is released.
+ * Releasing the buffer frees the memory and deletes the temporary file.
+ */
+public final class BodyBuffer {
+    private static final int READ_CHUNK_SIZE = 64 * 1024;
+
+    private final int memoryThreshold;
+    private final long maxSize;
+    private final Path spillDirectory;
+
+    private final List<ByteBuf> chunks = new ArrayList<>();
+    private long size;
+    private boolean spilling;
+    private FileChannel spillChannel;
+    private boolean released;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param memoryThreshold maximum number of bytes held in memory
+     * @param maxSize         maximum body size, in bytes
+     * @param spillDirectory  directory for temporary files
+     */
+    public BodyBuffer(int memoryThreshold, long maxSize, Path spillDirectory) {
+        this.memoryThreshold = memoryThreshold;
+        this.maxSize = maxSize;
+        this.spillDirectory = requireNonNull(spillDirectory);
+    }
+
+    /**
+     * Appends a buffer to the body. Takes ownership of the buffer. Does no I/O.
+     *
+     * @param buffer body content
+     * @return false if the body would exceed its maximum size, in which case the buffer is discarded
+     */
+    public synchronized boolean append(Buffer buffer) {
+        ByteBuf byteBuf = toByteBuf(buffer);
+        if (released || size + byteBuf.readableBytes() > maxSize) {
+            byteBuf.release();
+            return false;
+        }
+
+        size += byteBuf.readableBytes();
+        chunks.add(byteBuf);
+        return true;
+    }
+
+    /**
+     * Returns true if content held in memory must be written to the temporary file
+     * with {@link #flush()}.
+     *
+     * @return true if a flush is required
+     */
+    public synchronized boolean flushRequired() {
+        return !released && !chunks.isEmpty() && (spilling || size > memoryThreshold);
+    }
+
+    /**
+     * Writes the content held in memory to the temporary file, creating the file first if necessary.
+     * This method blocks, and must not be called concurrently with {@link #append(Buffer)}.
+     *
+     * @throws UncheckedIOException if creating or writing the temporary file fails
+     */
+    public void flush() {
+        List<ByteBuf> pending;
+        FileChannel channel;
+        synchronized (this) {
+            if (!flushRequired()) {
+                return;
+            }
+            spilling = true;
+            pending = new ArrayList<>(chunks);
+            chunks.clear();
+            channel = spillChannel;
+        }
+
+        // The file I/O is done without holding the lock, so that release() never waits for it:
+        try {
+            if (channel == null) {
+                channel = openSpillFile();
+                if (!attach(channel)) {
+                    return;
+                }
+            }
+            for (ByteBuf byteBuf : pending) {
+                write(channel, byteBuf);
+            }
+        } finally {
+            pending.forEach(ByteBuf::release);
+        }
+    }
+
+    /**
+     * Returns the number of bytes buffered so far.
+     *
+     * @return body size
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the body has been spilled into a temporary file.
+     * The content is readable from the file once the last {@link #flush()} has returned.
+     *
+     * @return true if spilled
+     */
+    public synchronized boolean spilled() {
+        return spillChannel != null;
+    }
+
+    /**
+     * Streams the buffered body. The stream fails if the buffer is released before it completes.
+     * Spilled content is read one chunk at a time, on the offload executor of the given context.
+     *
+     * @param context context used to offload file reads
+     * @return body stream
+     */
+    public synchronized ByteStream stream(HttpInterceptor.Context context) {
+        if (spilling && !chunks.isEmpty()) {
+            throw new IllegalStateException("Body buffer has not been flushed");
+        }
+        if (spillChannel == null) {
+            int count = chunks.size();
+            return new ByteStream(Flux.range(0, count)
+                    .map(this::memoryChunk));
+        }
+
+        long length = size;
+        int count = (int) ((length + READ_CHUNK_SIZE - 1) / READ_CHUNK_SIZE);
+        return new ByteStream(Flux.range(0, count)
+                .concatMap(index -> {
+                    long position = (long) index * READ_CHUNK_SIZE;
+                    int chunkSize = (int) Math.min(READ_CHUNK_SIZE, length - position);
+                    return Mono.from(context.offload(() -> fileChunk(position, chunkSize)));
+                }, 1)
+                .doOnDiscard(Buffer.class, buffer -> toByteBuf(buffer).release()));
+    }
+
+    /**
+     * Releases the memory and deletes the temporary file. Can be called multiple times.
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        chunks.forEach(ByteBuf::release);
+        chunks.clear();
+        closeSpillFile();
+    }
+
+    private synchronized Buffer memoryChunk(int index) {
+        if (released) {
+            throw new IllegalStateException("Body buffer already released");
+        }
+        return toStyxBuffer(chunks.get(index).retainedDuplicate());
+    }
+
+    private Buffer fileChunk(long position, int chunkSize) {
+        FileChannel channel;
+        synchronized (this) {
+            if (released) {
+                throw new IllegalStateException("Body buffer already released");
+            }
+            channel = spillChannel;
+        }
+
+        // The file is read without holding the lock, so that release() never waits for it:
+        ByteBuf chunk = PooledByteBufAllocator.DEFAULT.directBuffer(chunkSize);
+        try {
+            while (chunk.writerIndex() < chunkSize) {
+                int read = chunk.writeBytes(channel, position + chunk.writerIndex(), chunkSize - chunk.writerIndex());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of spill file");
+                }
+            }
+            return toStyxBuffer(chunk);
+        } catch (IOException e) {
+            chunk.release();
+            if (isReleased()) {
+                throw new IllegalStateException("Body buffer already released", e);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized boolean isReleased() {
+        return released;
+    }
+
+    private FileChannel openSpillFile() {
+        try {
+            Path file = Files.createTempFile(spillDirectory, "styx-body-", ".tmp");
+            return FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized boolean attach(FileChannel channel) {
+        if (released) {
+            close(channel);
+            return false;
+        }
+        spillChannel = channel;
+        return true;
+    }
+
+    private static void write(FileChannel channel, ByteBuf byteBuf) {
+        try {
+            for (ByteBuffer nioBuffer : byteBuf.nioBuffers()) {
+                while (nioBuffer.hasRemaining()) {
+                    channel.write(nioBuffer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeSpillFile() {
+        if (spillChannel != null) {
+            close(spillChannel);
+            spillChannel = null;
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // The file is deleted on close. Nothing further can be done if closing fails.
+        }
+    }
+}
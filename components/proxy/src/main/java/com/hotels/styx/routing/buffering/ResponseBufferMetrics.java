@@ -0,0 +1,87 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.buffering;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Micrometer metrics for response buffering.
+ */
+public final class ResponseBufferMetrics {
+    public static final String BUFFER_TAG = "buffer";
+
+    public static final String SPILLED_RESPONSES_COUNTER_NAME = "proxy.responseBuffer.spilledResponses";
+    public static final String SPILLED_BYTES_COUNTER_NAME = "proxy.responseBuffer.spilledBytes";
+    public static final String BUDGET_EXHAUSTED_COUNTER_NAME = "proxy.responseBuffer.budgetExhausted";
+    public static final String SPILL_USAGE_GAUGE_NAME = "proxy.responseBuffer.spillUsage";
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final Counter spilledResponses;
+    private final Counter spilledBytes;
+    private final Counter budgetExhausted;
+    private final List<Meter> meters;
+
+    public ResponseBufferMetrics(MeterRegistry registry, String bufferName) {
+        this.registry = requireNonNull(registry);
+        this.tags = Tags.of(BUFFER_TAG, bufferName);
+
+        this.spilledResponses = registry.counter(SPILLED_RESPONSES_COUNTER_NAME, tags);
+        this.spilledBytes = registry.counter(SPILLED_BYTES_COUNTER_NAME, tags);
+        this.budgetExhausted = registry.counter(BUDGET_EXHAUSTED_COUNTER_NAME, tags);
+        this.meters = List.of(spilledResponses, spilledBytes, budgetExhausted);
+    }
+
+    /**
+     * Registers a gauge for the bytes currently spilled against a budget. The budget is shared by
+     * all response buffers, so the gauge is not tagged with a buffer name.
+     *
+     * @param registry meter registry
+     * @param budget   spill budget
+     */
+    public static void registerSpillUsage(MeterRegistry registry, SpillBudget budget) {
+        Gauge.builder(SPILL_USAGE_GAUGE_NAME, budget, SpillBudget::used)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    void spilledResponse() {
+        spilledResponses.increment();
+    }
+
+    void spilled(int bytes) {
+        spilledBytes.increment(bytes);
+    }
+
+    void budgetExhausted() {
+        budgetExhausted.increment();
+    }
+
+    /**
+     * Removes the meters from the registry.
+     */
+    public void close() {
+        meters.forEach(registry::remove);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.buffering;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of bytes that may be spilled to disk at any one time,
+ * across all the responses sharing the budget.
+ */
+public final class SpillBudget {
+    private final long maxBytes;
+    private final AtomicLong used = new AtomicLong();
+
+    public SpillBudget(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Reserves bytes from the budget.
+     *
+     * @param bytes number of bytes
+     * @return true if reserved, false if the budget does not have enough bytes left
+     */
+    public boolean tryReserve(long bytes) {
+        long current;
+        do {
+            current = used.get();
+            if (current + bytes > maxBytes) {
+                return false;
+            }
+        } while (!used.compareAndSet(current, current + bytes));
+        return true;
+    }
+
+    /**
+     * Returns previously reserved bytes to the budget.
+     *
+     * @param bytes number of bytes
+     */
+    public void release(long bytes) {
+        used.addAndGet(-bytes);
+    }
+
+    public boolean exhausted() {
+        return used.get() >= maxBytes;
+    }
+
+    public long used() {
+        return used.get();
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+}
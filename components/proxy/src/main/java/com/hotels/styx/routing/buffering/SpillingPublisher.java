@@ -0,0 +1,507 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.buffering;
+
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.HttpInterceptor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.internal.PlatformDependent;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hotels.styx.api.Buffers.toByteBuf;
+import static com.hotels.styx.api.Buffers.toStyxBuffer;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A publisher that consumes its upstream as fast as its storage allows, regardless
+ * of the demand from its subscriber.
+ * <p>
+ * Received buffers are queued in memory up to a memory limit. Beyond that, they are
+ * written into a memory-mapped spill file, within both a per-publisher limit and a
+ * shared {@link SpillBudget}. When all storage is used up, the upstream is no longer
+ * requested until the subscriber has caught up, as if there was no buffering.
+ * <p>
+ * The spill file is created, and mapped in segments as it grows, on the offload executor
+ * of the request context. While a segment is being prepared, the buffer that needs it is
+ * kept in memory and the upstream is not requested.
+ * <p>
+ * Only one subscriber is allowed.
+ */
+public final class SpillingPublisher implements Publisher<Buffer> {
+    private static final Logger LOGGER = getLogger(SpillingPublisher.class);
+    private static final int SEGMENT_BYTES = 1024 * 1024;
+
+    private final Publisher<Buffer> upstream;
+    private final int maxMemoryBytes;
+    private final int maxSpillBytes;
+    private final SpillBudget budget;
+    private final Path spillDirectory;
+    private final ResponseBufferMetrics metrics;
+    private final HttpInterceptor.Context context;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // All fields below are guarded by 'this'.
+    private final Deque<Object> queue = new ArrayDeque<>();
+    private Subscriber<? super Buffer> downstream;
+    private Subscription subscription;
+    private long demand;
+    private long memoryBytes;
+    private int spilledBytes;
+    private int writePosition;
+    private FileChannel spillChannel;
+    private final List<Segment> segments = new ArrayList<>();
+    private int mappedBytes;
+    private boolean growing;
+    private boolean spillFailed;
+    private boolean upstreamRequested;
+    private boolean upstreamDone;
+    private Throwable error;
+    private boolean finished;
+
+    public SpillingPublisher(Publisher<Buffer> upstream, int maxMemoryBytes, int maxSpillBytes, SpillBudget budget,
+                             Path spillDirectory, ResponseBufferMetrics metrics, HttpInterceptor.Context context) {
+        this.upstream = requireNonNull(upstream);
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxSpillBytes = maxSpillBytes;
+        this.budget = requireNonNull(budget);
+        this.spillDirectory = requireNonNull(spillDirectory);
+        this.metrics = requireNonNull(metrics);
+        this.context = requireNonNull(context);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Buffer> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            Operators.error(subscriber, new IllegalStateException("SpillingPublisher allows only one subscriber"));
+            return;
+        }
+
+        synchronized (this) {
+            this.downstream = subscriber;
+        }
+        subscriber.onSubscribe(new DownstreamSubscription());
+        upstream.subscribe(new UpstreamSubscriber());
+    }
+
+    synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    synchronized int spilledBytes() {
+        return spilledBytes;
+    }
+
+    private void requestMore() {
+        Subscription toRequest = null;
+        synchronized (this) {
+            if (subscription != null && !upstreamRequested && !upstreamDone && !finished && hasRoom()) {
+                upstreamRequested = true;
+                toRequest = subscription;
+            }
+        }
+        if (toRequest != null) {
+            toRequest.request(1);
+        }
+    }
+
+    private boolean hasRoom() {
+        return memoryBytes < maxMemoryBytes || (!growing && !spillFailed && writePosition < maxSpillBytes && !budget.exhausted());
+    }
+
+    private void store(ByteBuf byteBuf) {
+        Growth growth = null;
+        synchronized (this) {
+            if (finished) {
+                byteBuf.release();
+                return;
+            }
+
+            int size = byteBuf.readableBytes();
+            if (memoryBytes + size > maxMemoryBytes && canSpill(size)) {
+                if (writePosition + size > mappedBytes) {
+                    growth = startGrowth(size);
+                } else if (spill(byteBuf)) {
+                    byteBuf.release();
+                    return;
+                }
+            }
+
+            memoryBytes += size;
+            queue.add(byteBuf);
+        }
+
+        if (growth != null) {
+            grow(growth);
+        }
+    }
+
+    private boolean canSpill(int size) {
+        return !growing && !spillFailed && writePosition + size <= maxSpillBytes && !budget.exhausted();
+    }
+
+    private boolean spill(ByteBuf byteBuf) {
+        int size = byteBuf.readableBytes();
+        if (!budget.tryReserve(size)) {
+            metrics.budgetExhausted();
+            return false;
+        }
+
+        int offset = 0;
+        for (Segment segment : segments) {
+            ByteBuffer target = segment.slice(writePosition + offset, size - offset);
+            if (target != null) {
+                int length = target.remaining();
+                byteBuf.getBytes(byteBuf.readerIndex() + offset, target);
+                offset += length;
+            }
+        }
+
+        queue.add(new SpilledRange(writePosition, size));
+        writePosition += size;
+        spilledBytes += size;
+        metrics.spilled(size);
+        return true;
+    }
+
+    private Growth startGrowth(int size) {
+        growing = true;
+        int length = Math.min(maxSpillBytes - mappedBytes, Math.max(SEGMENT_BYTES, writePosition + size - mappedBytes));
+        return new Growth(spillChannel, mappedBytes, length);
+    }
+
+    private void grow(Growth growth) {
+        Mono.from(context.offload(growth::prepare))
+                .subscribe(this::grown, this::growthFailed);
+    }
+
+    private void grown(Growth growth) {
+        synchronized (this) {
+            if (finished) {
+                growth.discard();
+                return;
+            }
+            if (spillChannel == null) {
+                spillChannel = growth.channel;
+                metrics.spilledResponse();
+            }
+            segments.add(new Segment(growth.position, growth.map));
+            mappedBytes += growth.length;
+            growing = false;
+        }
+        drain();
+    }
+
+    private void growthFailed(Throwable cause) {
+        LOGGER.warn("Failed to extend response spill file. directory={}", spillDirectory, cause);
+        synchronized (this) {
+            spillFailed = true;
+            growing = false;
+        }
+        drain();
+    }
+
+    private Buffer poll() {
+        Object head = queue.poll();
+        if (head instanceof ByteBuf) {
+            ByteBuf byteBuf = (ByteBuf) head;
+            memoryBytes -= byteBuf.readableBytes();
+            return toStyxBuffer(byteBuf);
+        }
+
+        SpilledRange range = (SpilledRange) head;
+        ByteBuf chunk = PooledByteBufAllocator.DEFAULT.directBuffer(range.length);
+        for (Segment segment : segments) {
+            ByteBuffer source = segment.slice(range.position + chunk.writerIndex(), range.length - chunk.writerIndex());
+            if (source != null) {
+                chunk.writeBytes(source);
+            }
+        }
+
+        spilledBytes -= range.length;
+        budget.release(range.length);
+        if (spilledBytes == 0) {
+            // Nothing left to read from the spill file, so its space can be reused from the start.
+            writePosition = 0;
+        }
+        return toStyxBuffer(chunk);
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            emitAvailable();
+            requestMore();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emitAvailable() {
+        while (true) {
+            Buffer next = null;
+            Throwable failure = null;
+            Subscription toCancel = null;
+            Subscriber<? super Buffer> subscriber;
+
+            synchronized (this) {
+                subscriber = downstream;
+                if (finished) {
+                    return;
+                }
+                if (error != null) {
+                    failure = error;
+                    toCancel = upstreamDone ? null : subscription;
+                    finish();
+                } else if (demand > 0 && !queue.isEmpty()) {
+                    demand--;
+                    next = poll();
+                } else if (queue.isEmpty() && upstreamDone) {
+                    finish();
+                } else {
+                    return;
+                }
+            }
+
+            if (next != null) {
+                subscriber.onNext(next);
+            } else {
+                if (toCancel != null) {
+                    toCancel.cancel();
+                }
+                if (failure != null) {
+                    subscriber.onError(failure);
+                } else {
+                    subscriber.onComplete();
+                }
+                return;
+            }
+        }
+    }
+
+    private void finish() {
+        finished = true;
+        queue.forEach(entry -> {
+            if (entry instanceof ByteBuf) {
+                ((ByteBuf) entry).release();
+            }
+        });
+        queue.clear();
+        memoryBytes = 0;
+        budget.release(spilledBytes);
+        spilledBytes = 0;
+        closeSpillFile();
+    }
+
+    private void closeSpillFile() {
+        segments.forEach(segment -> PlatformDependent.freeDirectBuffer(segment.map));
+        segments.clear();
+        mappedBytes = 0;
+        if (spillChannel != null) {
+            close(spillChannel);
+            spillChannel = null;
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close response spill file", e);
+        }
+    }
+
+    /**
+     * A mapped region of the spill file.
+     */
+    private static final class Segment {
+        private final int start;
+        private final MappedByteBuffer map;
+
+        Segment(int start, MappedByteBuffer map) {
+            this.start = start;
+            this.map = map;
+        }
+
+        // Returns the part of [position, position + length) that lies within this segment, or null if there is none.
+        ByteBuffer slice(int position, int length) {
+            int end = start + map.capacity();
+            if (length <= 0 || position < start || position >= end) {
+                return null;
+            }
+            ByteBuffer slice = map.duplicate();
+            slice.position(position - start);
+            slice.limit(Math.min(end, position + length) - start);
+            return slice;
+        }
+    }
+
+    /**
+     * Extends the spill file by a new segment. The file is created first if necessary.
+     * Prepared on the offload executor, without access to the publisher state.
+     */
+    private final class Growth {
+        private final FileChannel existingChannel;
+        private final int position;
+        private final int length;
+        private FileChannel channel;
+        private MappedByteBuffer map;
+
+        Growth(FileChannel existingChannel, int position, int length) {
+            this.existingChannel = existingChannel;
+            this.position = position;
+            this.length = length;
+        }
+
+        Growth prepare() throws IOException {
+            channel = existingChannel != null ? existingChannel : openSpillFile();
+            try {
+                map = channel.map(READ_WRITE, position, length);
+            } catch (IOException | RuntimeException e) {
+                if (existingChannel == null) {
+                    close(channel);
+                }
+                throw e;
+            }
+            return this;
+        }
+
+        private FileChannel openSpillFile() throws IOException {
+            Path file = Files.createTempFile(spillDirectory, "styx-response-", ".tmp");
+            return FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE);
+        }
+
+        void discard() {
+            PlatformDependent.freeDirectBuffer(map);
+            if (existingChannel == null) {
+                close(channel);
+            }
+        }
+    }
+
+    private static final class SpilledRange {
+        private final int position;
+        private final int length;
+
+        SpilledRange(int position, int length) {
+            this.position = position;
+            this.length = length;
+        }
+    }
+
+    private final class UpstreamSubscriber implements Subscriber<Buffer> {
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            boolean cancelled;
+            synchronized (SpillingPublisher.this) {
+                cancelled = finished;
+                SpillingPublisher.this.subscription = subscription;
+            }
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                requestMore();
+            }
+        }
+
+        @Override
+        public void onNext(Buffer buffer) {
+            synchronized (SpillingPublisher.this) {
+                upstreamRequested = false;
+            }
+            store(toByteBuf(buffer));
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            synchronized (SpillingPublisher.this) {
+                upstreamDone = true;
+                error = cause;
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (SpillingPublisher.this) {
+                upstreamDone = true;
+            }
+            drain();
+        }
+    }
+
+    private final class DownstreamSubscription implements Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                synchronized (SpillingPublisher.this) {
+                    if (error == null) {
+                        error = new IllegalArgumentException("Non-positive request: " + n);
+                    }
+                }
+            } else {
+                synchronized (SpillingPublisher.this) {
+                    demand = Operators.addCap(demand, n);
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            Subscription toCancel;
+            synchronized (SpillingPublisher.this) {
+                if (finished) {
+                    return;
+                }
+                finish();
+                toCancel = subscription;
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+    }
+}
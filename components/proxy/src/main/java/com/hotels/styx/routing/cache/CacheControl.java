@@ -0,0 +1,206 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.cache;
+
+import java.util.List;
+
+import static java.lang.Long.parseLong;
+import static java.util.Locale.ENGLISH;
+
+/**
+ * Parsed Cache-Control directives, as specified in RFC 7234 section 5.2,
+ * together with the stale-while-revalidate and stale-if-error extensions from RFC 5861.
+ * <p>
+ * Numeric directives are reported in seconds, and -1 means the directive is absent.
+ */
+public final class CacheControl {
+    public static final long ABSENT = -1;
+
+    private static final CacheControl EMPTY = new CacheControl();
+
+    private boolean noStore;
+    private boolean noCache;
+    private boolean isPrivate;
+    private boolean isPublic;
+    private boolean mustRevalidate;
+    private boolean proxyRevalidate;
+    private boolean onlyIfCached;
+    private long maxAge = ABSENT;
+    private long sMaxAge = ABSENT;
+    private long maxStale = ABSENT;
+    private long minFresh = ABSENT;
+    private long staleWhileRevalidate = ABSENT;
+    private long staleIfError = ABSENT;
+
+    private CacheControl() {
+    }
+
+    /**
+     * Parses all Cache-Control header values of a message.
+     * Unknown directives, and directives with malformed arguments, are ignored.
+     *
+     * @param headerValues Cache-Control header values
+     * @return parsed directives
+     */
+    public static CacheControl parse(List<String> headerValues) {
+        if (headerValues.isEmpty()) {
+            return EMPTY;
+        }
+
+        CacheControl cacheControl = new CacheControl();
+        for (String value : headerValues) {
+            for (String directive : value.split(",")) {
+                cacheControl.apply(directive.trim());
+            }
+        }
+        return cacheControl;
+    }
+
+    private void apply(String directive) {
+        int equals = directive.indexOf('=');
+        String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase(ENGLISH);
+        String argument = equals < 0 ? null : unquote(directive.substring(equals + 1).trim());
+
+        if (!applyFlag(name)) {
+            applySeconds(name, argument);
+        }
+    }
+
+    private boolean applyFlag(String name) {
+        switch (name) {
+            case "no-store":
+                noStore = true;
+                return true;
+            case "no-cache":
+                noCache = true;
+                return true;
+            case "private":
+                isPrivate = true;
+                return true;
+            case "public":
+                isPublic = true;
+                return true;
+            case "must-revalidate":
+                mustRevalidate = true;
+                return true;
+            case "proxy-revalidate":
+                proxyRevalidate = true;
+                return true;
+            case "only-if-cached":
+                onlyIfCached = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void applySeconds(String name, String argument) {
+        switch (name) {
+            case "max-age":
+                maxAge = seconds(argument, maxAge);
+                break;
+            case "s-maxage":
+                sMaxAge = seconds(argument, sMaxAge);
+                break;
+            case "max-stale":
+                maxStale = argument == null ? Long.MAX_VALUE : seconds(argument, maxStale);
+                break;
+            case "min-fresh":
+                minFresh = seconds(argument, minFresh);
+                break;
+            case "stale-while-revalidate":
+                staleWhileRevalidate = seconds(argument, staleWhileRevalidate);
+                break;
+            case "stale-if-error":
+                staleIfError = seconds(argument, staleIfError);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static long seconds(String argument, long defaultValue) {
+        if (argument == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, parseLong(argument));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public boolean noStore() {
+        return noStore;
+    }
+
+    public boolean noCache() {
+        return noCache;
+    }
+
+    public boolean isPrivate() {
+        return isPrivate;
+    }
+
+    public boolean isPublic() {
+        return isPublic;
+    }
+
+    /**
+     * Returns true if a shared cache must not serve a stale response without revalidating it first.
+     * This is the case for must-revalidate, proxy-revalidate and s-maxage directives.
+     *
+     * @return true if stale responses must always be revalidated
+     */
+    public boolean mustRevalidate() {
+        return mustRevalidate || proxyRevalidate || sMaxAge != ABSENT;
+    }
+
+    public boolean onlyIfCached() {
+        return onlyIfCached;
+    }
+
+    public long maxAge() {
+        return maxAge;
+    }
+
+    public long sMaxAge() {
+        return sMaxAge;
+    }
+
+    public long maxStale() {
+        return maxStale;
+    }
+
+    public long minFresh() {
+        return minFresh;
+    }
+
+    public long staleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public long staleIfError() {
+        return staleIfError;
+    }
+}
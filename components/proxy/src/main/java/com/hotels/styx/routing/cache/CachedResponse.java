@@ -0,0 +1,425 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.cache;
+
+import com.hotels.styx.api.ByteStream;
+import com.hotels.styx.api.HttpHeader;
+import com.hotels.styx.api.HttpHeaders;
+import com.hotels.styx.api.HttpResponseStatus;
+import com.hotels.styx.api.HttpVersion;
+import com.hotels.styx.api.LiveHttpResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.util.IllegalReferenceCountException;
+import reactor.core.publisher.Flux;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hotels.styx.api.Buffers.toStyxBuffer;
+import static com.hotels.styx.api.HttpHeaderNames.AGE;
+import static com.hotels.styx.api.HttpHeaderNames.CACHE_CONTROL;
+import static com.hotels.styx.api.HttpHeaderNames.CONNECTION;
+import static com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH;
+import static com.hotels.styx.api.HttpHeaderNames.DATE;
+import static com.hotels.styx.api.HttpHeaderNames.ETAG;
+import static com.hotels.styx.api.HttpHeaderNames.EXPIRES;
+import static com.hotels.styx.api.HttpHeaderNames.KEEP_ALIVE;
+import static com.hotels.styx.api.HttpHeaderNames.LAST_MODIFIED;
+import static com.hotels.styx.api.HttpHeaderNames.PROXY_AUTHENTICATE;
+import static com.hotels.styx.api.HttpHeaderNames.TE;
+import static com.hotels.styx.api.HttpHeaderNames.TRAILER;
+import static com.hotels.styx.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static com.hotels.styx.api.HttpHeaderNames.UPGRADE;
+import static com.hotels.styx.api.HttpHeaderNames.WARNING;
+import static com.hotels.styx.api.LiveHttpResponse.response;
+import static com.hotels.styx.routing.cache.CacheControl.ABSENT;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A stored HTTP response.
+ * <p>
+ * The response headers are kept on heap, and the body is kept in a direct (off-heap) buffer
+ * owned by this object. Each served copy takes its own reference to the body, so that an
+ * entry can be evicted while earlier copies are still being written to the network.
+ */
+public final class CachedResponse {
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+    private static final String REVALIDATION_FAILED_WARNING = "111 - \"Revalidation Failed\"";
+    private static final int HEADER_OVERHEAD_BYTES = 32;
+
+    private final HttpResponseStatus status;
+    private final HttpVersion version;
+    private final HttpHeaders headers;
+    private final ByteBuf content;
+    private final List<String> varyHeaders;
+    private final CacheControl cacheControl;
+    private final long responseTimeMillis;
+    private final long correctedInitialAgeMillis;
+    private final long freshnessLifetimeMillis;
+    private final long staleWhileRevalidateMillis;
+    private final long staleIfErrorMillis;
+    private final long defaultStaleWhileRevalidateSeconds;
+    private final long defaultStaleIfErrorSeconds;
+    private final int weight;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    private CachedResponse(Builder builder) {
+        this.status = requireNonNull(builder.status);
+        this.version = requireNonNull(builder.version);
+        this.content = requireNonNull(builder.content);
+        this.varyHeaders = requireNonNull(builder.varyHeaders);
+        this.headers = storedHeaders(builder.headers, content.readableBytes());
+        this.cacheControl = CacheControl.parse(headers.getAll(CACHE_CONTROL));
+        this.responseTimeMillis = builder.responseTimeMillis;
+
+        long dateMillis = httpDate(headers, DATE).orElse(builder.responseTimeMillis);
+        long apparentAge = Math.max(0, builder.responseTimeMillis - dateMillis);
+        long responseDelay = Math.max(0, builder.responseTimeMillis - builder.requestTimeMillis);
+        long correctedAgeValue = ageHeaderMillis(headers) + responseDelay;
+        this.correctedInitialAgeMillis = Math.max(apparentAge, correctedAgeValue);
+
+        this.freshnessLifetimeMillis = freshnessLifetime(cacheControl, headers, dateMillis);
+        this.defaultStaleWhileRevalidateSeconds = builder.defaultStaleWhileRevalidateSeconds;
+        this.defaultStaleIfErrorSeconds = builder.defaultStaleIfErrorSeconds;
+        this.staleWhileRevalidateMillis = directiveOrDefault(cacheControl.staleWhileRevalidate(), defaultStaleWhileRevalidateSeconds);
+        this.staleIfErrorMillis = directiveOrDefault(cacheControl.staleIfError(), defaultStaleIfErrorSeconds);
+        this.weight = content.capacity() + headersWeight(headers);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders headers, int contentLength) {
+        return headers.newBuilder()
+                .remove(AGE)
+                .remove(CONNECTION)
+                .remove(KEEP_ALIVE)
+                .remove(PROXY_AUTHENTICATE)
+                .remove(TE)
+                .remove(TRAILER)
+                .remove(TRANSFER_ENCODING)
+                .remove(UPGRADE)
+                .remove(WARNING)
+                .set(CONTENT_LENGTH, contentLength)
+                .build();
+    }
+
+    private static long freshnessLifetime(CacheControl cacheControl, HttpHeaders headers, long dateMillis) {
+        if (cacheControl.sMaxAge() != ABSENT) {
+            return SECONDS.toMillis(cacheControl.sMaxAge());
+        }
+        if (cacheControl.maxAge() != ABSENT) {
+            return SECONDS.toMillis(cacheControl.maxAge());
+        }
+        if (headers.contains(EXPIRES)) {
+            // An invalid Expires value, such as "0", represents a time in the past.
+            return httpDate(headers, EXPIRES)
+                    .map(expires -> Math.max(0, expires - dateMillis))
+                    .orElse(0L);
+        }
+        return 0;
+    }
+
+    private static long ageHeaderMillis(HttpHeaders headers) {
+        return headers.get(AGE)
+                .map(age -> {
+                    try {
+                        return SECONDS.toMillis(Math.max(0, Long.parseLong(age.trim())));
+                    } catch (NumberFormatException e) {
+                        return 0L;
+                    }
+                })
+                .orElse(0L);
+    }
+
+    private static long directiveOrDefault(long directiveSeconds, long defaultSeconds) {
+        return SECONDS.toMillis(directiveSeconds != ABSENT ? directiveSeconds : defaultSeconds);
+    }
+
+    private static Optional<Long> httpDate(HttpHeaders headers, CharSequence name) {
+        return headers.get(name)
+                .map(DateFormatter::parseHttpDate)
+                .map(Date::getTime);
+    }
+
+    private static int headersWeight(HttpHeaders headers) {
+        int size = 0;
+        for (HttpHeader header : headers) {
+            size += header.name().length() + header.value().length() + HEADER_OVERHEAD_BYTES;
+        }
+        return size;
+    }
+
+    /**
+     * Creates a new entry from the headers of a 304 Not Modified response, as described in
+     * RFC 7234 section 4.3.4. The new entry shares the body with this one.
+     *
+     * @param notModified headers from the 304 response
+     * @param requestTimeMillis time when the conditional request was sent
+     * @param responseTimeMillis time when the 304 response was received
+     * @return an updated entry, or null if this entry has already been released
+     */
+    public CachedResponse revalidated(HttpHeaders notModified, long requestTimeMillis, long responseTimeMillis) {
+        ByteBuf sharedContent;
+        try {
+            sharedContent = content.retain();
+        } catch (IllegalReferenceCountException e) {
+            return null;
+        }
+
+        HttpHeaders.Builder updated = headers.newBuilder();
+        for (String name : notModified.names()) {
+            if (!CONTENT_LENGTH.toString().equalsIgnoreCase(name)) {
+                updated.set(name, notModified.getAll(name));
+            }
+        }
+
+        return new Builder()
+                .status(status)
+                .version(version)
+                .headers(updated.build())
+                .content(sharedContent)
+                .varyHeaders(varyHeaders)
+                .requestTime(requestTimeMillis)
+                .responseTime(responseTimeMillis)
+                .defaultStaleWhileRevalidateSeconds(defaultStaleWhileRevalidateSeconds)
+                .defaultStaleIfErrorSeconds(defaultStaleIfErrorSeconds)
+                .build();
+    }
+
+    public long currentAgeMillis(long nowMillis) {
+        return correctedInitialAgeMillis + Math.max(0, nowMillis - responseTimeMillis);
+    }
+
+    public boolean isFresh(long nowMillis) {
+        return !cacheControl.noCache() && freshnessLifetimeMillis > currentAgeMillis(nowMillis);
+    }
+
+    /**
+     * Tests if this entry can be served without revalidation, given the request Cache-Control directives.
+     *
+     * @param request request Cache-Control directives
+     * @param nowMillis current time
+     * @return true if the entry can be used as is
+     */
+    public boolean satisfies(CacheControl request, long nowMillis) {
+        if (cacheControl.noCache() || request.noCache()) {
+            return false;
+        }
+
+        long age = currentAgeMillis(nowMillis);
+        if (request.maxAge() != ABSENT && age > SECONDS.toMillis(request.maxAge())) {
+            return false;
+        }
+
+        long remaining = freshnessLifetimeMillis - age;
+        if (request.minFresh() != ABSENT && remaining < SECONDS.toMillis(request.minFresh())) {
+            return false;
+        }
+
+        if (remaining > 0) {
+            return true;
+        }
+
+        return request.maxStale() != ABSENT
+                && !cacheControl.mustRevalidate()
+                && -remaining / 1000 <= request.maxStale();
+    }
+
+    /**
+     * Tests if this stale entry may be served while it is being revalidated in the background.
+     *
+     * @param nowMillis current time
+     * @return true if stale-while-revalidate applies
+     */
+    public boolean canServeWhileRevalidating(long nowMillis) {
+        return mayServeStale() && stalenessMillis(nowMillis) <= staleWhileRevalidateMillis;
+    }
+
+    /**
+     * Tests if this stale entry may be served when the origin cannot be reached, or responds with an error.
+     *
+     * @param nowMillis current time
+     * @return true if stale-if-error applies
+     */
+    public boolean canServeOnError(long nowMillis) {
+        return mayServeStale() && stalenessMillis(nowMillis) <= staleIfErrorMillis;
+    }
+
+    private boolean mayServeStale() {
+        return !cacheControl.noCache() && !cacheControl.mustRevalidate();
+    }
+
+    private long stalenessMillis(long nowMillis) {
+        return currentAgeMillis(nowMillis) - freshnessLifetimeMillis;
+    }
+
+    public boolean hasValidator() {
+        return headers.contains(ETAG) || headers.contains(LAST_MODIFIED);
+    }
+
+    public Optional<String> etag() {
+        return headers.get(ETAG);
+    }
+
+    public Optional<String> lastModified() {
+        return headers.get(LAST_MODIFIED);
+    }
+
+    public HttpResponseStatus status() {
+        return status;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public List<String> varyHeaders() {
+        return varyHeaders;
+    }
+
+    public int contentLength() {
+        return content.readableBytes();
+    }
+
+    /**
+     * The approximate number of bytes this entry occupies, including the headers.
+     *
+     * @return entry weight in bytes
+     */
+    public int weight() {
+        return weight;
+    }
+
+    /**
+     * Takes a new reference to the response body. The caller must release it,
+     * normally by writing it out in a response.
+     *
+     * @return a retained duplicate of the body, or null if this entry has already been released
+     */
+    public ByteBuf retainContent() {
+        try {
+            return content.retainedDuplicate();
+        } catch (IllegalReferenceCountException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds a response from this entry.
+     *
+     * @param nowMillis current time
+     * @param body a body reference obtained from {@link #retainContent()}
+     * @param revalidationFailed true if this entry is served because revalidation failed
+     * @return a live HTTP response
+     */
+    public LiveHttpResponse toResponse(long nowMillis, ByteBuf body, boolean revalidationFailed) {
+        LiveHttpResponse.Builder builder = response(status)
+                .version(version)
+                .headers(headers)
+                .header(AGE, currentAgeMillis(nowMillis) / 1000)
+                .body(new ByteStream(Flux.just(toStyxBuffer(body))));
+
+        if (!isFresh(nowMillis)) {
+            builder.addHeader(WARNING, STALE_WARNING);
+        }
+        if (revalidationFailed) {
+            builder.addHeader(WARNING, REVALIDATION_FAILED_WARNING);
+        }
+        return builder.build();
+    }
+
+    public boolean tryStartRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    public void revalidationFinished() {
+        revalidating.set(false);
+    }
+
+    public void release() {
+        content.release();
+    }
+
+    /**
+     * A builder for cached responses.
+     */
+    public static final class Builder {
+        private HttpResponseStatus status;
+        private HttpVersion version;
+        private HttpHeaders headers;
+        private ByteBuf content;
+        private List<String> varyHeaders = List.of();
+        private long requestTimeMillis;
+        private long responseTimeMillis;
+        private long defaultStaleWhileRevalidateSeconds;
+        private long defaultStaleIfErrorSeconds;
+
+        public Builder status(HttpResponseStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder version(HttpVersion version) {
+            this.version = version;
+            return this;
+        }
+
+        public Builder headers(HttpHeaders headers) {
+            this.headers = headers;
+            return this;
+        }
+
+        public Builder content(ByteBuf content) {
+            this.content = content;
+            return this;
+        }
+
+        public Builder varyHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+            return this;
+        }
+
+        public Builder requestTime(long requestTimeMillis) {
+            this.requestTimeMillis = requestTimeMillis;
+            return this;
+        }
+
+        public Builder responseTime(long responseTimeMillis) {
+            this.responseTimeMillis = responseTimeMillis;
+            return this;
+        }
+
+        public Builder defaultStaleWhileRevalidateSeconds(long seconds) {
+            this.defaultStaleWhileRevalidateSeconds = seconds;
+            return this;
+        }
+
+        public Builder defaultStaleIfErrorSeconds(long seconds) {
+            this.defaultStaleIfErrorSeconds = seconds;
+            return this;
+        }
+
+        public CachedResponse build() {
+            return new CachedResponse(this);
+        }
+    }
+}
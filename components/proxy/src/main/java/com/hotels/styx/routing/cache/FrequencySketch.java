@@ -0,0 +1,123 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.cache;
+
+/**
+ * A probabilistic multiset for estimating the popularity of cache keys within a time window.
+ * <p>
+ * This is a Count-Min sketch with four 4-bit counters per key, packed sixteen to a {@code long}.
+ * When the number of observed increments reaches the sample size, all counters are halved so that
+ * the estimates favour recent popularity. Used as the TinyLFU admission filter in {@link HttpCacheStore}.
+ * <p>
+ * This class is not thread-safe. The caller must provide mutual exclusion.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L,
+            0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MIN_TABLE_SIZE = 16;
+    private static final int MAX_TABLE_SIZE = 1 << 20;
+    private static final int SAMPLE_FACTOR = 10;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(long expectedEntries) {
+        int length = ceilingPowerOfTwo((int) Math.max(MIN_TABLE_SIZE, Math.min(MAX_TABLE_SIZE, expectedEntries)));
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = SAMPLE_FACTOR * length;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of a key, up to a maximum of 15.
+     *
+     * @param keyHash key hash code
+     * @return the estimated frequency
+     */
+    int frequency(int keyHash) {
+        int hash = spread(keyHash);
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of a key, if it is not already at the maximum.
+     *
+     * @param keyHash key hash code
+     */
+    void increment(int keyHash) {
+        int hash = spread(keyHash);
+        int start = (hash & 3) << 2;
+
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int keyHash) {
+        int x = ((keyHash >>> 16) ^ keyHash) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Micrometer metrics for a single {@link HttpCacheStore}.
+ */
+public final class HttpCacheMetrics {
+    public static final String CACHE_TAG = "cache";
+
+    public static final String HIT_COUNTER_NAME = "proxy.cache.hit";
+    public static final String MISS_COUNTER_NAME = "proxy.cache.miss";
+    public static final String STALE_COUNTER_NAME = "proxy.cache.stale";
+    public static final String REVALIDATION_COUNTER_NAME = "proxy.cache.revalidation";
+    public static final String EVICTION_COUNTER_NAME = "proxy.cache.eviction";
+    public static final String BYTES_SERVED_COUNTER_NAME = "proxy.cache.bytesServed";
+    public static final String BYTES_STORED_COUNTER_NAME = "proxy.cache.bytesStored";
+    public static final String SIZE_GAUGE_NAME = "proxy.cache.size";
+    public static final String ENTRIES_GAUGE_NAME = "proxy.cache.entries";
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleResponses;
+    private final Counter revalidations;
+    private final Counter evictions;
+    private final Counter bytesServed;
+    private final Counter bytesStored;
+    private final List<Meter> meters;
+
+    public HttpCacheMetrics(MeterRegistry registry, String cacheName) {
+        this.registry = requireNonNull(registry);
+        this.tags = Tags.of(CACHE_TAG, cacheName);
+
+        this.hits = registry.counter(HIT_COUNTER_NAME, tags);
+        this.misses = registry.counter(MISS_COUNTER_NAME, tags);
+        this.staleResponses = registry.counter(STALE_COUNTER_NAME, tags);
+        this.revalidations = registry.counter(REVALIDATION_COUNTER_NAME, tags);
+        this.evictions = registry.counter(EVICTION_COUNTER_NAME, tags);
+        this.bytesServed = registry.counter(BYTES_SERVED_COUNTER_NAME, tags);
+        this.bytesStored = registry.counter(BYTES_STORED_COUNTER_NAME, tags);
+        this.meters = List.of(hits, misses, staleResponses, revalidations, evictions, bytesServed, bytesStored);
+    }
+
+    void registerGauges(HttpCacheStore store) {
+        Gauge.builder(SIZE_GAUGE_NAME, store, HttpCacheStore::weightedSize)
+                .tags(tags)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder(ENTRIES_GAUGE_NAME, store, HttpCacheStore::size)
+                .tags(tags)
+                .register(registry);
+    }
+
+    public void hit(int bytes) {
+        hits.increment();
+        bytesServed.increment(bytes);
+    }
+
+    public void staleHit(int bytes) {
+        staleResponses.increment();
+        bytesServed.increment(bytes);
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void revalidation() {
+        revalidations.increment();
+    }
+
+    void eviction() {
+        evictions.increment();
+    }
+
+    void stored(int bytes) {
+        bytesStored.increment(bytes);
+    }
+
+    /**
+     * Removes the meters of this cache from the registry.
+     */
+    public void close() {
+        meters.forEach(registry::remove);
+        registry.find(SIZE_GAUGE_NAME).tags(tags).meters().forEach(registry::remove);
+        registry.find(ENTRIES_GAUGE_NAME).tags(tags).meters().forEach(registry::remove);
+    }
+}
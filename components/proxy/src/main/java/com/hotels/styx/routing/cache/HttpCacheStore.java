@@ -0,0 +1,404 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.cache;
+
+import com.hotels.styx.api.LiveHttpRequest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A size-bounded store of cached HTTP responses, with W-TinyLFU eviction.
+ * <p>
+ * New entries are admitted to a small LRU window. Entries leaving the window compete with the
+ * least recently used entries of the main segmented LRU, and the one with the lower estimated
+ * access frequency (see {@link FrequencySketch}) is evicted. This protects popular entries
+ * from being flushed out by one-off requests.
+ * <p>
+ * Lookups are served from a {@link ConcurrentHashMap} without locking. The access order is only
+ * updated when the policy lock can be acquired without waiting, so that the request path never
+ * blocks on a busy cache. Skipped updates only make the eviction order slightly less accurate.
+ * <p>
+ * Each primary key (the request URL) may have several variants, as selected by the response
+ * {@code Vary} header.
+ */
+public final class HttpCacheStore {
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+    private static final int ESTIMATED_ENTRY_SIZE = 4096;
+
+    private final ConcurrentHashMap<String, Node> data = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Variants> variants = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AccessQueue window = new AccessQueue();
+    private final AccessQueue probation = new AccessQueue();
+    private final AccessQueue protectedQueue = new AccessQueue();
+    private final FrequencySketch sketch;
+    private final HttpCacheMetrics metrics;
+
+    private final long maxWeight;
+    private final long maxWindowWeight;
+    private final long maxProtectedWeight;
+
+    private long windowWeight;
+    private long protectedWeight;
+    private volatile long totalWeight;
+
+    public HttpCacheStore(long maxWeight, HttpCacheMetrics metrics) {
+        this.maxWeight = maxWeight;
+        this.maxWindowWeight = Math.max(1, (long) (maxWeight * WINDOW_RATIO));
+        this.maxProtectedWeight = (long) ((maxWeight - maxWindowWeight) * PROTECTED_RATIO);
+        this.sketch = new FrequencySketch(maxWeight / ESTIMATED_ENTRY_SIZE);
+        this.metrics = requireNonNull(metrics);
+        metrics.registerGauges(this);
+    }
+
+    /**
+     * Finds a stored response for a request.
+     *
+     * @param primaryKey request primary cache key
+     * @param request HTTP request, used for selecting a variant
+     * @return a stored response, or null if not found
+     */
+    public CachedResponse get(String primaryKey, LiveHttpRequest request) {
+        Variants entryVariants = variants.get(primaryKey);
+        String key = entryVariants == null ? primaryKey : variantKey(primaryKey, entryVariants.names, request);
+        Node node = data.get(key);
+
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(key.hashCode());
+                if (node != null && node.queue != null) {
+                    onAccess(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Stores a response. The store takes over the ownership of the response body,
+     * and releases it when the entry is evicted or rejected.
+     *
+     * @param primaryKey request primary cache key
+     * @param request the request that the response was received for
+     * @param response a response to store
+     * @return true if the response was stored
+     */
+    public boolean put(String primaryKey, LiveHttpRequest request, CachedResponse response) {
+        if (response.weight() > maxWeight) {
+            response.release();
+            return false;
+        }
+
+        lock.lock();
+        try {
+            Variants entryVariants = variants.get(primaryKey);
+            if (entryVariants != null && !entryVariants.names.equals(response.varyHeaders())) {
+                removeVariants(primaryKey, entryVariants);
+                entryVariants = null;
+            }
+            if (entryVariants == null) {
+                entryVariants = new Variants(response.varyHeaders());
+                variants.put(primaryKey, entryVariants);
+            }
+
+            String key = variantKey(primaryKey, entryVariants.names, request);
+            sketch.increment(key.hashCode());
+
+            Node existing = data.get(key);
+            if (existing != null) {
+                remove(existing);
+            }
+
+            Node node = new Node(primaryKey, key, response);
+            data.put(key, node);
+            entryVariants.keys.add(key);
+            window.addLast(node, Queue.WINDOW);
+            windowWeight += node.weight;
+            totalWeight += node.weight;
+            metrics.stored(response.contentLength());
+
+            evict();
+            return node.queue != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all variants stored under a primary key.
+     *
+     * @param primaryKey request primary cache key
+     */
+    public void invalidate(String primaryKey) {
+        if (!variants.containsKey(primaryKey)) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            Variants entryVariants = variants.get(primaryKey);
+            if (entryVariants != null) {
+                removeVariants(primaryKey, entryVariants);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries, releasing their off-heap memory.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            for (Node node : List.copyOf(data.values())) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long weightedSize() {
+        return totalWeight;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    private void removeVariants(String primaryKey, Variants entryVariants) {
+        for (String key : List.copyOf(entryVariants.keys)) {
+            Node node = data.get(key);
+            if (node != null) {
+                remove(node);
+            }
+        }
+        variants.remove(primaryKey, entryVariants);
+    }
+
+    private void onAccess(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                protectedQueue.addLast(node, Queue.PROTECTED);
+                protectedWeight += node.weight;
+                demoteProtected();
+                break;
+            case PROTECTED:
+                protectedQueue.moveToLast(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void demoteProtected() {
+        while (protectedWeight > maxProtectedWeight) {
+            Node demoted = protectedQueue.pollFirst();
+            protectedWeight -= demoted.weight;
+            probation.addLast(demoted, Queue.PROBATION);
+        }
+    }
+
+    private void evict() {
+        while (windowWeight > maxWindowWeight) {
+            Node candidate = window.pollFirst();
+            windowWeight -= candidate.weight;
+            probation.addLast(candidate, Queue.PROBATION);
+        }
+
+        while (totalWeight > maxWeight) {
+            Node victim = probation.peekFirst();
+            Node candidate = probation.peekLast();
+
+            if (victim == null) {
+                victim = protectedQueue.peekFirst() != null ? protectedQueue.peekFirst() : window.peekFirst();
+                evict(victim);
+            } else if (victim == candidate) {
+                evict(victim);
+            } else if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                evict(victim);
+            } else {
+                evict(candidate);
+            }
+        }
+    }
+
+    private void evict(Node node) {
+        remove(node);
+        metrics.eviction();
+    }
+
+    private void remove(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedQueue.remove(node);
+                protectedWeight -= node.weight;
+                break;
+            default:
+                break;
+        }
+        node.queue = null;
+        totalWeight -= node.weight;
+
+        data.remove(node.key, node);
+        Variants entryVariants = variants.get(node.primaryKey);
+        if (entryVariants != null) {
+            entryVariants.keys.remove(node.key);
+            if (entryVariants.keys.isEmpty()) {
+                variants.remove(node.primaryKey, entryVariants);
+            }
+        }
+        node.value.release();
+    }
+
+    private static String variantKey(String primaryKey, List<String> varyHeaders, LiveHttpRequest request) {
+        if (varyHeaders.isEmpty()) {
+            return primaryKey;
+        }
+
+        StringBuilder key = new StringBuilder(primaryKey);
+        for (String name : varyHeaders) {
+            key.append('\n').append(name).append(':');
+            List<String> values = request.headers(name);
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    key.append(',');
+                }
+                key.append(values.get(i).trim());
+            }
+        }
+        return key.toString();
+    }
+
+    private enum Queue {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    /**
+     * The Vary header names, and stored variant keys, for one primary key.
+     * The names never change. The keys are guarded by the policy lock.
+     */
+    private static final class Variants {
+        private final List<String> names;
+        private final Set<String> keys = new HashSet<>();
+
+        Variants(List<String> names) {
+            this.names = List.copyOf(names);
+        }
+    }
+
+    private static final class Node {
+        private final String primaryKey;
+        private final String key;
+        private final CachedResponse value;
+        private final int weight;
+
+        private Queue queue;
+        private Node prev;
+        private Node next;
+
+        Node(String primaryKey, String key, CachedResponse value) {
+            this.primaryKey = primaryKey;
+            this.key = key;
+            this.value = value;
+            this.weight = value.weight();
+        }
+    }
+
+    /**
+     * An intrusive doubly linked list, ordered from least to most recently used.
+     */
+    private static final class AccessQueue {
+        private Node head;
+        private Node tail;
+
+        void addLast(Node node, Queue queue) {
+            node.queue = queue;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node node) {
+            if (node != tail) {
+                Queue queue = node.queue;
+                remove(node);
+                addLast(node, queue);
+            }
+        }
+
+        Node peekFirst() {
+            return head;
+        }
+
+        Node peekLast() {
+            return tail;
+        }
+
+        Node pollFirst() {
+            Node first = head;
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -29,10 +29,14 @@ import com.hotels.styx.routing.RoutingObject;
 import com.hotels.styx.routing.db.StyxObjectStore;
 import com.hotels.styx.routing.handlers.ConditionRouter;
 import com.hotels.styx.routing.handlers.HostProxy;
+import com.hotels.styx.routing.handlers.HttpCache;
 import com.hotels.styx.routing.handlers.HttpInterceptorPipeline;
 import com.hotels.styx.routing.handlers.LoadBalancingGroup;
 import com.hotels.styx.routing.handlers.PathPrefixRouter;
 import com.hotels.styx.routing.handlers.ProxyToBackend;
+import com.hotels.styx.routing.handlers.RequestBuffer;
+import com.hotels.styx.routing.handlers.RequestCollapser;
+import com.hotels.styx.routing.handlers.ResponseBuffer;
 import com.hotels.styx.routing.handlers.RouteRefLookup;
 import com.hotels.styx.routing.handlers.StaticResponseHandler;
 import com.hotels.styx.routing.interceptors.RewriteInterceptor;
@@ -65,6 +69,10 @@ public final class Builtins {
     public static final String PATH_PREFIX_ROUTER = "PathPrefixRouter";
     public static final String HOST_PROXY = "HostProxy";
     public static final String LOAD_BALANCING_GROUP = "LoadBalancingGroup";
+    public static final String HTTP_CACHE = "HttpCache";
+    public static final String REQUEST_COLLAPSER = "RequestCollapser";
+    public static final String REQUEST_BUFFER = "RequestBuffer";
+    public static final String RESPONSE_BUFFER = "ResponseBuffer";
 
     public static final String HEALTH_CHECK_MONITOR = "HealthCheckMonitor";
     public static final String YAML_FILE_CONFIGURATION_SERVICE = "YamlFileConfigurationService";
@@ -121,6 +129,10 @@ public final class Builtins {
                 .put(PATH_PREFIX_ROUTER, new PathPrefixRouter.Factory())
                 .put(HOST_PROXY, new HostProxy.Factory())
                 .put(LOAD_BALANCING_GROUP, new LoadBalancingGroup.Factory())
+                .put(HTTP_CACHE, new HttpCache.Factory())
+                .put(REQUEST_COLLAPSER, new RequestCollapser.Factory())
+                .put(REQUEST_BUFFER, new RequestBuffer.Factory())
+                .put(RESPONSE_BUFFER, new ResponseBuffer.Factory())
                 .build();
 
         BUILTIN_HANDLER_SCHEMAS = ImmutableMap.<String, Schema.FieldType>builder()
@@ -131,6 +143,10 @@ public final class Builtins {
                 .put(PATH_PREFIX_ROUTER, PathPrefixRouter.SCHEMA)
                 .put(HOST_PROXY, HostProxy.SCHEMA)
                 .put(LOAD_BALANCING_GROUP,  LoadBalancingGroup.Companion.getSCHEMA())
+                .put(HTTP_CACHE, HttpCache.SCHEMA)
+                .put(REQUEST_COLLAPSER, RequestCollapser.SCHEMA)
+                .put(REQUEST_BUFFER, RequestBuffer.SCHEMA)
+                .put(RESPONSE_BUFFER, ResponseBuffer.SCHEMA)
                 .build();
     }
 
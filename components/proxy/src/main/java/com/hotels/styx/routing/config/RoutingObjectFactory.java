@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import com.hotels.styx.api.configuration.ObjectStore;
 import com.hotels.styx.proxy.plugin.NamedPlugin;
 import com.hotels.styx.routing.RoutingObject;
 import com.hotels.styx.routing.RoutingObjectRecord;
+import com.hotels.styx.routing.buffering.SpillBudget;
 import com.hotels.styx.routing.db.StyxObjectStore;
 import com.hotels.styx.routing.handlers.RouteRefLookup;
 
@@ -65,6 +66,7 @@ public interface RoutingObjectFactory {
         private final Map<String, HttpInterceptorFactory> interceptorFactories;
         private final boolean requestTracking;
         private StyxObjectStore<StyxObjectRecord<NettyExecutor>> executorObjectStore;
+        private final SpillBudget spillBudget;
 
         // CHECKSTYLE:OFF
         public Context(
@@ -75,7 +77,8 @@ public interface RoutingObjectFactory {
                 Iterable<NamedPlugin> plugins,
                 Map<String, HttpInterceptorFactory> interceptorFactories,
                 boolean requestTracking,
-                StyxObjectStore<StyxObjectRecord<NettyExecutor>> executorObjectStore) {
+                StyxObjectStore<StyxObjectRecord<NettyExecutor>> executorObjectStore,
+                SpillBudget spillBudget) {
             this.refLookup = refLookup;
             this.environment = requireNonNull(environment);
             this.routeDb = requireNonNull(routeDb);
@@ -84,6 +87,7 @@ public interface RoutingObjectFactory {
             this.interceptorFactories = requireNonNull(interceptorFactories);
             this.requestTracking = requestTracking;
             this.executorObjectStore = executorObjectStore;
+            this.spillBudget = requireNonNull(spillBudget);
         }
         // CHECKSTYLE:ON
 
@@ -118,5 +122,9 @@ public interface RoutingObjectFactory {
         public ObjectStore<StyxObjectRecord<NettyExecutor>> executors() {
             return executorObjectStore;
         };
+
+        public SpillBudget spillBudget() {
+            return spillBudget;
+        }
     }
 }
@@ -0,0 +1,493 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.Clock;
+import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.HttpMethod;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.config.schema.Schema;
+import com.hotels.styx.infrastructure.configuration.yaml.JsonNodeConfig;
+import com.hotels.styx.routing.RoutingObject;
+import com.hotels.styx.routing.cache.CacheControl;
+import com.hotels.styx.routing.cache.CachedResponse;
+import com.hotels.styx.routing.cache.HttpCacheMetrics;
+import com.hotels.styx.routing.cache.HttpCacheStore;
+import com.hotels.styx.routing.config.Builtins;
+import com.hotels.styx.routing.config.RoutingObjectFactory;
+import com.hotels.styx.routing.config.StyxObjectDefinition;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hotels.styx.api.Buffers.toByteBuf;
+import static com.hotels.styx.api.Clocks.systemClock;
+import static com.hotels.styx.api.HttpHeaderNames.AUTHORIZATION;
+import static com.hotels.styx.api.HttpHeaderNames.CACHE_CONTROL;
+import static com.hotels.styx.api.HttpHeaderNames.ETAG;
+import static com.hotels.styx.api.HttpHeaderNames.EXPIRES;
+import static com.hotels.styx.api.HttpHeaderNames.HOST;
+import static com.hotels.styx.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static com.hotels.styx.api.HttpHeaderNames.IF_NONE_MATCH;
+import static com.hotels.styx.api.HttpHeaderNames.LAST_MODIFIED;
+import static com.hotels.styx.api.HttpHeaderNames.PRAGMA;
+import static com.hotels.styx.api.HttpHeaderNames.SET_COOKIE;
+import static com.hotels.styx.api.HttpHeaderNames.VARY;
+import static com.hotels.styx.api.HttpMethod.DELETE;
+import static com.hotels.styx.api.HttpMethod.GET;
+import static com.hotels.styx.api.HttpMethod.PATCH;
+import static com.hotels.styx.api.HttpMethod.POST;
+import static com.hotels.styx.api.HttpMethod.PUT;
+import static com.hotels.styx.api.HttpResponseStatus.GATEWAY_TIMEOUT;
+import static com.hotels.styx.api.HttpResponseStatus.NOT_MODIFIED;
+import static com.hotels.styx.api.LiveHttpResponse.response;
+import static com.hotels.styx.config.schema.SchemaDsl.field;
+import static com.hotels.styx.config.schema.SchemaDsl.integer;
+import static com.hotels.styx.config.schema.SchemaDsl.object;
+import static com.hotels.styx.config.schema.SchemaDsl.optional;
+import static com.hotels.styx.config.schema.SchemaDsl.routingObject;
+import static com.hotels.styx.routing.cache.CacheControl.ABSENT;
+import static com.hotels.styx.routing.config.RoutingConfigParser.toRoutingConfigNode;
+import static com.hotels.styx.routing.config.RoutingSupport.append;
+import static com.hotels.styx.routing.config.RoutingSupport.missingAttributeError;
+import static java.lang.String.join;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Locale.ENGLISH;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A routing object that implements an RFC 7234 shared HTTP cache in front of a destination object.
+ * <p>
+ * Only GET responses are stored. Fresh entries are served directly from the cache. Stale entries
+ * are revalidated with a conditional request, or served while they are revalidated in the background
+ * (stale-while-revalidate), or served when the origin fails (stale-if-error). Successful unsafe requests
+ * (POST, PUT, PATCH, DELETE) invalidate the stored responses for their URL.
+ * <p>
+ * Response bodies are stored off-heap. The store is bounded by size, and uses W-TinyLFU eviction.
+ */
+public class HttpCache implements RoutingObject {
+    public static final Schema.FieldType SCHEMA = object(
+            field("destination", routingObject()),
+            optional("maxSizeMegabytes", integer()),
+            optional("maxEntrySizeKilobytes", integer()),
+            optional("staleWhileRevalidateSeconds", integer()),
+            optional("staleIfErrorSeconds", integer())
+    );
+
+    private static final Logger LOGGER = getLogger(HttpCache.class);
+
+    private static final Set<Integer> CACHEABLE_BY_DEFAULT = Set.of(200, 203, 204, 300, 301, 404, 405, 410, 414, 501);
+    private static final Set<HttpMethod> UNSAFE_METHODS = Set.of(POST, PUT, PATCH, DELETE);
+    private static final int DEFAULT_INITIAL_CAPACITY = 4096;
+
+    private final RoutingObject destination;
+    private final HttpCacheStore store;
+    private final HttpCacheMetrics metrics;
+    private final Clock clock;
+    private final int maxEntrySizeBytes;
+    private final long staleWhileRevalidateSeconds;
+    private final long staleIfErrorSeconds;
+
+    public HttpCache(RoutingObject destination, HttpCacheStore store, HttpCacheMetrics metrics, Clock clock,
+                     int maxEntrySizeBytes, long staleWhileRevalidateSeconds, long staleIfErrorSeconds) {
+        this.destination = requireNonNull(destination);
+        this.store = requireNonNull(store);
+        this.metrics = requireNonNull(metrics);
+        this.clock = requireNonNull(clock);
+        this.maxEntrySizeBytes = maxEntrySizeBytes;
+        this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+        this.staleIfErrorSeconds = staleIfErrorSeconds;
+    }
+
+    @Override
+    public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
+        if (!GET.equals(request.method())) {
+            return UNSAFE_METHODS.contains(request.method())
+                    ? invalidateOnSuccess(request, context)
+                    : destination.handle(request, context);
+        }
+
+        CacheControl cacheControl = CacheControl.parse(request.headers(CACHE_CONTROL));
+        if (cacheControl.noStore() || request.header(AUTHORIZATION).isPresent()) {
+            return destination.handle(request, context);
+        }
+
+        String key = primaryKey(request);
+        CachedResponse entry = store.get(key, request);
+        long now = clock.tickMillis();
+
+        if (entry == null) {
+            metrics.miss();
+            return cacheControl.onlyIfCached()
+                    ? Eventual.of(response(GATEWAY_TIMEOUT).build())
+                    : fetch(key, request, context);
+        }
+
+        return fromCache(key, request, context, cacheControl, entry, now);
+    }
+
+    private Eventual<LiveHttpResponse> fromCache(String key, LiveHttpRequest request, HttpInterceptor.Context context,
+                                                 CacheControl cacheControl, CachedResponse entry, long now) {
+        boolean noCache = noCache(request, cacheControl);
+
+        if (!noCache && entry.satisfies(cacheControl, now)) {
+            LiveHttpResponse response = serve(entry, request, now, false);
+            if (response != null) {
+                return Eventual.of(response);
+            }
+        } else if (cacheControl.onlyIfCached()) {
+            return Eventual.of(response(GATEWAY_TIMEOUT).build());
+        } else if (!noCache && entry.canServeWhileRevalidating(now)) {
+            LiveHttpResponse response = serve(entry, request, now, false);
+            if (response != null) {
+                revalidateInBackground(key, request, context, entry);
+                return Eventual.of(response);
+            }
+        }
+
+        return revalidate(key, request, context, entry);
+    }
+
+    @Override
+    public CompletableFuture<Void> stop() {
+        store.clear();
+        metrics.close();
+        return destination.stop();
+    }
+
+    private static boolean noCache(LiveHttpRequest request, CacheControl cacheControl) {
+        return cacheControl.noCache()
+                || (!request.header(CACHE_CONTROL).isPresent() && request.headers(PRAGMA).contains("no-cache"));
+    }
+
+    private static String primaryKey(LiveHttpRequest request) {
+        return request.header(HOST).orElse("") + request.url();
+    }
+
+    private Eventual<LiveHttpResponse> invalidateOnSuccess(LiveHttpRequest request, HttpInterceptor.Context context) {
+        String key = primaryKey(request);
+        return destination.handle(request, context)
+                .map(response -> {
+                    if (response.status().code() < 400) {
+                        store.invalidate(key);
+                    }
+                    return response;
+                });
+    }
+
+    private LiveHttpResponse serve(CachedResponse entry, LiveHttpRequest request, long now, boolean revalidationFailed) {
+        ByteBuf content = entry.retainContent();
+        if (content == null) {
+            return null;
+        }
+
+        if (entry.isFresh(now)) {
+            metrics.hit(content.readableBytes());
+        } else {
+            metrics.staleHit(content.readableBytes());
+        }
+
+        if (notModified(entry, request)) {
+            content.release();
+            return response(NOT_MODIFIED)
+                    .headers(entry.headers())
+                    .build();
+        }
+
+        return entry.toResponse(now, content, revalidationFailed);
+    }
+
+    private static boolean notModified(CachedResponse entry, LiveHttpRequest request) {
+        Optional<String> etag = entry.etag();
+        return etag.isPresent()
+                && entry.status().code() == 200
+                && request.headers(IF_NONE_MATCH).stream()
+                .flatMap(value -> List.of(value.split(",")).stream())
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag.get()));
+    }
+
+    private Eventual<LiveHttpResponse> fetch(String key, LiveHttpRequest request, HttpInterceptor.Context context) {
+        long requestTime = clock.tickMillis();
+        return destination.handle(request, context)
+                .map(response -> storeOnCompletion(key, request, response, requestTime));
+    }
+
+    private Eventual<LiveHttpResponse> revalidate(String key, LiveHttpRequest request, HttpInterceptor.Context context, CachedResponse entry) {
+        metrics.revalidation();
+        long requestTime = clock.tickMillis();
+
+        return destination.handle(conditional(request, entry), context)
+                .flatMap(response -> {
+                    long responseTime = clock.tickMillis();
+
+                    if (response.status().equals(NOT_MODIFIED) && entry.hasValidator()) {
+                        response.consume();
+                        CachedResponse updated = entry.revalidated(response.headers(), requestTime, responseTime);
+                        LiveHttpResponse revalidated = updated == null ? null : serveAndStore(key, request, updated, responseTime);
+                        return revalidated != null ? Eventual.of(revalidated) : fetch(key, request, context);
+                    }
+
+                    if (response.status().code() >= 500 && entry.canServeOnError(responseTime)) {
+                        LiveHttpResponse stale = serve(entry, request, responseTime, true);
+                        if (stale != null) {
+                            response.consume();
+                            return Eventual.of(stale);
+                        }
+                    }
+
+                    return Eventual.of(storeOnCompletion(key, request, response, requestTime));
+                })
+                .onError(cause -> {
+                    long now = clock.tickMillis();
+                    LiveHttpResponse stale = entry.canServeOnError(now) ? serve(entry, request, now, true) : null;
+                    return stale != null ? Eventual.of(stale) : Eventual.error(cause);
+                });
+    }
+
+    private LiveHttpResponse serveAndStore(String key, LiveHttpRequest request, CachedResponse updated, long now) {
+        // Serve before storing: a store may evict, and release, the updated entry straight away.
+        LiveHttpResponse response = serve(updated, request, now, false);
+        store.put(key, request, updated);
+        return response;
+    }
+
+    private void revalidateInBackground(String key, LiveHttpRequest request, HttpInterceptor.Context context, CachedResponse entry) {
+        if (!entry.tryStartRevalidation()) {
+            return;
+        }
+
+        metrics.revalidation();
+        long requestTime = clock.tickMillis();
+
+        Mono.from(destination.handle(conditional(request, entry), context))
+                .doFinally(signal -> entry.revalidationFinished())
+                .subscribe(response -> {
+                    if (response.status().equals(NOT_MODIFIED) && entry.hasValidator()) {
+                        response.consume();
+                        CachedResponse updated = entry.revalidated(response.headers(), requestTime, clock.tickMillis());
+                        if (updated != null) {
+                            store.put(key, request, updated);
+                        }
+                    } else {
+                        storeOnCompletion(key, request, response, requestTime).consume();
+                    }
+                }, cause -> LOGGER.debug("Background revalidation failed. url={}", request.url(), cause));
+    }
+
+    private static LiveHttpRequest conditional(LiveHttpRequest request, CachedResponse entry) {
+        LiveHttpRequest.Transformer conditional = request.newBuilder()
+                .removeHeader(IF_NONE_MATCH)
+                .removeHeader(IF_MODIFIED_SINCE);
+
+        entry.etag().ifPresent(etag -> conditional.header(IF_NONE_MATCH, etag));
+        entry.lastModified().ifPresent(lastModified -> conditional.header(IF_MODIFIED_SINCE, lastModified));
+
+        return conditional.build();
+    }
+
+    private LiveHttpResponse storeOnCompletion(String key, LiveHttpRequest request, LiveHttpResponse response, long requestTime) {
+        if (!storable(response)) {
+            return response;
+        }
+
+        ResponseCollector collector = new ResponseCollector(key, request, response, requestTime);
+        return response.newBuilder()
+                .body(body -> body
+                        .map(collector::append)
+                        .doOnEnd(collector::end)
+                        .doOnCancel(collector::discard))
+                .build();
+    }
+
+    private boolean storable(LiveHttpResponse response) {
+        if (!CACHEABLE_BY_DEFAULT.contains(response.status().code())) {
+            return false;
+        }
+
+        CacheControl cacheControl = CacheControl.parse(response.headers(CACHE_CONTROL));
+        if (cacheControl.noStore() || cacheControl.isPrivate()) {
+            return false;
+        }
+
+        if (response.header(SET_COOKIE).isPresent() || varyHeaders(response).contains("*")) {
+            return false;
+        }
+
+        if (response.contentLength().map(length -> length > maxEntrySizeBytes).orElse(false)) {
+            return false;
+        }
+
+        return cacheControl.sMaxAge() != ABSENT
+                || cacheControl.maxAge() != ABSENT
+                || cacheControl.isPublic()
+                || response.header(EXPIRES).isPresent()
+                || response.header(ETAG).isPresent()
+                || response.header(LAST_MODIFIED).isPresent();
+    }
+
+    private static List<String> varyHeaders(LiveHttpResponse response) {
+        return response.headers(VARY).stream()
+                .flatMap(value -> List.of(value.split(",")).stream())
+                .map(name -> name.trim().toLowerCase(ENGLISH))
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .sorted(naturalOrder())
+                .collect(toList());
+    }
+
+    /**
+     * Copies response body into off-heap memory as it streams through, and stores
+     * the response once the body has been fully received.
+     * <p>
+     * The memory is allocated when the first body chunk arrives, so nothing is held
+     * for a response whose body is never subscribed to.
+     */
+    private final class ResponseCollector {
+        private final String key;
+        private final LiveHttpRequest request;
+        private final LiveHttpResponse response;
+        private final long requestTime;
+        private final long responseTime;
+        private ByteBuf content;
+        private boolean discarded;
+
+        ResponseCollector(String key, LiveHttpRequest request, LiveHttpResponse response, long requestTime) {
+            this.key = key;
+            this.request = request;
+            this.response = response;
+            this.requestTime = requestTime;
+            this.responseTime = clock.tickMillis();
+        }
+
+        synchronized Buffer append(Buffer buffer) {
+            if (discarded) {
+                return buffer;
+            }
+
+            ByteBuf byteBuf = toByteBuf(buffer);
+            if (content == null) {
+                content = allocate();
+            }
+            if (content.readableBytes() + byteBuf.readableBytes() > maxEntrySizeBytes) {
+                discard();
+            } else {
+                content.writeBytes(byteBuf, byteBuf.readerIndex(), byteBuf.readableBytes());
+            }
+            return buffer;
+        }
+
+        synchronized void end(Optional<Throwable> cause) {
+            if (discarded) {
+                return;
+            }
+            if (cause.isPresent()) {
+                discard();
+                return;
+            }
+
+            ByteBuf stored = content == null ? Unpooled.EMPTY_BUFFER : compact(content);
+            content = null;
+            discarded = true;
+
+            store.put(key, request, CachedResponse.builder()
+                    .status(response.status())
+                    .version(response.version())
+                    .headers(response.headers())
+                    .content(stored)
+                    .varyHeaders(varyHeaders(response))
+                    .requestTime(requestTime)
+                    .responseTime(responseTime)
+                    .defaultStaleWhileRevalidateSeconds(staleWhileRevalidateSeconds)
+                    .defaultStaleIfErrorSeconds(staleIfErrorSeconds)
+                    .build());
+        }
+
+        synchronized void discard() {
+            discarded = true;
+            if (content != null) {
+                content.release();
+                content = null;
+            }
+        }
+
+        private ByteBuf allocate() {
+            int initialCapacity = response.contentLength()
+                    .map(length -> (int) Math.min(length, maxEntrySizeBytes))
+                    .orElse(Math.min(DEFAULT_INITIAL_CAPACITY, maxEntrySizeBytes));
+            return Unpooled.directBuffer(initialCapacity, maxEntrySizeBytes);
+        }
+
+        private ByteBuf compact(ByteBuf buffer) {
+            if (buffer.capacity() == buffer.readableBytes()) {
+                return buffer;
+            }
+            ByteBuf compacted = Unpooled.directBuffer(buffer.readableBytes(), buffer.readableBytes())
+                    .writeBytes(buffer);
+            buffer.release();
+            return compacted;
+        }
+    }
+
+    /**
+     * A factory for creating HttpCache routing objects.
+     */
+    public static class Factory implements RoutingObjectFactory {
+        private static final int DEFAULT_MAX_SIZE_MEGABYTES = 256;
+        private static final int DEFAULT_MAX_ENTRY_SIZE_KILOBYTES = 1024;
+
+        @Override
+        public RoutingObject build(List<String> fullName, Context context, StyxObjectDefinition configBlock) {
+            JsonNodeConfig config = new JsonNodeConfig(configBlock.config());
+
+            JsonNode destinationConfig = config.get("destination", JsonNode.class)
+                    .orElseThrow(() -> missingAttributeError(configBlock, join(".", fullName), "destination"));
+
+            long maxSizeBytes = config.get("maxSizeMegabytes", Integer.class)
+                    .orElse(DEFAULT_MAX_SIZE_MEGABYTES) * 1024L * 1024L;
+            int maxEntrySizeBytes = config.get("maxEntrySizeKilobytes", Integer.class)
+                    .orElse(DEFAULT_MAX_ENTRY_SIZE_KILOBYTES) * 1024;
+            long staleWhileRevalidate = config.get("staleWhileRevalidateSeconds", Integer.class).orElse(0);
+            long staleIfError = config.get("staleIfErrorSeconds", Integer.class).orElse(0);
+
+            String name = fullName.isEmpty() ? configBlock.name() : fullName.get(fullName.size() - 1);
+            HttpCacheMetrics metrics = new HttpCacheMetrics(context.environment().meterRegistry(), name);
+
+            RoutingObject destination = Builtins.build(append(fullName, "destination"), context, toRoutingConfigNode(destinationConfig));
+
+            return new HttpCache(
+                    destination,
+                    new HttpCacheStore(maxSizeBytes, metrics),
+                    metrics,
+                    systemClock(),
+                    maxEntrySizeBytes,
+                    staleWhileRevalidate,
+                    staleIfError);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -127,7 +127,7 @@ public class ProxyToBackend implements RoutingObject {
                     .build();
 
             OriginsInventory inventory = new OriginsInventory.Builder(backendService.id())
-                    .eventBus(context.environment().eventBus())
+                    .eventRouter(context.environment().originEventRouter())
                     .meterRegistry(context.environment().meterRegistry())
                     .connectionPoolFactory(connectionPoolFactory)
                     .initialOrigins(backendService.origins())
@@ -0,0 +1,160 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hotels.styx.api.ContentOverflowException;
+import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.config.schema.Schema;
+import com.hotels.styx.infrastructure.configuration.yaml.JsonNodeConfig;
+import com.hotels.styx.routing.RoutingObject;
+import com.hotels.styx.routing.buffering.BodyBuffer;
+import com.hotels.styx.routing.config.Builtins;
+import com.hotels.styx.routing.config.RoutingObjectFactory;
+import com.hotels.styx.routing.config.StyxObjectDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH;
+import static com.hotels.styx.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static com.hotels.styx.api.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE;
+import static com.hotels.styx.api.LiveHttpResponse.response;
+import static com.hotels.styx.config.schema.SchemaDsl.field;
+import static com.hotels.styx.config.schema.SchemaDsl.integer;
+import static com.hotels.styx.config.schema.SchemaDsl.object;
+import static com.hotels.styx.config.schema.SchemaDsl.optional;
+import static com.hotels.styx.config.schema.SchemaDsl.routingObject;
+import static com.hotels.styx.config.schema.SchemaDsl.string;
+import static com.hotels.styx.routing.config.RoutingConfigParser.toRoutingConfigNode;
+import static com.hotels.styx.routing.config.RoutingSupport.append;
+import static com.hotels.styx.routing.config.RoutingSupport.missingAttributeError;
+import static java.lang.String.join;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A routing object that receives the whole request body before passing the request on
+ * to its destination.
+ * <p>
+ * A slow client uploading a request body no longer holds an origin connection for the
+ * duration of the upload, because the destination (and hence the connection pool) is only
+ * called once the body has arrived. Bodies up to a memory threshold are kept in pooled
+ * direct memory; larger bodies are spilled to a temporary file. The file is written and read
+ * on the offload executor, and the client is not read from while a write is in progress. Bodies
+ * over the maximum size are rejected with 413 Request Entity Too Large.
+ */
+public class RequestBuffer implements RoutingObject {
+    public static final Schema.FieldType SCHEMA = object(
+            field("destination", routingObject()),
+            optional("maxMemoryKilobytes", integer()),
+            optional("maxSizeMegabytes", integer()),
+            optional("spillDirectory", string())
+    );
+
+    private final RoutingObject destination;
+    private final int maxMemoryBytes;
+    private final long maxSizeBytes;
+    private final Path spillDirectory;
+
+    public RequestBuffer(RoutingObject destination, int maxMemoryBytes, long maxSizeBytes, Path spillDirectory) {
+        this.destination = requireNonNull(destination);
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxSizeBytes = maxSizeBytes;
+        this.spillDirectory = requireNonNull(spillDirectory);
+    }
+
+    @Override
+    public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
+        BodyBuffer buffer = new BodyBuffer(maxMemoryBytes, maxSizeBytes, spillDirectory);
+
+        // One chunk at a time, so that the client is not read from while a chunk is being spilled:
+        return new Eventual<>(Flux.from(request.body())
+                .concatMap(chunk -> {
+                    if (!buffer.append(chunk)) {
+                        return Mono.error(new ContentOverflowException("Maximum request body size exceeded. maxSizeBytes=" + maxSizeBytes));
+                    }
+                    return buffer.flushRequired() ? Mono.from(context.offload(() -> flush(buffer))) : Mono.empty();
+                }, 1)
+                .then(Mono.defer(() -> Mono.from(destination.handle(buffered(request, buffer, context), context))))
+                .map(response -> releaseOnCompletion(response, buffer))
+                .doOnError(cause -> buffer.release())
+                .doOnCancel(buffer::release)
+                .onErrorResume(ContentOverflowException.class, cause -> Mono.just(response(REQUEST_ENTITY_TOO_LARGE).build())));
+    }
+
+    @Override
+    public CompletableFuture<Void> stop() {
+        return destination.stop();
+    }
+
+    private static Void flush(BodyBuffer buffer) {
+        buffer.flush();
+        return null;
+    }
+
+    private static LiveHttpRequest buffered(LiveHttpRequest request, BodyBuffer buffer, HttpInterceptor.Context context) {
+        LiveHttpRequest.Transformer transformer = request.newBuilder()
+                .body(received -> buffer.stream(context));
+
+        if (request.chunked()) {
+            transformer.removeHeader(TRANSFER_ENCODING)
+                    .header(CONTENT_LENGTH, buffer.size());
+        }
+        return transformer.build();
+    }
+
+    private static LiveHttpResponse releaseOnCompletion(LiveHttpResponse response, BodyBuffer buffer) {
+        return response.newBuilder()
+                .body(body -> body
+                        .doOnEnd(cause -> buffer.release())
+                        .doOnCancel(buffer::release))
+                .build();
+    }
+
+    /**
+     * A factory for creating RequestBuffer routing objects.
+     */
+    public static class Factory implements RoutingObjectFactory {
+        private static final int DEFAULT_MAX_MEMORY_KILOBYTES = 64;
+        private static final int DEFAULT_MAX_SIZE_MEGABYTES = 16;
+
+        @Override
+        public RoutingObject build(List<String> fullName, Context context, StyxObjectDefinition configBlock) {
+            JsonNodeConfig config = new JsonNodeConfig(configBlock.config());
+
+            JsonNode destinationConfig = config.get("destination", JsonNode.class)
+                    .orElseThrow(() -> missingAttributeError(configBlock, join(".", fullName), "destination"));
+
+            int maxMemoryBytes = config.get("maxMemoryKilobytes", Integer.class)
+                    .orElse(DEFAULT_MAX_MEMORY_KILOBYTES) * 1024;
+            long maxSizeBytes = config.get("maxSizeMegabytes", Integer.class)
+                    .orElse(DEFAULT_MAX_SIZE_MEGABYTES) * 1024L * 1024L;
+            Path spillDirectory = Paths.get(config.get("spillDirectory")
+                    .orElse(System.getProperty("java.io.tmpdir")));
+
+            RoutingObject destination = Builtins.build(append(fullName, "destination"), context, toRoutingConfigNode(destinationConfig));
+
+            return new RequestBuffer(destination, maxMemoryBytes, maxSizeBytes, spillDirectory);
+        }
+    }
+}
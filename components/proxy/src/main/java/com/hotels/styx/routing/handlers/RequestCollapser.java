@@ -0,0 +1,311 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.Clock;
+import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.HttpMethod;
+import com.hotels.styx.api.HttpResponse;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.config.schema.Schema;
+import com.hotels.styx.infrastructure.configuration.yaml.JsonNodeConfig;
+import com.hotels.styx.routing.RoutingObject;
+import com.hotels.styx.routing.cache.CacheControl;
+import com.hotels.styx.routing.config.Builtins;
+import com.hotels.styx.routing.config.RoutingObjectFactory;
+import com.hotels.styx.routing.config.StyxObjectDefinition;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.hotels.styx.api.Buffers.toByteBuf;
+import static com.hotels.styx.api.Clocks.systemClock;
+import static com.hotels.styx.api.HttpHeaderNames.AUTHORIZATION;
+import static com.hotels.styx.api.HttpHeaderNames.CACHE_CONTROL;
+import static com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH;
+import static com.hotels.styx.api.HttpHeaderNames.HOST;
+import static com.hotels.styx.api.HttpHeaderNames.SET_COOKIE;
+import static com.hotels.styx.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static com.hotels.styx.api.HttpHeaderNames.VARY;
+import static com.hotels.styx.api.HttpMethod.GET;
+import static com.hotels.styx.api.HttpMethod.HEAD;
+import static com.hotels.styx.config.schema.SchemaDsl.field;
+import static com.hotels.styx.config.schema.SchemaDsl.integer;
+import static com.hotels.styx.config.schema.SchemaDsl.list;
+import static com.hotels.styx.config.schema.SchemaDsl.object;
+import static com.hotels.styx.config.schema.SchemaDsl.optional;
+import static com.hotels.styx.config.schema.SchemaDsl.routingObject;
+import static com.hotels.styx.config.schema.SchemaDsl.string;
+import static com.hotels.styx.routing.config.RoutingConfigParser.toRoutingConfigNode;
+import static com.hotels.styx.routing.config.RoutingSupport.append;
+import static com.hotels.styx.routing.config.RoutingSupport.missingAttributeError;
+import static java.lang.String.join;
+import static java.util.Locale.ENGLISH;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static java.util.stream.StreamSupport.stream;
+
+/**
+ * A routing object that collapses concurrent, identical GET and HEAD requests into one
+ * request to the destination.
+ * <p>
+ * Requests are identical when they have the same method, host, URL and values for the
+ * configured key headers. The first such request is forwarded, and its response streams
+ * back to its own client as usual. Requests arriving while it is in flight wait for it,
+ * and receive a copy of its response once the body has been fully received.
+ * <p>
+ * A waiting request falls back to its own request to the destination when the shared
+ * response is larger than the size limit, is not shareable (Set-Cookie, private, no-store,
+ * or a Vary header naming anything but the key headers), fails, or does not complete within the timeout.
+ */
+public class RequestCollapser implements RoutingObject {
+    public static final Schema.FieldType SCHEMA = object(
+            field("destination", routingObject()),
+            optional("keyHeaders", list(string())),
+            optional("maxContentLengthKilobytes", integer()),
+            optional("timeoutMillis", integer())
+    );
+
+    private static final Set<HttpMethod> COLLAPSIBLE_METHODS = Set.of(GET, HEAD);
+    private static final int DEFAULT_INITIAL_CAPACITY = 4096;
+
+    private final RoutingObject destination;
+    private final List<String> keyHeaders;
+    private final Set<String> keyHeaderNames;
+    private final int maxContentLengthBytes;
+    private final long timeoutMillis;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCollapser(RoutingObject destination, List<String> keyHeaders, int maxContentLengthBytes, long timeoutMillis, Clock clock) {
+        this.destination = requireNonNull(destination);
+        this.keyHeaders = List.copyOf(keyHeaders);
+        this.keyHeaderNames = keyHeaders.stream()
+                .map(name -> name.toLowerCase(ENGLISH))
+                .collect(toSet());
+        this.maxContentLengthBytes = maxContentLengthBytes;
+        this.timeoutMillis = timeoutMillis;
+        this.clock = requireNonNull(clock);
+    }
+
+    @Override
+    public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
+        if (!COLLAPSIBLE_METHODS.contains(request.method()) || request.header(AUTHORIZATION).isPresent()) {
+            return destination.handle(request, context);
+        }
+
+        String key = key(request);
+        long now = clock.tickMillis();
+        InFlight candidate = new InFlight(key, request.method(), now);
+        InFlight current = inFlight.compute(key, (k, existing) ->
+                existing == null || existing.expired(now) ? candidate : existing);
+
+        return current == candidate
+                ? lead(request, context, candidate)
+                : follow(request, context, current);
+    }
+
+    @Override
+    public CompletableFuture<Void> stop() {
+        return destination.stop();
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private String key(LiveHttpRequest request) {
+        StringBuilder key = new StringBuilder()
+                .append(request.method().name())
+                .append(' ')
+                .append(request.header(HOST).orElse(""))
+                .append(request.url());
+
+        for (String name : keyHeaders) {
+            key.append('\n').append(name).append(':').append(String.join(",", request.headers(name)));
+        }
+        return key.toString();
+    }
+
+    private Eventual<LiveHttpResponse> lead(LiveHttpRequest request, HttpInterceptor.Context context, InFlight leader) {
+        return new Eventual<>(Mono.from(destination.handle(request, context))
+                .map(leader::share)
+                .doOnError(cause -> leader.abandon())
+                .doOnCancel(leader::abandon));
+    }
+
+    private Eventual<LiveHttpResponse> follow(LiveHttpRequest request, HttpInterceptor.Context context, InFlight leader) {
+        // Each follower subscribes to its own copy, so that a timeout here does not cancel the shared future.
+        return new Eventual<>(Mono.fromFuture(leader.response.copy())
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .map(HttpResponse::stream)
+                .onErrorResume(cause -> Mono.from(destination.handle(request, context))));
+    }
+
+    private boolean shareable(LiveHttpResponse response) {
+        if (response.contentLength().map(length -> length > maxContentLengthBytes).orElse(false)) {
+            return false;
+        }
+
+        CacheControl cacheControl = CacheControl.parse(response.headers(CACHE_CONTROL));
+        return !cacheControl.isPrivate()
+                && !cacheControl.noStore()
+                && !response.header(SET_COOKIE).isPresent()
+                && variesOnlyByKeyHeaders(response);
+    }
+
+    // Followers only match the leader on the key headers, so the response must not vary on anything else.
+    private boolean variesOnlyByKeyHeaders(LiveHttpResponse response) {
+        for (String value : response.headers(VARY)) {
+            for (String name : value.split(",")) {
+                String varied = name.trim().toLowerCase(ENGLISH);
+                if ("*".equals(varied) || !(varied.isEmpty() || keyHeaderNames.contains(varied))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A request in flight to the destination. Copies the response body as it streams
+     * back to the leading request, and completes the shared response when it ends.
+     */
+    private final class InFlight {
+        private final String key;
+        private final HttpMethod method;
+        private final long startTime;
+        private final CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+        private LiveHttpResponse head;
+        private ByteBuf content;
+
+        InFlight(String key, HttpMethod method, long startTime) {
+            this.key = key;
+            this.method = method;
+            this.startTime = startTime;
+        }
+
+        boolean expired(long now) {
+            return now - startTime > timeoutMillis;
+        }
+
+        synchronized LiveHttpResponse share(LiveHttpResponse response) {
+            if (!shareable(response)) {
+                abandon();
+                return response;
+            }
+
+            this.head = response;
+            int initialCapacity = response.contentLength()
+                    .map(length -> (int) Math.min(length, maxContentLengthBytes))
+                    .orElse(Math.min(DEFAULT_INITIAL_CAPACITY, maxContentLengthBytes));
+            this.content = Unpooled.buffer(initialCapacity, maxContentLengthBytes);
+
+            return response.newBuilder()
+                    .body(body -> body
+                            .map(this::append)
+                            .doOnEnd(this::end)
+                            .doOnCancel(this::abandon))
+                    .build();
+        }
+
+        synchronized Buffer append(Buffer buffer) {
+            if (content != null) {
+                ByteBuf byteBuf = toByteBuf(buffer);
+                if (content.readableBytes() + byteBuf.readableBytes() > maxContentLengthBytes) {
+                    abandon();
+                } else {
+                    content.writeBytes(byteBuf, byteBuf.readerIndex(), byteBuf.readableBytes());
+                }
+            }
+            return buffer;
+        }
+
+        synchronized void end(Optional<Throwable> cause) {
+            if (content == null || cause.isPresent()) {
+                abandon();
+                return;
+            }
+
+            byte[] body = ByteBufUtil.getBytes(content);
+            content.release();
+            content = null;
+            inFlight.remove(key, this);
+
+            HttpResponse.Builder shared = new HttpResponse.Builder(head, body);
+            if (!HEAD.equals(method)) {
+                shared.removeHeader(TRANSFER_ENCODING)
+                        .header(CONTENT_LENGTH, body.length);
+            }
+            response.complete(shared.build());
+        }
+
+        synchronized void abandon() {
+            inFlight.remove(key, this);
+            if (content != null) {
+                content.release();
+                content = null;
+            }
+            response.completeExceptionally(new IllegalStateException("Collapsed request not shareable: " + key));
+        }
+    }
+
+    /**
+     * A factory for creating RequestCollapser routing objects.
+     */
+    public static class Factory implements RoutingObjectFactory {
+        private static final int DEFAULT_MAX_CONTENT_LENGTH_KILOBYTES = 1024;
+        private static final int DEFAULT_TIMEOUT_MILLIS = 5000;
+
+        @Override
+        public RoutingObject build(List<String> fullName, Context context, StyxObjectDefinition configBlock) {
+            JsonNodeConfig config = new JsonNodeConfig(configBlock.config());
+
+            JsonNode destinationConfig = config.get("destination", JsonNode.class)
+                    .orElseThrow(() -> missingAttributeError(configBlock, join(".", fullName), "destination"));
+
+            List<String> keyHeaders = config.get("keyHeaders", JsonNode.class)
+                    .map(Factory::stringList)
+                    .orElse(List.of());
+            int maxContentLengthBytes = config.get("maxContentLengthKilobytes", Integer.class)
+                    .orElse(DEFAULT_MAX_CONTENT_LENGTH_KILOBYTES) * 1024;
+            long timeoutMillis = config.get("timeoutMillis", Integer.class).orElse(DEFAULT_TIMEOUT_MILLIS);
+
+            RoutingObject destination = Builtins.build(append(fullName, "destination"), context, toRoutingConfigNode(destinationConfig));
+
+            return new RequestCollapser(destination, keyHeaders, maxContentLengthBytes, timeoutMillis, systemClock());
+        }
+
+        private static List<String> stringList(JsonNode node) {
+            return stream(node.spliterator(), false)
+                    .map(JsonNode::asText)
+                    .collect(toList());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.hotels.styx.api.ByteStream;
+import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.config.schema.Schema;
+import com.hotels.styx.infrastructure.configuration.yaml.JsonNodeConfig;
+import com.hotels.styx.routing.RoutingObject;
+import com.hotels.styx.routing.buffering.ResponseBufferMetrics;
+import com.hotels.styx.routing.buffering.SpillBudget;
+import com.hotels.styx.routing.buffering.SpillingPublisher;
+import com.hotels.styx.routing.config.Builtins;
+import com.hotels.styx.routing.config.RoutingObjectFactory;
+import com.hotels.styx.routing.config.StyxObjectDefinition;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hotels.styx.config.schema.SchemaDsl.field;
+import static com.hotels.styx.config.schema.SchemaDsl.integer;
+import static com.hotels.styx.config.schema.SchemaDsl.object;
+import static com.hotels.styx.config.schema.SchemaDsl.optional;
+import static com.hotels.styx.config.schema.SchemaDsl.routingObject;
+import static com.hotels.styx.config.schema.SchemaDsl.string;
+import static com.hotels.styx.routing.config.RoutingConfigParser.toRoutingConfigNode;
+import static com.hotels.styx.routing.config.RoutingSupport.append;
+import static com.hotels.styx.routing.config.RoutingSupport.missingAttributeError;
+import static java.lang.String.join;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A routing object that reads response bodies from its destination as fast as the origin
+ * sends them, independently of how fast the client receives them.
+ * <p>
+ * The origin connection is therefore returned to its pool as soon as the origin has sent
+ * the response, instead of when a slow client has finished downloading it. Response content
+ * is held in memory up to a limit per response, and then spilled into a memory-mapped file.
+ * Spilled bytes are limited by a budget shared by all responses through the server. When
+ * the limits are reached, the response is streamed at the pace of the client again.
+ */
+public class ResponseBuffer implements RoutingObject {
+    public static final Schema.FieldType SCHEMA = object(
+            field("destination", routingObject()),
+            optional("maxMemoryKilobytes", integer()),
+            optional("maxSpillMegabytes", integer()),
+            optional("spillDirectory", string())
+    );
+
+    private final RoutingObject destination;
+    private final int maxMemoryBytes;
+    private final int maxSpillBytes;
+    private final SpillBudget budget;
+    private final Path spillDirectory;
+    private final ResponseBufferMetrics metrics;
+
+    public ResponseBuffer(RoutingObject destination, int maxMemoryBytes, int maxSpillBytes, SpillBudget budget,
+                          Path spillDirectory, ResponseBufferMetrics metrics) {
+        this.destination = requireNonNull(destination);
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxSpillBytes = maxSpillBytes;
+        this.budget = requireNonNull(budget);
+        this.spillDirectory = requireNonNull(spillDirectory);
+        this.metrics = requireNonNull(metrics);
+    }
+
+    @Override
+    public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
+        return destination.handle(request, context)
+                .map(response -> response.newBuilder()
+                        .body(body -> new ByteStream(new SpillingPublisher(body, maxMemoryBytes, maxSpillBytes, budget, spillDirectory, metrics, context)))
+                        .build());
+    }
+
+    @VisibleForTesting
+    SpillBudget budget() {
+        return budget;
+    }
+
+    @Override
+    public CompletableFuture<Void> stop() {
+        metrics.close();
+        return destination.stop();
+    }
+
+    /**
+     * A factory for creating ResponseBuffer routing objects.
+     */
+    public static class Factory implements RoutingObjectFactory {
+        private static final int DEFAULT_MAX_MEMORY_KILOBYTES = 256;
+        private static final int DEFAULT_MAX_SPILL_MEGABYTES = 32;
+        private static final int MAX_SPILL_MEGABYTES = 1024;
+
+        @Override
+        public RoutingObject build(List<String> fullName, Context context, StyxObjectDefinition configBlock) {
+            JsonNodeConfig config = new JsonNodeConfig(configBlock.config());
+
+            JsonNode destinationConfig = config.get("destination", JsonNode.class)
+                    .orElseThrow(() -> missingAttributeError(configBlock, join(".", fullName), "destination"));
+
+            int maxMemoryBytes = config.get("maxMemoryKilobytes", Integer.class)
+                    .orElse(DEFAULT_MAX_MEMORY_KILOBYTES) * 1024;
+            int maxSpillBytes = Math.min(MAX_SPILL_MEGABYTES, config.get("maxSpillMegabytes", Integer.class)
+                    .orElse(DEFAULT_MAX_SPILL_MEGABYTES)) * 1024 * 1024;
+            Path spillDirectory = Paths.get(config.get("spillDirectory")
+                    .orElse(System.getProperty("java.io.tmpdir")));
+
+            String name = fullName.isEmpty() ? configBlock.name() : fullName.get(fullName.size() - 1);
+            ResponseBufferMetrics metrics = new ResponseBufferMetrics(context.environment().meterRegistry(), name);
+
+            RoutingObject destination = Builtins.build(append(fullName, "destination"), context, toRoutingConfigNode(destinationConfig));
+
+            return new ResponseBuffer(destination, maxMemoryBytes, maxSpillBytes, context.spillBudget(), spillDirectory, metrics);
+        }
+    }
+}
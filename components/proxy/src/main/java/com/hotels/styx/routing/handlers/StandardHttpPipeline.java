@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -21,11 +21,14 @@ import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.SynchronousHttpInterceptor;
 import com.hotels.styx.server.track.RequestTracker;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptyList;
@@ -33,9 +36,15 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * The pipeline consists of a chain of interceptors followed by a handler.
+ * <p>
+ * The interceptors are grouped into stages when the pipeline is built. Each run of consecutive
+ * interceptors with a {@linkplain SynchronousHttpInterceptor#synchronousForm synchronous form} forms a single stage that transforms the request and the
+ * response in a loop. Every other interceptor is a stage of its own. A request allocates
+ * one chain link per stage rather than per interceptor.
  */
 class StandardHttpPipeline implements HttpHandler {
     private final List<HttpInterceptor> interceptors;
+    private final Stage[] stages;
     private final HttpHandler handler;
     private final RequestTracker requestTracker;
 
@@ -46,34 +55,53 @@ class StandardHttpPipeline implements HttpHandler {
 
     public StandardHttpPipeline(List<HttpInterceptor> interceptors, HttpHandler handler, RequestTracker requestTracker) {
         this.interceptors = requireNonNull(interceptors);
+        this.stages = stages(interceptors);
         this.handler = requireNonNull(handler);
         this.requestTracker = requireNonNull(requestTracker);
     }
 
     @Override
     public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
-        HttpInterceptorChain interceptorsChain = new HttpInterceptorChain(interceptors, 0, handler, context, requestTracker);
+        HttpInterceptorChain interceptorsChain = new HttpInterceptorChain(this, 0, context);
 
         return interceptorsChain.proceed(request);
     }
 
+    int stageCount() {
+        return stages.length;
+    }
+
+    private static Stage[] stages(List<HttpInterceptor> interceptors) {
+        List<Stage> stages = new ArrayList<>();
+        List<SynchronousHttpInterceptor> synchronous = new ArrayList<>();
+
+        for (HttpInterceptor interceptor : interceptors) {
+            Optional<SynchronousHttpInterceptor> fastPath = SynchronousHttpInterceptor.synchronousForm(interceptor);
+            if (fastPath.isPresent()) {
+                synchronous.add(fastPath.get());
+            } else {
+                if (!synchronous.isEmpty()) {
+                    stages.add(new SynchronousStage(synchronous));
+                    synchronous.clear();
+                }
+                stages.add(new InterceptorStage(interceptor));
+            }
+        }
+        if (!synchronous.isEmpty()) {
+            stages.add(new SynchronousStage(synchronous));
+        }
+        return stages.toArray(new Stage[0]);
+    }
+
     static final class HttpInterceptorChain implements HttpInterceptor.Chain {
-        private final List<HttpInterceptor> interceptors;
+        private final StandardHttpPipeline pipeline;
         private final int index;
-        private final HttpHandler client;
         private final HttpInterceptor.Context context;
-        private final RequestTracker requestTracker;
 
-        HttpInterceptorChain(List<HttpInterceptor> interceptors, int index, HttpHandler client, HttpInterceptor.Context context, RequestTracker requestTracker) {
-            this.interceptors = interceptors;
+        HttpInterceptorChain(StandardHttpPipeline pipeline, int index, HttpInterceptor.Context context) {
+            this.pipeline = pipeline;
             this.index = index;
-            this.client = client;
             this.context = context;
-            this.requestTracker = requireNonNull(requestTracker);
-        }
-
-        HttpInterceptorChain(HttpInterceptorChain adapter, int index) {
-            this(adapter.interceptors, index, adapter.client, adapter.context, adapter.requestTracker);
         }
 
         @Override
@@ -83,14 +111,15 @@ class StandardHttpPipeline implements HttpHandler {
 
         @Override
         public Eventual<LiveHttpResponse> proceed(LiveHttpRequest request) {
+            RequestTracker requestTracker = pipeline.requestTracker;
             requestTracker.trackRequest(request);
 
-            if (index < interceptors.size()) {
-                HttpInterceptor.Chain chain = new HttpInterceptorChain(this, index + 1);
-                HttpInterceptor interceptor = interceptors.get(index);
+            if (index < pipeline.stages.length) {
+                HttpInterceptorChain chain = new HttpInterceptorChain(pipeline, index + 1, context);
+                Stage stage = pipeline.stages[index];
 
                 try {
-                    return interceptor.intercept(request, chain);
+                    return stage.apply(request, chain);
                 } catch (Throwable e) {
                     return Eventual.error(e);
                 }
@@ -98,12 +127,59 @@ class StandardHttpPipeline implements HttpHandler {
 
             requestTracker.markRequestAsSent(request);
 
-            return new Eventual<>(new SingleSubscriptionPublisher(client.handle(request, this.context)));
+            return new Eventual<>(new SingleSubscriptionPublisher(pipeline.handler.handle(request, this.context)));
         }
 
         @Override
         public String toString() {
-            return "HttpInterceptorChain[" + interceptors + ']';
+            return "HttpInterceptorChain[" + pipeline.interceptors + ']';
+        }
+    }
+
+    private interface Stage {
+        Eventual<LiveHttpResponse> apply(LiveHttpRequest request, HttpInterceptorChain next);
+    }
+
+    private static final class InterceptorStage implements Stage {
+        private final HttpInterceptor interceptor;
+
+        InterceptorStage(HttpInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public Eventual<LiveHttpResponse> apply(LiveHttpRequest request, HttpInterceptorChain next) {
+            return interceptor.intercept(request, next);
+        }
+    }
+
+    private static final class SynchronousStage implements Stage {
+        private final SynchronousHttpInterceptor[] interceptors;
+
+        SynchronousStage(List<SynchronousHttpInterceptor> interceptors) {
+            this.interceptors = interceptors.toArray(new SynchronousHttpInterceptor[0]);
+        }
+
+        @Override
+        public Eventual<LiveHttpResponse> apply(LiveHttpRequest request, HttpInterceptorChain next) {
+            HttpInterceptor.Context context = next.context();
+            RequestTracker requestTracker = next.pipeline.requestTracker;
+
+            LiveHttpRequest[] requests = new LiveHttpRequest[interceptors.length];
+            LiveHttpRequest current = request;
+            for (int i = 0; i < interceptors.length; i++) {
+                current = interceptors[i].onRequest(current, context);
+                requests[i] = current;
+                requestTracker.trackRequest(current);
+            }
+
+            return next.proceed(current).map(response -> {
+                LiveHttpResponse result = response;
+                for (int i = interceptors.length - 1; i >= 0; i--) {
+                    result = interceptors[i].onResponse(requests[i], result, context);
+                }
+                return result;
+            });
         }
     }
 
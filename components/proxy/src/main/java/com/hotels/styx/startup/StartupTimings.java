@@ -0,0 +1,187 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.startup;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Records how long each startup phase takes, and how long each component (a plugin, routing object,
+ * provider or server) takes within its phase.
+ * <p>
+ * Phases may overlap, so each phase also records when it started relative to the first recording.
+ * The timings are exposed through the admin interface, and as {@code styx.startup.phase} and
+ * {@code styx.startup.component} timers when a meter registry is given.
+ */
+public final class StartupTimings {
+    static final String PHASE_TIMER_NAME = "styx.startup.phase";
+    static final String COMPONENT_TIMER_NAME = "styx.startup.component";
+
+    private final Optional<MeterRegistry> registry;
+    private final long createdNanos = System.nanoTime();
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    public StartupTimings(MeterRegistry registry) {
+        this.registry = Optional.of(registry);
+    }
+
+    public StartupTimings() {
+        this.registry = Optional.empty();
+    }
+
+    /**
+     * Runs a startup phase on the calling thread, and records its duration.
+     *
+     * @param phase phase name
+     * @param action phase body
+     * @param <T> result type
+     * @return the result of {@code action}
+     */
+    public <T> T time(String phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(phase, start, System.nanoTime());
+        }
+    }
+
+    /**
+     * Runs the startup of one component, and records its duration under its phase.
+     *
+     * @param phase phase name
+     * @param component component name
+     * @param action component startup
+     * @param <T> result type
+     * @return the result of {@code action}
+     */
+    public <T> T timeComponent(String phase, String component, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            recordComponent(phase, component, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a startup phase that has just completed.
+     *
+     * @param phase phase name
+     * @param duration phase duration
+     */
+    public void record(String phase, Duration duration) {
+        long end = System.nanoTime();
+        record(phase, end - duration.toNanos(), end);
+    }
+
+    /**
+     * Returns the recorded phases in the order they were first recorded.
+     *
+     * @return phases
+     */
+    public synchronized List<Phase> phases() {
+        return phases.values().stream()
+                .map(Phase::copy)
+                .collect(toList());
+    }
+
+    private synchronized void record(String name, long startNanos, long endNanos) {
+        Phase phase = phases.computeIfAbsent(name, Phase::new);
+        phase.startMillis = Duration.ofNanos(startNanos - createdNanos).toMillis();
+        phase.durationMillis = Duration.ofNanos(endNanos - startNanos).toMillis();
+
+        registry.ifPresent(it -> it.timer(PHASE_TIMER_NAME, Tags.of("phase", name)).record(Duration.ofNanos(endNanos - startNanos)));
+    }
+
+    private synchronized void recordComponent(String name, String component, long nanos) {
+        phases.computeIfAbsent(name, Phase::new).components.put(component, Duration.ofNanos(nanos).toMillis());
+
+        registry.ifPresent(it -> Timer.builder(COMPONENT_TIMER_NAME)
+                .tags("phase", name, "component", component)
+                .register(it)
+                .record(Duration.ofNanos(nanos)));
+    }
+
+    /**
+     * Timing of a single startup phase.
+     */
+    public static final class Phase {
+        private final String name;
+        private final Map<String, Long> components = new LinkedHashMap<>();
+        private long startMillis;
+        private long durationMillis;
+
+        private Phase(String name) {
+            this.name = requireNonNull(name);
+        }
+
+        @JsonProperty("name")
+        public String name() {
+            return name;
+        }
+
+        @JsonProperty("startMillis")
+        public long startMillis() {
+            return startMillis;
+        }
+
+        @JsonProperty("durationMillis")
+        public long durationMillis() {
+            return durationMillis;
+        }
+
+        @JsonProperty("components")
+        public Map<String, Long> components() {
+            return unmodifiableMap(components);
+        }
+
+        private Phase copy() {
+            Phase copy = new Phase(name);
+            copy.startMillis = startMillis;
+            copy.durationMillis = durationMillis;
+            copy.components.putAll(components);
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return new StringBuilder(64)
+                    .append("name=")
+                    .append(name)
+                    .append(", startMillis=")
+                    .append(startMillis)
+                    .append(", durationMillis=")
+                    .append(durationMillis)
+                    .append(", components=")
+                    .append(components)
+                    .toString();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -20,7 +20,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.eventbus.AsyncEventBus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hotels.styx.Environment;
 import com.hotels.styx.InetServer;
 import com.hotels.styx.NettyExecutor;
@@ -31,25 +31,40 @@ import com.hotels.styx.Version;
 import com.hotels.styx.api.configuration.Configuration;
 import com.hotels.styx.api.extension.service.spi.StyxService;
 import com.hotels.styx.api.plugins.spi.Plugin;
+import com.hotels.styx.client.OriginEventRouter;
 import com.hotels.styx.common.format.SanitisedHttpHeaderFormatter;
 import com.hotels.styx.common.format.SanitisedHttpMessageFormatter;
+import com.hotels.styx.executors.EventLoopMonitor;
 import com.hotels.styx.executors.NettyExecutorConfig;
 import com.hotels.styx.infrastructure.configuration.yaml.JsonNodeConfig;
 import com.hotels.styx.proxy.plugin.InstrumentedPlugin;
 import com.hotels.styx.proxy.plugin.NamedPlugin;
 import com.hotels.styx.routing.RoutingObjectRecord;
+import com.hotels.styx.routing.buffering.ResponseBufferMetrics;
+import com.hotels.styx.routing.buffering.SpillBudget;
 import com.hotels.styx.routing.config.Builtins;
 import com.hotels.styx.routing.config.RoutingObjectFactory;
 import com.hotels.styx.routing.config.StyxObjectDefinition;
+import com.hotels.styx.routing.db.RoutingDatabaseSnapshots;
 import com.hotels.styx.routing.db.StyxObjectStore;
 import com.hotels.styx.routing.handlers.RouteRefLookup.RouteDbRefLookup;
 import com.hotels.styx.startup.extensions.ConfiguredPluginFactory;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiConsumer;
 
 import static com.hotels.styx.StartupConfig.newStartupConfigBuilder;
 import static com.hotels.styx.Version.readVersionFrom;
@@ -62,10 +77,16 @@ import static com.hotels.styx.routing.config.Builtins.INTERCEPTOR_FACTORIES;
 import static com.hotels.styx.startup.ServicesLoader.SERVICES_FROM_CONFIG;
 import static com.hotels.styx.startup.StyxServerComponents.LoggingSetUp.DO_NOT_MODIFY;
 import static com.hotels.styx.startup.extensions.PluginLoadingForStartup.loadPlugins;
+import static java.lang.Runtime.getRuntime;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -77,6 +98,13 @@ public class StyxServerComponents {
     private static final String GLOBAL_SERVER_BOSS_NAME = "StyxHttpServer-Global-Boss";
     private static final String GLOBAL_SERVER_WORKER_NAME = "StyxHttpServer-Global-Worker";
     private static final String GLOBAL_CLIENT_WORKER_NAME = "Styx-Client-Global-Worker";
+    private static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_SNAPSHOT_MAX_AGE = Duration.ofHours(1);
+    private static final long STARTUP_THREAD_KEEP_ALIVE_SECONDS = 10;
+    private static final Duration DEFAULT_EVENT_LOOP_PROBE_INTERVAL = Duration.ofMillis(100);
+    private static final Duration DEFAULT_EVENT_LOOP_BLOCKED_THRESHOLD = Duration.ofMillis(500);
+    private static final Duration DEFAULT_EVENT_LOOP_REPORT_INTERVAL = Duration.ofMinutes(1);
+    private static final int DEFAULT_SPILL_BUDGET_MEGABYTES = 1024;
 
     private final Environment environment;
     private final Map<String, StyxService> services;
@@ -88,6 +116,10 @@ public class StyxServerComponents {
     private final RoutingObjectFactory.Context routingObjectContext;
     private final StartupConfig startupConfig;
     private final NettyExecutor executor;
+    private final Optional<RoutingDatabaseSnapshots> routeDatabaseSnapshots;
+    private final Optional<EventLoopMonitor> eventLoopMonitor;
+    private final ExecutorService startupExecutor;
+    private final StartupTimings startupTimings;
     private final boolean showBanner;
 
     // CHECKSTYLE:OFF
@@ -104,7 +136,92 @@ public class StyxServerComponents {
         builder.loggingSetUp.setUp(environment);
 
         this.executor = NettyExecutor.create("Styx-Client-Worker", environment.configuration().proxyServerConfig().clientWorkerThreadsCount());
+        this.startupExecutor = startupExecutor(styxConfig);
+        this.startupTimings = new StartupTimings(environment.meterRegistry());
+        this.eventLoopMonitor = eventLoopMonitor(styxConfig, environment.meterRegistry());
+
+        startupTimings.time("executors", () -> {
+            loadExecutors();
+            return null;
+        });
+
+        this.eventLoopMonitor.ifPresent(monitor -> {
+            executorObjectStore.entrySet().forEach(entry -> monitor.monitor(entry.getKey(), entry.getValue().getStyxService().eventLoopGroup()));
+            monitor.monitor("Styx-Client-Worker", executor.eventLoopGroup());
+        });
+
+        // Services and plugins do not depend on each other. Load them at the same time:
+        CompletableFuture<Map<String, StyxService>> servicesLoading = supplyAsync(() -> startupTimings.time("services", () -> mergeServices(
+                builder.servicesLoader.load(environment, routeObjectStore),
+                builder.additionalServices
+        )), startupExecutor);
+
+        // TODO In further refactoring, we will probably want this loading to happen outside of this constructor call,
+        //  so that it doesn't delay the admin server from starting up
+        try {
+            this.plugins = startupTimings.time("plugins", () -> (builder.configuredPluginFactories.isEmpty()
+                    ? loadPlugins(environment, startupExecutor, startupTimings)
+                    : loadPlugins(environment, builder.configuredPluginFactories, startupExecutor, startupTimings)).stream().map(
+                            it -> new InstrumentedPlugin(it, environment)
+            ).collect(toList()));
+        } catch (RuntimeException e) {
+            // Report a failure to load services first, as the serial startup did:
+            join(servicesLoading);
+            throw e;
+        }
+        this.services = join(servicesLoading);
+
+        this.plugins.forEach(plugin -> this.environment.plugins().add(plugin));
 
+        this.routingObjectContext = new RoutingObjectFactory.Context(
+                new RouteDbRefLookup(this.routeObjectStore),
+                environment,
+                routeObjectStore,
+                routingObjectFactories,
+                plugins,
+                INTERCEPTOR_FACTORIES,
+                false,
+                executorObjectStore,
+                spillBudget(styxConfig, environment.meterRegistry()));
+
+        // Routing objects, providers and servers look each other up by name only when they are used.
+        // Therefore they can all be built at the same time:
+        CompletableFuture<Void> routingObjects = buildAll("routingObjects", "routingObjects", (name, definition) ->
+                routeObjectStore.insert(name, RoutingObjectRecord.Companion.create(
+                        definition.type(),
+                        ImmutableSet.copyOf(definition.tags()),
+                        definition.config(),
+                        Builtins.build(ImmutableList.of(name), routingObjectContext, definition))
+                ).ifPresent(previous -> previous.getRoutingObject().stop()));
+
+        CompletableFuture<Void> providers = buildAll("providers", "providers", (name, definition) -> {
+            LOGGER.warn("Loading provider: " + name + ": " + definition);
+            StyxService provider = Builtins.build(name, definition, providerObjectStore, BUILTIN_SERVICE_PROVIDER_FACTORIES, routingObjectContext);
+            StyxObjectRecord<StyxService> record = new StyxObjectRecord<>(definition.type(), ImmutableSet.copyOf(definition.tags()), definition.config(), provider);
+            providerObjectStore.insert(name, record);
+        });
+
+        CompletableFuture<Void> servers = buildAll("servers", "servers", (name, definition) -> {
+            LOGGER.warn("Loading styx server: " + name + ": " + definition);
+            InetServer provider = Builtins.buildServer(name, definition, serverObjectStore, BUILTIN_SERVER_FACTORIES, routingObjectContext);
+            StyxObjectRecord<InetServer> record = new StyxObjectRecord<>(definition.type(), ImmutableSet.copyOf(definition.tags()), definition.config(), provider);
+            serverObjectStore.insert(name, record);
+        });
+
+        join(routingObjects);
+        join(providers);
+        join(servers);
+
+        this.routeDatabaseSnapshots = routeDatabaseSnapshots(styxConfig, routeObjectStore);
+        this.routeDatabaseSnapshots.ifPresent(snapshots -> startupTimings.time("routingDatabaseSnapshot", () -> snapshots.restore(
+                providerObjectStore.entrySet().stream().map(Map.Entry::getKey).collect(toSet()),
+                routingObjectContext)));
+
+        this.showBanner = builder.showBanner;
+    }
+    // CHECKSTYLE:ON
+
+    private void loadExecutors() {
         // Overwrite any existing or user-supplied values:
         executorObjectStore.insert(GLOBAL_SERVER_BOSS_NAME, new StyxObjectRecord<>(
                 NETTY_EXECUTOR,
@@ -137,67 +254,87 @@ public class StyxServerComponents {
                     StyxObjectRecord<NettyExecutor> record = new StyxObjectRecord<>(definition.type(), ImmutableSet.copyOf(definition.tags()), definition.config(), executor);
                     executorObjectStore.insert(name, record);
                 });
+    }
 
-        this.services = mergeServices(
-                builder.servicesLoader.load(environment, routeObjectStore),
-                builder.additionalServices
-        );
-
-        // TODO In further refactoring, we will probably want this loading to happen outside of this constructor call,
-        //  so that it doesn't delay the admin server from starting up
-        this.plugins = (builder.configuredPluginFactories.isEmpty()
-                ? loadPlugins(environment)
-                : loadPlugins(environment, builder.configuredPluginFactories)).stream().map(
-                        it -> new InstrumentedPlugin(it, environment)
-        ).collect(toList());
-
-        this.plugins.forEach(plugin -> this.environment.plugins().add(plugin));
-
-        this.routingObjectContext = new RoutingObjectFactory.Context(
-                new RouteDbRefLookup(this.routeObjectStore),
-                environment,
-                routeObjectStore,
-                routingObjectFactories,
-                plugins,
-                INTERCEPTOR_FACTORIES,
-                false,
-                executorObjectStore);
+    /*
+     * Builds the components configured under `configKey` concurrently on the startup executor.
+     * The returned future fails with the first failure in configuration order.
+     */
+    private CompletableFuture<Void> buildAll(String phase, String configKey, BiConsumer<String, StyxObjectDefinition> build) {
+        long start = System.nanoTime();
 
-        this.environment.configuration().get("routingObjects", JsonNode.class)
+        List<CompletableFuture<Void>> builds = environment.configuration().get(configKey, JsonNode.class)
                 .map(StyxServerComponents::readComponents)
                 .orElse(ImmutableMap.of())
-                .forEach((name, definition) -> {
-                    routeObjectStore.insert(name, RoutingObjectRecord.Companion.create(
-                            definition.type(),
-                            ImmutableSet.copyOf(definition.tags()),
-                            definition.config(),
-                            Builtins.build(ImmutableList.of(name), routingObjectContext, definition))
-                    ).ifPresent(previous -> previous.getRoutingObject().stop());
+                .entrySet()
+                .stream()
+                .map(entry -> runAsync(() -> startupTimings.timeComponent(phase, entry.getKey(), () -> {
+                    build.accept(entry.getKey(), entry.getValue());
+                    return null;
+                }), startupExecutor))
+                .collect(toList());
+
+        return allOf(builds.toArray(new CompletableFuture[0]))
+                .handle((ignore, cause) -> {
+                    startupTimings.record(phase, Duration.ofNanos(System.nanoTime() - start));
+                    builds.forEach(CompletableFuture::join);
+                    return null;
                 });
+    }
 
-        this.environment.configuration().get("providers", JsonNode.class)
-                .map(StyxServerComponents::readComponents)
-                .orElse(ImmutableMap.of())
-                .forEach((name, definition) -> {
-                    LOGGER.warn("Loading provider: " + name + ": " + definition);
-                    StyxService provider = Builtins.build(name, definition, providerObjectStore, BUILTIN_SERVICE_PROVIDER_FACTORIES, routingObjectContext);
-                    StyxObjectRecord<StyxService> record = new StyxObjectRecord<>(definition.type(), ImmutableSet.copyOf(definition.tags()), definition.config(), provider);
-                    providerObjectStore.insert(name, record);
-                });
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
 
-        this.environment.configuration().get("servers", JsonNode.class)
-                .map(StyxServerComponents::readComponents)
-                .orElse(ImmutableMap.of())
-                .forEach((name, definition) -> {
-                    LOGGER.warn("Loading styx server: " + name + ": " + definition);
-                    InetServer provider = Builtins.buildServer(name, definition, serverObjectStore, BUILTIN_SERVER_FACTORIES, routingObjectContext);
-                    StyxObjectRecord<InetServer> record = new StyxObjectRecord<>(definition.type(), ImmutableSet.copyOf(definition.tags()), definition.config(), provider);
-                    serverObjectStore.insert(name, record);
-                });
+    private static ExecutorService startupExecutor(StyxConfig config) {
+        int parallelism = Math.max(1, config.get("startup.parallelism", Integer.class).orElse(getRuntime().availableProcessors()));
 
-        this.showBanner = builder.showBanner;
+        // Idle threads time out, so that the executor does not need to be shut down after startup:
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, STARTUP_THREAD_KEEP_ALIVE_SECONDS, SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("Styx-Startup-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static Optional<RoutingDatabaseSnapshots> routeDatabaseSnapshots(StyxConfig config, StyxObjectStore<RoutingObjectRecord> routeDb) {
+        return config.get("routingDatabaseSnapshot.path", String.class)
+                .map(path -> new RoutingDatabaseSnapshots(
+                        Paths.get(path),
+                        config.get("routingDatabaseSnapshot.interval", String.class).map(Duration::parse).orElse(DEFAULT_SNAPSHOT_INTERVAL),
+                        config.get("routingDatabaseSnapshot.maxAge", String.class).map(Duration::parse).orElse(DEFAULT_SNAPSHOT_MAX_AGE),
+                        routeDb));
+    }
+
+    private static Optional<EventLoopMonitor> eventLoopMonitor(StyxConfig config, MeterRegistry meterRegistry) {
+        if (!config.get("eventLoopMonitor.enabled", Boolean.class).orElse(true)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new EventLoopMonitor(
+                meterRegistry,
+                config.get("eventLoopMonitor.probeInterval", String.class).map(Duration::parse).orElse(DEFAULT_EVENT_LOOP_PROBE_INTERVAL),
+                config.get("eventLoopMonitor.blockedThreshold", String.class).map(Duration::parse).orElse(DEFAULT_EVENT_LOOP_BLOCKED_THRESHOLD),
+                config.get("eventLoopMonitor.reportInterval", String.class).map(Duration::parse).orElse(DEFAULT_EVENT_LOOP_REPORT_INTERVAL)));
+    }
+
+    private static SpillBudget spillBudget(StyxConfig config, MeterRegistry meterRegistry) {
+        // One budget for all ResponseBuffer routing objects, so that it limits the disk use of the server:
+        SpillBudget budget = new SpillBudget(config.get("responseBuffer.spillBudgetMegabytes", Integer.class)
+                .orElse(DEFAULT_SPILL_BUDGET_MEGABYTES) * 1024L * 1024L);
+        ResponseBufferMetrics.registerSpillUsage(meterRegistry, budget);
+        return budget;
     }
-    // CHECKSTYLE:ON
 
     private static Map<String, StyxObjectDefinition> readComponents(JsonNode root) {
         Map<String, StyxObjectDefinition> handlers = new HashMap<>();
@@ -245,6 +382,22 @@ public class StyxServerComponents {
         return this.serverObjectStore;
     }
 
+    public Executor startupExecutor() {
+        return startupExecutor;
+    }
+
+    public StartupTimings startupTimings() {
+        return startupTimings;
+    }
+
+    public Optional<RoutingDatabaseSnapshots> routeDatabaseSnapshots() {
+        return routeDatabaseSnapshots;
+    }
+
+    public Optional<EventLoopMonitor> eventLoopMonitor() {
+        return eventLoopMonitor;
+    }
+
     public RoutingObjectFactory.Context routingObjectFactoryContext() {
         return this.routingObjectContext;
     }
@@ -270,7 +423,8 @@ public class StyxServerComponents {
                 .configuration(config)
                 .registry(registry)
                 .buildInfo(readBuildInfo())
-                .eventBus(new AsyncEventBus("styx", newSingleThreadExecutor()))
+                .originEventRouter(new OriginEventRouter(newSingleThreadExecutor(
+                        new ThreadFactoryBuilder().setNameFormat("Styx-OriginEvents").setDaemon(true).build())))
                 .httpMessageFormatter(sanitisedHttpMessageFormatter)
                 .build();
     }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -27,10 +27,13 @@ import com.hotels.styx.proxy.plugin.FileSystemPluginFactoryLoader;
 import com.hotels.styx.proxy.plugin.NamedPlugin;
 import com.hotels.styx.proxy.plugin.PluginsMetadata;
 import com.hotels.styx.spi.config.SpiExtension;
+import com.hotels.styx.startup.StartupTimings;
 import org.slf4j.Logger;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.hotels.styx.api.Metrics.name;
 import static com.hotels.styx.proxy.plugin.NamedPlugin.namedPlugin;
 import static com.hotels.styx.startup.extensions.FailureHandling.PLUGIN_FACTORY_LOADING_FAILURE_HANDLING_STRATEGY;
@@ -43,6 +46,7 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 public final class PluginLoadingForStartup {
     private static final String DEFAULT_PLUGINS_METRICS_SCOPE = "styx.plugins";
+    private static final String STARTUP_PHASE = "plugins";
 
     private static final Logger LOGGER = getLogger(PluginLoadingForStartup.class);
 
@@ -57,16 +61,33 @@ public final class PluginLoadingForStartup {
      * @return plugins
      */
     public static List<NamedPlugin> loadPlugins(Environment environment, List<ConfiguredPluginFactory> factories) {
-        return loadPluginsFromFactories(environment, factories);
+        return loadPlugins(environment, factories, directExecutor(), new StartupTimings());
     }
 
     public static List<NamedPlugin> loadPlugins(Environment environment) {
-        List<ConfiguredPluginFactory> activePlugins = loadFactoriesFromConfig(environment);
+        return loadPlugins(environment, directExecutor(), new StartupTimings());
+    }
+
+    /**
+     * Load plugins concurrently. The plugins are returned in their configured order.
+     *
+     * @param environment environment
+     * @param factories   plugin factories
+     * @param executor    executor to instantiate the plugins on
+     * @param timings     records how long each plugin takes to instantiate
+     * @return plugins
+     */
+    public static List<NamedPlugin> loadPlugins(Environment environment, List<ConfiguredPluginFactory> factories, Executor executor, StartupTimings timings) {
+        return loadPluginsFromFactories(environment, factories, executor, timings);
+    }
+
+    public static List<NamedPlugin> loadPlugins(Environment environment, Executor executor, StartupTimings timings) {
+        List<ConfiguredPluginFactory> activePlugins = loadFactoriesFromConfig(environment, executor);
 
-        return loadPluginsFromFactories(environment, activePlugins);
+        return loadPluginsFromFactories(environment, activePlugins, executor, timings);
     }
 
-    private static List<ConfiguredPluginFactory> loadFactoriesFromConfig(Environment environment) {
+    private static List<ConfiguredPluginFactory> loadFactoriesFromConfig(Environment environment, Executor executor) {
         return environment.configuration().get("plugins", PluginsMetadata.class)
                 .map(plugins -> {
                     if (environment.configuration().get("httpPipeline", JsonNode.class).isPresent()) {
@@ -75,7 +96,7 @@ public final class PluginLoadingForStartup {
                         return plugins.activePlugins();
                     }
                 })
-                .map(inputs -> PLUGIN_FACTORY_LOADING_FAILURE_HANDLING_STRATEGY.process(inputs, PluginLoadingForStartup::loadPluginFactory))
+                .map(inputs -> PLUGIN_FACTORY_LOADING_FAILURE_HANDLING_STRATEGY.process(inputs, PluginLoadingForStartup::loadPluginFactory, executor))
                 .orElse(emptyList());
     }
 
@@ -88,15 +109,16 @@ public final class PluginLoadingForStartup {
         return new ConfiguredPluginFactory(pluginName, factory, spiExtension::config);
     }
 
-    private static List<NamedPlugin> loadPluginsFromFactories(Environment environment, List<ConfiguredPluginFactory> factories) {
-        return PLUGIN_STARTUP_FAILURE_HANDLING_STRATEGY.process(factories, factory -> {
+    private static List<NamedPlugin> loadPluginsFromFactories(Environment environment, List<ConfiguredPluginFactory> factories,
+                                                              Executor executor, StartupTimings timings) {
+        return PLUGIN_STARTUP_FAILURE_HANDLING_STRATEGY.process(factories, factory -> timings.timeComponent(STARTUP_PHASE, factory.name(), () -> {
 
             LOGGER.info("Instantiating Plugin, pluginName={}...", factory.name());
             NamedPlugin plugin = loadPlugin(environment, factory);
 
             LOGGER.info("Instantiated Plugin, pluginName={}", factory.name());
             return plugin;
-        });
+        }), executor);
     }
 
     private static NamedPlugin loadPlugin(Environment environment, ConfiguredPluginFactory factory) {
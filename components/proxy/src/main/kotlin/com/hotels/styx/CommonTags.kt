@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -119,3 +119,12 @@ class SafeValueTag<T>(
                 "$name=$it"
             }
 }
+
+/**
+ * An object that carries a set of tag strings.
+ *
+ * `StyxObjectStore` indexes the tags of its objects when they implement this interface.
+ */
+interface Tagged {
+    val tags: Set<String>
+}
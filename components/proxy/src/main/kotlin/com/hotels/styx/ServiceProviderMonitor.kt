@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -25,9 +25,19 @@ import com.hotels.styx.api.extension.service.spi.StyxService
 import com.hotels.styx.routing.db.StyxObjectStore
 import org.slf4j.LoggerFactory.getLogger
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 import java.util.concurrent.atomic.AtomicReference
 
-internal class ServiceProviderMonitor<T : StyxObjectRecord<out StyxService>>(name: String, val servicesDatabase: StyxObjectStore<T>)
+/**
+ * Starts and stops the services in a services database.
+ *
+ * When `startExecutor` is given, each service is started on it, so that services that
+ * block in their start method start concurrently.
+ */
+internal class ServiceProviderMonitor<T : StyxObjectRecord<out StyxService>> @JvmOverloads constructor(
+        name: String,
+        val servicesDatabase: StyxObjectStore<T>,
+        private val startExecutor: Executor? = null)
     : AbstractStyxService(name) {
 
     companion object {
@@ -44,7 +54,11 @@ internal class ServiceProviderMonitor<T : StyxObjectRecord<out StyxService>>(nam
                 .map { it.key to it.value }
                 .toMap())
 
-        manager.set(ServiceManager(services.get().values.map { toGuavaService(it.styxService) }))
+        manager.set(ServiceManager(services.get().values.map { record ->
+            startExecutor
+                    ?.let { toGuavaService(record.styxService, it) }
+                    ?: toGuavaService(record.styxService)
+        }))
         manager.get().addListener(object : Listener() {
             override fun healthy() {
                 future.complete(null);
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -23,9 +23,9 @@ import com.hotels.styx.api.extension.service.spi.StyxService
  */
 data class StyxObjectRecord<T>(
         val type: String,
-        val tags: Set<String>,
+        override val tags: Set<String>,
         val config: JsonNode,
-        val styxService: T)
+        val styxService: T) : Tagged
 
 internal typealias ProviderObjectRecord = StyxObjectRecord<StyxService>
 
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.hotels.styx.routing
 
 import com.fasterxml.jackson.databind.JsonNode
+import com.hotels.styx.Tagged
 import java.time.LocalDateTime
 import java.time.format.DateTimeFormatter.ISO_DATE_TIME
 
@@ -24,9 +25,9 @@ import java.time.format.DateTimeFormatter.ISO_DATE_TIME
  */
 internal data class RoutingObjectRecord(
         val type: String,
-        val tags: Set<String>,
+        override val tags: Set<String>,
         val config: JsonNode,
-        val routingObject: RoutingMetadataDecorator) {
+        val routingObject: RoutingMetadataDecorator) : Tagged {
     companion object {
         fun create(type: String, tags: Set<String>, config: JsonNode, routingObject: RoutingObject) = RoutingObjectRecord(
                 type,
@@ -0,0 +1,73 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.db
+
+import com.hotels.styx.api.configuration.ObjectStore
+
+/**
+ * Changes to the objects with a given tag, between two versions of an object store.
+ *
+ * `added` and `updated` contain the new objects, and `removed` contains the objects
+ * as they were before removal. An object that loses the tag is reported as removed,
+ * and an object that gains it is reported as added.
+ *
+ * @property snapshot the object store version these changes lead to
+ * @property added objects that were added
+ * @property updated objects that were replaced
+ * @property removed objects that were removed
+ */
+class ChangeSet<T> internal constructor(
+        val snapshot: ObjectStore<T>,
+        val added: Map<String, T>,
+        val updated: Map<String, T>,
+        val removed: Map<String, T>) {
+
+    fun isEmpty() = added.isEmpty() && updated.isEmpty() && removed.isEmpty()
+
+    override fun toString() = "ChangeSet(index=${snapshot.index()}, added=${added.keys}, updated=${updated.keys}, removed=${removed.keys})"
+}
+
+/**
+ * Computes the changes to objects tagged with `tag`. Only objects with the tag in
+ * either version are visited.
+ */
+internal fun <T> changes(previous: IndexedSnapshot<T>, current: IndexedSnapshot<T>, tag: String): ChangeSet<T> {
+    val before = previous.keysWithTag(tag)
+    val after = current.keysWithTag(tag)
+
+    val added = LinkedHashMap<String, T>()
+    val updated = LinkedHashMap<String, T>()
+    val removed = LinkedHashMap<String, T>()
+
+    after.forEach { key ->
+        val value = current.snapshot[key]!!
+        val previousValue = previous.snapshot[key]
+
+        if (key !in before) {
+            added[key] = value
+        } else if (value !== previousValue) {
+            updated[key] = value
+        }
+    }
+
+    before.forEach { key ->
+        if (key !in after) {
+            removed[key] = previous.snapshot[key]!!
+        }
+    }
+
+    return ChangeSet(objectStore(current), added, updated, removed)
+}
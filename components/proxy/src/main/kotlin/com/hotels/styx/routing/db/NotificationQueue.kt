@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,10 +15,12 @@
  */
 package com.hotels.styx.routing.db
 
+import com.hotels.styx.Tagged
 import com.hotels.styx.api.configuration.ObjectStore
 import org.pcollections.HashTreePMap
+import org.pcollections.HashTreePSet
 import org.pcollections.PMap
-import reactor.core.publisher.FluxSink
+import org.pcollections.PSet
 import java.util.Optional
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CopyOnWriteArrayList
@@ -28,11 +30,17 @@ import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
 
 
+/**
+ * Dispatches object store snapshots to watchers on the executor.
+ *
+ * Changes published while a notification is queued are coalesced: the queued
+ * notification delivers the most recent snapshot only.
+ */
 internal class NotificationQueue<T>(val watchers: CopyOnWriteArrayList<ChangeWatcher<T>>, val executor: ExecutorService) {
     @Volatile
-    private var pendingSnapshot = IndexedSnapshot<T>(0, HashTreePMap.empty())
+    private var pendingSnapshot = IndexedSnapshot.empty<T>()
     @Volatile
-    private var issuedSnapshot = IndexedSnapshot<T>(0, HashTreePMap.empty())
+    private var issuedSnapshot = IndexedSnapshot.empty<T>()
     private val pendingChangeNotification = AtomicBoolean(false)
     private val lock = ReentrantLock()
 
@@ -63,13 +71,15 @@ internal class NotificationQueue<T>(val watchers: CopyOnWriteArrayList<ChangeWat
                     issuedSnapshot = pendingSnapshot
                 }
 
+                val issued = issuedSnapshot
+
                 watchers.forEach {
-                    it.invoke(newSnapshot(issuedSnapshot))
+                    it.invoke(issued)
                 }
 
                 listeners.forEach {
                     it.value.invoke(ChangeNotification(
-                            newSnapshot(issuedSnapshot),
+                            objectStore(issued),
                             pendingChangeNotification.get()
                     ))
                 }
@@ -77,12 +87,13 @@ internal class NotificationQueue<T>(val watchers: CopyOnWriteArrayList<ChangeWat
         }
     }
 
-    fun publishInitialWatch(sink: FluxSink<ObjectStore<T>>) {
+    fun publishInitialWatch(watcher: ChangeWatcher<T>) {
         executor.submit {
-            sink.next(newSnapshot(issuedSnapshot))
+            val issued = issuedSnapshot
+            watcher.invoke(issued)
             listeners.forEach {
                 it.value.invoke(InitialWatchNotification(
-                        newSnapshot(issuedSnapshot),
+                        objectStore(issued),
                         pendingChangeNotification.get()
                 ))
             }
@@ -96,25 +107,66 @@ internal class NotificationQueue<T>(val watchers: CopyOnWriteArrayList<ChangeWat
     internal fun removeDispatchListener(key: String) {
         listeners.remove(key)
     }
+}
 
-    private fun newSnapshot(snapshot: IndexedSnapshot<T>) = object : ObjectStore<T> {
-        override fun get(key: String?): Optional<T> {
-            return Optional.ofNullable(snapshot.snapshot[key])
-        }
+internal fun <T> objectStore(snapshot: IndexedSnapshot<T>) = object : ObjectStore<T> {
+    override fun get(key: String?): Optional<T> {
+        return Optional.ofNullable(snapshot.snapshot[key])
+    }
 
-        override fun entrySet(): Collection<Map.Entry<String, T>> = entrySet(snapshot.snapshot)
+    override fun entrySet(): Collection<Map.Entry<String, T>> = entrySet(snapshot.snapshot)
 
-        override fun index() = snapshot.index
-    }
+    override fun index() = snapshot.index
 }
 
 internal fun <T> entrySet(snapshot: PMap<String, T>): Collection<Map.Entry<String, T>> = snapshot.entries
 
-internal data class IndexedSnapshot<T>(val index: Long, val snapshot: PMap<String, T>) {
-    fun map(modification: (PMap<String, T>) -> PMap<String, T>) = IndexedSnapshot(this.index + 1, modification(this.snapshot))
+/**
+ * An immutable version of the object store contents.
+ *
+ * `tagIndex` maps each tag to the names of the objects that carry it. It is
+ * maintained incrementally for objects that implement `Tagged`.
+ */
+internal data class IndexedSnapshot<T>(
+        val index: Long,
+        val snapshot: PMap<String, T>,
+        val tagIndex: PMap<String, PSet<String>> = HashTreePMap.empty()) {
+
+    fun plus(key: String, value: T) = IndexedSnapshot(
+            index + 1,
+            snapshot.plus(key, value),
+            reindex(key, tagsOf(snapshot[key]), tagsOf(value)))
+
+    fun minus(key: String) = IndexedSnapshot(
+            index + 1,
+            snapshot.minus(key),
+            reindex(key, tagsOf(snapshot[key]), emptySet()))
+
+    fun keysWithTag(tag: String): Set<String> = tagIndex[tag] ?: emptySet()
+
+    private fun reindex(key: String, oldTags: Set<String>, newTags: Set<String>): PMap<String, PSet<String>> {
+        var result = tagIndex
+
+        (oldTags - newTags).forEach { tag ->
+            val keys = result[tag]?.minus(key)
+            result = if (keys == null || keys.isEmpty()) result.minus(tag) else result.plus(tag, keys)
+        }
+
+        (newTags - oldTags).forEach { tag ->
+            result = result.plus(tag, (result[tag] ?: HashTreePSet.empty()).plus(key))
+        }
+
+        return result
+    }
+
+    companion object {
+        fun <T> empty() = IndexedSnapshot<T>(0, HashTreePMap.empty())
+
+        private fun tagsOf(value: Any?) = (value as? Tagged)?.tags ?: emptySet()
+    }
 }
 
-internal typealias ChangeWatcher<T> = (ObjectStore<T>) -> Unit
+internal typealias ChangeWatcher<T> = (IndexedSnapshot<T>) -> Unit
 
 internal typealias DispatchListener<T> = (DispatchListenerNotification<T>) -> Unit
 
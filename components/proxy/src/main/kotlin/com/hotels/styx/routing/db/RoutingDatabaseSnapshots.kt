@@ -0,0 +1,174 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.db
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import com.hotels.styx.api.extension.service.spi.AbstractStyxService
+import com.hotels.styx.routing.RoutingObjectRecord
+import com.hotels.styx.routing.config.Builtins
+import com.hotels.styx.routing.config.RoutingObjectFactory
+import com.hotels.styx.routing.config.StyxObjectDefinition
+import com.hotels.styx.sourceTag
+import org.slf4j.LoggerFactory
+import java.nio.file.Files
+import java.nio.file.NoSuchFileException
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption.ATOMIC_MOVE
+import java.nio.file.StandardCopyOption.REPLACE_EXISTING
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors.newSingleThreadScheduledExecutor
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit.MILLISECONDS
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Persists the provider-owned routing objects, together with their tags, to a local file.
+ *
+ * The tags carry the last-known health state of each origin. On the next start the objects
+ * are restored from the snapshot before any provider runs, so that Styx can serve traffic
+ * without waiting for the health checks. Each provider then reconciles its objects
+ * against the authoritative configuration: unchanged objects are kept, changed objects
+ * are rebuilt and removed objects are deleted.
+ *
+ * The file is rewritten every `interval`, but only when the route database has changed.
+ */
+internal class RoutingDatabaseSnapshots(
+        private val path: Path,
+        private val interval: Duration,
+        private val maxAge: Duration,
+        private val routeDb: StyxObjectStore<RoutingObjectRecord>) : AbstractStyxService("RoutingDatabaseSnapshots") {
+
+    private val executor = newSingleThreadScheduledExecutor(
+            ThreadFactoryBuilder().setNameFormat("Styx-RoutingDbSnapshots").setDaemon(true).build())
+    private val futureRef = AtomicReference<ScheduledFuture<*>>()
+
+    @Volatile
+    private var persistedIndex = -1L
+
+    override fun startService() = CompletableFuture.runAsync {
+        futureRef.set(executor.scheduleWithFixedDelay(
+                { persistIfChanged() },
+                interval.toMillis(),
+                interval.toMillis(),
+                MILLISECONDS))
+    }
+
+    override fun stopService() = CompletableFuture.runAsync {
+        futureRef.get()?.cancel(false)
+        executor.shutdown()
+    }
+
+    /**
+     * Writes a new snapshot if the route database has changed since the last one.
+     */
+    fun persistIfChanged() {
+        val index = routeDb.index()
+        if (index != persistedIndex) {
+            runCatching { persist() }
+                    .onSuccess { persistedIndex = index }
+                    .onFailure { LOGGER.warn("Failed to persist routing database snapshot. path={}, cause={}", path, it.toString()) }
+        }
+    }
+
+    /**
+     * Writes a snapshot of all routing objects that are owned by a provider.
+     */
+    fun persist() {
+        val root = MAPPER.createObjectNode()
+        root.put("version", FORMAT_VERSION)
+        root.put("created", Instant.now().toString())
+
+        val objects = root.putObject("routingObjects")
+        routeDb.entrySet()
+                .filter { sourceTag.find(it.value.tags) != null }
+                .forEach { (name, record) ->
+                    val entry = objects.putObject(name)
+                    entry.put("type", record.type)
+                    entry.putArray("tags").let { tags -> record.tags.filterNot { it.startsWith(CREATED) }.forEach { tags.add(it) } }
+                    entry.set<JsonNode>("config", record.config)
+                }
+
+        val temporary = path.resolveSibling("${path.fileName}.tmp")
+        Files.write(temporary, MAPPER.writeValueAsBytes(root))
+        Files.move(temporary, path, ATOMIC_MOVE, REPLACE_EXISTING)
+        LOGGER.debug("Persisted routing database snapshot. path={}, objects={}", path, objects.size())
+    }
+
+    /**
+     * Restores the routing objects from the last snapshot.
+     *
+     * Only objects whose owning provider is in `providers` are restored, and existing
+     * objects are never replaced. A snapshot older than `maxAge` is ignored.
+     *
+     * @param providers names of the configured providers
+     * @param context routing object factory context
+     * @return number of restored objects
+     */
+    fun restore(providers: Set<String>, context: RoutingObjectFactory.Context): Int {
+        val root = try {
+            MAPPER.readTree(Files.readAllBytes(path))
+        } catch (e: NoSuchFileException) {
+            LOGGER.info("No routing database snapshot to restore. path={}", path)
+            return 0
+        } catch (e: Exception) {
+            LOGGER.warn("Unable to read routing database snapshot. path={}, cause={}", path, e.toString())
+            return 0
+        }
+
+        val created = runCatching { Instant.parse(root.path("created").asText()) }.getOrNull()
+        if (root.path("version").asInt() != FORMAT_VERSION || created == null) {
+            LOGGER.warn("Ignoring routing database snapshot with unknown format. path={}", path)
+            return 0
+        }
+
+        val age = Duration.between(created, Instant.now())
+        if (age > maxAge) {
+            LOGGER.info("Ignoring stale routing database snapshot. path={}, age={}, maxAge={}", path, age, maxAge)
+            return 0
+        }
+
+        var restored = 0
+        root.path("routingObjects").fields().forEach { (name, entry) ->
+            val tags = entry.path("tags").map { it.asText() }.toSet()
+
+            if (sourceTag.find(tags) in providers && !routeDb.get(name).isPresent) {
+                runCatching {
+                    val definition = StyxObjectDefinition(name, entry.path("type").asText(), tags.toList(), entry.path("config"))
+                    RoutingObjectRecord.create(definition.type(), tags, definition.config(), Builtins.build(listOf(name), context, definition))
+                }.onSuccess {
+                    routeDb.insert(name, it)
+                    restored++
+                }.onFailure {
+                    LOGGER.warn("Unable to restore routing object from snapshot. name={}, cause={}", name, it.toString())
+                }
+            }
+        }
+
+        LOGGER.info("Restored routing objects from snapshot. path={}, objects={}, age={}", path, restored, age)
+        return restored
+    }
+
+    companion object {
+        private val LOGGER = LoggerFactory.getLogger(RoutingDatabaseSnapshots::class.java)
+        private val MAPPER = ObjectMapper()
+        private const val FORMAT_VERSION = 1
+        private const val CREATED = "created="
+    }
+}
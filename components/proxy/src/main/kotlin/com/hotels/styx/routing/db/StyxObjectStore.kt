@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,9 +16,9 @@
 package com.hotels.styx.routing.db;
 
 import com.hotels.styx.api.configuration.ObjectStore
-import org.pcollections.HashTreePMap
 import org.reactivestreams.Publisher
 import reactor.core.publisher.Flux
+import java.util.AbstractMap.SimpleImmutableEntry
 import java.util.Optional
 import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.ExecutorService
@@ -30,8 +30,7 @@ import java.util.concurrent.atomic.AtomicReference
  */
 
 class StyxObjectStore<T> internal constructor(executor: ExecutorService): ObjectStore<T> {
-    private val objects: AtomicReference<IndexedSnapshot<T>> = AtomicReference(
-            IndexedSnapshot(0, HashTreePMap.empty()))
+    private val objects: AtomicReference<IndexedSnapshot<T>> = AtomicReference(IndexedSnapshot.empty())
 
     private val watchers = CopyOnWriteArrayList<ChangeWatcher<T>>()
     private val notificationQueue = NotificationQueue(watchers, executor)
@@ -62,6 +61,21 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
      */
     override fun entrySet(): Collection<Map.Entry<String, T>> = entrySet(objects.get().snapshot)
 
+    /**
+     * Retrieves the entries of objects tagged with `tag`.
+     *
+     * Uses the tag index, so the cost is proportional to the number of matching
+     * objects rather than to the size of the store. Only objects implementing
+     * `Tagged` are indexed.
+     *
+     * @property tag a tag string
+     * @return matching entries
+     */
+    fun entriesWithTag(tag: String): Collection<Map.Entry<String, T>> {
+        val current = objects.get()
+        return current.keysWithTag(tag).map { key -> SimpleImmutableEntry(key, current.snapshot[key]!!) }
+    }
+
     /**
      * Inserts a new object in object store.
      *
@@ -80,11 +94,11 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
         require(key.isNotEmpty()) { "ObjectStore insert: empty keys are not allowed." }
 
         var current = objects.get()
-        var new = current.map { it.plus(key, payload) }
+        var new = current.plus(key, payload)
 
         while (!objects.compareAndSet(current, new)) {
             current = objects.get()
-            new = current.map { it.plus(key, payload) }
+            new = current.plus(key, payload)
         }
 
         notificationQueue.publishChange(new)
@@ -135,10 +149,10 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
 
             new = if (existingValue !== null && result === null) {
                 //New value is null, removing key
-                current.map { it.minus(key) }
-            } else if (result != existingValue) {
+                current.minus(key)
+            } else if (result != null && result != existingValue) {
                 // Consumer REPLACES an existing value or ADDS a new value
-                current.map { it.plus(key, result) }
+                current.plus(key, result)
             } else {
                 // Consumer KEEPS the existing value
                 current
@@ -169,13 +183,13 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
      */
     fun remove(key: String): Optional<T> {
         var current = objects.get()
-        var new = current.map { it.minus(key) }
+        var new = current.minus(key)
 
         // Unnecessarily increments the index when "key" doesn't exist:
         // We will live with this for now.
         while (!objects.compareAndSet(current, new)) {
             current = objects.get()
-            new = current.map { it.minus(key) }
+            new = current.minus(key)
         }
 
         if (current.snapshot != new.snapshot) {
@@ -193,7 +207,45 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
      */
     fun watch(): Publisher<ObjectStore<T>> {
         return Flux.push { sink ->
-            val watcher: ChangeWatcher<T> = { sink.next(it) }
+            val watcher: ChangeWatcher<T> = { sink.next(objectStore(it)) }
+
+            sink.onDispose {
+                watchers.remove(watcher)
+            }
+
+            watchers.add(watcher)
+
+            notificationQueue.publishInitialWatch(watcher)
+        }
+    }
+
+    /**
+     * Returns a Publisher that emits the changes to objects tagged with `tag`.
+     *
+     * The first change set, emitted on subscription, contains all matching objects
+     * as added. Afterwards a change set is only emitted when a matching object is
+     * added, replaced or removed. Modifications to other objects are not emitted.
+     *
+     * Watch activates on subscription only.
+     * Watch removed on unsubscription.
+     */
+    fun watch(tag: String): Publisher<ChangeSet<T>> {
+        return Flux.push { sink ->
+            var previous = IndexedSnapshot.empty<T>()
+            var initial = true
+
+            // Watchers are invoked from the notification executor, one at a time:
+            val watcher: ChangeWatcher<T> = { current ->
+                if (current.index >= previous.index) {
+                    val changes = changes(previous, current, tag)
+                    previous = current
+
+                    if (initial || !changes.isEmpty()) {
+                        initial = false
+                        sink.next(changes)
+                    }
+                }
+            }
 
             sink.onDispose {
                 watchers.remove(watcher)
@@ -201,7 +253,7 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
 
             watchers.add(watcher)
 
-            notificationQueue.publishInitialWatch(sink)
+            notificationQueue.publishInitialWatch(watcher)
         }
     }
 
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -20,7 +20,6 @@ import com.hotels.styx.api.Eventual
 import com.hotels.styx.api.HttpInterceptor
 import com.hotels.styx.api.Id
 import com.hotels.styx.api.LiveHttpRequest
-import com.hotels.styx.api.configuration.ObjectStore
 import com.hotels.styx.api.extension.ActiveOrigins
 import com.hotels.styx.api.extension.Origin.newOriginBuilder
 import com.hotels.styx.api.extension.RemoteHost
@@ -44,6 +43,7 @@ import com.hotels.styx.routing.RoutingObject
 import com.hotels.styx.routing.RoutingObjectRecord
 import com.hotels.styx.routing.config.RoutingObjectFactory
 import com.hotels.styx.routing.config.StyxObjectDefinition
+import com.hotels.styx.routing.db.ChangeSet
 import com.hotels.styx.stateTag
 import org.slf4j.LoggerFactory
 import reactor.core.Disposable
@@ -88,11 +88,12 @@ internal class LoadBalancingGroup(val client: StyxBackendServiceClient, val chan
 
             val routeDb = context.routeDb()
             val remoteHosts = AtomicReference<Set<RemoteHost>>(setOf())
+            val activeHosts = mutableMapOf<String, RemoteHost>()
 
-            val watch = routeDb.watch()
+            val watch = routeDb.watch(lbGroupTag(config.origins))
                     .toFlux()
                     .subscribe(
-                            { routeDatabaseChanged(config.origins, it, remoteHosts) },
+                            { routeDatabaseChanged(config.origins, it, activeHosts, remoteHosts) },
                             { watchFailed(appId, it) },
                             { watchCompleted(appId) }
                     )
@@ -120,21 +121,33 @@ internal class LoadBalancingGroup(val client: StyxBackendServiceClient, val chan
             }
         }
 
-        private fun routeDatabaseChanged(appId: String, snapshot: ObjectStore<RoutingObjectRecord>, remoteHosts: AtomicReference<Set<RemoteHost>>) {
-            val newSet = snapshot.entrySet()
-                    .filter { it.value.tags.contains(lbGroupTag(appId)) }
-                    .filter { stateTag.find(it.value.tags)
-                            .let { it == null || it == "active" }
-                    }
-                    .map { toRemoteHost(appId, it) }
-                    .toSet()
+        /*
+         * Applies the changes to this group's origins only. `activeHosts` is confined
+         * to the route database notification thread.
+         */
+        private fun routeDatabaseChanged(
+                appId: String,
+                changes: ChangeSet<RoutingObjectRecord>,
+                activeHosts: MutableMap<String, RemoteHost>,
+                remoteHosts: AtomicReference<Set<RemoteHost>>) {
+            changes.removed.keys.forEach { activeHosts.remove(it) }
+
+            (changes.added + changes.updated).forEach { (originName, record) ->
+                if (isActive(record)) {
+                    activeHosts[originName] = toRemoteHost(appId, originName, record)
+                } else {
+                    activeHosts.remove(originName)
+                }
+            }
 
-            remoteHosts.set(newSet)
+            remoteHosts.set(activeHosts.values.toSet())
         }
 
-        private fun toRemoteHost(appId: String, record: Map.Entry<String, RoutingObjectRecord>): RemoteHost {
-            val routingObject = record.value.routingObject
-            val originName = record.key
+        private fun isActive(record: RoutingObjectRecord) = stateTag.find(record.tags)
+                .let { it == null || it == "active" }
+
+        private fun toRemoteHost(appId: String, originName: String, record: RoutingObjectRecord): RemoteHost {
+            val routingObject = record.routingObject
 
             return remoteHost(
                     // The origin is used to determine remote host hostname or port
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -139,7 +139,9 @@ internal class StyxHttpServerFactory : StyxServerFactory {
                                 false,
                                 environment.httpMessageFormatter(),
                                 // TODO: Add styx header configuration
-                                null)
+                                null,
+                                environment.configuration().requestIdSupplier(),
+                                environment.offloadExecutor())
                                 .create(
                                         if (config.tlsSettings == null) {
                                             HttpConnectorConfig(config.port)
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -122,9 +122,8 @@ internal class HealthCheckMonitoringService(
     fun isRunning() = futureRef.get()?.let { !it.isCancelled && !it.isDone } == true
 
     internal fun runChecks(application: String, objectStore: StyxObjectStore<RoutingObjectRecord>) {
-        val monitoredObjects = objectStore.entrySet()
+        val monitoredObjects = objectStore.entriesWithTag(lbGroupTag(application))
                 .map { Pair(it.key, it.value) }
-                .filter { (_, record) -> record.tags.contains(lbGroupTag(application)) }
                 .map { (name, record) ->
                     val tags = record.tags
                     val objectHealth = objectHealthFrom(stateTag.find(tags), healthCheckTag.find(tags))
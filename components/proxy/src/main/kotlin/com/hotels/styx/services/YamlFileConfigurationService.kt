@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -109,6 +109,11 @@ internal class YamlFileConfigurationService(
             "/" to OriginsAdminHandler(namespace, name, routeDb, serviceDb))
 
     fun reloadAction(content: String): Unit {
+        if (initialised.count == 0L && content == originsConfig) {
+            LOGGER.debug("Origins configuration unchanged. file='{}'", config.originsFile)
+            return
+        }
+
         LOGGER.info("New origins configuration: \n$content")
 
         kotlin.runCatching {
@@ -153,23 +158,24 @@ internal class YamlFileConfigurationService(
     private fun changed(one: JsonNode, another: JsonNode) = !one.equals(another)
 
     internal fun updateRoutingObjects(objectDefs: List<StyxObjectDefinition>) {
-        val previousObjectNames = routeDb.entrySet()
-                .filter { it.value.tags.contains(objectSourceTag) }
-                .map { it.key }
-
-        val newObjectNames = objectDefs.map { it.name() }
-        val removedObjects = previousObjectNames.minus(newObjectNames)
-
-        objectDefs.forEach { objectDef ->
-            routeDb.compute(objectDef.name()) { previous ->
-                if (previous == null || changed(objectDef.config(), previous.config)) {
-                    previous?.routingObject?.stop()
-                    converter.routingObjectRecord(objectDef)
-                } else {
-                    previous
+        val previousObjects = routeDb.entriesWithTag(objectSourceTag)
+                .associate { it.key to it.value }
+
+        val newObjects = objectDefs.associateBy { it.name() }
+        val removedObjects = previousObjects.keys - newObjects.keys
+
+        newObjects.values
+                .filter { objectDef -> previousObjects[objectDef.name()]?.let { changed(objectDef.config(), it.config) } ?: true }
+                .forEach { objectDef ->
+                    routeDb.compute(objectDef.name()) { previous ->
+                        if (previous == null || changed(objectDef.config(), previous.config)) {
+                            previous?.routingObject?.stop()
+                            converter.routingObjectRecord(objectDef)
+                        } else {
+                            previous
+                        }
+                    }
                 }
-            }
-        }
 
         removedObjects.forEach {
             routeDb.remove(it).ifPresent {
@@ -179,11 +185,11 @@ internal class YamlFileConfigurationService(
     }
 
     private fun updateHealthCheckServices(objectDb: StyxObjectStore<ProviderObjectRecord>, objects: List<Pair<String, ProviderObjectRecord>>): Unit {
-        val oldObjectNames = healthMonitors.get().map { it.first }
+        val oldObjectNames = healthMonitors.get().map { it.first }.toSet()
         healthMonitors.set(objects)
 
-        val newObjectNames = objects.map { it.first }
-        val removedObjects = oldObjectNames.minus(newObjectNames)
+        val newObjectNames = objects.map { it.first }.toSet()
+        val removedObjects = oldObjectNames - newObjectNames
 
         objects.map { Triple(it.first, it.second, AtomicReference<StyxObjectRecord<StyxService>>()) }
                 .forEach { (name, new, cache) ->
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,15 +16,22 @@
 package com.hotels.styx;
 
 import com.hotels.styx.proxy.ProxyServerConfig;
+import com.hotels.styx.server.UniqueIdSupplier;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import static com.hotels.styx.server.UniqueIdSuppliers.UUID_VERSION_ONE_SUPPLIER;
 import static com.hotels.styx.support.matchers.IsOptional.isValue;
 import static java.lang.Runtime.getRuntime;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class StyxConfigTest {
 
@@ -150,4 +157,44 @@ public class StyxConfigTest {
         assertThat(styxConfig.proxyServerConfig().requestTimeoutMillis(), is(10000));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void usesUuidRequestIdsByDefault() {
+        assertThat(styxConfig.requestIdSupplier(), is(UUID_VERSION_ONE_SUPPLIER));
+    }
+
+    @Test
+    public void readsSequentialRequestIdGenerator() {
+        String yaml = "" +
+                "requestIdGenerator:\n" +
+                "  type: sequential\n" +
+                "  nodeId: 42\n";
+
+        StyxConfig styxConfig = StyxConfig.fromYaml(yaml, false);
+
+        assertThat(styxConfig.requestIdSupplier().get(), startsWith("002a"));
+    }
+
+    @Test
+    public void connectorsShareOneSequentialRequestIdSupplier() {
+        StyxConfig styxConfig = StyxConfig.fromYaml("requestIdGenerator:\n  type: sequential\n", false);
+
+        UniqueIdSupplier httpConnector = styxConfig.requestIdSupplier();
+        UniqueIdSupplier httpsConnector = styxConfig.requestIdSupplier();
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(httpConnector.get().toString());
+            ids.add(httpsConnector.get().toString());
+        }
+
+        assertThat(httpsConnector, is(sameInstance(httpConnector)));
+        assertThat(ids.size(), is(2000));
+    }
+
+    @Test
+    public void rejectsUnknownRequestIdGenerator() {
+        StyxConfig styxConfig = StyxConfig.fromYaml("requestIdGenerator:\n  type: random\n", false);
+
+        assertThrows(IllegalArgumentException.class, styxConfig::requestIdSupplier);
+    }
+}
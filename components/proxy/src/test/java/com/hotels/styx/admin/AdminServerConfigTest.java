@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.hotels.styx.admin;
 import com.hotels.styx.infrastructure.configuration.yaml.YamlConfig;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static com.hotels.styx.admin.AdminServerConfig.DEFAULT_ADMIN_PORT;
@@ -52,4 +53,20 @@ public class AdminServerConfigTest {
 
         assertThat(admin.get().httpConnectorConfig().get().port(), is(1234));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void readsPrometheusCacheExpiration() {
+        String yaml = "" +
+                "admin:\n" +
+                "  prometheusCache:\n" +
+                "    enabled: true\n" +
+                "    expirationMillis: 5000\n";
+
+        YamlConfig yamlConfig = new YamlConfig(yaml);
+
+        Optional<AdminServerConfig> admin = yamlConfig.get("admin", AdminServerConfig.class);
+
+        assertThat(admin.get().prometheusCacheExpiration(), is(Optional.of(Duration.ofSeconds(5))));
+        assertThat(admin.get().metricsCacheExpiration(), is(Optional.empty()));
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -75,7 +75,7 @@ public class DashboardDataSupplierTest {
         registry.add(backend("bar", origin("bar1")));
 
         // Set statuses
-        environment.eventBus().post(new OriginsSnapshot(id("foo"), pools(foo1), pools(foo2), pools()));
+        environment.originEventRouter().publish(new OriginsSnapshot(id("foo"), pools(foo1), pools(foo2), pools()));
 
         DashboardData.Downstream downstream = supplier.get().downstream();
         DashboardData.Backend fooBackend = downstream.backend("STYXPRES-foo");
@@ -86,7 +86,7 @@ public class DashboardDataSupplierTest {
 
 
         // Set statuses again
-        environment.eventBus().post(new OriginsSnapshot(id("foo"), pools(), pools(foo1), pools(foo2)));
+        environment.originEventRouter().publish(new OriginsSnapshot(id("foo"), pools(), pools(foo1), pools(foo2)));
 
         fooBackend = supplier.get().downstream().backend("STYXPRES-foo");
 
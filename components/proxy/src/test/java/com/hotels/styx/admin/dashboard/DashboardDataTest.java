@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,9 +16,9 @@
 package com.hotels.styx.admin.dashboard;
 
 import com.codahale.metrics.Gauge;
-import com.google.common.eventbus.EventBus;
 import com.hotels.styx.Version;
 import com.hotels.styx.api.HttpHandler;
+import com.hotels.styx.api.Id;
 import com.hotels.styx.api.MetricRegistry;
 import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.api.extension.OriginsSnapshot;
@@ -29,6 +29,7 @@ import com.hotels.styx.api.extension.service.spi.Registry;
 import com.hotels.styx.api.metrics.codahale.CodaHaleMetricRegistry;
 import com.hotels.styx.api.metrics.codahale.NoopMetricRegistry;
 import com.hotels.styx.applications.BackendServices;
+import com.hotels.styx.client.OriginEventRouter;
 import com.hotels.styx.client.connectionpool.ConnectionPool;
 import com.hotels.styx.infrastructure.MemoryBackedRegistry;
 import org.junit.jupiter.api.BeforeEach;
@@ -59,13 +60,13 @@ public class DashboardDataTest {
     static final BackendServices DEFAULT_APPLICATIONS = newBackendServices(application("app", origin("app-01", "localhost", 9090)));
 
     MetricRegistry metricRegistry;
-    EventBus eventBus;
+    OriginEventRouter eventRouter;
     MemoryBackedRegistry<BackendService> backendServicesRegistry;
 
     @BeforeEach
     public void setUp() {
         metricRegistry = new NoopMetricRegistry();
-        eventBus = new EventBus();
+        eventRouter = new OriginEventRouter();
         backendServicesRegistry = new MemoryBackedRegistry<>();
 
         DEFAULT_APPLICATIONS.forEach(backendServicesRegistry::add);
@@ -192,7 +193,7 @@ public class DashboardDataTest {
 
         DashboardData.Backend backend = newDashboardData(backendServicesRegistry).downstream().firstBackend();
 
-        eventBus.post(new OriginsSnapshot(id("app"),
+        eventRouter.publish(new OriginsSnapshot(id("app"),
                 singleton(pool(origin("app", "app-01", "localhost", 9090))),
                 emptyList(),
                 singleton(pool(origin("app", "app-02", "localhost", 9091)))));
@@ -279,7 +280,7 @@ public class DashboardDataTest {
 
         DashboardData.Origin origin = newDashboardData().downstream().firstBackend().firstOrigin();
 
-        eventBus.post(new OriginsSnapshot(id("app"),
+        eventRouter.publish(new OriginsSnapshot(id("app"),
                 singleton(pool(origin("app", "app-01", "localhost", 9090))),
                 emptyList(),
                 emptyList()));
@@ -301,20 +302,20 @@ public class DashboardDataTest {
     }
 
     @Test
-    public void unsubscribesFromEventBus() {
-        EventBus eventBus = mock(EventBus.class);
+    public void unsubscribesFromEventRouter() {
+        OriginEventRouter eventRouter = mock(OriginEventRouter.class);
         MemoryBackedRegistry<BackendService> backendServicesRegistry = new MemoryBackedRegistry<>();
         backendServicesRegistry.add(application("app", origin("app-01", "localhost", 9090)));
         backendServicesRegistry.add(application("test", origin("test-01", "localhost", 9090)));
 
-        DashboardData dashbaord = new DashboardData(metricRegistry, backendServicesRegistry, "styx-prod1-presentation-01", new Version("releaseTag"), eventBus);
+        DashboardData dashbaord = new DashboardData(metricRegistry, backendServicesRegistry, "styx-prod1-presentation-01", new Version("releaseTag"), eventRouter);
 
         // Twice for each backend. One during backend construction, another from BackendServicesRegistry listener callback.
-        verify(eventBus, times(4)).register(any(DashboardData.Origin.class));
+        verify(eventRouter, times(4)).addSnapshotListener(any(Id.class), any(DashboardData.Origin.class));
 
         dashbaord.unregister();
 
-        verify(eventBus, times(4)).unregister(any(DashboardData.Origin.class));
+        verify(eventRouter, times(4)).removeSnapshotListener(any(Id.class), any(DashboardData.Origin.class));
     }
 
 
@@ -332,7 +333,7 @@ public class DashboardDataTest {
     }
 
     private DashboardData newDashboardData(String serverId, String releaseTag, Registry<BackendService> backendServiceRegistry) {
-        return new DashboardData(metricRegistry, backendServiceRegistry, serverId, new Version(releaseTag), eventBus);
+        return new DashboardData(metricRegistry, backendServiceRegistry, serverId, new Version(releaseTag), eventRouter);
     }
 
     private static BackendService application(String id, Origin... origins) {
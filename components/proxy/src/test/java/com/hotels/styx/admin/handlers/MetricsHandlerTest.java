@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,30 +15,46 @@
  */
 package com.hotels.styx.admin.handlers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.Clock;
+import com.hotels.styx.api.HttpRequest;
 import com.hotels.styx.api.HttpResponse;
+import com.hotels.styx.api.LiveHttpResponse;
 import com.hotels.styx.api.metrics.codahale.CodaHaleMetricRegistry;
 import com.hotels.styx.api.metrics.codahale.NoopMetricRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.net.MediaType.JSON_UTF_8;
+import static com.hotels.styx.api.Buffers.toByteBuf;
 import static com.hotels.styx.support.Support.requestContext;
 import static com.hotels.styx.api.HttpRequest.get;
+import static com.hotels.styx.api.HttpRequest.post;
 import static com.hotels.styx.api.HttpResponseStatus.NOT_FOUND;
 import static com.hotels.styx.api.HttpResponseStatus.OK;
 import static com.hotels.styx.support.matchers.RegExMatcher.matchesRegex;
+import static java.lang.System.currentTimeMillis;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.regex.Pattern.quote;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 
 public class MetricsHandlerTest {
     private CodaHaleMetricRegistry metricRegistry;
     private MetricsHandler handler;
+    private long time = currentTimeMillis();
 
     @BeforeEach
     public void setUp() {
@@ -48,7 +64,7 @@ public class MetricsHandlerTest {
 
     @Test
     public void respondsToRequestWithJsonResponse() {
-        HttpResponse response = Mono.from(handler.handle(get("/admin/metrics").build(), requestContext())).block();
+        HttpResponse response = fetch(get("/admin/metrics").build());
         assertThat(response.status(), is(OK));
         assertThat(response.contentType().get(), is(JSON_UTF_8.toString()));
     }
@@ -57,7 +73,7 @@ public class MetricsHandlerTest {
     @Test
     public void exposesRegisteredMetrics() {
         metricRegistry.counter("foo").inc();
-        HttpResponse response = Mono.from(handler.handle(get("/admin/metrics").build(), requestContext())).block();
+        HttpResponse response = fetch(get("/admin/metrics").build());
         assertThat(response.bodyAs(UTF_8), matchesRegex(quote("{\"version\":\"") +
                 "\\d+\\.\\d+\\.\\d+" +
                 quote("\",\"gauges\":{},\"counters\":{\"foo\":{\"count\":1}},\"histograms\":{},\"meters\":{},\"timers\":{}}")));
@@ -69,13 +85,13 @@ public class MetricsHandlerTest {
         metricRegistry.counter("foo.bar.baz").inc(1);
         metricRegistry.counter("foo.barx").inc(1); // should not be included
 
-        HttpResponse response = Mono.from(handler.handle(get("/admin/metrics/foo.bar").build(), requestContext())).block();
+        HttpResponse response = fetch(get("/admin/metrics/foo.bar").build());
         assertThat(response.bodyAs(UTF_8), is("{\"foo.bar\":{\"count\":1},\"foo.bar.baz\":{\"count\":1}}"));
     }
 
     @Test
     public void ifNoMetricsMatchNameThen404NotFoundIsReturned() {
-        HttpResponse response = Mono.from(handler.handle(get("/admin/metrics/foo.bar").build(), requestContext())).block();
+        HttpResponse response = fetch(get("/admin/metrics/foo.bar").build());
         assertThat(response.status(), is(NOT_FOUND));
     }
 
@@ -86,7 +102,7 @@ public class MetricsHandlerTest {
         metricRegistry.counter("baz.bar.foo").inc(1);
         metricRegistry.counter("foo.baz.a").inc(1);
 
-        HttpResponse response =  Mono.from(handler.handle(get("/admin/metrics/?filter=bar").build(), requestContext())).block();
+        HttpResponse response = fetch(get("/admin/metrics/?filter=bar").build());
         assertThat(response.status(), is(OK));
         assertThat(response.bodyAs(UTF_8), is("{" +
                 "\"baz.bar.foo\":{\"count\":1}," +
@@ -103,7 +119,7 @@ public class MetricsHandlerTest {
         metricRegistry.counter("foo.baz.a").inc(1);
         metricRegistry.counter("foo.baz.a.bar").inc(1);
 
-        HttpResponse response = Mono.from(handler.handle(get("/admin/metrics/foo?filter=bar").build(), requestContext())).block();
+        HttpResponse response = fetch(get("/admin/metrics/foo?filter=bar").build());
         assertThat(response.status(), is(OK));
         assertThat(response.bodyAs(UTF_8), is("{" +
                 "\"foo.bar.a\":{\"count\":1}," +
@@ -117,8 +133,103 @@ public class MetricsHandlerTest {
         metricRegistry.counter("foo.bar.a").inc(1);
         metricRegistry.counter("foo.bar.b").inc(1);
 
-        HttpResponse response = Mono.from(handler.handle(get("/admin/metrics/?filter=notpresent").build(), requestContext())).block();
+        HttpResponse response = fetch(get("/admin/metrics/?filter=notpresent").build());
         assertThat(response.status(), is(OK));
         assertThat(response.bodyAs(UTF_8), is("{}"));
     }
+
+    @Test
+    public void exposesRegisteredMetricsByType() throws IOException {
+        metricRegistry.counter("foo").inc();
+        metricRegistry.meter("bar").mark();
+
+        JsonNode json = new ObjectMapper().readTree(fetch(get("/admin/metrics").build()).bodyAs(UTF_8));
+
+        assertThat(json.get("counters").get("foo").get("count").asInt(), is(1));
+        assertThat(json.get("meters").get("bar").get("count").asInt(), is(1));
+        assertThat(json.get("gauges").size(), is(0));
+        assertThat(json.get("histograms").size(), is(0));
+        assertThat(json.get("timers").size(), is(0));
+    }
+
+    @Test
+    public void prettyPrintsMetrics() {
+        metricRegistry.counter("foo.bar").inc(1);
+
+        HttpResponse response = fetch(get("/admin/metrics/foo?pretty").build());
+
+        assertThat(response.bodyAs(UTF_8), is("{\n  \"foo.bar\" : {\n    \"count\" : 1\n  }\n}"));
+    }
+
+    @Test
+    public void streamsLargeResponsesInChunks() throws IOException {
+        handler = new MetricsHandler(metricRegistry, Optional.empty(), new TestClock(), 256);
+        for (int i = 0; i < 100; i++) {
+            metricRegistry.counter("foo.counter" + i).inc(i);
+        }
+
+        LiveHttpResponse response = Mono.from(handler.handle(get("/admin/metrics/foo").build().stream(), requestContext())).block();
+        List<Buffer> chunks = Flux.from(response.body()).collectList().block();
+
+        assertThat(response.contentType().get(), is(JSON_UTF_8.toString()));
+        assertThat(chunks.size(), greaterThan(1));
+
+        StringBuilder body = new StringBuilder();
+        chunks.forEach(chunk -> {
+            body.append(new String(chunk.content(), UTF_8));
+            toByteBuf(chunk).release();
+        });
+
+        JsonNode json = new ObjectMapper().readTree(body.toString());
+        assertThat(json.size(), is(100));
+        assertThat(json.get("foo.counter99").get("count").asInt(), is(99));
+    }
+
+    @Test
+    public void sharesRegistrySnapshotUntilItExpires() {
+        handler = new MetricsHandler(metricRegistry, Optional.of(Duration.ofSeconds(1)), new TestClock(), 256);
+        metricRegistry.counter("foo.a").inc(1);
+
+        assertThat(fetch(get("/admin/metrics/foo").build()).bodyAs(UTF_8), is("{\"foo.a\":{\"count\":1}}"));
+
+        metricRegistry.counter("foo.a").inc(1);
+        metricRegistry.counter("foo.b").inc(1);
+        time += 999;
+
+        assertThat(fetch(get("/admin/metrics/foo").build()).bodyAs(UTF_8), is("{\"foo.a\":{\"count\":2}}"));
+
+        time += 1;
+
+        assertThat(fetch(get("/admin/metrics/foo").build()).bodyAs(UTF_8), is("{\"foo.a\":{\"count\":2},\"foo.b\":{\"count\":1}}"));
+    }
+
+    @Test
+    public void reformatsMetrics() {
+        metricRegistry.counter("foo.bar").inc(1);
+
+        HttpResponse response = fetch(get("/admin/metrics?reformat").build());
+
+        assertThat(response.status(), is(OK));
+        assertThat(response.bodyAs(UTF_8), containsString("foo"));
+    }
+
+    @Test
+    public void onlyRespondsToGetRequests() {
+        HttpResponse response = fetch(post("/admin/metrics").build());
+
+        assertThat(response.status(), is(NOT_FOUND));
+    }
+
+    private HttpResponse fetch(HttpRequest request) {
+        return Mono.from(handler.handle(request.stream(), requestContext()))
+                .flatMap(response -> Mono.from(response.aggregate(1024 * 1024)))
+                .block();
+    }
+
+    private final class TestClock implements Clock {
+        @Override
+        public long tickMillis() {
+            return time;
+        }
+    }
 }
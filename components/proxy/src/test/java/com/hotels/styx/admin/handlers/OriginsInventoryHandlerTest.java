@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -17,7 +17,6 @@ package com.hotels.styx.admin.handlers;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.eventbus.EventBus;
 import com.hotels.styx.admin.tasks.StubConnectionPool;
 import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.HttpResponse;
@@ -26,6 +25,7 @@ import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.api.extension.OriginsSnapshot;
 import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier;
+import com.hotels.styx.client.OriginEventRouter;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 
@@ -57,14 +57,14 @@ public class OriginsInventoryHandlerTest {
 
     @Test
     public void respondsWithCorrectSnapshot() throws IOException {
-        EventBus eventBus = new EventBus();
-        OriginsInventoryHandler handler = new OriginsInventoryHandler(eventBus);
+        OriginEventRouter eventRouter = new OriginEventRouter();
+        OriginsInventoryHandler handler = new OriginsInventoryHandler(eventRouter);
 
         Set<Origin> activeOrigins = generateOrigins(3);
         Set<Origin> inactiveOrigins = generateOrigins(4);
         Set<Origin> disabledOrigins = generateOrigins(2);
 
-        eventBus.post(new OriginsSnapshot(APP_ID, pool(activeOrigins), pool(inactiveOrigins), pool(disabledOrigins)));
+        eventRouter.publish(new OriginsSnapshot(APP_ID, pool(activeOrigins), pool(inactiveOrigins), pool(disabledOrigins)));
 
         HttpResponse response = Mono.from(handler.handle(get("/").build(), requestContext())).block();
         assertThat(response.bodyAs(UTF_8).split("\n").length, is(1));
@@ -83,12 +83,12 @@ public class OriginsInventoryHandlerTest {
 
     @Test
     public void prettyPrintsOriginsSnapshot() {
-        EventBus eventBus = new EventBus();
-        OriginsInventoryHandler handler = new OriginsInventoryHandler(eventBus);
+        OriginEventRouter eventRouter = new OriginEventRouter();
+        OriginsInventoryHandler handler = new OriginsInventoryHandler(eventRouter);
 
         Set<Origin> disabledOrigins = generateOrigins(2);
 
-        eventBus.post(new OriginsSnapshot(APP_ID, pool(emptySet()), pool(emptySet()), pool(disabledOrigins)));
+        eventRouter.publish(new OriginsSnapshot(APP_ID, pool(emptySet()), pool(emptySet()), pool(disabledOrigins)));
 
         HttpResponse response = Mono.from(handler.handle(get("/?pretty=1").build(), requestContext())).block();
         assertThat(body(response).replace("\r\n", "\n"),
@@ -110,7 +110,7 @@ public class OriginsInventoryHandlerTest {
 
     @Test
     public void returnsEmptyObjectWhenNoOrigins() {
-        OriginsInventoryHandler handler = new OriginsInventoryHandler(new EventBus());
+        OriginsInventoryHandler handler = new OriginsInventoryHandler(new OriginEventRouter());
 
         HttpResponse response = Mono.from(handler.handle(get("/").build(), requestContext())).block();
 
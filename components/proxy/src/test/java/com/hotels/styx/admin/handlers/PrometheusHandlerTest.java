@@ -0,0 +1,136 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.admin.handlers;
+
+import com.hotels.styx.api.Clock;
+import com.hotels.styx.api.HttpRequest;
+import com.hotels.styx.api.HttpResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static com.hotels.styx.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static com.hotels.styx.api.HttpHeaderNames.CONTENT_ENCODING;
+import static com.hotels.styx.api.HttpRequest.get;
+import static com.hotels.styx.api.HttpResponseStatus.OK;
+import static com.hotels.styx.support.Support.requestContext;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class PrometheusHandlerTest {
+    private CompositeMeterRegistry meterRegistry;
+    private long time = currentTimeMillis();
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new CompositeMeterRegistry();
+    }
+
+    @Test
+    public void scrapesRegisteredMeters() {
+        PrometheusHandler handler = new PrometheusHandler(meterRegistry);
+        meterRegistry.counter("foo.bar").increment();
+
+        HttpResponse response = fetch(handler, get("/metrics").build());
+
+        assertThat(response.status(), is(OK));
+        assertThat(response.bodyAs(UTF_8), containsString("foo_bar_total 1.0"));
+    }
+
+    @Test
+    public void servesCachedScrapeUntilItExpires() {
+        PrometheusHandler handler = new PrometheusHandler(meterRegistry, Optional.of(Duration.ofSeconds(1)), new TestClock());
+        Counter counter = meterRegistry.counter("foo.bar");
+        counter.increment();
+
+        assertThat(fetch(handler, get("/metrics").build()).bodyAs(UTF_8), containsString("foo_bar_total 1.0"));
+
+        counter.increment();
+        time += 999;
+
+        assertThat(fetch(handler, get("/metrics").build()).bodyAs(UTF_8), containsString("foo_bar_total 1.0"));
+
+        time += 1;
+
+        assertThat(fetch(handler, get("/metrics").build()).bodyAs(UTF_8), containsString("foo_bar_total 2.0"));
+    }
+
+    @Test
+    public void filtersByMeterFamilyName() {
+        PrometheusHandler handler = new PrometheusHandler(meterRegistry, Optional.of(Duration.ofSeconds(1)), new TestClock());
+        meterRegistry.counter("foo.bar").increment();
+        meterRegistry.counter("foo.baz").increment();
+
+        String body = fetch(handler, get("/metrics?name%5B%5D=foo_bar_total").build()).bodyAs(UTF_8);
+
+        assertThat(body, containsString("foo_bar_total 1.0"));
+        assertThat(body, not(containsString("foo_baz_total")));
+    }
+
+    @Test
+    public void compressesScrapeWhenGzipIsAccepted() throws IOException {
+        PrometheusHandler handler = new PrometheusHandler(meterRegistry);
+        meterRegistry.counter("foo.bar").increment();
+
+        HttpResponse response = fetch(handler, get("/metrics").header(ACCEPT_ENCODING, "deflate, gzip;q=0.8").build());
+
+        assertThat(response.header(CONTENT_ENCODING), is(Optional.of("gzip")));
+        assertThat(gunzip(response.body()), containsString("foo_bar_total 1.0"));
+    }
+
+    @Test
+    public void doesNotCompressScrapeWhenGzipIsRejected() {
+        PrometheusHandler handler = new PrometheusHandler(meterRegistry);
+        meterRegistry.counter("foo.bar").increment();
+
+        HttpResponse response = fetch(handler, get("/metrics").header(ACCEPT_ENCODING, "gzip;q=0").build());
+
+        assertThat(response.header(CONTENT_ENCODING), is(Optional.empty()));
+        assertThat(response.bodyAs(UTF_8), containsString("foo_bar_total 1.0"));
+    }
+
+    private static HttpResponse fetch(PrometheusHandler handler, HttpRequest request) {
+        return Mono.from(handler.handle(request.stream(), requestContext()))
+                .flatMap(response -> Mono.from(response.aggregate(1024 * 1024)))
+                .block();
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(input.readAllBytes(), UTF_8);
+        }
+    }
+
+    private final class TestClock implements Clock {
+        @Override
+        public long tickMillis() {
+            return time;
+        }
+    }
+}
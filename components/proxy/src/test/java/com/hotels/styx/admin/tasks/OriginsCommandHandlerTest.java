@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,8 +15,6 @@
  */
 package com.hotels.styx.admin.tasks;
 
-import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
 import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.HttpRequest;
 import com.hotels.styx.api.HttpResponse;
@@ -24,6 +22,7 @@ import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.api.extension.OriginsSnapshot;
 import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier;
+import com.hotels.styx.client.OriginEventRouter;
 import com.hotels.styx.client.OriginsCommandsListener;
 import com.hotels.styx.client.origincommands.DisableOrigin;
 import com.hotels.styx.client.origincommands.EnableOrigin;
@@ -60,8 +59,8 @@ public class OriginsCommandHandlerTest {
     final Origin inactiveOrigin = newOriginBuilder("localhost", 8083).applicationId("activeAppId").id("inactiveOriginId").build();
     final Set<RemoteHost> inactiveOrigins = singleton(remoteHost(inactiveOrigin, mock(HttpHandler.class), mock(LoadBalancingMetricSupplier.class)));
 
-    final EventBus eventBus = new EventBus();
-    final OriginsCommandHandler originsCommand = new OriginsCommandHandler(eventBus);
+    final OriginEventRouter eventRouter = new OriginEventRouter();
+    final OriginsCommandHandler originsCommand = new OriginsCommandHandler(eventRouter);
 
     RecordingOriginsCommandsListener recordingOriginsCommandsListener;
 
@@ -69,7 +68,7 @@ public class OriginsCommandHandlerTest {
     public void registerListener() {
         originsCommand.originsChanged(new OriginsSnapshot(id("activeAppId"), activeOrigins, inactiveOrigins, disabledOrigins));
         recordingOriginsCommandsListener = new RecordingOriginsCommandsListener();
-        eventBus.register(recordingOriginsCommandsListener);
+        eventRouter.addCommandListener(id("activeAppId"), recordingOriginsCommandsListener);
     }
 
     @Test
@@ -137,19 +136,16 @@ public class OriginsCommandHandlerTest {
             return this.message;
         }
 
-        @Subscribe
         @Override
         public void onCommand(EnableOrigin enableOrigin) {
             this.message = enableOrigin;
         }
 
-        @Subscribe
         @Override
         public void onCommand(DisableOrigin disableOrigin) {
             this.message = disableOrigin;
         }
 
-        @Subscribe
         @Override
         public void onCommand(GetOriginsInventorySnapshot getOriginsInventorySnapshot) {
         }
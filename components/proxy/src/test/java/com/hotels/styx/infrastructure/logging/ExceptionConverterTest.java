@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -22,10 +22,8 @@ import ch.qos.logback.classic.spi.ThrowableProxy;
 import ch.qos.logback.core.ContextBase;
 import ch.qos.logback.core.status.InfoStatus;
 import ch.qos.logback.core.status.StatusManager;
-import com.hotels.styx.api.exceptions.NoAvailableHostsException;
 import org.junit.jupiter.api.Test;
 
-import static com.hotels.styx.api.Id.GENERIC_APP;
 import static com.hotels.styx.infrastructure.logging.ExceptionConverter.TARGET_CLASSES_PROPERTY_NAME;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.StringEndsWith.endsWith;
@@ -35,7 +33,7 @@ import static org.mockito.Mockito.verify;
 
 
 public class ExceptionConverterTest {
-    final ILoggingEvent loggingEvent = newErrorLoggingEvent(new NoAvailableHostsException(GENERIC_APP));
+    final ILoggingEvent loggingEvent = newErrorLoggingEvent(new IllegalStateException("No hosts available"));
 
     private ILoggingEvent newErrorLoggingEvent(Throwable throwable) {
         LoggingEvent loggingEvent = new LoggingEvent();
@@ -0,0 +1,82 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.metrics.reporting.sets;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class BlockedEventLoopLogTest {
+    private long time = 1_000_000;
+    private final BlockedEventLoopLog log = new BlockedEventLoopLog(Duration.ofSeconds(10), 3, () -> time);
+
+    @Test
+    public void recordsStackTraceOfBlockedThread() {
+        log.blocked("executor", "0", Thread.currentThread(), Duration.ofMillis(600));
+
+        BlockedEventLoopLog.Event event = log.events().get(0);
+
+        assertThat(event.executor(), is("executor"));
+        assertThat(event.eventLoop(), is("0"));
+        assertThat(event.thread(), is(Thread.currentThread().getName()));
+        assertThat(event.blockedMillis(), is(600L));
+        assertThat(event.stackTrace(), is(not(empty())));
+    }
+
+    @Test
+    public void recordsEventWithoutStackTraceWhenThreadIsNotKnown() {
+        log.blocked("executor", "0", null, Duration.ofMillis(600));
+
+        assertThat(log.events().get(0).stackTrace(), is(empty()));
+    }
+
+    @Test
+    public void reportsEachEventLoopAtMostOncePerInterval() {
+        log.blocked("executor", "0", null, Duration.ofMillis(1));
+        log.blocked("executor", "0", null, Duration.ofMillis(2));
+        log.blocked("executor", "1", null, Duration.ofMillis(3));
+
+        time += 9_999;
+        log.blocked("executor", "0", null, Duration.ofMillis(4));
+
+        time += 1;
+        log.blocked("executor", "0", null, Duration.ofMillis(5));
+
+        assertThat(blockedMillis(log.events()), contains(5L, 3L, 1L));
+        assertThat(log.events().get(0).suppressedReports(), is(2));
+    }
+
+    @Test
+    public void keepsMostRecentEvents() {
+        for (int i = 0; i < 5; i++) {
+            log.blocked("executor", String.valueOf(i), null, Duration.ofMillis(i));
+        }
+
+        assertThat(blockedMillis(log.events()), contains(4L, 3L, 2L));
+    }
+
+    private static List<Long> blockedMillis(List<BlockedEventLoopLog.Event> events) {
+        return events.stream().map(BlockedEventLoopLog.Event::blockedMillis).collect(toList());
+    }
+}
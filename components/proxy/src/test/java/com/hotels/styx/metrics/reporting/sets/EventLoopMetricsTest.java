@@ -0,0 +1,112 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.metrics.reporting.sets;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BooleanSupplier;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+public class EventLoopMetricsTest {
+    private NioEventLoopGroup eventLoopGroup;
+    private ScheduledExecutorService scheduler;
+    private MeterRegistry registry;
+    private BlockedEventLoopLog blockedEventLoops;
+    private EventLoopMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        eventLoopGroup = new NioEventLoopGroup(2);
+        scheduler = newSingleThreadScheduledExecutor();
+        registry = new SimpleMeterRegistry();
+        blockedEventLoops = new BlockedEventLoopLog(Duration.ofMinutes(1), 10);
+        metrics = new EventLoopMetrics("test-executor", eventLoopGroup, scheduler,
+                Duration.ofMillis(10), Duration.ofMillis(100), blockedEventLoops);
+        metrics.bindTo(registry);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        metrics.close();
+        scheduler.shutdownNow();
+        eventLoopGroup.shutdownGracefully(0, 0, SECONDS).await(5000);
+    }
+
+    @Test
+    public void recordsSchedulingDelayOfEachEventLoop() {
+        eventually(() -> delayCount("0") > 0 && delayCount("1") > 0);
+
+        assertThat(registry.get("styx.eventLoop.blocked").tags("executor", "test-executor", "eventLoop", "0").counter().count(), is(0.0));
+    }
+
+    @Test
+    public void reportsBlockedEventLoopWithItsStackTrace() throws InterruptedException {
+        eventually(() -> delayCount("0") > 0 && delayCount("1") > 0);
+
+        CountDownLatch release = new CountDownLatch(1);
+        eventLoopGroup.next().execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        eventually(() -> blockedEventLoops.events().size() == 1);
+        release.countDown();
+
+        BlockedEventLoopLog.Event event = blockedEventLoops.events().get(0);
+
+        assertThat(event.executor(), is("test-executor"));
+        assertThat(event.blockedMillis(), greaterThanOrEqualTo(100L));
+        assertThat(event.stackTrace(), hasItem(containsString("CountDownLatch.await")));
+        assertThat(registry.get("styx.eventLoop.blocked").tags("executor", "test-executor", "eventLoop", event.eventLoop()).counter().count(), is(1.0));
+    }
+
+    private long delayCount(String eventLoop) {
+        return registry.get("styx.eventLoop.delay").tags("executor", "test-executor", "eventLoop", eventLoop).timer().count();
+    }
+
+    private static void eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition was not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
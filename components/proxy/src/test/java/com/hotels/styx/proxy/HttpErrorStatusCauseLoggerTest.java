@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 package com.hotels.styx.proxy;
 
 import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.exceptions.OriginUnreachableException;
+import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.common.format.HttpMessageFormatter;
 import com.hotels.styx.support.matchers.LoggingTestSupport;
 import org.junit.jupiter.api.AfterEach;
@@ -29,11 +31,14 @@ import org.mockito.MockitoAnnotations;
 import java.net.InetSocketAddress;
 
 import static ch.qos.logback.classic.Level.ERROR;
+import static ch.qos.logback.classic.Level.INFO;
 import static com.hotels.styx.api.HttpResponseStatus.BAD_GATEWAY;
 import static com.hotels.styx.api.HttpResponseStatus.INTERNAL_SERVER_ERROR;
+import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
 import static com.hotels.styx.support.matchers.LoggingEventMatcher.loggingEvent;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
@@ -120,4 +125,33 @@ public class HttpErrorStatusCauseLoggerTest {
                         "Failure status=\"502 Bad Gateway\", exception=\"java.lang.Exception.*This is just a test.*\"")));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void logsRepeatedProxyFailuresOncePerInterval() {
+        loggingTestSupport.logger.setLevel(INFO);
+        Origin origin = newOriginBuilder("localhost", 8080).applicationId("app").id("app-01").build();
+
+        httpErrorStatusCauseLogger.proxyErrorOccurred(BAD_GATEWAY, new OriginUnreachableException(origin, new Exception("first")));
+        httpErrorStatusCauseLogger.proxyErrorOccurred(BAD_GATEWAY, new OriginUnreachableException(origin, new Exception("second")));
+        httpErrorStatusCauseLogger.proxyErrorOccurred(BAD_GATEWAY, new OriginUnreachableException(origin, new Exception("third")));
+
+        assertThat(loggingTestSupport.log(), hasSize(1));
+        assertThat(loggingTestSupport.log(), hasItem(
+                loggingEvent(
+                        ERROR,
+                        "Failure status=\"502 Bad Gateway\", exception=\".*OriginUnreachableException.*first.*\"")));
+    }
+
+    @Test
+    public void logsEveryInternalServerError() {
+        loggingTestSupport.logger.setLevel(INFO);
+        LiveHttpRequest request = LiveHttpRequest.get("/foo").build();
+        InetSocketAddress clientAddress = InetSocketAddress.createUnresolved("localhost", 80);
+
+        httpErrorStatusCauseLogger.proxyErrorOccurred(INTERNAL_SERVER_ERROR, new IllegalStateException("first"));
+        httpErrorStatusCauseLogger.proxyErrorOccurred(INTERNAL_SERVER_ERROR, new IllegalStateException("second"));
+        httpErrorStatusCauseLogger.proxyErrorOccurred(request, clientAddress, INTERNAL_SERVER_ERROR, new IllegalStateException("third"));
+        httpErrorStatusCauseLogger.proxyErrorOccurred(request, clientAddress, INTERNAL_SERVER_ERROR, new IllegalStateException("fourth"));
+
+        assertThat(loggingTestSupport.log(), hasSize(4));
+    }
+}
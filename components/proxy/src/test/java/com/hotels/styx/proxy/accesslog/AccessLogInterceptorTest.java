@@ -0,0 +1,186 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.ByteStream;
+import com.hotels.styx.api.Eventual;
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.server.HttpInterceptorContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.hotels.styx.api.HttpRequest.post;
+import static com.hotels.styx.api.HttpResponse.response;
+import static com.hotels.styx.api.HttpResponseStatus.OK;
+import static com.hotels.styx.proxy.accesslog.AccessLogger.RECORDS_COUNTER_NAME;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccessLogInterceptorTest {
+    private static final String ORIGIN_ID_HEADER = "X-Styx-Origin-Id";
+
+    private MeterRegistry registry;
+    private Path logFile;
+    private HttpInterceptor.Context context;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        registry = new SimpleMeterRegistry();
+        logFile = Files.createTempDirectory("access-log-test").resolve("access.log");
+        context = new HttpInterceptorContext(true, new InetSocketAddress("10.1.2.3", 4567), Runnable::run);
+    }
+
+    @Test
+    public void writesJsonLineWhenResponseBodyCompletes() throws IOException {
+        AccessLogger logger = accessLogger("json", 1.0);
+
+        send(new AccessLogInterceptor(logger, ORIGIN_ID_HEADER), request -> request.aggregate(1024).map(received -> response(OK)
+                .header(ORIGIN_ID_HEADER, "app-01")
+                .body("hello", UTF_8)
+                .build()
+                .stream()));
+        logger.close();
+
+        List<String> lines = Files.readAllLines(logFile);
+        assertThat(lines, hasSize(1));
+        assertThat(lines.get(0), containsString("\"requestId\":\"req-1\""));
+        assertThat(lines.get(0), containsString("\"method\":\"POST\""));
+        assertThat(lines.get(0), containsString("\"path\":\"/shop\""));
+        assertThat(lines.get(0), containsString("\"status\":200"));
+        assertThat(lines.get(0), containsString("\"requestBytes\":3"));
+        assertThat(lines.get(0), containsString("\"responseBytes\":5"));
+        assertThat(lines.get(0), containsString("\"secure\":true"));
+        assertThat(lines.get(0), containsString("\"client\":\"10.1.2.3\""));
+        assertThat(lines.get(0), containsString("\"originId\":\"app-01\""));
+        assertThat(lines.get(0), containsString("\"headers\":{\"User-Agent\":\"agent \\\"007\\\"\"}"));
+        assertThat(registry.get(RECORDS_COUNTER_NAME).counter().count(), is(1.0));
+    }
+
+    @Test
+    public void writesBinaryFrames() throws IOException {
+        AccessLogger logger = accessLogger("binary", 1.0);
+
+        send(new AccessLogInterceptor(logger, ORIGIN_ID_HEADER), request -> request.aggregate(1024)
+                .map(received -> response(OK).body("hello", UTF_8).build().stream()));
+        logger.close();
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(logFile))) {
+            int length = in.readInt();
+            assertThat(length, is((int) Files.size(logFile) - 4));
+            assertThat(in.readByte(), is((byte) 1));
+            in.readLong();
+            in.readLong();
+            in.readLong();
+            assertThat(in.readShort(), is((short) 200));
+            assertThat(in.readLong(), is(3L));
+            assertThat(in.readLong(), is(5L));
+            assertThat(in.readByte(), is((byte) 1));
+            assertThat(in.readBoolean(), is(true));
+            assertThat(in.readUTF(), is("req-1"));
+        }
+    }
+
+    @Test
+    public void countsChunkedRequestBodies() throws IOException {
+        AccessLogger logger = accessLogger("json", 1.0);
+        LiveHttpRequest request = LiveHttpRequest.post("/upload")
+                .id("req-2")
+                .body(new ByteStream(Flux.just(new Buffer("hello, ", UTF_8), new Buffer("world", UTF_8))))
+                .build();
+
+        send(new AccessLogInterceptor(logger, ORIGIN_ID_HEADER), request, received -> received.aggregate(1024)
+                .map(aggregated -> response(OK).build().stream()));
+        logger.close();
+
+        List<String> lines = Files.readAllLines(logFile);
+        assertThat(lines, hasSize(1));
+        assertThat(lines.get(0), containsString("\"requestBytes\":12"));
+    }
+
+    @Test
+    public void recordsFailedRequests() throws IOException {
+        AccessLogger logger = accessLogger("json", 1.0);
+
+        assertThrows(IllegalStateException.class, () ->
+                send(new AccessLogInterceptor(logger, ORIGIN_ID_HEADER), request -> Eventual.error(new IllegalStateException())));
+        logger.close();
+
+        List<String> lines = Files.readAllLines(logFile);
+        assertThat(lines, hasSize(1));
+        assertThat(lines.get(0), containsString("\"status\":0"));
+        assertThat(lines.get(0), containsString("\"error\":\"java.lang.IllegalStateException\""));
+    }
+
+    @Test
+    public void skipsRequestsThatAreNotSampled() throws IOException {
+        AccessLogger logger = accessLogger("json", 0.0);
+
+        send(new AccessLogInterceptor(logger, ORIGIN_ID_HEADER), request -> Eventual.of(response(OK).build().stream()));
+        logger.close();
+
+        assertThat(Files.readAllLines(logFile), hasSize(0));
+    }
+
+    private AccessLogger accessLogger(String format, double samplingRate) {
+        return AccessLogger.create(new AccessLogConfig(true, logFile.toString(), format, samplingRate,
+                singletonList("User-Agent"), 16, null, null, 10L), registry);
+    }
+
+    private void send(HttpInterceptor interceptor, Function<LiveHttpRequest, Eventual<LiveHttpResponse>> origin) {
+        send(interceptor, post("/shop")
+                .id("req-1")
+                .header("User-Agent", "agent \"007\"")
+                .body("abc", UTF_8)
+                .build()
+                .stream(), origin);
+    }
+
+    private void send(HttpInterceptor interceptor, LiveHttpRequest request, Function<LiveHttpRequest, Eventual<LiveHttpResponse>> origin) {
+        LiveHttpResponse response = Mono.from(interceptor.intercept(request, new HttpInterceptor.Chain() {
+            @Override
+            public HttpInterceptor.Context context() {
+                return context;
+            }
+
+            @Override
+            public Eventual<LiveHttpResponse> proceed(LiveHttpRequest request) {
+                return origin.apply(request);
+            }
+        })).block();
+
+        Mono.from(response.aggregate(1024)).block();
+    }
+}
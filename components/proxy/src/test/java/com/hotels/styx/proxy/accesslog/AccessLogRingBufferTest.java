@@ -0,0 +1,116 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class AccessLogRingBufferTest {
+
+    @Test
+    public void roundsCapacityUpToPowerOfTwo() {
+        assertThat(new AccessLogRingBuffer(5, 0).capacity(), is(8));
+        assertThat(new AccessLogRingBuffer(8, 0).capacity(), is(8));
+    }
+
+    @Test
+    public void drainsPublishedRecordsInOrder() {
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(4, 0);
+        publish(ring, 200);
+        publish(ring, 404);
+
+        List<Integer> statuses = new ArrayList<>();
+        int drained = ring.drain(record -> statuses.add(record.status), 10);
+
+        assertThat(drained, is(2));
+        assertThat(statuses, contains(200, 404));
+    }
+
+    @Test
+    public void doesNotDrainClaimedButUnpublishedRecords() {
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(4, 0);
+        AccessLogRecord pending = ring.claim();
+        publish(ring, 200);
+
+        assertThat(ring.drain(record -> { }, 10), is(0));
+
+        ring.publish(pending);
+        assertThat(ring.drain(record -> { }, 10), is(2));
+    }
+
+    @Test
+    public void rejectsClaimsWhenFullAndReusesDrainedSlots() {
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(2, 1);
+        publish(ring, 200);
+        AccessLogRecord second = ring.claim();
+        second.headers[0] = "value";
+        ring.publish(second);
+
+        assertThat(ring.claim(), is(nullValue()));
+
+        ring.drain(record -> { }, 1);
+        AccessLogRecord reused = ring.claim();
+        assertThat(reused, is(notNullValue()));
+        assertThat(reused.headers[0], is(nullValue()));
+    }
+
+    @Test
+    public void acceptsRecordsFromConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10_000;
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(1024, 0);
+        AtomicInteger dropped = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int i = 0; i < producers; i++) {
+            new Thread(() -> {
+                for (int n = 0; n < perProducer; n++) {
+                    AccessLogRecord record = ring.claim();
+                    if (record == null) {
+                        dropped.incrementAndGet();
+                    } else {
+                        ring.publish(record);
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        int drained = 0;
+        while (done.getCount() > 0) {
+            drained += ring.drain(record -> { }, 100);
+        }
+        drained += ring.drain(record -> { }, Integer.MAX_VALUE);
+
+        assertThat(drained + dropped.get(), is(producers * perProducer));
+    }
+
+    private static void publish(AccessLogRingBuffer ring, int status) {
+        AccessLogRecord record = ring.claim();
+        record.status = status;
+        ring.publish(record);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RollingFileOutputTest {
+
+    @Test
+    public void rotatesFilesAndKeepsConfiguredNumber() throws IOException {
+        Path file = Files.createTempDirectory("rolling-file-test").resolve("access.log");
+        RollingFileOutput output = new RollingFileOutput(file, 5, 2);
+
+        for (int i = 1; i <= 4; i++) {
+            output.write(("record-" + i + "\n").getBytes(UTF_8));
+            output.rotateIfFull();
+        }
+        output.write("record-5\n".getBytes(UTF_8));
+        output.close();
+
+        assertThat(read(file), is("record-5\n"));
+        assertThat(read(file.resolveSibling("access.log.1")), is("record-4\n"));
+        assertThat(read(file.resolveSibling("access.log.2")), is("record-3\n"));
+        assertThat(Files.exists(file.resolveSibling("access.log.3")), is(false));
+    }
+
+    @Test
+    public void appendsToExistingFile() throws IOException {
+        Path file = Files.createTempDirectory("rolling-file-test").resolve("access.log");
+        Files.write(file, "existing\n".getBytes(UTF_8));
+
+        RollingFileOutput output = new RollingFileOutput(file, 1000, 2);
+        output.write("appended\n".getBytes(UTF_8));
+        output.close();
+
+        assertThat(read(file), is("existing\nappended\n"));
+    }
+
+    @Test
+    public void keepsAppendingToActiveFileWhenRotationFails() throws IOException {
+        Path file = Files.createTempDirectory("rolling-file-test").resolve("access.log");
+        Files.createDirectories(file.resolveSibling("access.log.1").resolve("blocker"));
+        RollingFileOutput output = new RollingFileOutput(file, 5, 1);
+
+        output.write("record-1\n".getBytes(UTF_8));
+        assertThrows(IOException.class, output::rotateIfFull);
+        output.write("record-2\n".getBytes(UTF_8));
+        output.close();
+
+        assertThat(read(file), is("record-1\nrecord-2\n"));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), UTF_8);
+    }
+}
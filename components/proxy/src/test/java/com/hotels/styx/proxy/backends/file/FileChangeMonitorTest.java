@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -38,6 +38,7 @@ import static org.hamcrest.Matchers.matchesPattern;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -83,10 +84,14 @@ public class FileChangeMonitorTest {
         FileChangeMonitor.Listener listener = mock(FileChangeMonitor.Listener.class);
         FileChangeMonitor monitor = new FileChangeMonitor(monitoredFile.toString());
 
-        monitor.start(listener);
-        Exception e = assertThrows(IllegalStateException.class,
-                () -> monitor.start(listener));
-        assertThat(e.getMessage(), matchesPattern("File monitor for '.*' is already started"));
+        try {
+            monitor.start(listener);
+            Exception e = assertThrows(IllegalStateException.class,
+                    () -> monitor.start(listener));
+            assertThat(e.getMessage(), matchesPattern("File monitor for '.*' is already started"));
+        } finally {
+            monitor.stop();
+        }
     }
 
     @Test
@@ -140,6 +145,39 @@ public class FileChangeMonitorTest {
         verify(listener, timeout(3000).times(3)).fileChanged();
     }
 
+    @Test
+    public void detectsChangesWithoutWaitingForPollPeriod() throws Exception {
+        FileChangeMonitor monitor = new FileChangeMonitor(monitoredFile.toString(), Duration.ofMillis(0), Duration.ofHours(1));
+        try {
+            monitor.start(listener);
+            verify(listener, timeout(3000).times(1)).fileChanged();
+
+            write(monitoredFile, "content-v1");
+            verify(listener, timeout(3000).times(2)).fileChanged();
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    public void debouncesBurstsOfChanges() throws Exception {
+        FileChangeMonitor monitor = new FileChangeMonitor(monitoredFile.toString(), Duration.ofMillis(0), Duration.ofHours(1), Duration.ofMillis(500));
+        try {
+            monitor.start(listener);
+            verify(listener, timeout(3000).times(1)).fileChanged();
+
+            for (int i = 1; i < 5; i++) {
+                write(monitoredFile, format("content-v%d", i));
+            }
+            verify(listener, timeout(3000).times(2)).fileChanged();
+
+            Thread.sleep(1000);
+            verify(listener, times(2)).fileChanged();
+        } finally {
+            monitor.stop();
+        }
+    }
+
     void write(Path path, String text) throws Exception {
         LOGGER.info("Writing to temporary file '{}", path);
         LOGGER.info(text);
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import com.hotels.styx.api.HttpInterceptor.Chain;
 import com.hotels.styx.api.HttpResponseStatus;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.SynchronousHttpInterceptor;
 import com.hotels.styx.api.plugins.spi.Plugin;
 import com.hotels.styx.api.plugins.spi.PluginException;
 import io.micrometer.core.instrument.Counter;
@@ -45,6 +46,7 @@ import static com.hotels.styx.proxy.plugin.NamedPlugin.namedPlugin;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -201,6 +203,65 @@ public class InstrumentedPluginTest {
         assertThat(getErrorCount(pluginName), is(0.0));
     }
 
+    @Test
+    public void exposesSynchronousInterceptorOnlyForSynchronousPlugins() {
+        assertThat(instrumentedPlugin("async", PASS_THROUGH).synchronousInterceptor().isPresent(), is(false));
+        assertThat(instrumentedPlugin("sync", new SynchronousPlugin(INTERNAL_SERVER_ERROR)).synchronousInterceptor().isPresent(), is(true));
+    }
+
+    @Test
+    public void doesNotExposeSynchronousInterceptorForPluginsThatOverrideIntercept() {
+        SynchronousPlugin overriding = new SynchronousPlugin(INTERNAL_SERVER_ERROR) {
+            @Override
+            public Eventual<LiveHttpResponse> intercept(LiveHttpRequest request, Chain chain) {
+                return chain.proceed(request);
+            }
+        };
+
+        assertThat(instrumentedPlugin("overriding", overriding).synchronousInterceptor().isPresent(), is(false));
+    }
+
+    @Test
+    public void metricIsRecordedWhenSynchronousPluginMapsToErrorStatus() {
+        String pluginName = "syncReplaceStatus";
+        SynchronousHttpInterceptor interceptor = instrumentedPlugin(pluginName, new SynchronousPlugin(INTERNAL_SERVER_ERROR))
+                .synchronousInterceptor().get();
+
+        LiveHttpResponse response = interceptor.onResponse(someRequest, response(OK).build(), null);
+
+        assertThat(response.status(), is(INTERNAL_SERVER_ERROR));
+        assertThat(getStatusCount(pluginName, "500"), is(1.0));
+        assertThat(getErrorCount(pluginName), is(1.0));
+    }
+
+    @Test
+    public void metricIsNotRecordedWhenSynchronousPluginPassesStatusThrough() {
+        String pluginName = "syncPassThrough";
+        SynchronousHttpInterceptor interceptor = instrumentedPlugin(pluginName, new SynchronousPlugin(null))
+                .synchronousInterceptor().get();
+
+        LiveHttpResponse response = interceptor.onResponse(someRequest, response(INTERNAL_SERVER_ERROR).build(), null);
+
+        assertThat(response.status(), is(INTERNAL_SERVER_ERROR));
+        assertThat(getStatusCount(pluginName, "500"), is(0.0));
+        assertThat(getErrorCount(pluginName), is(0.0));
+    }
+
+    @Test
+    public void metricsAreRecordedWhenSynchronousPluginThrowsException() {
+        String pluginName = "syncException";
+        SynchronousHttpInterceptor interceptor = instrumentedPlugin(pluginName, new SynchronousPlugin(null) {
+            @Override
+            public LiveHttpRequest onRequest(LiveHttpRequest request, Context context) {
+                throw new SomeException();
+            }
+        }).synchronousInterceptor().get();
+
+        assertThrows(PluginException.class, () -> interceptor.onRequest(someRequest, null));
+        assertThat(getExceptionCount(pluginName, SOME_EXCEPTION), is(1.0));
+        assertThat(getErrorCount(pluginName), is(1.0));
+    }
+
     private static Eventual<LiveHttpResponse> aResponse(HttpResponseStatus status) {
         return Eventual.of(response(status).build());
     }
@@ -225,6 +286,19 @@ public class InstrumentedPluginTest {
 
     }
 
+    private static class SynchronousPlugin implements Plugin, SynchronousHttpInterceptor {
+        private final HttpResponseStatus newStatus;
+
+        SynchronousPlugin(HttpResponseStatus newStatus) {
+            this.newStatus = newStatus;
+        }
+
+        @Override
+        public LiveHttpResponse onResponse(LiveHttpRequest request, LiveHttpResponse response, Context context) {
+            return newStatus == null ? response : responseWithNewStatusCode(response, newStatus);
+        }
+    }
+
     private double getStatusCount(String pluginName, String status) {
         return Optional.ofNullable(registry.find("plugin.response")
                 .tags("plugin", pluginName, "statusCode", status)
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -18,7 +18,9 @@ package com.hotels.styx.routing.handlers;
 import com.hotels.styx.api.Eventual;
 import com.hotels.styx.api.HttpHandler;
 import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.SynchronousHttpInterceptor;
 import com.hotels.styx.server.HttpInterceptorContext;
 import com.hotels.styx.server.track.RequestTracker;
 import org.junit.jupiter.api.Test;
@@ -66,6 +68,109 @@ public class StandardHttpPipelineTest {
         assertThat(responseReceivers, contains("interceptor 3", "interceptor 2", "interceptor 1"));
     }
 
+    @Test
+    public void fusesAdjacentSynchronousInterceptorsIntoOneStage() {
+        List<String> requestReceivers = new ArrayList<>();
+        List<String> responseReceivers = new ArrayList<>();
+
+        StandardHttpPipeline pipeline = pipeline(
+                synchronousInterceptor("sync 1", requestReceivers::add, responseReceivers::add),
+                synchronousInterceptor("sync 2", requestReceivers::add, responseReceivers::add),
+                recordingInterceptor("async 3", requestReceivers::add, responseReceivers::add),
+                synchronousInterceptor("sync 4", requestReceivers::add, responseReceivers::add),
+                synchronousInterceptor("sync 5", requestReceivers::add, responseReceivers::add)
+        );
+
+        LiveHttpResponse response = sendRequestTo(pipeline);
+
+        assertThat(response.status(), is(OK));
+        assertThat(pipeline.stageCount(), is(3));
+        assertThat(requestReceivers, contains("sync 1", "sync 2", "async 3", "sync 4", "sync 5"));
+        assertThat(responseReceivers, contains("sync 5", "sync 4", "async 3", "sync 2", "sync 1"));
+    }
+
+    @Test
+    public void synchronousInterceptorsSeeRequestsModifiedByEarlierInterceptors() {
+        AtomicReference<String> seenByHandler = new AtomicReference<>();
+        AtomicReference<String> seenOnResponse = new AtomicReference<>();
+
+        SynchronousHttpInterceptor addHeader = new SynchronousHttpInterceptor() {
+            @Override
+            public LiveHttpRequest onRequest(LiveHttpRequest request, Context context) {
+                return request.newBuilder().header("X-Sync", "1").build();
+            }
+        };
+        SynchronousHttpInterceptor recordHeader = new SynchronousHttpInterceptor() {
+            @Override
+            public LiveHttpResponse onResponse(LiveHttpRequest request, LiveHttpResponse response, Context context) {
+                seenOnResponse.set(request.header("X-Sync").orElse(null));
+                return response;
+            }
+        };
+
+        StandardHttpPipeline pipeline = new StandardHttpPipeline(asList(addHeader, recordHeader), (request, context) -> {
+            seenByHandler.set(request.header("X-Sync").orElse(null));
+            return Eventual.of(response(OK).build());
+        }, RequestTracker.NO_OP);
+
+        sendRequestTo(pipeline);
+
+        assertThat(seenByHandler.get(), is("1"));
+        assertThat(seenOnResponse.get(), is("1"));
+    }
+
+    @Test
+    public void failingSynchronousResponseHandlerSkipsEarlierInterceptors() {
+        List<String> responseReceivers = new ArrayList<>();
+
+        SynchronousHttpInterceptor failing = new SynchronousHttpInterceptor() {
+            @Override
+            public LiveHttpResponse onResponse(LiveHttpRequest request, LiveHttpResponse response, Context context) {
+                throw new IllegalStateException("failed");
+            }
+        };
+
+        StandardHttpPipeline pipeline = pipeline(
+                synchronousInterceptor("sync 1", name -> { }, responseReceivers::add),
+                failing,
+                synchronousInterceptor("sync 3", name -> { }, responseReceivers::add)
+        );
+
+        assertThrows(IllegalStateException.class, () -> sendRequestTo(pipeline));
+        assertThat(responseReceivers, contains("sync 3"));
+    }
+
+    @Test
+    public void runsSynchronousInterceptorThatOverridesInterceptThroughIntercept() {
+        List<String> requestReceivers = new ArrayList<>();
+
+        SynchronousHttpInterceptor overriding = new SynchronousHttpInterceptor() {
+            @Override
+            public LiveHttpRequest onRequest(LiveHttpRequest request, Context context) {
+                requestReceivers.add("onRequest");
+                return request;
+            }
+
+            @Override
+            public Eventual<LiveHttpResponse> intercept(LiveHttpRequest request, Chain chain) {
+                requestReceivers.add("intercept");
+                return chain.proceed(request);
+            }
+        };
+
+        StandardHttpPipeline pipeline = pipeline(
+                synchronousInterceptor("sync 1", requestReceivers::add, name -> { }),
+                overriding,
+                synchronousInterceptor("sync 3", requestReceivers::add, name -> { })
+        );
+
+        LiveHttpResponse response = sendRequestTo(pipeline);
+
+        assertThat(response.status(), is(OK));
+        assertThat(pipeline.stageCount(), is(3));
+        assertThat(requestReceivers, contains("sync 1", "intercept", "sync 3"));
+    }
+
     @Test
     public void interceptorsCanPassInformationThroughContextBeforeRequest() {
         HttpInterceptor addsToContext = (request, chain) -> {
@@ -209,6 +314,22 @@ public class StandardHttpPipelineTest {
         };
     }
 
+    private SynchronousHttpInterceptor synchronousInterceptor(String name, Consumer<String> onInterceptRequest, Consumer<String> onInterceptResponse) {
+        return new SynchronousHttpInterceptor() {
+            @Override
+            public LiveHttpRequest onRequest(LiveHttpRequest request, Context context) {
+                onInterceptRequest.accept(name);
+                return request;
+            }
+
+            @Override
+            public LiveHttpResponse onResponse(LiveHttpRequest request, LiveHttpResponse response, Context context) {
+                onInterceptResponse.accept(name);
+                return response;
+            }
+        };
+    }
+
     private LiveHttpResponse sendRequestTo(StandardHttpPipeline pipeline) {
         HttpInterceptor.Context context = new HttpInterceptorContext(false, InetSocketAddress.createUnresolved("127.0.0.1", 0), Runnable::run);
 
@@ -0,0 +1,87 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.hotels.styx.startup.StartupTimings.COMPONENT_TIMER_NAME;
+import static com.hotels.styx.startup.StartupTimings.PHASE_TIMER_NAME;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StartupTimingsTest {
+
+    @Test
+    public void recordsPhasesInOrderOfFirstRecording() {
+        StartupTimings timings = new StartupTimings();
+
+        timings.time("first", () -> "a");
+        timings.record("second", Duration.ofMillis(250));
+        timings.time("third", () -> "c");
+
+        List<String> names = timings.phases().stream().map(StartupTimings.Phase::name).collect(toList());
+
+        assertThat(names, contains("first", "second", "third"));
+        assertThat(timings.phases().get(1).durationMillis(), is(250L));
+    }
+
+    @Test
+    public void recordsComponentsUnderTheirPhase() {
+        StartupTimings timings = new StartupTimings();
+
+        timings.time("plugins", () -> {
+            timings.timeComponent("plugins", "plugin1", () -> "x");
+            return timings.timeComponent("plugins", "plugin2", () -> "y");
+        });
+
+        StartupTimings.Phase phase = timings.phases().get(0);
+
+        assertThat(phase.name(), is("plugins"));
+        assertThat(phase.components().keySet(), contains("plugin1", "plugin2"));
+        assertThat(phase.durationMillis(), greaterThanOrEqualTo(0L));
+    }
+
+    @Test
+    public void recordsPhaseWhenItFails() {
+        StartupTimings timings = new StartupTimings();
+
+        assertThrows(IllegalStateException.class, () -> timings.time("failing", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertThat(timings.phases().get(0).name(), is("failing"));
+    }
+
+    @Test
+    public void registersTimers() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        StartupTimings timings = new StartupTimings(registry);
+
+        timings.time("plugins", () -> timings.timeComponent("plugins", "plugin1", () -> "x"));
+
+        assertThat(registry.get(PHASE_TIMER_NAME).tag("phase", "plugins").timer().count(), is(1L));
+        assertThat(registry.get(COMPONENT_TIMER_NAME).tags("phase", "plugins", "component", "plugin1").timer().count(), is(1L));
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import com.hotels.styx.api.configuration.Configuration;
 import com.hotels.styx.api.extension.service.spi.StyxService;
 import com.hotels.styx.api.plugins.spi.Plugin;
 import com.hotels.styx.proxy.plugin.NamedPlugin;
+import com.hotels.styx.routing.buffering.SpillBudget;
 import com.hotels.styx.startup.StyxServerComponents.LoggingSetUp;
 import com.hotels.styx.startup.extensions.ConfiguredPluginFactory;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
@@ -33,12 +34,14 @@ import java.util.List;
 import java.util.Map;
 
 import static com.hotels.styx.api.HttpResponse.response;
+import static com.hotels.styx.routing.buffering.ResponseBufferMetrics.SPILL_USAGE_GAUGE_NAME;
 import static com.hotels.styx.support.matchers.IsOptional.isValue;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Matchers.any;
@@ -76,6 +79,31 @@ public class StyxServerComponentsTest {
         assertThat(names, contains("plugin1", "plugin2"));
     }
 
+    @Test
+    public void recordsStartupTimingsOfPlugins() {
+        ConfiguredPluginFactory f1 = new ConfiguredPluginFactory("plugin1", any -> stubPlugin("MyResponse1"));
+        ConfiguredPluginFactory f2 = new ConfiguredPluginFactory("plugin2", any -> stubPlugin("MyResponse2"));
+
+        StyxServerComponents components = new StyxServerComponents.Builder()
+                .registry(new CompositeMeterRegistry())
+                .styxConfig(new StyxConfig())
+                .pluginFactories(ImmutableList.of(f1, f2))
+                .build();
+
+        List<String> phases = components.startupTimings().phases().stream()
+                .map(StartupTimings.Phase::name)
+                .collect(toList());
+
+        assertThat(phases, hasItems("executors", "services", "plugins", "routingObjects", "providers", "servers"));
+
+        StartupTimings.Phase plugins = components.startupTimings().phases().stream()
+                .filter(phase -> phase.name().equals("plugins"))
+                .findFirst()
+                .get();
+
+        assertThat(plugins.components().keySet(), containsInAnyOrder("plugin1", "plugin2"));
+    }
+
     @Test
     public void loadsServices() {
         StyxServerComponents components = new StyxServerComponents.Builder()
@@ -122,10 +150,26 @@ public class StyxServerComponentsTest {
         assertThat(environment.configuration().get("foo", String.class), isValue("abc"));
         assertThat(environment.configuration().get("bar", String.class), isValue("def"));
 
-        assertThat(environment.eventBus(), is(notNullValue()));
+        assertThat(environment.originEventRouter(), is(notNullValue()));
         assertThat(environment.metricRegistry(), is(notNullValue()));
     }
 
+    @Test
+    public void createsOneSpillBudgetForAllResponseBuffers() {
+        Configuration config = new Configuration.MapBackedConfiguration()
+                .set("responseBuffer.spillBudgetMegabytes", 8);
+
+        StyxServerComponents components = new StyxServerComponents.Builder()
+                .registry(new CompositeMeterRegistry())
+                .styxConfig(new StyxConfig(config))
+                .build();
+
+        SpillBudget budget = components.routingObjectFactoryContext().spillBudget();
+
+        assertThat(budget.maxBytes(), is(8L * 1024 * 1024));
+        assertThat(components.environment().meterRegistry().find(SPILL_USAGE_GAUGE_NAME).gauge(), is(notNullValue()));
+    }
+
     private static Plugin stubPlugin(String response) {
         return (request, chain) -> Eventual.of(response().body(response, UTF_8).build().stream());
     }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import com.hotels.styx.infrastructure.configuration.yaml.YamlConfig
 import com.hotels.styx.proxy.plugin.NamedPlugin
 import com.hotels.styx.routing.RoutingObject
 import com.hotels.styx.routing.RoutingObjectRecord
+import com.hotels.styx.routing.buffering.SpillBudget
 import com.hotels.styx.routing.config.Builtins.*
 import com.hotels.styx.routing.config.HttpInterceptorFactory
 import com.hotels.styx.routing.config.RoutingObjectFactory
@@ -56,7 +57,8 @@ internal data class RoutingObjectFactoryContext(
     val plugins: Iterable<NamedPlugin> = listOf(),
     val interceptorFactories: Map<String, HttpInterceptorFactory> = INTERCEPTOR_FACTORIES,
     val requestTracking: Boolean = false,
-    val executorObjectStore: StyxObjectStore<StyxObjectRecord<NettyExecutor>> = executorObjects()) {
+    val executorObjectStore: StyxObjectStore<StyxObjectRecord<NettyExecutor>> = executorObjects(),
+    val spillBudget: SpillBudget = SpillBudget(1024L * 1024L * 1024L)) {
     fun get() = RoutingObjectFactory.Context(
             routeRefLookup,
             environment,
@@ -65,7 +67,8 @@ internal data class RoutingObjectFactoryContext(
             plugins,
             INTERCEPTOR_FACTORIES,
             requestTracking,
-            executorObjectStore)
+            executorObjectStore,
+            spillBudget)
 }
 
 fun executorObjects(): StyxObjectStore<StyxObjectRecord<NettyExecutor>> = StyxObjectStore<StyxObjectRecord<NettyExecutor>>()
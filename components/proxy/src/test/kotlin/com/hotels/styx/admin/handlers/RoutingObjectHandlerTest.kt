@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -160,7 +160,7 @@ class RoutingObjectHandlerTest : FeatureSpec({
             val db = StyxObjectStore<RoutingObjectRecord>()
             val mockObject = RoutingMetadataDecorator(mockObject())
 
-            db.insert("staticResponse", RoutingObjectRecord("StaticResponseHandler", mockk(), mockk(), mockObject))
+            db.insert("staticResponse", RoutingObjectRecord("StaticResponseHandler", setOf(), mockk(), mockObject))
             db.get("staticResponse").isPresent shouldBe true
 
             val handler = RoutingObjectHandler(db, routeFactoryContext.get())
@@ -188,7 +188,7 @@ class RoutingObjectHandlerTest : FeatureSpec({
             val db = StyxObjectStore<RoutingObjectRecord>()
             val mockObject = RoutingMetadataDecorator(mockObject())
 
-            db.insert("staticResponse", RoutingObjectRecord("StaticResponseHandler", mockk(), mockk(), mockObject))
+            db.insert("staticResponse", RoutingObjectRecord("StaticResponseHandler", setOf(), mockk(), mockObject))
 
             val handler = RoutingObjectHandler(db, routeFactoryContext.get())
 
@@ -0,0 +1,198 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.buffering
+
+import com.hotels.styx.api.Buffers.toByteBuf
+import com.hotels.styx.api.Buffers.toStyxBuffer
+import com.hotels.styx.api.Eventual
+import com.hotels.styx.api.HttpInterceptor
+import com.hotels.styx.requestContext
+import io.kotlintest.shouldBe
+import io.kotlintest.specs.FeatureSpec
+import io.netty.buffer.Unpooled.copiedBuffer
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Files
+import java.util.concurrent.Callable
+
+class BodyBufferTest : FeatureSpec({
+
+    fun chunk(content: String) = copiedBuffer(content, UTF_8)
+
+    class DeferredOffloadContext(delegate: HttpInterceptor.Context = requestContext()) : HttpInterceptor.Context by delegate {
+        val tasks = mutableListOf<() -> Unit>()
+
+        override fun <T> offload(task: Callable<T>): Eventual<T> =
+                Eventual(Mono.create { sink -> tasks.add { runCatching { task.call() }.fold(sink::success, sink::error) } })
+    }
+
+    fun BodyBuffer.content() = Flux.from(this.stream(requestContext()))
+            .map { String(it.content(), UTF_8).also { _ -> toByteBuf(it).release() } }
+            .collectList()
+            .block()!!
+            .joinToString("")
+
+    val spillDirectory = Files.createTempDirectory("body-buffer-test")
+
+    feature("Buffering") {
+        scenario("Keeps bodies below the threshold in memory") {
+            val buffer = BodyBuffer(1024, 4096, spillDirectory)
+            val first = chunk("hello, ")
+            val second = chunk("world")
+
+            buffer.append(toStyxBuffer(first)) shouldBe true
+            buffer.append(toStyxBuffer(second)) shouldBe true
+
+            buffer.spilled() shouldBe false
+            buffer.size() shouldBe 12
+            buffer.content() shouldBe "hello, world"
+            buffer.content() shouldBe "hello, world"
+
+            buffer.release()
+            first.refCnt() shouldBe 0
+            second.refCnt() shouldBe 0
+        }
+
+        scenario("Spills bodies above the threshold into a temporary file") {
+            val buffer = BodyBuffer(8, 4096, spillDirectory)
+            val first = chunk("hello, ")
+            val second = chunk("world")
+
+            buffer.append(toStyxBuffer(first)) shouldBe true
+            buffer.flushRequired() shouldBe false
+            buffer.append(toStyxBuffer(second)) shouldBe true
+            buffer.flushRequired() shouldBe true
+            buffer.spilled() shouldBe false
+
+            buffer.flush()
+
+            buffer.flushRequired() shouldBe false
+            buffer.spilled() shouldBe true
+            first.refCnt() shouldBe 0
+            second.refCnt() shouldBe 0
+
+            buffer.content() shouldBe "hello, world"
+            buffer.content() shouldBe "hello, world"
+
+            buffer.release()
+            Files.list(spillDirectory).count() shouldBe 0L
+        }
+
+        scenario("Streams spilled bodies in chunks") {
+            val content = "x".repeat(200 * 1024)
+            val buffer = BodyBuffer(1024, 1024 * 1024, spillDirectory)
+
+            buffer.append(toStyxBuffer(chunk(content))) shouldBe true
+            buffer.flush()
+
+            Flux.from(buffer.stream(requestContext())).collectList().block()!!.let { chunks ->
+                chunks.size shouldBe 4
+                chunks.joinToString("") { String(it.content(), UTF_8) } shouldBe content
+                chunks.forEach { toByteBuf(it).release() }
+            }
+            buffer.release()
+        }
+
+        scenario("Appends to the file once spilled") {
+            val buffer = BodyBuffer(4, 4096, spillDirectory)
+
+            buffer.append(toStyxBuffer(chunk("hello, "))) shouldBe true
+            buffer.flush()
+            buffer.append(toStyxBuffer(chunk("world"))) shouldBe true
+            buffer.flushRequired() shouldBe true
+            buffer.flush()
+
+            buffer.content() shouldBe "hello, world"
+            buffer.release()
+        }
+
+        scenario("Does not spill after release") {
+            val buffer = BodyBuffer(4, 4096, spillDirectory)
+            val first = chunk("hello, ")
+            buffer.append(toStyxBuffer(first)) shouldBe true
+
+            buffer.release()
+            buffer.flush()
+
+            buffer.spilled() shouldBe false
+            first.refCnt() shouldBe 0
+        }
+
+        scenario("Rejects content beyond the maximum size") {
+            val buffer = BodyBuffer(8, 10, spillDirectory)
+            val first = chunk("hello, ")
+            val second = chunk("world")
+
+            buffer.append(toStyxBuffer(first)) shouldBe true
+            buffer.append(toStyxBuffer(second)) shouldBe false
+
+            second.refCnt() shouldBe 0
+            buffer.size() shouldBe 7
+            buffer.release()
+            first.refCnt() shouldBe 0
+        }
+
+        scenario("Fails streams after release") {
+            val buffer = BodyBuffer(1024, 4096, spillDirectory)
+            buffer.append(toStyxBuffer(chunk("hello"))) shouldBe true
+            val stream = buffer.stream(requestContext())
+
+            buffer.release()
+
+            Flux.from(stream).materialize().blockFirst()!!.isOnError shouldBe true
+        }
+
+        scenario("Reads spilled bodies on the offload executor") {
+            val content = "x".repeat(100 * 1024)
+            val buffer = BodyBuffer(1024, 1024 * 1024, spillDirectory)
+            val context = DeferredOffloadContext()
+            val received = mutableListOf<String>()
+
+            buffer.append(toStyxBuffer(chunk(content))) shouldBe true
+            buffer.flush()
+
+            Flux.from(buffer.stream(context)).subscribe { received.add(String(it.content(), UTF_8).also { _ -> toByteBuf(it).release() }) }
+
+            received.size shouldBe 0
+            context.tasks.size shouldBe 1
+
+            context.tasks.removeAt(0)()
+            received.size shouldBe 1
+            context.tasks.size shouldBe 1
+
+            context.tasks.removeAt(0)()
+            received.joinToString("") shouldBe content
+            context.tasks.size shouldBe 0
+
+            buffer.release()
+        }
+
+        scenario("Fails spilled streams released during a read") {
+            val buffer = BodyBuffer(4, 4096, spillDirectory)
+            val context = DeferredOffloadContext()
+
+            buffer.append(toStyxBuffer(chunk("hello, world"))) shouldBe true
+            buffer.flush()
+
+            val result = Flux.from(buffer.stream(context)).materialize().collectList().toFuture()
+            buffer.release()
+            context.tasks.removeAt(0)()
+
+            result.get().first().isOnError shouldBe true
+        }
+    }
+})
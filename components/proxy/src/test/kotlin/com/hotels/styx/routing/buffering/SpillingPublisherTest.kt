@@ -0,0 +1,267 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.buffering
+
+import com.hotels.styx.api.Buffer
+import com.hotels.styx.api.Buffers.toByteBuf
+import com.hotels.styx.api.Buffers.toStyxBuffer
+import com.hotels.styx.api.Eventual
+import com.hotels.styx.api.HttpInterceptor
+import com.hotels.styx.requestContext
+import io.kotlintest.shouldBe
+import io.kotlintest.specs.FeatureSpec
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled.copiedBuffer
+import reactor.core.publisher.BaseSubscriber
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Files
+import java.util.concurrent.Callable
+import java.util.concurrent.atomic.AtomicInteger
+
+class SpillingPublisherTest : FeatureSpec({
+
+    val spillDirectory = Files.createTempDirectory("spilling-publisher-test")
+
+    class Upstream(val count: Int, val chunkSize: Int) {
+        val emitted = AtomicInteger()
+        val chunks = mutableListOf<ByteBuf>()
+
+        fun flux(): Flux<Buffer> = Flux.range(0, count)
+                .map { index -> copiedBuffer(('a' + index).toString().repeat(chunkSize), UTF_8).also { chunks.add(it) } }
+                .map { toStyxBuffer(it) }
+                .doOnNext { emitted.incrementAndGet() }
+
+        fun content() = (0 until count).joinToString("") { ('a' + it).toString().repeat(chunkSize) }
+    }
+
+    class Collector : BaseSubscriber<Buffer>() {
+        val received = StringBuilder()
+        var completed = false
+        var error: Throwable? = null
+
+        override fun hookOnSubscribe(subscription: org.reactivestreams.Subscription) {
+        }
+
+        override fun hookOnNext(value: Buffer) {
+            received.append(String(value.content(), UTF_8))
+            toByteBuf(value).release()
+        }
+
+        override fun hookOnComplete() {
+            completed = true
+        }
+
+        override fun hookOnError(throwable: Throwable) {
+            error = throwable
+        }
+    }
+
+    class DeferredOffloadContext(delegate: HttpInterceptor.Context = requestContext()) : HttpInterceptor.Context by delegate {
+        val tasks = mutableListOf<() -> Unit>()
+
+        override fun <T> offload(task: Callable<T>): Eventual<T> =
+                Eventual(Mono.create { sink -> tasks.add { sink.success(task.call()) } })
+    }
+
+    fun metrics(registry: SimpleMeterRegistry) = ResponseBufferMetrics(registry, "test")
+
+    feature("Draining") {
+        scenario("Drains the upstream into memory without downstream demand") {
+            val upstream = Upstream(10, 100)
+            val budget = SpillBudget(0)
+            val publisher = SpillingPublisher(upstream.flux(), 1000, 0, budget, spillDirectory, metrics(SimpleMeterRegistry()), requestContext())
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+
+            upstream.emitted.get() shouldBe 10
+            publisher.memoryBytes() shouldBe 1000L
+
+            collector.requestUnbounded()
+            collector.received.toString() shouldBe upstream.content()
+            collector.completed shouldBe true
+        }
+
+        scenario("Applies backpressure when memory is full and spilling is not possible") {
+            val upstream = Upstream(10, 100)
+            val budget = SpillBudget(0)
+            val publisher = SpillingPublisher(upstream.flux(), 300, 0, budget, spillDirectory, metrics(SimpleMeterRegistry()), requestContext())
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+            upstream.emitted.get() shouldBe 3
+
+            collector.request(2)
+            upstream.emitted.get() shouldBe 5
+
+            collector.requestUnbounded()
+            collector.received.toString() shouldBe upstream.content()
+            collector.completed shouldBe true
+        }
+
+        scenario("Spills content beyond the memory limit") {
+            val upstream = Upstream(10, 100)
+            val registry = SimpleMeterRegistry()
+            val budget = SpillBudget(10_000)
+            val publisher = SpillingPublisher(upstream.flux(), 300, 10_000, budget, spillDirectory, metrics(registry), requestContext())
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+
+            // The chunk that found memory full is kept in memory while the spill file is created:
+            upstream.emitted.get() shouldBe 10
+            publisher.memoryBytes() shouldBe 400L
+            publisher.spilledBytes() shouldBe 600
+            budget.used() shouldBe 600L
+            upstream.chunks.drop(4).forEach { it.refCnt() shouldBe 0 }
+
+            collector.requestUnbounded()
+            collector.received.toString() shouldBe upstream.content()
+            collector.completed shouldBe true
+            budget.used() shouldBe 0L
+            registry.find(ResponseBufferMetrics.SPILLED_BYTES_COUNTER_NAME).counter()!!.count() shouldBe 600.0
+            registry.find(ResponseBufferMetrics.SPILLED_RESPONSES_COUNTER_NAME).counter()!!.count() shouldBe 1.0
+        }
+
+        scenario("Stops spilling when the shared budget is exhausted") {
+            val upstream = Upstream(10, 100)
+            val registry = SimpleMeterRegistry()
+            val budget = SpillBudget(200)
+            val publisher = SpillingPublisher(upstream.flux(), 300, 10_000, budget, spillDirectory, metrics(registry), requestContext())
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+
+            upstream.emitted.get() shouldBe 6
+            budget.used() shouldBe 200L
+
+            collector.requestUnbounded()
+            collector.received.toString() shouldBe upstream.content()
+            budget.used() shouldBe 0L
+        }
+    }
+
+    feature("Spill file") {
+        scenario("Creates the spill file on the offload executor, and waits for it before requesting more content") {
+            val upstream = Upstream(10, 100)
+            val budget = SpillBudget(10_000)
+            val context = DeferredOffloadContext()
+            val publisher = SpillingPublisher(upstream.flux(), 300, 10_000, budget, spillDirectory, metrics(SimpleMeterRegistry()), context)
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+
+            upstream.emitted.get() shouldBe 4
+            context.tasks.size shouldBe 1
+            publisher.spilledBytes() shouldBe 0
+
+            context.tasks[0]()
+
+            upstream.emitted.get() shouldBe 10
+            publisher.spilledBytes() shouldBe 600
+
+            collector.requestUnbounded()
+            collector.received.toString() shouldBe upstream.content()
+            collector.completed shouldBe true
+        }
+
+        scenario("Maps the spill file in segments as it grows") {
+            val upstream = Upstream(30, 100 * 1024)
+            val budget = SpillBudget(10 * 1024 * 1024)
+            val context = DeferredOffloadContext()
+            val publisher = SpillingPublisher(upstream.flux(), 100 * 1024, 4 * 1024 * 1024, budget, spillDirectory, metrics(SimpleMeterRegistry()), context)
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+
+            // Each 1 MiB segment is mapped when a chunk no longer fits in the previous ones:
+            context.tasks.size shouldBe 1
+            context.tasks[0]()
+            context.tasks.size shouldBe 2
+            context.tasks[1]()
+            context.tasks.size shouldBe 3
+            context.tasks[2]()
+
+            upstream.emitted.get() shouldBe 30
+            publisher.spilledBytes() shouldBe 26 * 100 * 1024
+
+            collector.requestUnbounded()
+            collector.received.toString() shouldBe upstream.content()
+            collector.completed shouldBe true
+            budget.used() shouldBe 0L
+        }
+
+        scenario("Discards a segment prepared after the subscriber has cancelled") {
+            val upstream = Upstream(10, 100)
+            val budget = SpillBudget(10_000)
+            val context = DeferredOffloadContext()
+            val publisher = SpillingPublisher(upstream.flux(), 300, 10_000, budget, spillDirectory, metrics(SimpleMeterRegistry()), context)
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+            collector.cancel()
+            context.tasks[0]()
+
+            upstream.chunks.forEach { it.refCnt() shouldBe 0 }
+            publisher.spilledBytes() shouldBe 0
+        }
+    }
+
+    feature("Termination") {
+        scenario("Releases buffered content when the subscriber cancels") {
+            val upstream = Upstream(10, 100)
+            val budget = SpillBudget(10_000)
+            val publisher = SpillingPublisher(upstream.flux(), 300, 10_000, budget, spillDirectory, metrics(SimpleMeterRegistry()), requestContext())
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+            collector.request(1)
+            collector.cancel()
+
+            upstream.chunks.forEach { it.refCnt() shouldBe 0 }
+            budget.used() shouldBe 0L
+            publisher.memoryBytes() shouldBe 0L
+        }
+
+        scenario("Propagates upstream errors and releases buffered content") {
+            val chunk = copiedBuffer("hello", UTF_8)
+            val upstream = Flux.just(toStyxBuffer(chunk)).concatWith(Flux.error(RuntimeException("Origin failed")))
+            val budget = SpillBudget(0)
+            val publisher = SpillingPublisher(upstream, 1000, 0, budget, spillDirectory, metrics(SimpleMeterRegistry()), requestContext())
+            val collector = Collector()
+
+            publisher.subscribe(collector)
+
+            collector.error!!.message shouldBe "Origin failed"
+            chunk.refCnt() shouldBe 0
+        }
+
+        scenario("Rejects a second subscriber") {
+            val budget = SpillBudget(0)
+            val publisher = SpillingPublisher(Flux.empty(), 1000, 0, budget, spillDirectory, metrics(SimpleMeterRegistry()), requestContext())
+            val first = Collector()
+            val second = Collector()
+
+            publisher.subscribe(first)
+            publisher.subscribe(second)
+
+            (second.error is IllegalStateException) shouldBe true
+        }
+    }
+})
@@ -0,0 +1,87 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.cache
+
+import com.hotels.styx.api.HttpHeaders
+import com.hotels.styx.api.HttpHeaderNames.CACHE_CONTROL
+import com.hotels.styx.api.HttpResponseStatus.OK
+import com.hotels.styx.api.HttpVersion.HTTP_1_1
+import com.hotels.styx.api.LiveHttpRequest
+import io.kotlintest.shouldBe
+import io.kotlintest.shouldNotBe
+import io.kotlintest.specs.FeatureSpec
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.netty.buffer.Unpooled
+
+class HttpCacheStoreTest : FeatureSpec({
+
+    fun entry(size: Int) = CachedResponse.builder()
+            .status(OK)
+            .version(HTTP_1_1)
+            .headers(HttpHeaders.Builder().add(CACHE_CONTROL, "max-age=60").build())
+            .content(Unpooled.directBuffer(size, size).writeZero(size))
+            .build()
+
+    val request = LiveHttpRequest.get("/").build()
+
+    feature("Size bounded storage") {
+        scenario("Evicts entries when the maximum size is exceeded") {
+            val registry = SimpleMeterRegistry()
+            val store = HttpCacheStore(100_000, HttpCacheMetrics(registry, "test"))
+
+            (1..50).forEach { store.put("/$it", request, entry(10_000)) }
+
+            (store.weightedSize() <= 100_000) shouldBe true
+            registry.find(HttpCacheMetrics.EVICTION_COUNTER_NAME).counter()!!.count() shouldNotBe 0.0
+        }
+
+        scenario("Rejects entries larger than the cache") {
+            val store = HttpCacheStore(1_000, HttpCacheMetrics(SimpleMeterRegistry(), "test"))
+            val big = entry(2_000)
+
+            store.put("/big", request, big) shouldBe false
+            store.size() shouldBe 0
+            big.retainContent() shouldBe null
+        }
+
+        scenario("Releases off-heap memory on eviction") {
+            val store = HttpCacheStore(100_000, HttpCacheMetrics(SimpleMeterRegistry(), "test"))
+            val first = entry(1_000)
+
+            store.put("/first", request, first)
+            store.clear()
+
+            first.retainContent() shouldBe null
+            store.weightedSize() shouldBe 0L
+        }
+    }
+
+    feature("W-TinyLFU admission") {
+        scenario("Keeps frequently used entries over a scan of one-off entries") {
+            val store = HttpCacheStore(100_000, HttpCacheMetrics(SimpleMeterRegistry(), "test"))
+
+            (1..5).forEach { store.put("/hot-$it", request, entry(5_000)) }
+            repeat(20) { (1..5).forEach { store.get("/hot-$it", request) } }
+
+            (1..200).forEach {
+                store.get("/scan-$it", request)
+                store.put("/scan-$it", request, entry(5_000))
+            }
+
+            (1..5).forEach { store.get("/hot-$it", request) shouldNotBe null }
+        }
+    }
+})
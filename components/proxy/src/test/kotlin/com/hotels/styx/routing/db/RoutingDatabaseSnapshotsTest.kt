@@ -0,0 +1,141 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.db
+
+import com.hotels.styx.RoutingObjectFactoryContext
+import com.hotels.styx.configBlock
+import com.hotels.styx.routing.RoutingObjectRecord
+import com.hotels.styx.sourceTag
+import com.hotels.styx.stateTag
+import io.kotlintest.matchers.collections.shouldContain
+import io.kotlintest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotlintest.matchers.collections.shouldNotContain
+import io.kotlintest.shouldBe
+import io.kotlintest.specs.FeatureSpec
+import io.mockk.mockk
+import java.nio.file.Files
+import java.time.Duration
+import java.time.Instant
+
+class RoutingDatabaseSnapshotsTest : FeatureSpec() {
+    private val tempDir = createTempDir(suffix = "-${this.javaClass.simpleName}")
+    private val factoryContext = RoutingObjectFactoryContext().get()
+
+    private val staticResponseConfig = configBlock("""
+        status: 200
+        content: "hello"
+        """.trimIndent())
+
+    private fun record(vararg tags: String) = RoutingObjectRecord.create("StaticResponseHandler", tags.toSet(), staticResponseConfig, mockk(relaxed = true))
+
+    private fun snapshots(name: String, routeDb: StyxObjectStore<RoutingObjectRecord>, maxAge: Duration = Duration.ofHours(1)) =
+            RoutingDatabaseSnapshots(tempDir.toPath().resolve(name), Duration.ofSeconds(30), maxAge, routeDb)
+
+    init {
+        feature("Persisting") {
+            scenario("Restores provider owned objects with their tags") {
+                val routeDb = StyxObjectStore<RoutingObjectRecord>()
+                routeDb.insert("app.app-01", record(sourceTag("zone1"), stateTag("active"), "lbGroup=app"))
+                routeDb.insert("app.app-02", record(sourceTag("zone1"), stateTag("unreachable"), "lbGroup=app"))
+                routeDb.insert("root", record())
+
+                snapshots("snapshot-1.json", routeDb).persist()
+
+                val restoredDb = StyxObjectStore<RoutingObjectRecord>()
+                snapshots("snapshot-1.json", restoredDb).restore(setOf("zone1"), factoryContext) shouldBe 2
+
+                restoredDb.entrySet().map { it.key }.shouldContainExactlyInAnyOrder("app.app-01", "app.app-02")
+
+                val restored = restoredDb.get("app.app-01").get()
+                restored.type shouldBe "StaticResponseHandler"
+                restored.config shouldBe staticResponseConfig
+                restored.tags.shouldContain(stateTag("active"))
+                restored.tags.shouldContain("lbGroup=app")
+                restored.tags.filter { it.startsWith("created=") }.size shouldBe 1
+
+                restoredDb.get("app.app-02").get().tags.shouldContain(stateTag("unreachable"))
+            }
+
+            scenario("Writes a snapshot only when the route database has changed") {
+                val routeDb = StyxObjectStore<RoutingObjectRecord>()
+                routeDb.insert("app.app-01", record(sourceTag("zone1")))
+                val snapshots = snapshots("snapshot-2.json", routeDb)
+                val path = tempDir.toPath().resolve("snapshot-2.json")
+
+                snapshots.persistIfChanged()
+                Files.exists(path) shouldBe true
+
+                Files.delete(path)
+                snapshots.persistIfChanged()
+                Files.exists(path) shouldBe false
+
+                routeDb.insert("app.app-02", record(sourceTag("zone1")))
+                snapshots.persistIfChanged()
+                Files.exists(path) shouldBe true
+            }
+        }
+
+        feature("Restoring") {
+            scenario("Skips objects of unknown providers and objects that already exist") {
+                val routeDb = StyxObjectStore<RoutingObjectRecord>()
+                routeDb.insert("app.app-01", record(sourceTag("zone1")))
+                routeDb.insert("app.app-02", record(sourceTag("zone1")))
+                routeDb.insert("other.other-01", record(sourceTag("zone2")))
+                snapshots("snapshot-3.json", routeDb).persist()
+
+                val existing = record(sourceTag("zone1"), stateTag("inactive"))
+                val restoredDb = StyxObjectStore<RoutingObjectRecord>()
+                restoredDb.insert("app.app-02", existing)
+
+                snapshots("snapshot-3.json", restoredDb).restore(setOf("zone1"), factoryContext) shouldBe 1
+
+                restoredDb.entrySet().map { it.key }.shouldContainExactlyInAnyOrder("app.app-01", "app.app-02")
+                restoredDb.entrySet().map { it.key }.shouldNotContain("other.other-01")
+                (restoredDb.get("app.app-02").get() === existing) shouldBe true
+            }
+
+            scenario("Ignores stale snapshots") {
+                val path = tempDir.toPath().resolve("snapshot-4.json")
+                Files.write(path, """
+                    {
+                      "version": 1,
+                      "created": "${Instant.now().minus(Duration.ofHours(2))}",
+                      "routingObjects": {
+                        "app.app-01": { "type": "StaticResponseHandler", "tags": ["source=zone1"], "config": { "status": 200 } }
+                      }
+                    }
+                    """.trimIndent().toByteArray())
+
+                val restoredDb = StyxObjectStore<RoutingObjectRecord>()
+                snapshots("snapshot-4.json", restoredDb).restore(setOf("zone1"), factoryContext) shouldBe 0
+                restoredDb.entrySet().size shouldBe 0
+            }
+
+            scenario("Ignores missing and unreadable snapshots") {
+                val restoredDb = StyxObjectStore<RoutingObjectRecord>()
+                snapshots("no-such-snapshot.json", restoredDb).restore(setOf("zone1"), factoryContext) shouldBe 0
+
+                Files.write(tempDir.toPath().resolve("snapshot-5.json"), "not json {".toByteArray())
+                snapshots("snapshot-5.json", restoredDb).restore(setOf("zone1"), factoryContext) shouldBe 0
+                restoredDb.entrySet().size shouldBe 0
+            }
+        }
+    }
+
+    override fun afterSpec(spec: io.kotlintest.Spec) {
+        tempDir.deleteRecursively()
+    }
+}
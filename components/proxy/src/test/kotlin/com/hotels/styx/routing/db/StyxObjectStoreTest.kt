@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package com.hotels.styx.routing.db
 
+import com.hotels.styx.Tagged
 import com.hotels.styx.api.configuration.ObjectStore
 import io.kotlintest.eventually
 import io.kotlintest.matchers.boolean.shouldBeTrue
@@ -551,6 +552,76 @@ class StyxObjectStoreTest : FeatureSpec() {
                 }
             }
         }
+
+        feature("Tag index") {
+            scenario("Retrieves objects by tag") {
+                val db = StyxObjectStore<TaggedRecord>()
+                db.insert("x", TaggedRecord("x", setOf("lbGroup=a")))
+                db.insert("y", TaggedRecord("y", setOf("lbGroup=b")))
+                db.insert("z", TaggedRecord("z", setOf("lbGroup=a", "state=active")))
+
+                db.entriesWithTag("lbGroup=a").map { it.key }.toSet() shouldBe setOf("x", "z")
+                db.entriesWithTag("lbGroup=b").map { it.key }.toSet() shouldBe setOf("y")
+                db.entriesWithTag("lbGroup=c").shouldBeEmpty()
+            }
+
+            scenario("Maintains index on modification and removal") {
+                val db = StyxObjectStore<TaggedRecord>()
+                db.insert("x", TaggedRecord("x", setOf("lbGroup=a")))
+                db.insert("y", TaggedRecord("y", setOf("lbGroup=a")))
+
+                db.compute("x") { TaggedRecord("x", setOf("lbGroup=b")) }
+                db.remove("y")
+
+                db.entriesWithTag("lbGroup=a").shouldBeEmpty()
+                db.entriesWithTag("lbGroup=b").map { it.key } shouldBe listOf("x")
+            }
+        }
+
+        feature("Watch by tag") {
+            scenario("Emits matching objects as added on subscription") {
+                val db = StyxObjectStore<TaggedRecord>()
+                db.insert("x", TaggedRecord("x", setOf("lbGroup=a")))
+                db.insert("y", TaggedRecord("y", setOf("lbGroup=b")))
+
+                StepVerifier.create(db.watch("lbGroup=a"))
+                        .assertNext {
+                            it.added.keys shouldBe setOf("x")
+                            it.updated.keys.shouldBeEmpty()
+                            it.removed.keys.shouldBeEmpty()
+                        }
+                        .thenCancel()
+                        .verify(1.seconds)
+            }
+
+            scenario("Emits only changes to matching objects") {
+                val db = StyxObjectStore<TaggedRecord>()
+                val a1 = TaggedRecord("a1", setOf("lbGroup=a"))
+                val a2 = TaggedRecord("a2", setOf("lbGroup=a"))
+
+                StepVerifier.create(db.watch("lbGroup=a"))
+                        .assertNext { it.isEmpty().shouldBeTrue() }
+                        .then {
+                            db.insert("b", TaggedRecord("b", setOf("lbGroup=b")))
+                            db.insert("a", a1)
+                        }
+                        .assertNext {
+                            it.added shouldBe mapOf("a" to a1)
+                            it.snapshot.get("b").isPresent.shouldBeTrue()
+                        }
+                        .then { db.insert("a", a2) }
+                        .assertNext { it.updated shouldBe mapOf("a" to a2) }
+                        .then { db.compute("a") { TaggedRecord("a3", setOf("lbGroup=b")) } }
+                        .assertNext { it.removed shouldBe mapOf("a" to a2) }
+                        .thenCancel()
+                        .verify(1.seconds)
+
+                eventually(1.seconds, AssertionError::class.java) {
+                    db.watchers() shouldBe 0
+                }
+            }
+        }
     }
 
+    private data class TaggedRecord(val payload: String, override val tags: Set<String>) : Tagged
 }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -128,6 +128,38 @@ class ConditionRouterConfigTest : FeatureSpec({
         }
 
 
+        scenario("Routes to the first matching condition across indexed and regex rules") {
+            val router = ConditionRouter.Factory().build(listOf(), context.get(), routingObjectDef("""
+              name: main-router
+              type: ConditionRouter
+              config:
+                routes:
+                  - condition: header("Host") == "a.com" OR header("Host") == "b.com"
+                    destination: secureHandler
+                  - condition: header("Host") =~ ".*[.]org"
+                    destination: secureHandler
+                  - condition: header("Host") == "c.com"
+                    destination:
+                      name: c-handler
+                      type: StaticResponseHandler
+                      config:
+                        status: 200
+                        content: "c"
+                fallback: fallbackHandler
+                """.trimIndent())
+            )
+
+            fun source(host: String) = router.handle(LiveHttpRequest.get("/foo").header("Host", host).build(), requestContext())
+                    .toMono()
+                    .block()!!
+                    .header("source").orElse("none")
+
+            source("b.com") shouldBe ("secure")
+            source("x.org") shouldBe ("secure")
+            source("c.com") shouldBe ("none")
+            source("d.com") shouldBe ("fallback")
+        }
+
         scenario("Throws exception when routes attribute is missing") {
             val e = shouldThrow<IllegalArgumentException> {
                 ConditionRouter.Factory().build(listOf("config", "config"), context.get(), routingObjectDef("""
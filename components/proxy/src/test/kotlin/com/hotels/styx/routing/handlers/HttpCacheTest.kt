@@ -0,0 +1,287 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers
+
+import ch.qos.logback.classic.Level.ERROR
+import com.hotels.styx.RoutingObjectFactoryContext
+import com.hotels.styx.api.Buffer
+import com.hotels.styx.api.ByteStream
+import com.hotels.styx.api.Clock
+import com.hotels.styx.api.Eventual
+import com.hotels.styx.api.HttpHeaderNames.AGE
+import com.hotels.styx.api.HttpHeaderNames.CACHE_CONTROL
+import com.hotels.styx.api.HttpHeaderNames.ETAG
+import com.hotels.styx.api.HttpHeaderNames.IF_NONE_MATCH
+import com.hotels.styx.api.HttpHeaderNames.VARY
+import com.hotels.styx.api.HttpRequest
+import com.hotels.styx.api.HttpResponse.response
+import com.hotels.styx.api.HttpResponseStatus.INTERNAL_SERVER_ERROR
+import com.hotels.styx.api.HttpResponseStatus.NOT_MODIFIED
+import com.hotels.styx.api.HttpResponseStatus.OK
+import com.hotels.styx.api.LiveHttpRequest
+import com.hotels.styx.api.LiveHttpResponse
+import com.hotels.styx.handle
+import com.hotels.styx.requestContext
+import com.hotels.styx.routing.RoutingObject
+import com.hotels.styx.routing.cache.HttpCacheMetrics
+import com.hotels.styx.routing.cache.HttpCacheStore
+import com.hotels.styx.routingObjectDef
+import com.hotels.styx.support.matchers.LoggingTestSupport
+import io.kotlintest.matchers.types.shouldBeInstanceOf
+import io.kotlintest.shouldBe
+import io.kotlintest.specs.FeatureSpec
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.netty.buffer.Unpooled
+import io.netty.util.ResourceLeakDetector
+import io.netty.util.ResourceLeakDetector.Level.PARANOID
+import reactor.core.publisher.Flux
+import reactor.core.publisher.toMono
+import java.nio.charset.StandardCharsets.UTF_8
+
+class HttpCacheTest : FeatureSpec({
+
+    class TestClock(var now: Long = 0) : Clock {
+        override fun tickMillis() = now
+    }
+
+    class Origin(var response: () -> LiveHttpResponse) : RoutingObject {
+        val requests = mutableListOf<LiveHttpRequest>()
+
+        override fun handle(request: LiveHttpRequest, context: com.hotels.styx.api.HttpInterceptor.Context?): Eventual<LiveHttpResponse> {
+            requests.add(request)
+            return Eventual.of(response())
+        }
+    }
+
+    fun cacheable(body: String, vararg headers: Pair<CharSequence, String>) = {
+        headers.fold(response(OK).body(body, UTF_8)) { builder, (name, value) -> builder.addHeader(name, value) }
+                .build()
+                .stream()
+    }
+
+    fun leaksReportedAfter(action: () -> Unit): List<String> {
+        val level = ResourceLeakDetector.getLevel()
+        val log = LoggingTestSupport(ResourceLeakDetector::class.java)
+        val logLevel = log.logger.level
+        log.logger.level = ERROR
+        ResourceLeakDetector.setLevel(PARANOID)
+        try {
+            action()
+            // Leaks are detected once the buffers are garbage collected, and reported on the next allocation:
+            repeat(10) {
+                System.gc()
+                Thread.sleep(10)
+                Unpooled.directBuffer(1).release()
+            }
+            return log.log().map { it.formattedMessage }.filter { it.contains("LEAK") }
+        } finally {
+            ResourceLeakDetector.setLevel(level)
+            log.logger.level = logLevel
+            log.stop()
+        }
+    }
+
+    fun httpCache(origin: RoutingObject, clock: Clock, registry: SimpleMeterRegistry = SimpleMeterRegistry()) =
+            HttpCacheMetrics(registry, "test-cache").let {
+                HttpCache(origin, HttpCacheStore(1024 * 1024, it), it, clock, 64 * 1024, 0, 60)
+            }
+
+    feature("Caching") {
+        scenario("Serves fresh responses from cache") {
+            val clock = TestClock()
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=60"))
+            val registry = SimpleMeterRegistry()
+            val cache = httpCache(origin, clock, registry)
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "hello"
+
+            clock.now = 10_000
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.let {
+                it.bodyAs(UTF_8) shouldBe "hello"
+                it.header(AGE).get() shouldBe "10"
+            }
+
+            origin.requests.size shouldBe 1
+            registry.find(HttpCacheMetrics.HIT_COUNTER_NAME).counter()!!.count() shouldBe 1.0
+            registry.find(HttpCacheMetrics.MISS_COUNTER_NAME).counter()!!.count() shouldBe 1.0
+        }
+
+        scenario("Does not store no-store or private responses") {
+            listOf("no-store", "private, max-age=60").forEach { directive ->
+                val origin = Origin(cacheable("hello", CACHE_CONTROL to directive))
+                val cache = httpCache(origin, TestClock())
+
+                cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+                cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+
+                origin.requests.size shouldBe 2
+            }
+        }
+
+        scenario("Bypasses the cache for requests with no-store directive") {
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=60"))
+            val cache = httpCache(origin, TestClock())
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+            cache.handle(HttpRequest.get("/catalogue").header(CACHE_CONTROL, "no-store").build()).toMono().block()
+
+            origin.requests.size shouldBe 2
+        }
+
+        scenario("Stores a separate variant for each value of Vary headers") {
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=60", VARY to "Accept-Language"))
+            val cache = httpCache(origin, TestClock())
+
+            cache.handle(HttpRequest.get("/catalogue").header("Accept-Language", "en").build()).toMono().block()
+            cache.handle(HttpRequest.get("/catalogue").header("Accept-Language", "fi").build()).toMono().block()
+            cache.handle(HttpRequest.get("/catalogue").header("Accept-Language", "en").build()).toMono().block()
+            cache.handle(HttpRequest.get("/catalogue").header("Accept-Language", "fi").build()).toMono().block()
+
+            origin.requests.size shouldBe 2
+        }
+
+        scenario("Invalidates stored responses after a successful unsafe request") {
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=60"))
+            val cache = httpCache(origin, TestClock())
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+            cache.handle(HttpRequest.post("/catalogue").build()).toMono().block()
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+
+            origin.requests.size shouldBe 3
+        }
+
+        scenario("Answers matching conditional requests with 304 Not Modified") {
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=60", ETAG to "\"v1\""))
+            val cache = httpCache(origin, TestClock())
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+
+            cache.handle(HttpRequest.get("/catalogue").header(IF_NONE_MATCH, "\"v1\"").build())
+                    .toMono()
+                    .block()!!
+                    .status() shouldBe NOT_MODIFIED
+        }
+    }
+
+    feature("Revalidation") {
+        scenario("Revalidates stale responses with a conditional request") {
+            val clock = TestClock()
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=10", ETAG to "\"v1\""))
+            val cache = httpCache(origin, clock)
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+
+            clock.now = 20_000
+            origin.response = { LiveHttpResponse.response(NOT_MODIFIED).header(CACHE_CONTROL, "max-age=10").build() }
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.let {
+                it.status() shouldBe OK
+                it.bodyAs(UTF_8) shouldBe "hello"
+            }
+
+            origin.requests.size shouldBe 2
+            origin.requests[1].header(IF_NONE_MATCH).get() shouldBe "\"v1\""
+
+            clock.now = 25_000
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "hello"
+            origin.requests.size shouldBe 2
+        }
+
+        scenario("Serves stale content while revalidating in the background") {
+            val clock = TestClock()
+            val origin = Origin(cacheable("v1", CACHE_CONTROL to "max-age=10, stale-while-revalidate=30"))
+            val cache = httpCache(origin, clock)
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+
+            clock.now = 20_000
+            origin.response = cacheable("v2", CACHE_CONTROL to "max-age=10")
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "v1"
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "v2"
+            origin.requests.size shouldBe 2
+        }
+
+        scenario("Serves stale content when the origin fails") {
+            val clock = TestClock()
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=10"))
+            val cache = httpCache(origin, clock)
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+
+            clock.now = 20_000
+            origin.response = { LiveHttpResponse.response(INTERNAL_SERVER_ERROR).build() }
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.let {
+                it.status() shouldBe OK
+                it.bodyAs(UTF_8) shouldBe "hello"
+            }
+        }
+
+        scenario("Passes origin errors through when the stored response must be revalidated") {
+            val clock = TestClock()
+            val origin = Origin(cacheable("hello", CACHE_CONTROL to "max-age=10, must-revalidate"))
+            val cache = httpCache(origin, clock)
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()
+
+            clock.now = 20_000
+            origin.response = { LiveHttpResponse.response(INTERNAL_SERVER_ERROR).build() }
+
+            cache.handle(HttpRequest.get("/catalogue").build()).toMono().block()!!.status() shouldBe INTERNAL_SERVER_ERROR
+        }
+    }
+
+    feature("Resources") {
+        scenario("Does not leak memory when the response body is never subscribed to") {
+            val origin = Origin {
+                // The body is created on subscription, so that only the cache could leak:
+                LiveHttpResponse.response(OK)
+                        .header(CACHE_CONTROL, "max-age=60")
+                        .body(ByteStream(Flux.defer { Flux.just(Buffer("hello", UTF_8)) }))
+                        .build()
+            }
+            val cache = httpCache(origin, TestClock())
+
+            leaksReportedAfter {
+                repeat(100) {
+                    cache.handle(LiveHttpRequest.get("/catalogue/$it").build(), requestContext()).toMono().block()!!
+                }
+            } shouldBe emptyList<String>()
+        }
+    }
+
+    feature("Factory") {
+        scenario("Builds an HttpCache instance") {
+            val routingDef = routingObjectDef("""
+                  type: HttpCache
+                  config:
+                    maxSizeMegabytes: 1
+                    destination:
+                      type: StaticResponseHandler
+                      config:
+                        status: 200
+                        content: hello
+                    """.trimIndent())
+
+            val handler = HttpCache.Factory().build(listOf("cache"), RoutingObjectFactoryContext().get(), routingDef)
+
+            handler.shouldBeInstanceOf<HttpCache>()
+            handler.handle(HttpRequest.get("/").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "hello"
+        }
+    }
+})
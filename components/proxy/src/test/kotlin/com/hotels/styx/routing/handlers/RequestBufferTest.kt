@@ -0,0 +1,168 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers
+
+import com.hotels.styx.RoutingObjectFactoryContext
+import com.hotels.styx.api.Buffer
+import com.hotels.styx.api.ByteStream
+import com.hotels.styx.api.Eventual
+import com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH
+import com.hotels.styx.api.HttpHeaderNames.TRANSFER_ENCODING
+import com.hotels.styx.api.HttpInterceptor
+import com.hotels.styx.api.HttpRequest
+import com.hotels.styx.api.HttpResponseStatus.OK
+import com.hotels.styx.api.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE
+import com.hotels.styx.api.LiveHttpRequest
+import com.hotels.styx.api.LiveHttpResponse
+import com.hotels.styx.api.LiveHttpResponse.response
+import com.hotels.styx.handle
+import com.hotels.styx.requestContext
+import com.hotels.styx.routing.RoutingObject
+import com.hotels.styx.routingObjectDef
+import io.kotlintest.matchers.types.shouldBeInstanceOf
+import io.kotlintest.shouldBe
+import io.kotlintest.specs.FeatureSpec
+import reactor.core.publisher.Mono
+import reactor.core.publisher.toMono
+import reactor.test.publisher.TestPublisher
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Files
+import java.util.concurrent.Callable
+
+class RequestBufferTest : FeatureSpec({
+
+    class Origin : RoutingObject {
+        val requests = mutableListOf<HttpRequest>()
+
+        override fun handle(request: LiveHttpRequest, context: HttpInterceptor.Context?): Eventual<LiveHttpResponse> =
+                request.aggregate(1024 * 1024)
+                        .map {
+                            requests.add(it)
+                            response(OK).body(ByteStream.from("received ${it.body().size} bytes", UTF_8)).build()
+                        }
+    }
+
+    class DeferredOffloadContext(delegate: HttpInterceptor.Context = requestContext()) : HttpInterceptor.Context by delegate {
+        val tasks = mutableListOf<() -> Unit>()
+
+        override fun <T> offload(task: Callable<T>): Eventual<T> =
+                Eventual(Mono.create { sink -> tasks.add { sink.success(task.call()) } })
+    }
+
+    val spillDirectory = Files.createTempDirectory("request-buffer-test")
+
+    feature("Buffering") {
+        scenario("Calls the destination only after the whole body has been received") {
+            val origin = Origin()
+            val body = TestPublisher.create<Buffer>()
+            val request = LiveHttpRequest.post("/upload")
+                    .header(TRANSFER_ENCODING, "chunked")
+                    .body(ByteStream(body))
+                    .build()
+
+            val response = RequestBuffer(origin, 4, 1024, spillDirectory)
+                    .handle(request, requestContext())
+                    .flatMap { it.aggregate(1024) }
+                    .toMono()
+                    .toFuture()
+
+            body.next(Buffer("hello, ", UTF_8))
+            body.next(Buffer("world", UTF_8))
+            origin.requests.size shouldBe 0
+
+            body.complete()
+
+            response.get().bodyAs(UTF_8) shouldBe "received 12 bytes"
+            origin.requests[0].let {
+                it.bodyAs(UTF_8) shouldBe "hello, world"
+                it.header(CONTENT_LENGTH).get() shouldBe "12"
+                it.header(TRANSFER_ENCODING).isPresent shouldBe false
+            }
+            Files.list(spillDirectory).count() shouldBe 0L
+        }
+
+        scenario("Spills to and reads from file on the offload executor, without reading further content meanwhile") {
+            val origin = Origin()
+            val context = DeferredOffloadContext()
+            val body = TestPublisher.create<Buffer>()
+            val request = LiveHttpRequest.post("/upload")
+                    .header(TRANSFER_ENCODING, "chunked")
+                    .body(ByteStream(body))
+                    .build()
+
+            val response = RequestBuffer(origin, 4, 1024, spillDirectory)
+                    .handle(request, context)
+                    .flatMap { it.aggregate(1024) }
+                    .toMono()
+                    .toFuture()
+
+            body.next(Buffer("hello, ", UTF_8))
+            context.tasks.size shouldBe 1
+
+            body.next(Buffer("world", UTF_8))
+            body.assertMaxRequested(0)
+            context.tasks.size shouldBe 1
+
+            context.tasks[0]()
+            context.tasks.size shouldBe 2
+
+            context.tasks[1]()
+            body.complete()
+
+            // The spilled body is read back on the offload executor too:
+            context.tasks.size shouldBe 3
+            context.tasks[2]()
+
+            response.get().bodyAs(UTF_8) shouldBe "received 12 bytes"
+            origin.requests[0].bodyAs(UTF_8) shouldBe "hello, world"
+            Files.list(spillDirectory).count() shouldBe 0L
+        }
+
+        scenario("Rejects bodies over the maximum size") {
+            val origin = Origin()
+
+            val response = RequestBuffer(origin, 4, 8, spillDirectory)
+                    .handle(HttpRequest.post("/upload").body("hello, world", UTF_8).build())
+                    .toMono()
+                    .block()!!
+
+            response.status() shouldBe REQUEST_ENTITY_TOO_LARGE
+            origin.requests.size shouldBe 0
+            Files.list(spillDirectory).count() shouldBe 0L
+        }
+    }
+
+    feature("Factory") {
+        scenario("Builds a RequestBuffer instance") {
+            val routingDef = routingObjectDef("""
+                  type: RequestBuffer
+                  config:
+                    maxMemoryKilobytes: 16
+                    maxSizeMegabytes: 1
+                    destination:
+                      type: StaticResponseHandler
+                      config:
+                        status: 200
+                        content: hello
+                    """.trimIndent())
+
+            val handler = RequestBuffer.Factory().build(listOf("buffer"), RoutingObjectFactoryContext().get(), routingDef)
+
+            handler.shouldBeInstanceOf<RequestBuffer>()
+            handler.handle(HttpRequest.post("/").body("content", UTF_8).build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "hello"
+        }
+    }
+})
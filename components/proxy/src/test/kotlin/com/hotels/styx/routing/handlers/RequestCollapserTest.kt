@@ -0,0 +1,250 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers
+
+import com.hotels.styx.RoutingObjectFactoryContext
+import com.hotels.styx.api.Clock
+import com.hotels.styx.api.Eventual
+import com.hotels.styx.api.HttpHeaderNames.CACHE_CONTROL
+import com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH
+import com.hotels.styx.api.HttpHeaderNames.VARY
+import com.hotels.styx.api.HttpInterceptor
+import com.hotels.styx.api.HttpRequest
+import com.hotels.styx.api.HttpResponse.response
+import com.hotels.styx.api.HttpResponseStatus.OK
+import com.hotels.styx.api.LiveHttpRequest
+import com.hotels.styx.api.LiveHttpResponse
+import com.hotels.styx.handle
+import com.hotels.styx.routing.RoutingObject
+import com.hotels.styx.routingObjectDef
+import io.kotlintest.matchers.types.shouldBeInstanceOf
+import io.kotlintest.shouldBe
+import io.kotlintest.specs.FeatureSpec
+import reactor.core.publisher.toMono
+import java.nio.charset.StandardCharsets.UTF_8
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit.SECONDS
+
+class RequestCollapserTest : FeatureSpec({
+
+    class TestClock(var now: Long = 0) : Clock {
+        override fun tickMillis() = now
+    }
+
+    class Origin : RoutingObject {
+        val requests = mutableListOf<LiveHttpRequest>()
+        val responses = mutableListOf<CompletableFuture<LiveHttpResponse>>()
+
+        override fun handle(request: LiveHttpRequest, context: HttpInterceptor.Context?): Eventual<LiveHttpResponse> {
+            requests.add(request)
+            return CompletableFuture<LiveHttpResponse>()
+                    .also { responses.add(it) }
+                    .let { Eventual.from(it) }
+        }
+
+        fun respond(body: String, vararg headers: Pair<CharSequence, String>) {
+            val response = headers.fold(response(OK).body(body, UTF_8)) { builder, (name, value) -> builder.addHeader(name, value) }
+                    .build()
+                    .stream()
+            responses.toList().filter { !it.isDone }.forEach { it.complete(response) }
+        }
+    }
+
+    fun send(collapser: RoutingObject, request: HttpRequest) = collapser.handle(request).toMono().toFuture()
+
+    feature("Collapsing") {
+        scenario("Shares one upstream request between concurrent identical requests") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 1024, 5000, TestClock())
+
+            val first = send(collapser, HttpRequest.get("/catalogue").build())
+            val second = send(collapser, HttpRequest.get("/catalogue").build())
+            val third = send(collapser, HttpRequest.get("/catalogue").build())
+
+            origin.requests.size shouldBe 1
+            origin.respond("hello")
+
+            listOf(first, second, third).forEach {
+                it.get(1, SECONDS).let { response ->
+                    response.bodyAs(UTF_8) shouldBe "hello"
+                    response.header(CONTENT_LENGTH).get() shouldBe "5"
+                }
+            }
+            collapser.inFlightCount() shouldBe 0
+        }
+
+        scenario("Forwards requests once the previous one has completed") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 1024, 5000, TestClock())
+
+            val first = send(collapser, HttpRequest.get("/catalogue").build())
+            origin.respond("hello")
+            first.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+
+            send(collapser, HttpRequest.get("/catalogue").build())
+            origin.requests.size shouldBe 2
+        }
+
+        scenario("Keeps requests apart by URL and key headers") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf("Accept-Language"), 1024, 5000, TestClock())
+
+            send(collapser, HttpRequest.get("/catalogue").header("Accept-Language", "en").build())
+            send(collapser, HttpRequest.get("/catalogue").header("Accept-Language", "fi").build())
+            send(collapser, HttpRequest.get("/catalogue?page=2").header("Accept-Language", "en").build())
+            send(collapser, HttpRequest.get("/catalogue").header("Accept-Language", "en").build())
+
+            origin.requests.size shouldBe 3
+        }
+
+        scenario("Does not collapse unsafe or authorised requests") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 1024, 5000, TestClock())
+
+            send(collapser, HttpRequest.post("/catalogue").build())
+            send(collapser, HttpRequest.post("/catalogue").build())
+            send(collapser, HttpRequest.get("/catalogue").header("Authorization", "Basic abc").build())
+            send(collapser, HttpRequest.get("/catalogue").header("Authorization", "Basic abc").build())
+
+            origin.requests.size shouldBe 4
+        }
+    }
+
+    feature("Fallback") {
+        scenario("Waiting requests fall back when the response exceeds the size limit") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 4, 5000, TestClock())
+
+            val first = send(collapser, HttpRequest.get("/catalogue").build())
+            val second = send(collapser, HttpRequest.get("/catalogue").build())
+            origin.respond("hello")
+
+            first.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+            origin.requests.size shouldBe 2
+
+            origin.respond("hello")
+            second.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+            collapser.inFlightCount() shouldBe 0
+        }
+
+        scenario("Waiting requests fall back when the response is not shareable") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 1024, 5000, TestClock())
+
+            val first = send(collapser, HttpRequest.get("/catalogue").build())
+            val second = send(collapser, HttpRequest.get("/catalogue").build())
+            origin.respond("hello", CACHE_CONTROL to "private")
+
+            first.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+            origin.requests.size shouldBe 2
+
+            origin.respond("hello", CACHE_CONTROL to "private")
+            second.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+        }
+
+        scenario("Waiting requests fall back when the response varies on other headers than the key headers") {
+            listOf("Accept-Encoding", "Accept-Language, accept-encoding", "*").forEach { vary ->
+                val origin = Origin()
+                val collapser = RequestCollapser(origin, listOf("Accept-Language"), 1024, 5000, TestClock())
+
+                val first = send(collapser, HttpRequest.get("/catalogue").header("Accept-Encoding", "gzip").build())
+                val second = send(collapser, HttpRequest.get("/catalogue").header("Accept-Encoding", "identity").build())
+                origin.respond("compressed", VARY to vary)
+
+                first.get(1, SECONDS).bodyAs(UTF_8) shouldBe "compressed"
+                origin.requests.size shouldBe 2
+
+                origin.respond("plain", VARY to vary)
+                second.get(1, SECONDS).bodyAs(UTF_8) shouldBe "plain"
+            }
+        }
+
+        scenario("Shares a response that varies only on key headers") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf("Accept-Language"), 1024, 5000, TestClock())
+
+            val first = send(collapser, HttpRequest.get("/catalogue").header("Accept-Language", "en").build())
+            val second = send(collapser, HttpRequest.get("/catalogue").header("Accept-Language", "en").build())
+            origin.respond("hello", VARY to "accept-language")
+
+            first.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+            second.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+            origin.requests.size shouldBe 1
+        }
+
+        scenario("Waiting requests fall back when the leading request fails") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 1024, 5000, TestClock())
+
+            val first = send(collapser, HttpRequest.get("/catalogue").build())
+            val second = send(collapser, HttpRequest.get("/catalogue").build())
+            origin.responses[0].completeExceptionally(RuntimeException("Origin failed"))
+
+            first.isCompletedExceptionally shouldBe true
+            origin.requests.size shouldBe 2
+
+            origin.respond("hello")
+            second.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+        }
+
+        scenario("Waiting requests fall back after the timeout") {
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 1024, 50, TestClock())
+
+            send(collapser, HttpRequest.get("/catalogue").build())
+            val second = send(collapser, HttpRequest.get("/catalogue").build())
+
+            Thread.sleep(200)
+            origin.requests.size shouldBe 2
+
+            origin.responses[1].complete(response(OK).body("hello", UTF_8).build().stream())
+            second.get(1, SECONDS).bodyAs(UTF_8) shouldBe "hello"
+        }
+
+        scenario("Replaces an expired in-flight request") {
+            val clock = TestClock()
+            val origin = Origin()
+            val collapser = RequestCollapser(origin, listOf(), 1024, 5000, clock)
+
+            send(collapser, HttpRequest.get("/catalogue").build())
+            clock.now = 6000
+            send(collapser, HttpRequest.get("/catalogue").build())
+
+            origin.requests.size shouldBe 2
+        }
+    }
+
+    feature("Factory") {
+        scenario("Builds a RequestCollapser instance") {
+            val routingDef = routingObjectDef("""
+                  type: RequestCollapser
+                  config:
+                    keyHeaders: [ "Accept-Language" ]
+                    timeoutMillis: 1000
+                    destination:
+                      type: StaticResponseHandler
+                      config:
+                        status: 200
+                        content: hello
+                    """.trimIndent())
+
+            val handler = RequestCollapser.Factory().build(listOf("collapser"), RoutingObjectFactoryContext().get(), routingDef)
+
+            handler.shouldBeInstanceOf<RequestCollapser>()
+            handler.handle(HttpRequest.get("/").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "hello"
+        }
+    }
+})
@@ -0,0 +1,100 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers
+
+import com.hotels.styx.RoutingObjectFactoryContext
+import com.hotels.styx.api.HttpRequest
+import com.hotels.styx.handle
+import com.hotels.styx.routing.buffering.ResponseBufferMetrics
+import com.hotels.styx.routing.buffering.SpillBudget
+import com.hotels.styx.routingObjectDef
+import io.kotlintest.matchers.types.shouldBeInstanceOf
+import io.kotlintest.shouldBe
+import io.kotlintest.specs.FeatureSpec
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import reactor.core.publisher.toMono
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Files
+
+class ResponseBufferTest : FeatureSpec({
+
+    feature("Buffering") {
+        scenario("Passes responses through a spilling buffer") {
+            val content = "x".repeat(10_000)
+            val destination = StaticResponseHandler(200, content, null)
+            val budget = SpillBudget(1024 * 1024)
+            val registry = SimpleMeterRegistry()
+            val buffer = ResponseBuffer(destination, 1024, 1024 * 1024, budget,
+                    Files.createTempDirectory("response-buffer-test"), ResponseBufferMetrics(registry, "test"))
+
+            buffer.handle(HttpRequest.get("/").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe content
+            budget.used() shouldBe 0L
+        }
+
+        scenario("Removes its metrics when stopped") {
+            val budget = SpillBudget(1024)
+            val registry = SimpleMeterRegistry()
+            val buffer = ResponseBuffer(StaticResponseHandler(200, "hello", null), 1024, 1024, budget,
+                    Files.createTempDirectory("response-buffer-test"), ResponseBufferMetrics(registry, "test"))
+
+            buffer.stop()
+
+            registry.meters.size shouldBe 0
+        }
+    }
+
+    feature("Factory") {
+        scenario("Builds a ResponseBuffer instance") {
+            val routingDef = routingObjectDef("""
+                  type: ResponseBuffer
+                  config:
+                    maxMemoryKilobytes: 16
+                    maxSpillMegabytes: 1
+                    destination:
+                      type: StaticResponseHandler
+                      config:
+                        status: 200
+                        content: hello
+                    """.trimIndent())
+
+            val handler = ResponseBuffer.Factory().build(listOf("buffer"), RoutingObjectFactoryContext().get(), routingDef)
+
+            handler.shouldBeInstanceOf<ResponseBuffer>()
+            handler.handle(HttpRequest.get("/").build()).toMono().block()!!.bodyAs(UTF_8) shouldBe "hello"
+        }
+
+        scenario("Shares the spill budget of the factory context") {
+            val budget = SpillBudget(100)
+            val context = RoutingObjectFactoryContext(spillBudget = budget).get()
+            val routingDef = routingObjectDef("""
+                  type: ResponseBuffer
+                  config:
+                    maxMemoryKilobytes: 0
+                    destination:
+                      type: StaticResponseHandler
+                      config:
+                        status: 200
+                        content: hello
+                    """.trimIndent())
+
+            val first = ResponseBuffer.Factory().build(listOf("first"), context, routingDef) as ResponseBuffer
+            val second = ResponseBuffer.Factory().build(listOf("second"), context, routingDef) as ResponseBuffer
+
+            first.budget() shouldBe budget
+            second.budget() shouldBe budget
+        }
+    }
+})
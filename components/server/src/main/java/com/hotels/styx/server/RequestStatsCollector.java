@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.hotels.styx.server;
 
 import com.hotels.styx.api.metrics.MeterFactory;
+import com.hotels.styx.api.metrics.StatusCounters;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
@@ -44,12 +45,12 @@ public class RequestStatsCollector implements RequestProgressListener {
     public static final String STATUS_CLASS_UNRECOGNISED = "unrecognised";
 
     private final MeterRegistry registry;
-    private final String prefix;
 
     private final Timer latencyTimer;
     private final Counter requestsIncoming;
 
     private final Counter responsesSent;
+    private final StatusCounters responseStatusCounters;
 
     private final ConcurrentHashMap<Object, Timer.Sample> ongoingRequests = new ConcurrentHashMap<>();
 
@@ -61,13 +62,13 @@ public class RequestStatsCollector implements RequestProgressListener {
      */
     public RequestStatsCollector(MeterRegistry registry, String prefix) {
         this.registry = registry;
-        this.prefix = prefix;
 
         registry.gauge(name(prefix, REQUEST_OUTSTANDING), ongoingRequests, Map::size);
         this.latencyTimer = MeterFactory.timer(registry, name(prefix, REQUEST_LATENCY));
 
         this.requestsIncoming = registry.counter(name(prefix, REQUEST_RECEIVED));
         this.responsesSent = registry.counter(name(prefix, RESPONSE_SENT));
+        this.responseStatusCounters = new StatusCounters(code -> registry.counter(name(prefix, RESPONSE_STATUS), statusTags(code)));
     }
 
     @Override
@@ -82,7 +83,7 @@ public class RequestStatsCollector implements RequestProgressListener {
     public void onComplete(Object requestId, int responseStatus) {
         Timer.Sample startTime = this.ongoingRequests.remove(requestId);
         if (startTime != null) {
-            updateResponseStatusCounter(responseStatus);
+            responseStatusCounters.increment(responseStatus);
             this.responsesSent.increment();
 
             startTime.stop(latencyTimer);
@@ -97,16 +98,13 @@ public class RequestStatsCollector implements RequestProgressListener {
         }
     }
 
-    private void updateResponseStatusCounter(int code) {
-        Tags statusTags;
+    private static Tags statusTags(int code) {
         if (code >= 100 && code < 600) {
-            statusTags = Tags.of(STATUS_CLASS_TAG, code / 100 + "xx")
+            return Tags.of(STATUS_CLASS_TAG, code / 100 + "xx")
                     .and(STATUS_TAG, valueOf(code));
         } else {
-            statusTags = Tags.of(STATUS_CLASS_TAG, STATUS_CLASS_UNRECOGNISED)
+            return Tags.of(STATUS_CLASS_TAG, STATUS_CLASS_UNRECOGNISED)
                     .and(STATUS_TAG, STATUS_CLASS_UNRECOGNISED);
         }
-
-        registry.counter(name(prefix, RESPONSE_STATUS), statusTags).increment();
     }
 }
@@ -0,0 +1,73 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server;
+
+/**
+ * A request ID backed by two longs. The string form is only built when first asked for,
+ * so requests whose ID is never rendered do not pay for the formatting.
+ */
+final class SequentialId {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int HEX_LENGTH = 16;
+
+    private final long prefix;
+    private final long sequence;
+    private String text;
+
+    SequentialId(long prefix, long sequence) {
+        this.prefix = prefix;
+        this.sequence = sequence;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SequentialId other = (SequentialId) o;
+        return prefix == other.prefix && sequence == other.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(prefix) + Long.hashCode(sequence);
+    }
+
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            char[] chars = new char[HEX_LENGTH * 2 + 1];
+            writeHex(prefix, chars, 0);
+            chars[HEX_LENGTH] = '-';
+            writeHex(sequence, chars, HEX_LENGTH + 1);
+            result = String.valueOf(chars);
+            text = result;
+        }
+        return result;
+    }
+
+    private static void writeHex(long value, char[] chars, int offset) {
+        long remaining = value;
+        for (int i = offset + HEX_LENGTH - 1; i >= offset; i--) {
+            chars[i] = HEX_DIGITS[(int) (remaining & 0xF)];
+            remaining >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server;
+
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * A contention-free unique ID supplier.
+ * <p>
+ * Each ID is a 64-bit prefix, made of a 16-bit node ID and the 48-bit start time of this supplier
+ * in milliseconds, followed by a 64-bit sequence number. Threads reserve sequence numbers from a
+ * shared counter in blocks, so the shared counter is only touched once every {@value #BLOCK_SIZE} IDs.
+ * IDs are unique as long as no two instances with the same node ID start in the same millisecond.
+ */
+final class SequentialIdSupplier implements UniqueIdSupplier {
+    static final int BLOCK_SIZE = 1024;
+
+    private static final int NODE_ID_SHIFT = 48;
+    private static final long NODE_ID_MASK = 0xFFFFL;
+    private static final long TIMESTAMP_MASK = (1L << NODE_ID_SHIFT) - 1;
+
+    private final long prefix;
+    private final AtomicLong nextBlock = new AtomicLong();
+    private final FastThreadLocal<long[]> range = new FastThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+
+    SequentialIdSupplier(int nodeId) {
+        this(nodeId, currentTimeMillis());
+    }
+
+    SequentialIdSupplier(int nodeId, long startMillis) {
+        if (nodeId < 0 || nodeId > NODE_ID_MASK) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + NODE_ID_MASK + ", but was " + nodeId);
+        }
+        this.prefix = (nodeId & NODE_ID_MASK) << NODE_ID_SHIFT | (startMillis & TIMESTAMP_MASK);
+    }
+
+    @Override
+    public Object nextId() {
+        long[] current = range.get();
+        if (current[0] == current[1]) {
+            long start = nextBlock.getAndAdd(BLOCK_SIZE);
+            current[0] = start;
+            current[1] = start + BLOCK_SIZE;
+        }
+        return new SequentialId(prefix, current[0]++);
+    }
+
+    @Override
+    public String get() {
+        return nextId().toString();
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -22,4 +22,14 @@ import java.util.function.Supplier;
  * A Unique id provider.
  */
 public interface UniqueIdSupplier extends Supplier<String> {
+
+    /**
+     * Returns a new unique ID. Implementations may return an object whose string form
+     * is only computed when needed. The default returns {@link #get()}.
+     *
+     * @return a new unique ID
+     */
+    default Object nextId() {
+        return get();
+    }
 }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -30,6 +30,17 @@ public final class UniqueIdSuppliers {
      */
     public static final UniqueIdSupplier UUID_VERSION_ONE_SUPPLIER = () -> TIME_BASED_GENERATOR.generate().toString();
 
+    /**
+     * Returns a contention-free supplier of sequential IDs. The node ID distinguishes Styx
+     * instances and must be unique among instances sharing a request ID space.
+     *
+     * @param nodeId a node ID between 0 and 65535
+     * @return a new ID supplier
+     */
+    public static UniqueIdSupplier sequentialUniqueIdSupplier(int nodeId) {
+        return new SequentialIdSupplier(nodeId);
+    }
+
     /**
      * Returns a supplier whose {@code get()} method returns the {@code uniqueId} passed in.
      *
@@ -0,0 +1,92 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.netty.codec;
+
+import static io.netty.util.NetUtil.isValidIpV6Address;
+
+/**
+ * Validates the value of a Host header against the RFC 7230 grammar,
+ * {@code uri-host [ ":" port ]}, without building any URL objects.
+ */
+final class HostHeader {
+    private static final String REG_NAME_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-._~!$&'()*+,;=";
+    private static final boolean[] REG_NAME = new boolean[128];
+
+    static {
+        for (int i = 0; i < REG_NAME_CHARS.length(); i++) {
+            REG_NAME[REG_NAME_CHARS.charAt(i)] = true;
+        }
+    }
+
+    private HostHeader() {
+    }
+
+    static boolean isValid(String host) {
+        int portStart = host.startsWith("[") ? ipLiteralEnd(host) : regNameEnd(host);
+        return portStart >= 0 && isPort(host, portStart);
+    }
+
+    private static int ipLiteralEnd(String host) {
+        int close = host.indexOf(']');
+        if (close < 0 || !isValidIpV6Address(host.substring(1, close))) {
+            return -1;
+        }
+        return close + 1;
+    }
+
+    private static int regNameEnd(String host) {
+        int length = host.length();
+        int i = 0;
+        while (i < length) {
+            char c = host.charAt(i);
+            if (c == ':') {
+                return i;
+            }
+            if (c == '%') {
+                if (!isEscape(host, i)) {
+                    return -1;
+                }
+                i += 2;
+            } else if (c >= REG_NAME.length || !REG_NAME[c]) {
+                return -1;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    private static boolean isPort(String host, int start) {
+        if (start == host.length()) {
+            return true;
+        }
+        if (host.charAt(start) != ':') {
+            return false;
+        }
+        for (int i = start + 1; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEscape(String host, int index) {
+        return index + 2 < host.length()
+                && Character.digit(host.charAt(index + 1), 16) >= 0
+                && Character.digit(host.charAt(index + 2), 16) >= 0;
+    }
+}
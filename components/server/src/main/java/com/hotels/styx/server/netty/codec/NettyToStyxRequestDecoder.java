@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -41,22 +41,18 @@ import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.LastHttpContent;
 import org.reactivestreams.Publisher;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 
-import static com.google.common.collect.Iterables.getOnlyElement;
-import static com.google.common.collect.Iterables.size;
 import static com.hotels.styx.api.HttpHeaderNames.EXPECT;
 import static com.hotels.styx.api.HttpHeaderNames.HOST;
+import static com.hotels.styx.api.NettyHeaders.adoptHeaders;
 import static com.hotels.styx.server.UniqueIdSuppliers.UUID_VERSION_ONE_SUPPLIER;
 import static com.hotels.styx.server.netty.codec.UnwiseCharsEncoder.IGNORE;
 import static io.netty.util.ReferenceCountUtil.retain;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.StreamSupport.stream;
 
 /**
  * This {@link MessageToMessageDecoder} is responsible for decode {@link io.netty.handler.codec.http.HttpRequest}
@@ -161,21 +157,12 @@ public final class NettyToStyxRequestDecoder extends MessageToMessageDecoder<Htt
     }
 
     private static void validateHostHeader(HttpRequest request) {
-        Iterable<String> hosts = request.headers().getAll(HOST);
-        if (size(hosts) != 1 || !isValidHostName(getOnlyElement(hosts))) {
+        List<String> hosts = request.headers().getAll(HOST);
+        if (hosts.size() != 1 || !HostHeader.isValid(hosts.get(0))) {
             throw new BadRequestException("Bad Host header. Missing/Mismatch of Host header: " + request);
         }
     }
 
-    private static boolean isValidHostName(String host) {
-        try {
-            new URL("http://" + host);
-        } catch (MalformedURLException e) {
-            return false;
-        }
-        return true;
-    }
-
     @VisibleForTesting
     LiveHttpRequest.Builder makeAStyxRequestFrom(HttpRequest request, Publisher<Buffer> content) {
         Url url = UrlDecoder.decodeUrl(unwiseCharEncoder, request);
@@ -183,13 +170,10 @@ public final class NettyToStyxRequestDecoder extends MessageToMessageDecoder<Htt
                 .method(toStyxMethod(request.method()))
                 .url(url)
                 .version(toStyxVersion(request.protocolVersion()))
-                .id(uniqueIdSupplier.get())
+                .id(uniqueIdSupplier.nextId())
                 .body(new ByteStream(content));
 
-        stream(request.headers().spliterator(), false)
-                .forEach(entry -> requestBuilder.addHeader(entry.getKey(), entry.getValue()));
-
-        return requestBuilder;
+        return adoptHeaders(requestBuilder, request.headers());
     }
 
     private HttpVersion toStyxVersion(io.netty.handler.codec.http.HttpVersion httpVersion) {
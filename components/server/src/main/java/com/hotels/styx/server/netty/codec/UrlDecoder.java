@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -24,6 +24,11 @@ import static com.hotels.styx.api.HttpHeaderNames.HOST;
 import static com.hotels.styx.api.Url.Builder.url;
 
 final class UrlDecoder {
+    private static final String UNRESERVED = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-._~";
+    private static final String SUB_DELIMS = "!$&'()*+,;=";
+    private static final boolean[] PATH_CHARS = charSet(UNRESERVED + SUB_DELIMS + ":@/");
+    private static final boolean[] QUERY_CHARS = charSet(UNRESERVED + SUB_DELIMS + ":@/?");
+
     private UrlDecoder() {
     }
 
@@ -31,14 +36,82 @@ final class UrlDecoder {
         String host = request.headers().get(HOST);
 
         if (request.uri().startsWith("/") && host != null) {
-            URI uri = URI.create("http://" + host + unwiseCharEncoder.encode(request.uri()));
-            return new Url.Builder()
-                    .path(uri.getRawPath())
-                    .rawQuery(uri.getRawQuery())
-                    .fragment(uri.getFragment())
-                    .build();
+            String target = unwiseCharEncoder.encode(request.uri());
+            Url url = parseOriginForm(target);
+            return url != null ? url : decodeWithUri(host, target);
         } else {
             return url(unwiseCharEncoder.encode(request.uri())).build();
         }
     }
+
+    /**
+     * Parses an origin-form request target, i.e. an absolute path with an optional query,
+     * in a single pass. The query is kept raw and only decoded if it is asked for.
+     * <p>
+     * Returns null if the target contains a fragment, or any character outside the RFC 3986
+     * path and query character sets. The caller then falls back to {@link URI}, which either
+     * accepts or rejects it exactly as before.
+     *
+     * @param target request target starting with '/'
+     * @return parsed URL, or null
+     */
+    static Url parseOriginForm(String target) {
+        int length = target.length();
+        int queryStart = -1;
+
+        int i = 0;
+        while (i < length) {
+            char c = target.charAt(i);
+            if (c == '%') {
+                if (!isEscape(target, i)) {
+                    return null;
+                }
+                i += 2;
+            } else if (c == '?' && queryStart < 0) {
+                queryStart = i;
+            } else if (!isAllowed(queryStart < 0 ? PATH_CHARS : QUERY_CHARS, c)) {
+                return null;
+            }
+            i++;
+        }
+
+        if (queryStart < 0) {
+            return new Url.Builder().path(target).build();
+        }
+        return new Url.Builder()
+                .path(target.substring(0, queryStart))
+                .rawQuery(target.substring(queryStart + 1))
+                .build();
+    }
+
+    private static Url decodeWithUri(String host, String target) {
+        URI uri = URI.create("http://" + host + target);
+        return new Url.Builder()
+                .path(uri.getRawPath())
+                .rawQuery(uri.getRawQuery())
+                .fragment(uri.getFragment())
+                .build();
+    }
+
+    private static boolean isEscape(String target, int index) {
+        return index + 2 < target.length()
+                && isHexDigit(target.charAt(index + 1))
+                && isHexDigit(target.charAt(index + 2));
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isAllowed(boolean[] chars, char c) {
+        return c < chars.length && chars[c];
+    }
+
+    private static boolean[] charSet(String chars) {
+        boolean[] set = new boolean[128];
+        for (int i = 0; i < chars.length(); i++) {
+            set[chars.charAt(i)] = true;
+        }
+        return set;
+    }
 }
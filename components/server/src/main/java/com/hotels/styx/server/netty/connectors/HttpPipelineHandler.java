@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -36,6 +36,8 @@ import com.hotels.styx.client.BadHttpResponseException;
 import com.hotels.styx.client.StyxClientException;
 import com.hotels.styx.client.connectionpool.ResourceExhaustedException;
 import com.hotels.styx.common.FsmEventProcessor;
+import com.hotels.styx.common.OffloadExecutor;
+import com.hotels.styx.common.OffloadRejectedException;
 import com.hotels.styx.common.QueueDrainingEventProcessor;
 import com.hotels.styx.common.StateMachine;
 import com.hotels.styx.common.content.ConsumerDisconnectedException;
@@ -109,7 +111,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
                     BadHttpResponseException.class,
                     ContentOverflowException.class
             )
-            .add(SERVICE_UNAVAILABLE, ResourceExhaustedException.class)
+            .add(SERVICE_UNAVAILABLE, ResourceExhaustedException.class, OffloadRejectedException.class)
             .add(GATEWAY_TIMEOUT, ResponseTimeoutException.class)
             .add(INTERNAL_SERVER_ERROR, StyxClientException.class)
             .build();
@@ -126,6 +128,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     private final ResponseEnhancer responseEnhancer;
     private final boolean secure;
     private final CharSequence originsHeaderName;
+    private final OffloadExecutor offloadExecutor;
 
     private volatile Subscription subscription;
     private volatile LiveHttpRequest ongoingRequest;
@@ -136,6 +139,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     private volatile QueueDrainingEventProcessor eventProcessor;
 
     private final RequestTracker tracker;
+    private final Supplier<String> trackedState = () -> this.state().toString();
 
     private HttpPipelineHandler(Builder builder, RequestTracker tracker) {
         this.responseEnhancer = requireNonNull(builder.responseEnhancer);
@@ -149,6 +153,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
         this.secure = builder.secure;
         this.tracker = tracker;
         this.originsHeaderName = builder.originsHeaderName;
+        this.offloadExecutor = builder.offloadExecutor;
     }
 
     private StateMachine<State> createStateMachine() {
@@ -265,7 +270,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     private State onLegitimateRequest(LiveHttpRequest request, ChannelHandlerContext ctx) {
         statsSink.onRequest(request.id());
         LiveHttpRequest v11Request = request.newBuilder().version(HTTP_1_1).build();
-        tracker.trackRequest(request, () -> this.state().toString());
+        tracker.trackRequest(request, trackedState);
         ongoingRequest = request;
 
         // Note, it is possible for onCompleted, onError, and onNext events to be emitted in
@@ -274,7 +279,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
         try {
             Eventual<LiveHttpResponse> responseEventual = httpPipeline.handle(
                     v11Request,
-                    new HttpInterceptorContext(this.secure, remoteAddress(ctx), ctx.executor()));
+                    new HttpInterceptorContext(this.secure, remoteAddress(ctx), ctx.executor(), offloadExecutor));
             responseEventual.subscribe(new BaseSubscriber<LiveHttpResponse>() {
                 @Override
                 public void hookOnSubscribe(Subscription s) {
@@ -675,6 +680,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
         private RequestTracker tracker = RequestTracker.NO_OP;
         private boolean secure;
         private CharSequence originsHeaderName;
+        private OffloadExecutor offloadExecutor;
 
         /**
          * Constructs a new builder.
@@ -761,6 +767,18 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
             return this;
         }
 
+        /**
+         * Sets the executor for blocking tasks offloaded by interceptors. By default, such tasks
+         * run on the event loop.
+         *
+         * @param offloadExecutor offload executor
+         * @return this builder
+         */
+        public Builder offloadExecutor(OffloadExecutor offloadExecutor) {
+            this.offloadExecutor = offloadExecutor;
+            return this;
+        }
+
         /**
          * Builds a new instance based on the configured properties.
          *
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -17,7 +17,6 @@ package com.hotels.styx.server.routing;
 
 import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.api.LiveHttpRequest;
-import com.hotels.styx.api.RequestCookie;
 import com.hotels.styx.server.routing.antlr.AntlrConditionParser;
 
 import static com.hotels.styx.api.HttpHeaderNames.USER_AGENT;
@@ -26,13 +25,13 @@ import static com.hotels.styx.api.HttpHeaderNames.USER_AGENT;
  * A Route matcher based on ANTLR condition parser.
  */
 public final class AntlrMatcher implements Matcher {
-    private static final Condition.Parser CONDITION_PARSER = new AntlrConditionParser.Builder()
+    private static final AntlrConditionParser CONDITION_PARSER = new AntlrConditionParser.Builder()
             .registerFunction("method", (request, context) -> request.method().name())
             .registerFunction("path", (request, context) -> request.path())
             .registerFunction("userAgent", (request, context) -> request.header(USER_AGENT).orElse(""))
             .registerFunction("protocol", (request, context) -> context.isSecure() ? "https" : "http")
             .registerFunction("header", (request, context, input) -> request.header(input).orElse(""))
-            .registerFunction("cookie", (request, context, input) -> request.cookie(input).map(RequestCookie::value).orElse(""))
+            .registerFunction("cookie", (request, context, input) -> request.cookieValue(input).orElse(""))
             .build();
     private final Condition condition;
 
@@ -41,6 +40,16 @@ public final class AntlrMatcher implements Matcher {
         return new AntlrMatcher(condition);
     }
 
+    /**
+     * Returns a builder for a table of conditions that are evaluated together,
+     * sharing function calls and indexing equality tests across conditions.
+     *
+     * @return condition table builder
+     */
+    public static ConditionTable.Builder conditionTable() {
+        return CONDITION_PARSER.conditionTable();
+    }
+
     private AntlrMatcher(Condition condition) {
         this.condition = condition;
     }
@@ -0,0 +1,49 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.routing;
+
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+
+/**
+ * An ordered list of routing conditions, compiled together so that a request is
+ * tested against all of them in a single pass.
+ */
+public interface ConditionTable {
+    /**
+     * Returns the position of the first condition that matches the request.
+     *
+     * @param request HTTP request
+     * @param context request context
+     * @return index of the first matching condition, or -1 if none match
+     */
+    int firstMatch(LiveHttpRequest request, HttpInterceptor.Context context);
+
+    /**
+     * Accumulates conditions in priority order.
+     */
+    interface Builder {
+        /**
+         * Parses and appends a condition.
+         *
+         * @param condition condition expression
+         * @return this builder
+         */
+        Builder add(String condition);
+
+        ConditionTable build();
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -27,14 +27,16 @@ import static java.util.Objects.requireNonNull;
  */
 class AntlrCondition implements Condition {
     private final Expression<Boolean> expression;
+    private final int slots;
 
-    AntlrCondition(Expression<Boolean> expression) {
+    AntlrCondition(Expression<Boolean> expression, int slots) {
         this.expression = requireNonNull(expression);
+        this.slots = slots;
     }
 
     @Override
     public boolean evaluate(LiveHttpRequest request, HttpInterceptor.Context context) {
-        return expression.evaluate(request, context);
+        return expression.evaluate(request, context, new Memo(slots));
     }
 
 }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.hotels.styx.server.routing.antlr;
 
 import com.hotels.styx.server.routing.Condition;
+import com.hotels.styx.server.routing.ConditionTable;
 import com.hotels.styx.server.routing.ConditionLexer;
 import com.hotels.styx.server.routing.ConditionParser;
 import org.antlr.v4.runtime.ANTLRInputStream;
@@ -31,14 +32,31 @@ import java.util.Map;
  * A {@link Condition} parser based on ANLR.
  */
 public class AntlrConditionParser implements Condition.Parser {
-    private final ExpressionVisitor expressionVisitor;
+    private final FunctionResolver functionResolver;
 
     public AntlrConditionParser(Builder builder) {
-        this.expressionVisitor = new ExpressionVisitor(builder.zeroArgumentFunctions, builder.oneArgumentFunctions);
+        this.functionResolver = new FunctionResolver(builder.zeroArgumentFunctions, builder.oneArgumentFunctions);
     }
 
     @Override
     public Condition parse(String condition) {
+        Slots slots = new Slots();
+        Expression<Boolean> expression = parse(condition, new ExpressionVisitor(functionResolver, slots));
+        return new AntlrCondition(expression, slots.size());
+    }
+
+    /**
+     * Returns a builder for a {@link ConditionTable} whose conditions are parsed with this parser.
+     *
+     * @return condition table builder
+     */
+    public ConditionTable.Builder conditionTable() {
+        Slots slots = new Slots();
+        ExpressionVisitor visitor = new ExpressionVisitor(functionResolver, slots);
+        return new AntlrConditionTable.Builder(slots, condition -> parse(condition, visitor));
+    }
+
+    private static Expression<Boolean> parse(String condition, ExpressionVisitor expressionVisitor) {
         ConditionParser parser = new ConditionParser(
                 new CommonTokenStream(new ConditionLexer(new ANTLRInputStream(condition))));
         parser.addErrorListener(new BaseErrorListener() {
@@ -48,7 +66,7 @@ public class AntlrConditionParser implements Condition.Parser {
             }
         });
 
-        return new AntlrCondition(expressionVisitor.visit(parser.expression()));
+        return expressionVisitor.visit(parser.expression());
     }
 
     /**
@@ -0,0 +1,191 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.routing.antlr;
+
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.server.routing.ConditionTable;
+import com.hotels.styx.server.routing.antlr.ExpressionVisitor.Or;
+import com.hotels.styx.server.routing.antlr.ExpressionVisitor.StringEquals;
+import com.hotels.styx.server.routing.antlr.Slots.Slot;
+import com.hotels.styx.server.routing.antlr.StringCompareVisitor.Literal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Collections.singletonList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ConditionTable} built from ANTLR conditions.
+ * <p>
+ * All conditions share one set of {@link Slots}, so a function such as {@code header('Host')}
+ * is called at most once per request however many conditions refer to it. Consecutive
+ * conditions that only compare the same function against string literals (optionally
+ * combined with {@code OR}) are folded into a single hash lookup that yields the first
+ * matching condition of the run. Other conditions are evaluated in order, so first-match
+ * semantics are preserved.
+ */
+final class AntlrConditionTable implements ConditionTable {
+    private final Step[] steps;
+    private final Slots slots;
+
+    private AntlrConditionTable(List<Step> steps, Slots slots) {
+        this.steps = steps.toArray(new Step[0]);
+        this.slots = slots;
+    }
+
+    @Override
+    public int firstMatch(LiveHttpRequest request, HttpInterceptor.Context context) {
+        Memo memo = slots.newMemo();
+        for (Step step : steps) {
+            int index = step.match(request, context, memo);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    int steps() {
+        return steps.length;
+    }
+
+    private interface Step {
+        int match(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo);
+    }
+
+    private static final class Test implements Step {
+        private final int index;
+        private final Expression<Boolean> condition;
+
+        Test(int index, Expression<Boolean> condition) {
+            this.index = index;
+            this.condition = condition;
+        }
+
+        @Override
+        public int match(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo) {
+            return condition.evaluate(request, context, memo) ? index : -1;
+        }
+    }
+
+    private static final class Lookup implements Step {
+        private final Slot<String> function;
+        private final Map<String, Integer> firstIndex;
+
+        Lookup(Slot<String> function, Map<String, Integer> firstIndex) {
+            this.function = function;
+            this.firstIndex = firstIndex;
+        }
+
+        @Override
+        public int match(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo) {
+            String value = function.evaluate(request, context, memo);
+            Integer index = firstIndex.get(value == null ? "" : value);
+            return index == null ? -1 : index;
+        }
+    }
+
+    /**
+     * A function compared to a set of literals. A condition of this shape is true
+     * exactly when the function value, or an empty string if there is none, is one of the literals.
+     */
+    private static final class Equalities {
+        private final Slot<String> function;
+        private final List<String> literals;
+
+        private Equalities(Slot<String> function, List<String> literals) {
+            this.function = function;
+            this.literals = literals;
+        }
+
+        static Equalities of(Expression<Boolean> expression) {
+            if (expression instanceof Or) {
+                Equalities left = of(((Or) expression).left());
+                Equalities right = of(((Or) expression).right());
+                if (left == null || right == null || left.function != right.function) {
+                    return null;
+                }
+                List<String> literals = new ArrayList<>(left.literals);
+                literals.addAll(right.literals);
+                return new Equalities(left.function, literals);
+            }
+            if (expression instanceof StringEquals) {
+                return of(((StringEquals) expression).left(), ((StringEquals) expression).right());
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Equalities of(Expression<String> left, Expression<String> right) {
+            if (left instanceof Slot && right instanceof Literal) {
+                return new Equalities((Slot<String>) left, singletonList(((Literal) right).value()));
+            }
+            // A missing value on the right-hand side is not treated as empty, so only
+            // non-empty literals on the left are interchangeable with the form above.
+            if (left instanceof Literal && right instanceof Slot && !((Literal) left).value().isEmpty()) {
+                return new Equalities((Slot<String>) right, singletonList(((Literal) left).value()));
+            }
+            return null;
+        }
+    }
+
+    static final class Builder implements ConditionTable.Builder {
+        private final Slots slots;
+        private final Function<String, Expression<Boolean>> parser;
+        private final List<Expression<Boolean>> conditions = new ArrayList<>();
+
+        Builder(Slots slots, Function<String, Expression<Boolean>> parser) {
+            this.slots = requireNonNull(slots);
+            this.parser = requireNonNull(parser);
+        }
+
+        @Override
+        public Builder add(String condition) {
+            conditions.add(parser.apply(condition));
+            return this;
+        }
+
+        @Override
+        public AntlrConditionTable build() {
+            List<Step> steps = new ArrayList<>();
+            int i = 0;
+            while (i < conditions.size()) {
+                Equalities equalities = Equalities.of(conditions.get(i));
+                if (equalities == null) {
+                    steps.add(new Test(i, conditions.get(i)));
+                    i++;
+                } else {
+                    Map<String, Integer> firstIndex = new HashMap<>();
+                    Slot<String> function = equalities.function;
+                    while (equalities != null && equalities.function == function) {
+                        for (String literal : equalities.literals) {
+                            firstIndex.putIfAbsent(literal, i);
+                        }
+                        i++;
+                        equalities = i < conditions.size() ? Equalities.of(conditions.get(i)) : null;
+                    }
+                    steps.add(new Lookup(function, firstIndex));
+                }
+            }
+            return new AntlrConditionTable(steps, slots);
+        }
+    }
+}
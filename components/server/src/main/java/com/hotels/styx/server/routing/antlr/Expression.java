@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -19,5 +19,5 @@ import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.api.LiveHttpRequest;
 
 interface Expression<T> {
-    T evaluate(LiveHttpRequest request, HttpInterceptor.Context context);
+    T evaluate(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo);
 }
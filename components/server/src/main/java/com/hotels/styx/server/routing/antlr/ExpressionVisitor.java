@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,73 +15,129 @@
  */
 package com.hotels.styx.server.routing.antlr;
 
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.server.routing.ConditionBaseVisitor;
 import com.hotels.styx.server.routing.ConditionParser;
 import com.hotels.styx.server.routing.ConditionParser.StringIsPresentContext;
 
-import java.util.Map;
 import java.util.regex.Pattern;
 
+import static java.util.Arrays.asList;
+
 import static com.hotels.styx.common.Strings.isNotEmpty;
 import static com.hotels.styx.server.routing.antlr.Strings.stripFirstAndLastCharacter;
 
 class ExpressionVisitor extends ConditionBaseVisitor<Expression<Boolean>> {
     private final StringCompareVisitor stringVisitor;
+    private final Slots slots;
 
-    public ExpressionVisitor(Map<String, Function0> zeroArgumentFunctions, Map<String, Function1> oneArgumentFunctions) {
-        this.stringVisitor = new StringCompareVisitor(
-                new FunctionResolver(zeroArgumentFunctions, oneArgumentFunctions));
+    public ExpressionVisitor(FunctionResolver functionResolver, Slots slots) {
+        this.stringVisitor = new StringCompareVisitor(functionResolver, slots);
+        this.slots = slots;
     }
 
     @Override
     public Expression<Boolean> visitAndExpression(ConditionParser.AndExpressionContext ctx) {
         Expression<Boolean> left = visit(ctx.expression(0));
         Expression<Boolean> right = visit(ctx.expression(1));
-        return (request, context) -> left.evaluate(request, context) && right.evaluate(request, context);
+        return (request, context, memo) -> left.evaluate(request, context, memo) && right.evaluate(request, context, memo);
     }
 
     @Override
     public Expression<Boolean> visitOrExpression(ConditionParser.OrExpressionContext ctx) {
-        Expression<Boolean> left = visit(ctx.expression(0));
-        Expression<Boolean> right = visit(ctx.expression(1));
-        return (request, context) -> left.evaluate(request, context) || right.evaluate(request, context);
+        return new Or(visit(ctx.expression(0)), visit(ctx.expression(1)));
     }
 
     @Override
     public Expression<Boolean> visitNotExpression(ConditionParser.NotExpressionContext ctx) {
         Expression<Boolean> expression = visit(ctx.expression());
-        return (request, context) -> !expression.evaluate(request, context);
+        return (request, context, memo) -> !expression.evaluate(request, context, memo);
     }
 
     @Override
     public Expression<Boolean> visitSubExpression(ConditionParser.SubExpressionContext ctx) {
-        Expression<Boolean> expression = visit(ctx.expression());
-        return expression::evaluate;
+        return visit(ctx.expression());
     }
 
     @Override
     public Expression<Boolean> visitStringIsPresent(StringIsPresentContext ctx) {
         Expression<String> stringExpression = stringVisitor.visitStringExpression(ctx.stringExpression());
-        return (request, context) -> isNotEmpty(stringExpression.evaluate(request, context));
+        return (request, context, memo) -> isNotEmpty(stringExpression.evaluate(request, context, memo));
     }
 
     @Override
     public Expression<Boolean> visitStringEqualsString(ConditionParser.StringEqualsStringContext ctx) {
-        Expression<String> left = stringVisitor.visitStringExpression(ctx.stringExpression(0));
-        Expression<String> right = stringVisitor.visitStringExpression(ctx.stringExpression(1));
-        return (request, context) -> {
-            String leftValue = left.evaluate(request, context);
-            return (leftValue == null ? "" : leftValue).equals(right.evaluate(request, context));
-        };
+        return new StringEquals(
+                stringVisitor.visitStringExpression(ctx.stringExpression(0)),
+                stringVisitor.visitStringExpression(ctx.stringExpression(1)));
     }
 
     @Override
     public Expression<Boolean> visitStringMatchesRegexp(ConditionParser.StringMatchesRegexpContext ctx) {
         Expression<String> stringExpression = stringVisitor.visitStringExpression(ctx.stringExpression());
-        Pattern pattern = Pattern.compile(stripFirstAndLastCharacter(ctx.string().getText()));
-        return (request, context) -> {
-            String evaluate = stringExpression.evaluate(request, context);
+        String regexp = stripFirstAndLastCharacter(ctx.string().getText());
+        Pattern pattern = Pattern.compile(regexp);
+        Expression<Boolean> match = (request, context, memo) -> {
+            String evaluate = stringExpression.evaluate(request, context, memo);
             return pattern.matcher(evaluate).matches();
         };
+        return stringExpression instanceof Slots.Slot
+                ? slots.intern(asList(stringExpression, regexp), match)
+                : match;
+    }
+
+    /**
+     * Logical disjunction. Kept as a distinct type so that a disjunction of
+     * equality tests can be folded into an index lookup.
+     */
+    static final class Or implements Expression<Boolean> {
+        private final Expression<Boolean> left;
+        private final Expression<Boolean> right;
+
+        Or(Expression<Boolean> left, Expression<Boolean> right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        Expression<Boolean> left() {
+            return left;
+        }
+
+        Expression<Boolean> right() {
+            return right;
+        }
+
+        @Override
+        public Boolean evaluate(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo) {
+            return left.evaluate(request, context, memo) || right.evaluate(request, context, memo);
+        }
+    }
+
+    /**
+     * String equality. A missing value on the left-hand side compares equal to an empty string.
+     */
+    static final class StringEquals implements Expression<Boolean> {
+        private final Expression<String> left;
+        private final Expression<String> right;
+
+        StringEquals(Expression<String> left, Expression<String> right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        Expression<String> left() {
+            return left;
+        }
+
+        Expression<String> right() {
+            return right;
+        }
+
+        @Override
+        public Boolean evaluate(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo) {
+            String leftValue = left.evaluate(request, context, memo);
+            return (leftValue == null ? "" : leftValue).equals(right.evaluate(request, context, memo));
+        }
     }
 }
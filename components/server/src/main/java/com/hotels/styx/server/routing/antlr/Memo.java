@@ -0,0 +1,44 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.routing.antlr;
+
+/**
+ * Per-request storage for the values of shared sub-expressions, so that each
+ * function call or regular expression match is evaluated at most once per request.
+ */
+final class Memo {
+    private static final Object NULL = new Object();
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final Object[] values;
+
+    Memo(int size) {
+        this.values = size == 0 ? NO_VALUES : new Object[size];
+    }
+
+    boolean isSet(int slot) {
+        return values[slot] != null;
+    }
+
+    Object get(int slot) {
+        Object value = values[slot];
+        return value == NULL ? null : value;
+    }
+
+    void set(int slot, Object value) {
+        values[slot] = value == null ? NULL : value;
+    }
+}
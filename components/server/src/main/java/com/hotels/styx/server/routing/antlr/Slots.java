@@ -0,0 +1,71 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.routing.antlr;
+
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Interns sub-expressions that yield the same value within a request, such as
+ * repeated {@code header('Host')} calls, and allocates each one a {@link Memo} slot.
+ */
+final class Slots {
+    private final Map<Object, Slot<?>> slots = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <T> Slot<T> intern(Object key, Expression<T> source) {
+        return (Slot<T>) slots.computeIfAbsent(requireNonNull(key), k -> new Slot<>(slots.size(), source));
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    Memo newMemo() {
+        return new Memo(slots.size());
+    }
+
+    /**
+     * An expression whose value is computed once per request and then read from the memo.
+     *
+     * @param <T> value type
+     */
+    static final class Slot<T> implements Expression<T> {
+        private final int index;
+        private final Expression<T> source;
+
+        private Slot(int index, Expression<T> source) {
+            this.index = index;
+            this.source = requireNonNull(source);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T evaluate(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo) {
+            if (memo.isSet(index)) {
+                return (T) memo.get(index);
+            }
+            T value = source.evaluate(request, context, memo);
+            memo.set(index, value);
+            return value;
+        }
+    }
+}
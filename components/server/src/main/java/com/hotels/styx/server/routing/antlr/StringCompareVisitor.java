@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -15,10 +15,13 @@
  */
 package com.hotels.styx.server.routing.antlr;
 
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.server.routing.ConditionBaseVisitor;
 import com.hotels.styx.server.routing.ConditionParser;
 import org.antlr.v4.runtime.RuleContext;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,14 +29,16 @@ import static com.hotels.styx.server.routing.antlr.Strings.stripFirstAndLastChar
 
 class StringCompareVisitor extends ConditionBaseVisitor<Expression<String>> {
     private final FunctionResolver functionResolver;
+    private final Slots slots;
 
-    public StringCompareVisitor(FunctionResolver functionResolver) {
+    public StringCompareVisitor(FunctionResolver functionResolver, Slots slots) {
         this.functionResolver = functionResolver;
+        this.slots = slots;
     }
 
     @Override
     public Expression<String> visitString(ConditionParser.StringContext ctx) {
-        return (request, context) -> stripFirstAndLastCharacter(ctx.getText());
+        return new Literal(stripFirstAndLastCharacter(ctx.getText()));
     }
 
     @Override
@@ -41,8 +46,11 @@ class StringCompareVisitor extends ConditionBaseVisitor<Expression<String>> {
         String name = ctx.ID().getSymbol().getText();
         List<String> arguments = extractArguments(ctx.arglist());
         FunctionResolver.PartialFunction function = functionResolver.resolveFunction(name, arguments);
-        return function::call;
 
+        List<String> key = new ArrayList<>(arguments.size() + 1);
+        key.add(name);
+        key.addAll(arguments);
+        return slots.intern(key, (request, context, memo) -> function.call(request, context));
     }
 
     private List<String> extractArguments(ConditionParser.ArglistContext arglist) {
@@ -52,4 +60,23 @@ class StringCompareVisitor extends ConditionBaseVisitor<Expression<String>> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * A string constant.
+     */
+    static final class Literal implements Expression<String> {
+        private final String value;
+
+        Literal(String value) {
+            this.value = value;
+        }
+
+        String value() {
+            return value;
+        }
+
+        @Override
+        public String evaluate(LiveHttpRequest request, HttpInterceptor.Context context, Memo memo) {
+            return value;
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -25,17 +25,18 @@ import com.hotels.styx.api.LiveHttpRequest;
  * Bean that represent the current request.
  */
 public class CurrentRequest {
-    private final String request;
+    private final LiveHttpRequest request;
     private final long startingTimeMillies;
     private final Supplier<String> stateSupplier;
 
     private volatile boolean requestSent;
     private volatile Thread currentThread;
+    private volatile boolean ended;
 
     CurrentRequest(LiveHttpRequest request, Supplier<String> stateSupplier) {
         this.startingTimeMillies = currentTimeMillis();
         this.currentThread = Thread.currentThread();
-        this.request = request.toString();
+        this.request = request;
         this.stateSupplier = stateSupplier;
     }
 
@@ -44,7 +45,7 @@ public class CurrentRequest {
     }
 
     public String request() {
-        return request;
+        return request.toString();
     }
 
     public long startingTimeMillies() {
@@ -60,10 +61,22 @@ public class CurrentRequest {
     }
 
     void setCurrentThread(Thread currentThread) {
-        this.currentThread = currentThread;
+        if (this.currentThread != currentThread) {
+            this.currentThread = currentThread;
+        }
     }
 
     void requestSent() {
-        this.requestSent = true;
+        if (!requestSent) {
+            this.requestSent = true;
+        }
+    }
+
+    boolean isFor(LiveHttpRequest request) {
+        return !ended && this.request.id().equals(request.id());
+    }
+
+    void ended() {
+        this.ended = true;
     }
 }
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -16,46 +16,78 @@
 package com.hotels.styx.server.track;
 
 import com.hotels.styx.api.LiveHttpRequest;
+import io.netty.util.concurrent.FastThreadLocal;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
  * Manger class to manage the current requests.
+ * <p>
+ * Each tracked request owns a {@link CurrentRequest} slot, created once when the request
+ * enters Styx. The slot most recently used by a thread is cached in a thread local, so the
+ * per-interceptor calls made on the event loop that owns the request only compare request
+ * IDs and do not touch the shared registry at all. The request is only rendered to a string
+ * when the admin interface takes a snapshot.
  */
 public class CurrentRequestTracker implements RequestTracker {
     public static final CurrentRequestTracker INSTANCE = new CurrentRequestTracker();
 
+    private static final Supplier<String> STATUS_NOT_AVAILABLE = () -> "Status NOT Available.";
+
     private final ConcurrentHashMap<Object, CurrentRequest> currentRequests = new ConcurrentHashMap<>();
+    private final FastThreadLocal<CurrentRequest> lastSlot = new FastThreadLocal<>();
 
     public void trackRequest(LiveHttpRequest request, Supplier<String> state) {
-        if (currentRequests.containsKey(request.id())) {
-            currentRequests.get(request.id()).setCurrentThread(Thread.currentThread());
-        } else {
-            currentRequests.put(request.id(), new CurrentRequest(request, state));
-        }
+        slot(request, state).setCurrentThread(Thread.currentThread());
     }
 
     public void trackRequest(LiveHttpRequest request) {
-        if (currentRequests.containsKey(request.id())) {
-            currentRequests.get(request.id()).setCurrentThread(Thread.currentThread());
-        } else {
-            trackRequest(request, () -> "Status NOT Available.");
-        }
+        slot(request, STATUS_NOT_AVAILABLE).setCurrentThread(Thread.currentThread());
     }
 
     public void markRequestAsSent(LiveHttpRequest request) {
-        if (currentRequests.containsKey(request.id())) {
-            currentRequests.get(request.id()).requestSent();
+        CurrentRequest slot = lastSlot.get();
+        if (slot == null || !slot.isFor(request)) {
+            slot = currentRequests.get(request.id());
+        }
+        if (slot != null) {
+            slot.requestSent();
         }
     }
 
     public void endTrack(LiveHttpRequest request) {
-        currentRequests.remove(request.id());
+        CurrentRequest slot = currentRequests.remove(request.id());
+        if (slot != null) {
+            slot.ended();
+            if (lastSlot.getIfExists() == slot) {
+                lastSlot.remove();
+            }
+        }
     }
 
+    /**
+     * Returns a point-in-time snapshot of the requests currently in flight.
+     *
+     * @return current requests
+     */
     public Collection<CurrentRequest> currentRequests() {
-        return currentRequests.values();
+        return new ArrayList<>(currentRequests.values());
+    }
+
+    private CurrentRequest slot(LiveHttpRequest request, Supplier<String> state) {
+        CurrentRequest slot = lastSlot.get();
+        if (slot != null && slot.isFor(request)) {
+            return slot;
+        }
+
+        slot = currentRequests.get(request.id());
+        if (slot == null) {
+            slot = currentRequests.computeIfAbsent(request.id(), id -> new CurrentRequest(request, state));
+        }
+        lastSlot.set(slot);
+        return slot;
     }
 }
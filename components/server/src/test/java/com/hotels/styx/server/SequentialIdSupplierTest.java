@@ -0,0 +1,92 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.hotels.styx.server.SequentialIdSupplier.BLOCK_SIZE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SequentialIdSupplierTest {
+
+    @Test
+    public void formatsPrefixAndSequenceAsHex() {
+        SequentialIdSupplier supplier = new SequentialIdSupplier(0x12, 0xABCDEF);
+
+        assertThat(supplier.get(), is("0012000000abcdef-0000000000000000"));
+        assertThat(supplier.get(), is("0012000000abcdef-0000000000000001"));
+    }
+
+    @Test
+    public void idsAreValueObjects() {
+        Object id = new SequentialIdSupplier(1, 1000).nextId();
+
+        assertThat(id, is(new SequentialId(0x0001000000000000L | 1000, 0)));
+        assertThat(id.hashCode(), is(new SequentialId(0x0001000000000000L | 1000, 0).hashCode()));
+        assertThat(id, is(not(new SequentialId(0x0001000000000000L | 1000, 1))));
+    }
+
+    @Test
+    public void differentNodesGenerateDifferentIds() {
+        assertThat(new SequentialIdSupplier(1, 1000).nextId(), is(not(new SequentialIdSupplier(2, 1000).nextId())));
+    }
+
+    @Test
+    public void rejectsOutOfRangeNodeIds() {
+        assertThrows(IllegalArgumentException.class, () -> new SequentialIdSupplier(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SequentialIdSupplier(65536));
+    }
+
+    @Test
+    public void generatesUniqueIdsAcrossThreads() throws Exception {
+        SequentialIdSupplier supplier = new SequentialIdSupplier(7);
+        int threads = 8;
+        int idsPerThread = BLOCK_SIZE * 3 + 17;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<List<Object>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    List<Object> ids = new ArrayList<>();
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(supplier.nextId());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<Object> unique = new HashSet<>();
+            for (Future<List<Object>> future : futures) {
+                unique.addAll(future.get());
+            }
+            assertThat(unique.size(), is(threads * idsPerThread));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.netty.codec;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class HostHeaderTest {
+
+    @Test
+    public void acceptsValidHosts() {
+        for (String host : new String[]{"example.com", "example.com:8080", "localhost:", "1.2.3.4:80", "[::1]", "[2001:db8::1]:443", "a%20b", "my_host-1.example", ""}) {
+            assertThat(host, HostHeader.isValid(host), is(true));
+        }
+    }
+
+    @Test
+    public void rejectsInvalidHosts() {
+        for (String host : new String[]{"a b", "foo:abc", "foo:80:90", "[::1", "[zz]", "[::1]x", "a@b", "foo/bar", "foo?x", "http://foo.com/", "a\tb", "a%2", "café"}) {
+            assertThat(host, HostHeader.isValid(host), is(false));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2020 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ import com.hotels.styx.api.Url;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
 import java.util.Optional;
 
 import static io.netty.handler.codec.http.HttpHeaders.Names.HOST;
@@ -26,7 +27,9 @@ import static io.netty.handler.codec.http.HttpMethod.GET;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 import static java.util.Collections.emptyMap;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class UrlDecoderTest {
     @Test
@@ -99,5 +102,56 @@ public class UrlDecoderTest {
         assertThat(url.scheme(), is("http"));
     }
 
+    @Test
+    public void decodesOriginFormWithQuery() {
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, "/foo/bar;v=1?a=1&b=%2F&a=2");
+        request.headers().add(HOST, "example.com");
+
+        Url url = UrlDecoder.decodeUrl(x -> x, request);
+
+        assertThat(url.path(), is("/foo/bar;v=1"));
+        assertThat(url.queryParam("b"), is(Optional.of("/")));
+        assertThat(url.queryParams("a"), contains("1", "2"));
+        assertThat(url.fragment(), is(Optional.empty()));
+    }
+
+    @Test
+    public void keepsEmptyQuery() {
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, "/foo?");
+        request.headers().add(HOST, "example.com");
 
-}
\ No newline at end of file
+        assertThat(UrlDecoder.decodeUrl(x -> x, request).encodedUri(), is("/foo?"));
+    }
+
+    @Test
+    public void decodesSameAsUriForOriginFormTargets() {
+        String[] targets = {
+                "/", "/foo", "/foo/", "//a//b", "/a?b?c=/d", "/a?x=1&y", "/%41%2f?q=%7E", "/a:b@c!$&'()*+,;=",
+                "/a#frag", "/a?b#c%20d", "/caf\u00e9", "/a?b=[1]"
+        };
+
+        for (String target : targets) {
+            URI uri = URI.create("http://example.com" + target);
+            Url expected = new Url.Builder()
+                    .path(uri.getRawPath())
+                    .rawQuery(uri.getRawQuery())
+                    .fragment(uri.getFragment())
+                    .build();
+
+            DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, target);
+            request.headers().add(HOST, "example.com");
+
+            assertThat(target, UrlDecoder.decodeUrl(x -> x, request), is(expected));
+        }
+    }
+
+    @Test
+    public void rejectsInvalidOriginFormTargets() {
+        for (String target : new String[]{"/a b", "/a%2", "/a%zz", "/a?\"><script>", "/a|b"}) {
+            DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, target);
+            request.headers().add(HOST, "example.com");
+
+            assertThrows(IllegalArgumentException.class, () -> UrlDecoder.decodeUrl(x -> x, request), target);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2021 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import com.hotels.styx.api.HttpResponse;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
 import com.hotels.styx.client.StyxClientException;
+import com.hotels.styx.common.OffloadRejectedException;
 import com.hotels.styx.server.BadRequestException;
 import com.hotels.styx.server.HttpErrorStatusListener;
 import com.hotels.styx.server.RequestStatsCollector;
@@ -58,6 +59,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static ch.qos.logback.classic.Level.INFO;
@@ -73,6 +75,7 @@ import static com.hotels.styx.api.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 import static com.hotels.styx.api.HttpResponseStatus.OK;
 import static com.hotels.styx.api.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE;
 import static com.hotels.styx.api.HttpResponseStatus.REQUEST_TIMEOUT;
+import static com.hotels.styx.api.HttpResponseStatus.SERVICE_UNAVAILABLE;
 import static com.hotels.styx.api.LiveHttpRequest.get;
 import static com.hotels.styx.api.LiveHttpResponse.response;
 import static com.hotels.styx.api.Metrics.name;
@@ -692,6 +695,32 @@ public class HttpPipelineHandlerTest {
         assertThat(handler.state(), is(TERMINATED));
     }
 
+    @Test
+    public void mapsOffloadRejectedExceptionToServiceUnavailableInWaitingForResponseState() throws Exception {
+        setupHandlerTo(WAITING_FOR_RESPONSE);
+
+        responseObservable.onError(new OffloadRejectedException("Offload queue is full", new RejectedExecutionException()));
+
+        ArgumentCaptor<LiveHttpResponse> captor = ArgumentCaptor.forClass(LiveHttpResponse.class);
+        verify(responseWriter).write(captor.capture());
+
+        HttpResponse response = Mono.from(captor.getValue().aggregate(100)).block();
+        assertThat(response.status(), is(SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    public void mapsOtherRejectedExecutionExceptionsToInternalServerErrorInWaitingForResponseState() throws Exception {
+        setupHandlerTo(WAITING_FOR_RESPONSE);
+
+        responseObservable.onError(new RejectedExecutionException("Executor shut down"));
+
+        ArgumentCaptor<LiveHttpResponse> captor = ArgumentCaptor.forClass(LiveHttpResponse.class);
+        verify(responseWriter).write(captor.capture());
+
+        HttpResponse response = Mono.from(captor.getValue().aggregate(100)).block();
+        assertThat(response.status(), is(INTERNAL_SERVER_ERROR));
+    }
+
     @Test
     public void mapsStyxClientExceptionToInternalServerErrorInWaitingForResponseState() throws Exception {
         // In Waiting For Response state,
@@ -0,0 +1,150 @@
+/*
+  Copyright (C) 2013-2026 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.routing.antlr;
+
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hotels.styx.api.HttpHeaderNames.HOST;
+import static com.hotels.styx.api.LiveHttpRequest.get;
+import static com.hotels.styx.support.Support.requestContext;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AntlrConditionTableTest {
+    private final AtomicInteger headerCalls = new AtomicInteger();
+    private final AtomicInteger pathCalls = new AtomicInteger();
+
+    private final AntlrConditionParser parser = new AntlrConditionParser.Builder()
+            .registerFunction("path", (request, context) -> {
+                pathCalls.incrementAndGet();
+                return request.path();
+            })
+            .registerFunction("method", (request, context) -> request.method().name())
+            .registerFunction("header", (request, context, input) -> {
+                headerCalls.incrementAndGet();
+                return request.header(input).orElse(null);
+            })
+            .build();
+
+    private final HttpInterceptor.Context context = requestContext();
+
+    private AntlrConditionTable table(String... conditions) {
+        AntlrConditionTable.Builder builder = (AntlrConditionTable.Builder) parser.conditionTable();
+        for (String condition : conditions) {
+            builder.add(condition);
+        }
+        return builder.build();
+    }
+
+    private static LiveHttpRequest host(String host) {
+        return get("/foo").header(HOST, host).build();
+    }
+
+    @Test
+    public void foldsEqualityTestsOnSameFunctionIntoOneLookup() {
+        AntlrConditionTable table = table(
+                "header('Host') == 'a.com'",
+                "header('Host') == 'b.com' OR header('Host') == 'c.com'",
+                "'d.com' == header('Host')");
+
+        assertThat(table.steps(), is(1));
+        assertThat(table.firstMatch(host("a.com"), context), is(0));
+        assertThat(table.firstMatch(host("c.com"), context), is(1));
+        assertThat(table.firstMatch(host("d.com"), context), is(2));
+        assertThat(table.firstMatch(host("e.com"), context), is(-1));
+    }
+
+    @Test
+    public void callsEachFunctionOncePerRequest() {
+        AntlrConditionTable table = table(
+                "header('Host') == 'a.com'",
+                "path() == '/bar'",
+                "header('Host') =~ '.*\\.org' AND path() =~ '/x.*'",
+                "header('Host') == 'b.com'",
+                "path() =~ '/f.*'");
+
+        assertThat(table.firstMatch(host("b.com"), context), is(3));
+        assertThat(headerCalls.get(), is(1));
+        assertThat(pathCalls.get(), is(1));
+    }
+
+    @Test
+    public void preservesFirstMatchAcrossMixedConditions() {
+        AntlrConditionTable table = table(
+                "header('Host') == 'a.com'",
+                "path() =~ '/fo.*'",
+                "header('Host') == 'b.com'",
+                "header('Host') == 'a.com' OR header('Host') == 'b.com'");
+
+        assertThat(table.steps(), is(3));
+        assertThat(table.firstMatch(host("a.com"), context), is(0));
+        assertThat(table.firstMatch(host("b.com"), context), is(1));
+        assertThat(table.firstMatch(get("/bar").header(HOST, "b.com").build(), context), is(2));
+        assertThat(table.firstMatch(get("/bar").header(HOST, "z.com").build(), context), is(-1));
+    }
+
+    @Test
+    public void earlierDuplicateLiteralWins() {
+        AntlrConditionTable table = table(
+                "header('Host') == 'a.com'",
+                "header('Host') == 'a.com'");
+
+        assertThat(table.firstMatch(host("a.com"), context), is(0));
+    }
+
+    @Test
+    public void doesNotFoldDifferentFunctionArguments() {
+        AntlrConditionTable table = table(
+                "header('Host') == 'a.com'",
+                "header('X-Host') == 'a.com'");
+
+        assertThat(table.steps(), is(2));
+        assertThat(table.firstMatch(get("/").header("X-Host", "a.com").build(), context), is(1));
+    }
+
+    @Test
+    public void missingValueMatchesEmptyLiteralOnlyOnRightHandSide() {
+        assertThat(table("header('Host') == ''").firstMatch(get("/").build(), context), is(0));
+        assertThat(table("'' == header('Host')").firstMatch(get("/").build(), context), is(-1));
+        assertThat(table("'' == header('Host')").firstMatch(host(""), context), is(0));
+    }
+
+    @Test
+    public void evaluatesNonIndexableConditionsInOrder() {
+        AntlrConditionTable table = table(
+                "NOT header('Host') == 'a.com'",
+                "method() == 'GET' AND header('Host') == 'a.com'");
+
+        assertThat(table.steps(), is(2));
+        assertThat(table.firstMatch(host("b.com"), context), is(0));
+        assertThat(table.firstMatch(host("a.com"), context), is(1));
+    }
+
+    @Test
+    public void emptyTableMatchesNothing() {
+        assertThat(table().firstMatch(host("a.com"), context), is(-1));
+    }
+
+    @Test
+    public void rejectsInvalidConditionWhenAdded() {
+        assertThrows(DslSyntaxError.class, () -> parser.conditionTable().add("header('Host') =="));
+    }
+}
@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2019 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -19,6 +19,13 @@ import com.hotels.styx.api.LiveHttpRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static com.hotels.styx.api.LiveHttpRequest.get;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -87,4 +94,68 @@ public class CurrentRequestTrackerTest {
         tracker.endTrack(req1);
         assertThat(tracker.currentRequests().iterator().next().request(), is(req2.toString()));
     }
+
+    @Test
+    public void testMarkRequestAsSent() {
+        tracker.trackRequest(req1);
+        tracker.trackRequest(req2);
+        tracker.markRequestAsSent(req1);
+
+        assertThat(tracker.currentRequests().stream().filter(CurrentRequest::isRequestSent).count(), is(1L));
+    }
+
+    @Test
+    public void testInterceptorHopsReuseTheSlotCreatedOnEntry() {
+        tracker.trackRequest(req1, () -> "entry state");
+        tracker.trackRequest(req1.newBuilder().header("X-Hop", "1").build());
+
+        assertThat(tracker.currentRequests().size(), is(1));
+        assertThat(tracker.currentRequests().iterator().next().state(), is("entry state"));
+        assertThat(tracker.currentRequests().iterator().next().request(), is(req1.toString()));
+    }
+
+    @Test
+    public void testCurrentRequestsIsASnapshot() {
+        tracker.trackRequest(req1);
+        Collection<CurrentRequest> snapshot = tracker.currentRequests();
+
+        tracker.endTrack(req1);
+        tracker.trackRequest(req2);
+
+        assertThat(snapshot.size(), is(1));
+        assertThat(snapshot.iterator().next().request(), is(req1.toString()));
+    }
+
+    @Test
+    public void testRequestIsTrackedAgainAfterEndTrack() {
+        tracker.trackRequest(req1);
+        tracker.endTrack(req1);
+        tracker.trackRequest(req1);
+
+        assertThat(tracker.currentRequests().size(), is(1));
+    }
+
+    @Test
+    public void testTracksRequestsFromManyThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                LiveHttpRequest request = get("/request" + i).build();
+                futures.add(executor.submit(() -> {
+                    tracker.trackRequest(request, () -> "state");
+                    tracker.trackRequest(request);
+                    tracker.markRequestAsSent(request);
+                    tracker.endTrack(request);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(tracker.currentRequests().size(), is(0));
+    }
 }
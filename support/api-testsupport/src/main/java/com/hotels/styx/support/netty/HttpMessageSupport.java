@@ -1,5 +1,5 @@
 /*
-  Copyright (C) 2013-2018 Expedia Inc.
+  Copyright (C) 2013-2026 Expedia Inc.
 
   Licensed under the Apache License, Version 2.0 (the "License");
   you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
 
+import java.net.URI;
 import java.nio.charset.Charset;
 
 import static com.hotels.styx.api.HttpHeaderNames.HOST;
@@ -65,10 +66,14 @@ public class HttpMessageSupport {
 
     public static HttpRequest httpRequest(HttpMethod method, String url) {
         HttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, method, url);
-        request.headers().set(HOST, url);
+        request.headers().set(HOST, hostOf(url));
         return request;
     }
 
+    private static String hostOf(String url) {
+        return url.startsWith("/") ? "localhost" : URI.create(url).getAuthority();
+    }
+
     public static ByteBuf httpRequestAsBuf(HttpMethod method, String url, String body) {
         return httpMessageToBytes(httpRequest(method, url, body));
     }